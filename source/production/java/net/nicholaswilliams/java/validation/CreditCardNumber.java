@@ -24,11 +24,24 @@ import javax.validation.Constraint;
 import javax.validation.Payload;
 import javax.validation.ReportAsSingleViolation;
 
+import net.nicholaswilliams.java.validation.support.CreditCardNumberBigIntegerValidator;
+import net.nicholaswilliams.java.validation.support.CreditCardNumberCharArrayValidator;
+import net.nicholaswilliams.java.validation.support.CreditCardNumberLongValidator;
+import net.nicholaswilliams.java.validation.support.CreditCardNumberValidator;
+
 /**
  * Constraint annotation that ensures that the target is a valid credit card number as evaluated by the
  * <a href="http://en.wikipedia.org/wiki/Luhn_algorithm">Luhn algorithm</a>. This only checks for user mistakes in
  * entering the credit card number. It does NOT check that the credit card is actually valid.<br>
  * <br>
+ * The accepted card numbers can additionally be restricted by issuer identification number (IIN, also known as BIN)
+ * with the {@link #acceptedNetworks} and {@link #acceptedBinTable} attributes. If both are specified, the card number
+ * must satisfy both.<br>
+ * <br>
+ * The target may be any {@link CharSequence} (including a {@link java.nio.CharBuffer}), a {@code char[]}, a
+ * {@code long} or {@link Long}, or a {@link java.math.BigInteger}. Numeric targets are checked without being formatted
+ * as {@link String}s.<br>
+ * <br>
  * {@code null} values are considered valid.
  *
  * @author Nicholas Williams
@@ -39,11 +52,32 @@ import javax.validation.ReportAsSingleViolation;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = { })
+@Constraint(validatedBy = { CreditCardNumberValidator.class, CreditCardNumberCharArrayValidator.class,
+							CreditCardNumberLongValidator.class, CreditCardNumberBigIntegerValidator.class })
 @ReportAsSingleViolation
 @Modulus(type = Modulus.Modulo.MOD10, multiplier = 2)
 public @interface CreditCardNumber
 {
+	/**
+	 * The card networks whose numbers are accepted, based on the well-known IIN ranges of each network. By default
+	 * (empty) numbers from any network are accepted.
+	 *
+	 * @return the accepted card networks.
+	 */
+	Network[] acceptedNetworks() default { };
+
+	/**
+	 * The path to a local file listing the accepted IIN/BIN ranges, one per line. Each line contains either a single
+	 * prefix of 1 to 8 digits (such as {@code 411111}) or two prefixes separated by a hyphen (such as
+	 * {@code 222100-272099}), optionally followed by whitespace and a free-form description such as the issuer's name.
+	 * Blank lines and lines starting with {@code #} are ignored. The file is loaded once and shared by all constraints
+	 * naming it, and it is reloaded when it changes; replace it atomically (by renaming a complete file over it) to
+	 * update the table while running. By default (empty) no BIN table is consulted.
+	 *
+	 * @return the path to the BIN table file.
+	 */
+	String acceptedBinTable() default "";
+
 	String message() default "{net.nicholaswilliams.java.validation.CreditCardNumber.message}";
 
 	Class<?>[] groups() default { };
@@ -61,4 +95,66 @@ public @interface CreditCardNumber
 	{
 		CreditCardNumber[] value();
 	}
+
+	/**
+	 * Card networks that can be accepted with {@link #acceptedNetworks}.
+	 */
+	public enum Network
+	{
+		/**
+		 * Visa, with numbers starting with 4.
+		 *
+		 * @since 1.0.0
+		 */
+		VISA,
+
+		/**
+		 * MasterCard, with numbers starting with 51 through 55 or 2221 through 2720.
+		 *
+		 * @since 1.0.0
+		 */
+		MASTERCARD,
+
+		/**
+		 * American Express, with numbers starting with 34 or 37.
+		 *
+		 * @since 1.0.0
+		 */
+		AMERICAN_EXPRESS,
+
+		/**
+		 * Discover, with numbers starting with 6011, 622126 through 622925, 644 through 649, or 65.
+		 *
+		 * @since 1.0.0
+		 */
+		DISCOVER,
+
+		/**
+		 * Diners Club, with numbers starting with 300 through 305, 3095, 36, 38, or 39.
+		 *
+		 * @since 1.0.0
+		 */
+		DINERS_CLUB,
+
+		/**
+		 * JCB, with numbers starting with 3528 through 3589.
+		 *
+		 * @since 1.0.0
+		 */
+		JCB,
+
+		/**
+		 * China UnionPay, with numbers starting with 62 or 81.
+		 *
+		 * @since 1.0.0
+		 */
+		UNIONPAY,
+
+		/**
+		 * Maestro, with numbers starting with 5018, 5020, 5038, 5893, 6304, 6759, or 6761 through 6763.
+		 *
+		 * @since 1.0.0
+		 */
+		MAESTRO
+	}
 }
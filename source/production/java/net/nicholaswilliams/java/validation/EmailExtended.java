@@ -22,14 +22,16 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
-import javax.validation.ReportAsSingleViolation;
-import javax.validation.constraints.Pattern;
+
+import net.nicholaswilliams.java.validation.support.EmailExtendedValidator;
 
 /**
  * Constraint annotation that ensures that the {@link CharSequence} target is an email address. The checks
  * performed are a extended version of <a href="http://tools.ietf.org/html/rfc2822#section-3.4.1">RFC 2822</a>,
- * allowing the double quote syntax and square bracket syntax and non-English Unicode characters omitted by
- * {@link EmailSimple}.<br>
+ * allowing the double quote syntax and square bracket syntax omitted by {@link EmailSimple}, and requiring a domain
+ * name of at least two labels. The local part must be ASCII, but the domain may be an internationalized domain name
+ * in either its Unicode or its ASCII ({@code xn--}) form. The address is checked in time linear in its length,
+ * without regular expressions.<br>
  * <br>
  * {@code null} values are considered valid.
  *
@@ -41,11 +43,7 @@ import javax.validation.constraints.Pattern;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = {  })
-@ReportAsSingleViolation
-@Pattern(regexp = "^(?:[a-z0-9`!#$%^&*'{}?/+=|_~-]+(?:\\.[a-z0-9`!#$%^&*'{}?/+=|_~-]+)*|\"(?:[\\x01-\\x08\\x0b\\x0c\\x0e-\\x1f\\x21\\x23-\\x5b\\x5d-\\x7f]|\\\\[\\x01-\\x09\\x0b\\x0c\\x0e-\\x7f])*\")@" +
-				  "(?:(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?\\.)+[a-z0-9](?:[a-z0-9-]*[a-z0-9])?|\\[(?:(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?|[a-z0-9-]*[a-z0-9]:(?:[\\x01-\\x08\\x0b\\x0c\\x0e-\\x1f\\x21-\\x5a\\x53-\\x7f]|\\\\[\\x01-\\x09\\x0b\\x0c\\x0e-\\x7f])+)\\])$",
-		 flags = { Pattern.Flag.CASE_INSENSITIVE })
+@Constraint(validatedBy = { EmailExtendedValidator.class })
 public @interface EmailExtended
 {
 	String message() default "{net.nicholaswilliams.java.validation.EmailExtended.message}";
@@ -22,13 +22,15 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
-import javax.validation.ReportAsSingleViolation;
-import javax.validation.constraints.Pattern;
+
+import net.nicholaswilliams.java.validation.support.EmailSimpleValidator;
 
 /**
  * Constraint annotation that ensures that the {@link CharSequence} target is an email address. The checks
  * performed are a simplified version of <a href="http://tools.ietf.org/html/rfc2822#section-3.4.1">RFC 2822</a>,
- * omitting the double quote syntax and square bracket syntax and disallowing non-English Unicode characters.<br>
+ * omitting the double quote syntax and square bracket syntax. The local part must be ASCII, but the domain may be
+ * an internationalized domain name in either its Unicode or its ASCII ({@code xn--}) form. The address is checked in
+ * time linear in its length, without regular expressions.<br>
  * <br>
  * {@code null} values are considered valid.
  *
@@ -40,11 +42,7 @@ import javax.validation.constraints.Pattern;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = {  })
-@ReportAsSingleViolation
-@Pattern(regexp = "^[a-z0-9`!#$%^&*'{}?/+=|_~-]+(\\.[a-z0-9`!#$%^&*'{}?/+=|_~-]+)*@" +
-				  "([a-z0-9]([a-z0-9-]*[a-z0-9])?)+(\\.[a-z0-9]([a-z0-9-]*[a-z0-9])?)*$",
-		 flags = { Pattern.Flag.CASE_INSENSITIVE })
+@Constraint(validatedBy = { EmailSimpleValidator.class })
 public @interface EmailSimple
 {
 	String message() default "{net.nicholaswilliams.java.validation.EmailSimple.message}";
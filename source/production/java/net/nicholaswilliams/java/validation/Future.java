@@ -23,6 +23,8 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.FutureValidator;
+
 /**
  * Constraint annotation that ensures that the target is in the future.<br>
  * <br>
@@ -73,6 +75,8 @@ import javax.validation.Payload;
  * is after the current year. This is useful, for example, for checking whether a credit card expiration date indicates
  * that it is still valid.<br>
  * <br>
+ * Values of any other type cause an {@link javax.validation.UnexpectedTypeException} when validated.<br>
+ * <br>
  * {@code null} values are considered valid.
  *
  * @author Nicholas Williams
@@ -84,7 +88,7 @@ import javax.validation.Payload;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = { }) //TODO: Implement validators
+@Constraint(validatedBy = { FutureValidator.class })
 public @interface Future
 {
 	String message() default "{net.nicholaswilliams.java.validation.Future.message}";
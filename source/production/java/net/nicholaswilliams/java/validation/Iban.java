@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+import net.nicholaswilliams.java.validation.support.IbanValidator;
+
+/**
+ * Constraint annotation that ensures that the target {@link CharSequence} is a valid
+ * <a href="http://en.wikipedia.org/wiki/International_Bank_Account_Number">International Bank Account Number</a>.
+ * The country code must be known, the length and the structure of the basic bank account number (BBAN) must match the
+ * IBAN registry entry for the country, and the check digits must pass the ISO 7064 MOD 97-10 check. Letters must be
+ * uppercase; spaces, as used in the paper format, are ignored. This only checks for user mistakes in entering the
+ * IBAN. It does NOT check that the account actually exists.<br>
+ * <br>
+ * {@code null} values are considered valid.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+		  ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Constraint(validatedBy = { IbanValidator.class })
+public @interface Iban
+{
+	/**
+	 * The two-letter ISO 3166-1 country codes of the IBANs that are accepted. By default (empty) IBANs from every
+	 * country in the IBAN registry are accepted.
+	 *
+	 * @return the accepted country codes.
+	 */
+	String[] allowedCountries() default { };
+
+	String message() default "{net.nicholaswilliams.java.validation.Iban.message}";
+
+	Class<?>[] groups() default { };
+
+	Class<? extends Payload>[] payload() default { };
+
+	/**
+	 * Used for specifying multiple constraints of the same type.
+	 */
+	@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+			  ElementType.PARAMETER })
+	@Retention(RetentionPolicy.RUNTIME)
+	@Documented
+	static @interface List
+	{
+		Iban[] value();
+	}
+}
@@ -23,11 +23,21 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.ModulusBigIntegerValidator;
+import net.nicholaswilliams.java.validation.support.ModulusCharArrayValidator;
+import net.nicholaswilliams.java.validation.support.ModulusLongValidator;
+import net.nicholaswilliams.java.validation.support.ModulusValidator;
+
 /**
- * Constraint annotation that ensures that the target {@link CharSequence} passes either the Modulo 10 or Modulo 11
- * check algorithms. For more information, see the
+ * Constraint annotation that ensures that the target {@link CharSequence} passes one of the check digit algorithms
+ * listed in {@link Modulo}. For more information, see the
  * <a href="http://en.wikipedia.org/wiki/Check_digit">Wikipedia article on check digits.</a><br>
  * <br>
+ * Besides {@link CharSequence}s (including {@link java.nio.CharBuffer}s, which are checked from their position to
+ * their limit), the target may be a {@code char[]}, a {@code long} or {@link Long}, or a
+ * {@link java.math.BigInteger}. The digits of numeric targets are computed arithmetically, so indexes refer to their
+ * decimal representation without leading zeros, and negative numbers are invalid.<br>
+ * <br>
  * {@code null} values are considered valid.
  *
  * @author Nicholas Williams
@@ -38,7 +48,8 @@ import javax.validation.Payload;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = {  }) //TODO: implement validator
+@Constraint(validatedBy = { ModulusValidator.class, ModulusCharArrayValidator.class, ModulusLongValidator.class,
+							ModulusBigIntegerValidator.class })
 public @interface Modulus
 {
 	/**
@@ -49,7 +60,11 @@ public @interface Modulus
 	Modulo type();
 
 	/**
-	 * The multiplier that the modulo check algorithm should use.
+	 * The multiplier that the modulo check algorithm should use. For {@link Modulo#MOD10}, every other digit, starting
+	 * with the digit next to the check digit, is multiplied by this value and the digits of the product are summed; a
+	 * multiplier of 2 yields the Luhn algorithm. For {@link Modulo#MOD11}, the digits are weighted from right to left
+	 * by 2, 3, and so on up to and including this value, after which the weights start again at 2. The other
+	 * algorithms have fixed weights and ignore this value.
 	 *
 	 * @return the multiplier.
 	 */
@@ -74,7 +89,8 @@ public @interface Modulus
 	/**
 	 * By default the check digit is assumed to lie at a standard location within the string to be evaluated. If the
 	 * check digit lies outside the string, use this attribute to specify the check digit's location in the string.
-	 * If set, the check digit index must be less than {@link #startIndex} and greater than {@link #endIndex}.
+	 * If set, the check digit index must be less than {@link #startIndex} or greater than or equal to
+	 * {@link #endIndex}.
 	 *
 	 * @return the check digit index, if non-standard. A value less than zero means the check digit lies at a
 	 *         standard location.
@@ -83,7 +99,8 @@ public @interface Modulus
 
 	/**
 	 * Indicates whether non-numeric characters should result in a validation error. By default, non-numeric characters
-	 * are ignored.
+	 * are ignored. For the alphanumeric ISO 7064 algorithms, letters (and the supplementary check characters {@code X}
+	 * and {@code *}) are significant, and only other characters are considered non-numeric.
 	 *
 	 * @return {@code true} if non-numeric characters should be ignored, {@code false} if they should result in an
 	 *         exception.
@@ -122,10 +139,54 @@ public @interface Modulus
 		MOD10,
 
 		/**
-		 * Represents the Module 11 check algorithm.
+		 * Represents the Modulo 11 check algorithm. The check value is 11 minus the weighted sum modulo 11, where a
+		 * check value of 11 is written as the digit {@code 0} and a check value of 10 as {@code X} (in either case),
+		 * as in ISBN-10. Schemes that never issue a check value of 10, such as NHS numbers, should also restrict the
+		 * value to digits.
+		 *
+		 * @since 1.0.0
+		 */
+		MOD11,
+
+		/**
+		 * Represents the <a href="http://en.wikipedia.org/wiki/Verhoeff_algorithm">Verhoeff algorithm</a>, which
+		 * detects all single-digit errors and all transpositions of adjacent digits.
+		 *
+		 * @since 1.0.0
+		 */
+		VERHOEFF,
+
+		/**
+		 * Represents the <a href="http://en.wikipedia.org/wiki/Damm_algorithm">Damm algorithm</a>, which detects all
+		 * single-digit errors and all transpositions of adjacent digits.
+		 *
+		 * @since 1.0.0
+		 */
+		DAMM,
+
+		/**
+		 * Represents the ISO/IEC 7064 MOD 11-2 algorithm (used by ISNI and ORCID, for example). The check character is
+		 * a digit or {@code X}.
+		 *
+		 * @since 1.0.0
+		 */
+		ISO7064_MOD11_2,
+
+		/**
+		 * Represents the ISO/IEC 7064 MOD 37-2 algorithm for alphanumeric values. Letters are case-insensitive and take
+		 * the values 10 through 35. The check character is a digit, a letter, or {@code *}.
+		 *
+		 * @since 1.0.0
+		 */
+		ISO7064_MOD37_2,
+
+		/**
+		 * Represents the ISO/IEC 7064 MOD 97-10 algorithm (used by IBANs, for example), with two check digits. Letters
+		 * are case-insensitive and are transliterated to the two-digit numbers 10 through 35. If
+		 * {@link Modulus#checkDigitIndex} is set, the two check digits start at that index.
 		 *
 		 * @since 1.0.0
 		 */
-		MOD11
+		ISO7064_MOD97_10
 	}
 }
@@ -23,11 +23,17 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.NotBlankReaderValidator;
 import net.nicholaswilliams.java.validation.support.NotBlankValidator;
 
 /**
  * Constraint annotation that ensures that the {@link CharSequence} target trimmed length greater than zero.<br>
  * <br>
+ * {@link java.io.Reader} targets are also supported. They are read in fixed-size chunks only until the first non-blank
+ * character is found. Readers that support marks are then reset, as long as no more than
+ * {@link net.nicholaswilliams.java.validation.support.ReaderUtils#READ_AHEAD_LIMIT} characters were read; other readers
+ * are consumed (but not closed) by validation and must not be validated again.<br>
+ * <br>
  * {@code null} values are considered valid.
  *
  * @author Nicholas Williams
@@ -38,7 +44,7 @@ import net.nicholaswilliams.java.validation.support.NotBlankValidator;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = { NotBlankValidator.class })
+@Constraint(validatedBy = { NotBlankValidator.class, NotBlankReaderValidator.class })
 public @interface NotBlank
 {
 	String message() default "{net.nicholaswilliams.java.validation.NotBlank.message}";
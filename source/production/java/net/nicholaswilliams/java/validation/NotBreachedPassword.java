@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+import net.nicholaswilliams.java.validation.support.NotBreachedPasswordValidator;
+
+/**
+ * Constraint annotation that ensures that a password does not appear in a local list of breached passwords. The list
+ * is a file of sorted SHA-1 hashes in the format described in
+ * {@link net.nicholaswilliams.java.validation.support.BreachedPasswordFile}, which also provides the tool for building
+ * it from the publicly available text dumps. No network calls are made: the file is memory-mapped and searched in
+ * logarithmic time, so even a dataset of billions of hashes uses no heap.<br>
+ * <br>
+ * {@code null} values are considered valid.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+		  ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Constraint(validatedBy = { NotBreachedPasswordValidator.class })
+public @interface NotBreachedPassword
+{
+	/**
+	 * The path to the local file of breached password hashes. The file is mapped once and shared by all constraints
+	 * naming it.
+	 *
+	 * @return the path to the hash file.
+	 */
+	String hashFile();
+
+	String message() default "{net.nicholaswilliams.java.validation.NotBreachedPassword.message}";
+
+	Class<?>[] groups() default { };
+
+	Class<? extends Payload>[] payload() default { };
+
+	/**
+	 * Used for specifying multiple constraints of the same type.
+	 */
+	@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+			  ElementType.PARAMETER })
+	@Retention(RetentionPolicy.RUNTIME)
+	@Documented
+	static @interface List
+	{
+		NotBreachedPassword[] value();
+	}
+}
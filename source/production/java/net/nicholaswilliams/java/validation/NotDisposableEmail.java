@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+import net.nicholaswilliams.java.validation.support.NotDisposableEmailValidator;
+
+/**
+ * Constraint annotation that ensures that the domain of the {@link CharSequence} email address target is not a
+ * disposable email provider listed in a local file. A listed domain also denies all of its subdomains, so listing
+ * {@code mailinator.com} denies {@code eu.mailinator.com}. The domain is the part after the last {@code @}, or the
+ * whole value if there is none; this constraint does not check the address's format, so combine it with
+ * {@link EmailSimple @EmailSimple} or {@link EmailExtended @EmailExtended}. An internationalized domain is looked up
+ * in its ASCII ({@code xn--}) form, and one that is not a valid internationalized domain name, such as one with a
+ * malformed {@code xn--} label, is rejected because it cannot be looked up.<br>
+ * <br>
+ * The file is either a text list, one domain per line, or an index built from such a list with the tool in
+ * {@link net.nicholaswilliams.java.validation.support.DisposableDomainIndex}, which is memory-mapped rather than read
+ * into the heap. Lookups hash the domain in place, without creating substrings. The file is loaded once and shared by
+ * all constraints naming it, and it is reloaded when it changes; replace it atomically (by renaming a complete file
+ * over it) to update the list while running.<br>
+ * <br>
+ * {@code null} values are considered valid.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+		  ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Constraint(validatedBy = { NotDisposableEmailValidator.class })
+public @interface NotDisposableEmail
+{
+	/**
+	 * The path to the local list or index of disposable email domains.
+	 *
+	 * @return the path to the domain file.
+	 */
+	String domainFile();
+
+	String message() default "{net.nicholaswilliams.java.validation.NotDisposableEmail.message}";
+
+	Class<?>[] groups() default { };
+
+	Class<? extends Payload>[] payload() default { };
+
+	/**
+	 * Used for specifying multiple constraints of the same type.
+	 */
+	@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+			  ElementType.PARAMETER })
+	@Retention(RetentionPolicy.RUNTIME)
+	@Documented
+	static @interface List
+	{
+		NotDisposableEmail[] value();
+	}
+}
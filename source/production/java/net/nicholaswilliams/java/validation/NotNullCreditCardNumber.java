@@ -21,6 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import javax.validation.Constraint;
+import javax.validation.OverridesAttribute;
 import javax.validation.Payload;
 import javax.validation.ReportAsSingleViolation;
 import javax.validation.constraints.NotNull;
@@ -44,6 +45,24 @@ import javax.validation.constraints.NotNull;
 @CreditCardNumber
 public @interface NotNullCreditCardNumber
 {
+	/**
+	 * The card networks whose numbers are accepted.
+	 *
+	 * @return the accepted card networks.
+	 * @see CreditCardNumber#acceptedNetworks
+	 */
+	@OverridesAttribute(constraint = CreditCardNumber.class, name = "acceptedNetworks")
+	CreditCardNumber.Network[] acceptedNetworks() default { };
+
+	/**
+	 * The path to a local file listing the accepted IIN/BIN ranges.
+	 *
+	 * @return the path to the BIN table file.
+	 * @see CreditCardNumber#acceptedBinTable
+	 */
+	@OverridesAttribute(constraint = CreditCardNumber.class, name = "acceptedBinTable")
+	String acceptedBinTable() default "";
+
 	String message() default "{net.nicholaswilliams.java.validation.NotNullCreditCardNumber.message}";
 
 	Class<?>[] groups() default { };
@@ -125,6 +125,24 @@ public @interface NotNullPasswordContent
 	@OverridesAttribute(constraint = PasswordContent.class, name = "allowedWhitespace")
 	char[] allowedWhitespace() default { };
 
+	/**
+	 * The path to a word automaton file of common passwords to reject.
+	 *
+	 * @return the path to the common password dictionary.
+	 * @see PasswordContent#commonPasswordDictionary
+	 */
+	@OverridesAttribute(constraint = PasswordContent.class, name = "commonPasswordDictionary")
+	String commonPasswordDictionary() default "";
+
+	/**
+	 * The minimum length of embedded common password dictionary entries that cause rejection.
+	 *
+	 * @return the minimum length of embedded dictionary entries that cause rejection.
+	 * @see PasswordContent#minEmbeddedWordLength
+	 */
+	@OverridesAttribute(constraint = PasswordContent.class, name = "minEmbeddedWordLength")
+	int minEmbeddedWordLength() default 0;
+
 	String message() default "{net.nicholaswilliams.java.validation.NotNullPasswordContent.message}";
 
 	Class<?>[] groups() default { };
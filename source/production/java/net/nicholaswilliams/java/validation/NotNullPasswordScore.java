@@ -53,6 +53,15 @@ public @interface NotNullPasswordScore
 	@OverridesAttribute(constraint = PasswordScore.class, name = "value")
 	int value();
 
+	/**
+	 * The path to a word automaton file of common passwords, which score 0.
+	 *
+	 * @return the path to the common password dictionary.
+	 * @see PasswordScore#commonPasswordDictionary
+	 */
+	@OverridesAttribute(constraint = PasswordScore.class, name = "commonPasswordDictionary")
+	String commonPasswordDictionary() default "";
+
 	String message() default "{net.nicholaswilliams.java.validation.NotNullPasswordScore.message}";
 
 	Class<?>[] groups() default { };
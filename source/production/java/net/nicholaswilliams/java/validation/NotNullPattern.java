@@ -21,14 +21,26 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import javax.validation.Constraint;
-import javax.validation.OverridesAttribute;
 import javax.validation.Payload;
-import javax.validation.ReportAsSingleViolation;
-import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 
+import net.nicholaswilliams.java.validation.support.NotNullPatternReaderValidator;
+import net.nicholaswilliams.java.validation.support.NotNullPatternValidator;
+
 /**
- * Composite constraint annotation that enforces {@link NotNull @NotNull} and {@link Pattern @Pattern}.
+ * Constraint annotation that enforces {@link javax.validation.constraints.NotNull @NotNull} and
+ * {@link Pattern @Pattern} on a {@link CharSequence} target in one step. Unlike a composition of those constraints,
+ * every constraint declaring the same expression and flags shares one compiled {@link java.util.regex.Pattern}, and
+ * matching reuses a per-thread {@link java.util.regex.Matcher}.<br>
+ * <br>
+ * {@link java.util.regex.Pattern} backtracks, so some expressions take time exponential in the length of the value.
+ * For values from untrusted sources, select {@link Engine#LINEAR} to match in time bounded by the length of the value
+ * times the size of the expression.<br>
+ * <br>
+ * {@link java.io.Reader} targets are also supported with {@link Engine#LINEAR}, which matches their content as it is
+ * read through a fixed-size buffer. Readers that support marks are then reset, as long as no more than
+ * {@link net.nicholaswilliams.java.validation.support.ReaderUtils#READ_AHEAD_LIMIT} characters were read; other readers
+ * are consumed (but not closed) by validation and must not be validated again.
  *
  * @author Nicholas Williams
  * @since 1.0.0
@@ -40,10 +52,7 @@ import javax.validation.constraints.Pattern;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = { })
-@ReportAsSingleViolation
-@NotNull
-@Pattern(regexp = "\n\t\t\n\t\t\n\ue000\ue001\ue002\n\t\t\t\t\n", flags = { })
+@Constraint(validatedBy = { NotNullPatternValidator.class, NotNullPatternReaderValidator.class })
 public @interface NotNullPattern
 {
 	/**
@@ -52,7 +61,6 @@ public @interface NotNullPattern
 	 * @return the regular expression.
 	 * @see java.util.regex.Pattern
 	 */
-	@OverridesAttribute(constraint = Pattern.class, name = "regexp")
 	String regexp();
 
 	/**
@@ -60,9 +68,16 @@ public @interface NotNullPattern
 	 *
 	 * @return the regular expression flags.
 	 */
-	@OverridesAttribute(constraint = Pattern.class, name = "flags")
 	Pattern.Flag[] flags() default { };
 
+	/**
+	 * The engine that matches the expression. Expressions or flags the {@link Engine#LINEAR} engine does not support
+	 * are rejected when the constraint is initialized.
+	 *
+	 * @return the regular expression engine.
+	 */
+	Engine engine() default Engine.BACKTRACKING;
+
 	String message() default "{net.nicholaswilliams.java.validation.NotNullPattern.message}";
 
 	Class<?>[] groups() default { };
@@ -80,4 +95,29 @@ public @interface NotNullPattern
 	{
 		NotNullPattern[] value();
 	}
+
+	/**
+	 * Regular expression engines that can be selected with {@link #engine}.
+	 */
+	public enum Engine
+	{
+		/**
+		 * {@link java.util.regex.Pattern}, which supports the entire syntax but whose matching time is unbounded for
+		 * expressions that require backtracking.
+		 *
+		 * @since 1.0.0
+		 */
+		BACKTRACKING,
+
+		/**
+		 * An automaton engine that matches in time proportional to the length of the value times the size of the
+		 * expression. It supports the {@link java.util.regex.Pattern} syntax except back references, lookaround,
+		 * atomic groups, possessive quantifiers, embedded flags, the {@code \b}, {@code \B}, {@code \G},
+		 * {@code \R} and {@code \X} escapes, and the {@link Pattern.Flag#COMMENTS} and
+		 * {@link Pattern.Flag#CANON_EQ} flags; expressions may compile to at most 10,000 automaton instructions.
+		 *
+		 * @since 1.0.0
+		 */
+		LINEAR
+	}
 }
@@ -21,46 +21,66 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import javax.validation.Constraint;
-import javax.validation.OverridesAttribute;
 import javax.validation.Payload;
-import javax.validation.ReportAsSingleViolation;
-import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Size;
+
+import net.nicholaswilliams.java.validation.support.NotNullSizeBooleanArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeByteArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeCharArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeCollectionValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeDoubleArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeFloatArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeIntArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeLongArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeMapValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeObjectArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeReaderValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeShortArrayValidator;
+import net.nicholaswilliams.java.validation.support.NotNullSizeValidator;
 
 /**
- * Composite constraint annotation that enforces {@link NotNull @NotNull} and {@link Size @Size}.
+ * Constraint annotation that enforces {@link javax.validation.constraints.NotNull @NotNull} and
+ * {@link javax.validation.constraints.Size @Size} on a {@link CharSequence}, {@link java.util.Collection},
+ * {@link java.util.Map} or array target in one step.<br>
+ * <br>
+ * {@link java.io.Reader} targets are also supported; their size is their number of characters. They are read in
+ * fixed-size chunks only until the maximum size is exceeded. Readers that support marks are then reset, as long as no
+ * more than {@link net.nicholaswilliams.java.validation.support.ReaderUtils#READ_AHEAD_LIMIT} characters were read;
+ * other readers are consumed (but not closed) by validation and must not be validated again. There is a validator for
+ * each supported type, so the validation provider reports a target of any other type when the constraint is
+ * declared.
  *
  * @author Nicholas Williams
  * @since 1.0.0
- * @see Size
+ * @see javax.validation.constraints.Size
  */
 @SuppressWarnings("unused")
 @Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = { })
-@ReportAsSingleViolation
-@NotNull
-@Size
+@Constraint(validatedBy = { NotNullSizeValidator.class, NotNullSizeCollectionValidator.class,
+							NotNullSizeMapValidator.class, NotNullSizeObjectArrayValidator.class,
+							NotNullSizeBooleanArrayValidator.class, NotNullSizeByteArrayValidator.class,
+							NotNullSizeCharArrayValidator.class, NotNullSizeShortArrayValidator.class,
+							NotNullSizeIntArrayValidator.class, NotNullSizeLongArrayValidator.class,
+							NotNullSizeFloatArrayValidator.class, NotNullSizeDoubleArrayValidator.class,
+							NotNullSizeReaderValidator.class })
 public @interface NotNullSize
 {
 	/**
 	 * The minimum size (inclusive) of the {@link CharSequence}, {@link java.util.Collection},
-	 * {@link java.util.Map}, or array.
+	 * {@link java.util.Map}, array or {@link java.io.Reader}.
 	 *
 	 * @return the minimum size.
 	 */
-	@OverridesAttribute(constraint = Size.class, name = "min")
 	int min() default 0;
 
 	/**
 	 * The maximum size (inclusive) of the {@link CharSequence}, {@link java.util.Collection},
-	 * {@link java.util.Map}, or array.
+	 * {@link java.util.Map}, array or {@link java.io.Reader}.
 	 *
 	 * @return the maximum size.
 	 */
-	@OverridesAttribute(constraint = Size.class, name = "max")
 	int max() default Integer.MAX_VALUE;
 
 	String message() default "{net.nicholaswilliams.java.validation.NotNullSize.message}";
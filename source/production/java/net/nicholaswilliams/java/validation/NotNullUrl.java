@@ -62,6 +62,15 @@ public @interface NotNullUrl
 	@OverridesAttribute(constraint = Url.class, name = "host")
 	String[] host() default { };
 
+	/**
+	 * The path to a local file of additional allowed host name patterns. By default only {@link #host} is used.
+	 *
+	 * @return the path to the host name pattern file.
+	 * @see Url#hostFile
+	 */
+	@OverridesAttribute(constraint = Url.class, name = "hostFile")
+	String hostFile() default "";
+
 	/**
 	 * Indicates which ports the URL is allowed to have. By default, all ports are allowed.
 	 *
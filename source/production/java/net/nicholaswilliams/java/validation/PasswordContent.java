@@ -23,6 +23,8 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.PasswordContentValidator;
+
 /**
  * Constraint annotation that ensures that a password has a particular strength as set forth in the specific
  * requirements outlined by the {@link #minLength}, {@link #minUppercase}, {@link #minLowercase}, {@link #minNumber},
@@ -43,7 +45,7 @@ import javax.validation.Payload;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = {  }) //TODO: implement validator
+@Constraint(validatedBy = { PasswordContentValidator.class })
 public @interface PasswordContent
 {
 	/**
@@ -76,7 +78,7 @@ public @interface PasswordContent
 
 	/**
 	 * Indicates the minimum number of special characters that must be present in the target. A character is considered
-	 * whitespace if it does not match {@link Character#isLetter(char)} or {@link Character#isDigit(char)} and is not
+	 * special if it does not match {@link Character#isLetter(char)} or {@link Character#isDigit(char)} and is not
 	 * considered whitespace as per {@link #minWhitespace}.
 	 *
 	 * @return the minimum number of special characters.
@@ -86,7 +88,7 @@ public @interface PasswordContent
 
 	/**
 	 * Indicates the maximum number of special characters that may be present in the target. A character is considered
-	 * whitespace if it does not match {@link Character#isLetter(char)} or {@link Character#isDigit(char)} and is not
+	 * special if it does not match {@link Character#isLetter(char)} or {@link Character#isDigit(char)} and is not
 	 * considered whitespace as per {@link #minWhitespace}.
 	 *
 	 * @return the maximum number of special characters.
@@ -127,6 +129,26 @@ public @interface PasswordContent
 	 */
 	char[] allowedWhitespace() default { };
 
+	/**
+	 * The path to a word automaton file of common passwords, as built by
+	 * {@link net.nicholaswilliams.java.validation.support.Dawg}. If specified, passwords found in it (ignoring case)
+	 * are rejected. The file is memory-mapped once and shared by all constraints naming it. By default (empty) no
+	 * dictionary is consulted.
+	 *
+	 * @return the path to the common password dictionary.
+	 * @see #minEmbeddedWordLength
+	 */
+	String commonPasswordDictionary() default "";
+
+	/**
+	 * If greater than zero, passwords that contain any entry of the {@link #commonPasswordDictionary} at least this
+	 * long (ignoring case) are also rejected, catching passwords such as {@code xpassword9}. Defaults to 0 (disabled).
+	 *
+	 * @return the minimum length of embedded dictionary entries that cause rejection.
+	 * @see #commonPasswordDictionary
+	 */
+	int minEmbeddedWordLength() default 0;
+
 	String message() default "{net.nicholaswilliams.java.validation.PasswordContent.message}";
 
 	Class<?>[] groups() default { };
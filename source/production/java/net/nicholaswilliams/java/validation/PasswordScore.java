@@ -23,8 +23,14 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.PasswordScoreValidator;
+
 /**
- * Constraint annotation that ensures that a password meets a particular score as defined by the __ algorithm.<br>
+ * Constraint annotation that ensures that a password meets a particular score as estimated by
+ * {@link net.nicholaswilliams.java.validation.support.PasswordStrengthEstimator}, an implementation of the pattern
+ * matching approach of Dropbox's <a href="https://github.com/dropbox/zxcvbn">zxcvbn</a>. Passwords are penalized for
+ * containing common passwords, dictionary words, and names (including reversed, capitalized, and l33t-speak variants),
+ * keyboard patterns, repeats, character sequences, years, and dates.<br>
  * <br>
  * {@code null} values are considered valid.
  *
@@ -36,16 +42,28 @@ import javax.validation.Payload;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = {  }) //TODO: implement validator
+@Constraint(validatedBy = { PasswordScoreValidator.class })
 public @interface PasswordScore
 {
 	/**
-	 * The minimum required password score, as defined by the __ algorithm.
+	 * The minimum required password score, from 0 to 4. The scores correspond to estimates of fewer than
+	 * 10<sup>3</sup> guesses (0: too guessable), 10<sup>6</sup> guesses (1: very guessable), 10<sup>8</sup> guesses
+	 * (2: somewhat guessable), 10<sup>10</sup> guesses (3: safely unguessable), and more (4: very unguessable).
 	 *
 	 * @return the minimum score required.
 	 */
 	int value();
 
+	/**
+	 * The path to a word automaton file of common passwords, as built by
+	 * {@link net.nicholaswilliams.java.validation.support.Dawg}. If specified, passwords found in it (ignoring case)
+	 * score 0 regardless of their estimated strength. The file is memory-mapped once and shared by all constraints
+	 * naming it. By default (empty) only the built-in dictionary is used.
+	 *
+	 * @return the path to the common password dictionary.
+	 */
+	String commonPasswordDictionary() default "";
+
 	String message() default "{net.nicholaswilliams.java.validation.PasswordScore.message}";
 
 	Class<?>[] groups() default { };
@@ -23,6 +23,8 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.PastValidator;
+
 /**
  * Constraint annotation that ensures that the target is in the past.<br>
  * <br>
@@ -72,6 +74,8 @@ import javax.validation.Payload;
  * 8), this ensures that the either the year is the same and the month is before the current month, or that the year
  * is before the current year.<br>
  * <br>
+ * Values of any other type cause an {@link javax.validation.UnexpectedTypeException} when validated.<br>
+ * <br>
  * {@code null} values are considered valid.
  *
  * @author Nicholas Williams
@@ -83,7 +87,7 @@ import javax.validation.Payload;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = { }) //TODO: Implement validators
+@Constraint(validatedBy = { PastValidator.class })
 public @interface Past
 {
 	String message() default "{net.nicholaswilliams.java.validation.Past.message}";
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+import net.nicholaswilliams.java.validation.support.RegistrableDomainValidator;
+
+/**
+ * Constraint annotation that ensures that the domain name in the {@link CharSequence} target is a registrable domain
+ * (or, optionally, a subdomain of one) and not a bare public suffix such as {@code com} or {@code co.uk}. Public
+ * suffixes are determined by a local copy of the <a href="https://publicsuffix.org/">Public Suffix List</a>, as
+ * described in {@link net.nicholaswilliams.java.validation.support.PublicSuffixList}.<br>
+ * <br>
+ * The target may be a domain name, an email address (whose domain is checked), or a URL with an authority (whose host
+ * is checked). Domain names must consist of letters, digits, and hyphens in labels of 1 to 63 characters, and IP
+ * addresses are never registrable domains.<br>
+ * <br>
+ * {@code null} values are considered valid.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+		  ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Constraint(validatedBy = { RegistrableDomainValidator.class })
+public @interface RegistrableDomain
+{
+	/**
+	 * The path to the local copy of the Public Suffix List ({@code public_suffix_list.dat}). The list is loaded once
+	 * and shared by all constraints naming it.
+	 *
+	 * @return the path to the public suffix list.
+	 */
+	String publicSuffixFile();
+
+	/**
+	 * Indicates whether subdomains of a registrable domain (such as {@code www.example.co.uk}) are allowed. If
+	 * {@code false}, the domain must be exactly the registrable domain (such as {@code example.co.uk}).
+	 *
+	 * @return whether subdomains are allowed.
+	 */
+	boolean allowSubdomains() default true;
+
+	String message() default "{net.nicholaswilliams.java.validation.RegistrableDomain.message}";
+
+	Class<?>[] groups() default { };
+
+	Class<? extends Payload>[] payload() default { };
+
+	/**
+	 * Used for specifying multiple constraints of the same type.
+	 */
+	@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE, ElementType.CONSTRUCTOR,
+			  ElementType.PARAMETER })
+	@Retention(RetentionPolicy.RUNTIME)
+	@Documented
+	static @interface List
+	{
+		RegistrableDomain[] value();
+	}
+}
@@ -23,10 +23,17 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.UriJavaNetUriValidator;
+import net.nicholaswilliams.java.validation.support.UriValidator;
+
 /**
  * Constraint annotation that ensures that the {@link CharSequence} target is a valid URI, and optionally that the
  * {@code CharSequence} or {@link java.net.URI} target has a restricted set of components.<br>
  * <br>
+ * The target must be a URI reference as defined by RFC 3986: an absolute URI or a relative reference, with only
+ * ASCII characters and with other characters percent-encoded. The one exception is the host, which may be an
+ * internationalized domain name in either its Unicode or its ASCII ({@code xn--}) form.<br>
+ * <br>
  * {@code null} values are considered valid.
  *
  * @author Nicholas Williams
@@ -37,12 +44,13 @@ import javax.validation.Payload;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = {  }) //TODO: implement validator
+@Constraint(validatedBy = { UriValidator.class, UriJavaNetUriValidator.class })
 public @interface Uri
 {
 	/**
 	 * Indicates which schemes the URI is allowed to have. By default, all schemes are allowed and the URI is
-	 * allowed to have no scheme. A {@code null} value indicates that the URI may not have a scheme.
+	 * allowed to have no scheme. Schemes are compared case-insensitively. An empty string in the list indicates that
+	 * the URI may also have no scheme.
 	 *
 	 * @return the allowed schemes.
 	 */
@@ -50,15 +58,16 @@ public @interface Uri
 
 	/**
 	 * Indicates which scheme-specific parts the URI is allowed to have. By default, all SSPs are allowed and the URI
-	 * is allowed to have no SSP. A {@code null} value indicates that the URI may not have a scheme or SSP.
+	 * is allowed to have no SSP. The SSP is everything after the scheme and its colon (or the entire URI if it has no
+	 * scheme) up to but excluding the fragment, and is compared exactly.
 	 *
-	 * @return the allowed host names.
+	 * @return the allowed scheme-specific parts.
 	 */
 	String[] ssp() default { };
 
 	/**
 	 * Indicates which ports the URI is allowed to have. By default, all ports are allowed and the URI is allowed to
-	 * have no port. A {@code null} value indicates that the URI may not have a part.
+	 * have no port. A value of {@code -1} in the list indicates that the URI may also have no port.
 	 *
 	 * @return the allowed ports.
 	 */
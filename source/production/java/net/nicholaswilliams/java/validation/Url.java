@@ -23,10 +23,19 @@ import java.lang.annotation.Target;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 
+import net.nicholaswilliams.java.validation.support.UrlJavaNetUrlValidator;
+import net.nicholaswilliams.java.validation.support.UrlValidator;
+
 /**
  * Constraint annotation that ensures that the {@link CharSequence} target is a valid URL, and optionally that the
  * {@code CharSequence} or {@link java.net.URL} target has a restricted set of protocols, host names, or ports.<br>
  * <br>
+ * A valid URL is an RFC 3986 URI with a protocol (scheme) followed by an authority ({@code //}), such as
+ * {@code https://example.com/path}. The authority must name a host, except in {@code file} URLs, where an empty host
+ * ({@code file:///etc/hosts}) means the local host. The host may be an internationalized domain name in either its
+ * Unicode or its ASCII ({@code xn--}) form, and is compared with {@link #host} in its ASCII form. URLs are only
+ * parsed; host names are never resolved.<br>
+ * <br>
  * {@code null} values are considered valid.
  *
  * @author Nicholas Williams
@@ -37,25 +46,41 @@ import javax.validation.Payload;
 		  ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Constraint(validatedBy = {  }) //TODO: implement validator
+@Constraint(validatedBy = { UrlValidator.class, UrlJavaNetUrlValidator.class })
 public @interface Url
 {
 	/**
-	 * Indicates which protocols the URL is allowed to have. By default, all protocols are allowed.
+	 * Indicates which protocols the URL is allowed to have. By default, all protocols are allowed. Protocols are
+	 * compared case-insensitively.
 	 *
 	 * @return the allowed protocols.
 	 */
 	String[] protocols() default { };
 
 	/**
-	 * Indicates which host names the URL is allowed to have. By default, all host names are allowed.
+	 * Indicates which host names the URL is allowed to have. By default, all host names are allowed. Host names
+	 * are compared case-insensitively, and IPv6 addresses are given in brackets as they appear in the URL. A pattern
+	 * starting with {@code *.} (such as {@code *.example.com}) allows any subdomain of the rest of the pattern, and a
+	 * pattern starting with {@code .} (such as {@code .example.com}) allows the rest of the pattern and any subdomain
+	 * of it.
 	 *
 	 * @return the allowed host names.
 	 */
 	String[] host() default { };
 
 	/**
-	 * Indicates which ports the URL is allowed to have. By default, all ports are allowed.
+	 * The path to a local file of additional allowed host name patterns, one per line, in the same form as
+	 * {@link #host}. Blank lines and lines starting with {@code #} are ignored. The file is loaded once and shared by
+	 * all constraints naming it, and is reloaded when it changes; replace it atomically (by renaming a complete file
+	 * over it) to update the allowed hosts while running. By default (empty) only {@link #host} is used.
+	 *
+	 * @return the path to the host name pattern file.
+	 */
+	String hostFile() default "";
+
+	/**
+	 * Indicates which ports the URL is allowed to have. By default, all ports are allowed. A URL without an
+	 * explicit port uses its protocol's default port and is not restricted by this.
 	 *
 	 * @return the allowed ports.
 	 */
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import javax.validation.ConstraintDeclarationException;
+
+/**
+ * A local BIN table loaded into a {@link BinRanges} index, shared by all validators that name the same file, and
+ * reloaded when it changes (see {@link ReloadingFile}).
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class BinRangeFile extends ReloadingFile<BinRanges>
+{
+	private static final SharedFiles<BinRangeFile> FILES = new SharedFiles<BinRangeFile>("BIN table")
+	{
+		@Override
+		protected BinRangeFile load(File file) throws IOException
+		{
+			return new BinRangeFile(file);
+		}
+	};
+
+	private BinRangeFile(File file) throws IOException
+	{
+		super(file);
+	}
+
+	/**
+	 * Returns the BIN table at the specified path, loading it the first time it is requested. Every caller naming the
+	 * same path shares one instance.
+	 *
+	 * @param path The path to the BIN table
+	 * @return the BIN table file.
+	 * @throws ConstraintDeclarationException if the file cannot be read or contains a malformed range.
+	 */
+	static BinRangeFile get(String path)
+	{
+		return FILES.get(path);
+	}
+
+	@Override
+	protected BinRanges load(File file) throws IOException
+	{
+		Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		try
+		{
+			return BinRanges.read(reader, file.toString());
+		}
+		catch(ConstraintDeclarationException e)
+		{
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.validation.ConstraintDeclarationException;
+
+import net.nicholaswilliams.java.validation.CreditCardNumber;
+
+/**
+ * An immutable, compact index of issuer identification number (IIN/BIN) ranges. All ranges are normalized to
+ * {@link #BIN_LENGTH}-digit bounds, merged, and stored as two sorted {@code int} arrays, so a lookup is a single binary
+ * search with no boxing.<br>
+ * <br>
+ * A range is written either as a single prefix ({@code 4}, meaning every number starting with 4) or as two prefixes
+ * separated by a hyphen ({@code 2221-2720}, meaning every number whose leading digits fall between them).
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class BinRanges
+{
+	/**
+	 * The number of leading digits that ranges are normalized to.
+	 */
+	public static final int BIN_LENGTH = 8;
+
+	private static final int RADIX = 10;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final int RANGE_SHIFT = 32;
+
+	private static final long RANGE_END_MASK = 0xFFFFFFFFL;
+
+	private static final Map<CreditCardNumber.Network, BinRanges> NETWORKS =
+			new EnumMap<CreditCardNumber.Network, BinRanges>(CreditCardNumber.Network.class);
+
+	static
+	{
+		NETWORKS.put(CreditCardNumber.Network.VISA, BinRanges.of("4"));
+		NETWORKS.put(CreditCardNumber.Network.MASTERCARD, BinRanges.of("51-55", "2221-2720"));
+		NETWORKS.put(CreditCardNumber.Network.AMERICAN_EXPRESS, BinRanges.of("34", "37"));
+		NETWORKS.put(CreditCardNumber.Network.DISCOVER, BinRanges.of("6011", "622126-622925", "644-649", "65"));
+		NETWORKS.put(CreditCardNumber.Network.DINERS_CLUB, BinRanges.of("300-305", "3095", "36", "38-39"));
+		NETWORKS.put(CreditCardNumber.Network.JCB, BinRanges.of("3528-3589"));
+		NETWORKS.put(CreditCardNumber.Network.UNIONPAY, BinRanges.of("62", "81"));
+		NETWORKS.put(CreditCardNumber.Network.MAESTRO, BinRanges.of(
+				"5018", "5020", "5038", "5893", "6304", "6759", "6761-6763"
+		));
+	}
+
+	private final int[] starts;
+
+	private final int[] ends;
+
+	private BinRanges(int[] starts, int[] ends)
+	{
+		this.starts = starts;
+		this.ends = ends;
+	}
+
+	/**
+	 * Builds an index from range specifications.
+	 *
+	 * @param ranges The ranges, in the format described in the class documentation
+	 * @return the index.
+	 */
+	public static BinRanges of(String... ranges)
+	{
+		long[] packed = new long[ranges.length];
+		for(int i = 0; i < ranges.length; i++)
+		{
+			packed[i] = BinRanges.parse(ranges[i].trim());
+		}
+		return BinRanges.merge(packed, packed.length);
+	}
+
+	/**
+	 * Reads an index from a range table, one range per line. Anything following the range on a line (separated by
+	 * whitespace), such as an issuer name, is ignored, as are blank lines and lines starting with {@code #}.
+	 *
+	 * @param reader The reader to read the table from; it is not closed
+	 * @param source A description of the table's source, for error messages
+	 * @return the index.
+	 * @throws IOException if reading fails.
+	 */
+	public static BinRanges read(Reader reader, String source) throws IOException
+	{
+		BufferedReader lines = new BufferedReader(reader);
+		long[] packed = new long[INITIAL_CAPACITY];
+		int count = 0;
+		int lineNumber = 0;
+		String line;
+		while((line = lines.readLine()) != null)
+		{
+			lineNumber++;
+			line = line.trim();
+			if(line.length() == 0 || line.charAt(0) == '#')
+			{
+				continue;
+			}
+
+			int end = 0;
+			while(end < line.length() && !Character.isWhitespace(line.charAt(end)))
+			{
+				end++;
+			}
+
+			if(count == packed.length)
+			{
+				packed = Arrays.copyOf(packed, count * 2);
+			}
+			try
+			{
+				packed[count++] = BinRanges.parse(line.substring(0, end));
+			}
+			catch(ConstraintDeclarationException e)
+			{
+				throw new ConstraintDeclarationException(
+						"Invalid BIN range on line " + lineNumber + " of " + source + ".", e
+				);
+			}
+		}
+		return BinRanges.merge(packed, count);
+	}
+
+	/**
+	 * Returns the built-in ranges of the specified card network.
+	 *
+	 * @param network The card network
+	 * @return the network's ranges.
+	 */
+	public static BinRanges forNetwork(CreditCardNumber.Network network)
+	{
+		return NETWORKS.get(network);
+	}
+
+	/**
+	 * Extracts the first {@link #BIN_LENGTH} digits of the value, ignoring non-digit characters and padding with
+	 * trailing zeros if there are fewer digits than that.
+	 *
+	 * @param value The value, such as a card number
+	 * @return the normalized BIN, or -1 if the value contains no digits.
+	 */
+	public static int binOf(CharSequence value)
+	{
+		int bin = 0;
+		int digits = 0;
+		for(int i = 0, length = value.length(); i < length && digits < BIN_LENGTH; i++)
+		{
+			int digit = value.charAt(i) - '0';
+			if(digit >= 0 && digit < RADIX)
+			{
+				bin = bin * RADIX + digit;
+				digits++;
+			}
+		}
+
+		if(digits == 0)
+		{
+			return -1;
+		}
+		for(; digits < BIN_LENGTH; digits++)
+		{
+			bin *= RADIX;
+		}
+		return bin;
+	}
+
+	/**
+	 * Indicates whether the normalized BIN falls within any of the ranges.
+	 *
+	 * @param bin The normalized BIN, as returned by {@link #binOf}
+	 * @return {@code true} if the BIN is in range.
+	 */
+	public boolean contains(int bin)
+	{
+		int low = 0;
+		int high = this.starts.length - 1;
+		while(low <= high)
+		{
+			int middle = (low + high) >>> 1;
+			if(this.starts[middle] > bin)
+			{
+				high = middle - 1;
+			}
+			else if(this.ends[middle] < bin)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns an index containing the ranges of both this index and the other.
+	 *
+	 * @param other The other index
+	 * @return the combined index.
+	 */
+	public BinRanges union(BinRanges other)
+	{
+		int count = this.starts.length + other.starts.length;
+		long[] packed = new long[count];
+		for(int i = 0; i < this.starts.length; i++)
+		{
+			packed[i] = BinRanges.pack(this.starts[i], this.ends[i]);
+		}
+		for(int i = 0; i < other.starts.length; i++)
+		{
+			packed[this.starts.length + i] = BinRanges.pack(other.starts[i], other.ends[i]);
+		}
+		return BinRanges.merge(packed, count);
+	}
+
+	private static long parse(String range)
+	{
+		int hyphen = range.indexOf('-');
+		String low = hyphen < 0 ? range : range.substring(0, hyphen).trim();
+		String high = hyphen < 0 ? range : range.substring(hyphen + 1).trim();
+
+		int start = BinRanges.normalize(low, 0, range);
+		int end = BinRanges.normalize(high, RADIX - 1, range);
+		if(start > end)
+		{
+			throw new ConstraintDeclarationException("The BIN range [" + range + "] is reversed.");
+		}
+		return BinRanges.pack(start, end);
+	}
+
+	private static int normalize(String prefix, int padding, String range)
+	{
+		if(prefix.length() == 0 || prefix.length() > BIN_LENGTH)
+		{
+			throw new ConstraintDeclarationException(
+					"The BIN range [" + range + "] must use prefixes of 1 to " + BIN_LENGTH + " digits."
+			);
+		}
+
+		int value = 0;
+		for(int i = 0; i < BIN_LENGTH; i++)
+		{
+			int digit = padding;
+			if(i < prefix.length())
+			{
+				digit = prefix.charAt(i) - '0';
+				if(digit < 0 || digit >= RADIX)
+				{
+					throw new ConstraintDeclarationException("The BIN range [" + range + "] contains non-digits.");
+				}
+			}
+			value = value * RADIX + digit;
+		}
+		return value;
+	}
+
+	private static long pack(int start, int end)
+	{
+		return ((long) start << RANGE_SHIFT) | end;
+	}
+
+	private static BinRanges merge(long[] packed, int count)
+	{
+		Arrays.sort(packed, 0, count);
+
+		int[] starts = new int[count];
+		int[] ends = new int[count];
+		int merged = 0;
+		for(int i = 0; i < count; i++)
+		{
+			int start = (int) (packed[i] >>> RANGE_SHIFT);
+			int end = (int) (packed[i] & RANGE_END_MASK);
+			if(merged > 0 && start <= ends[merged - 1] + 1)
+			{
+				ends[merged - 1] = Math.max(ends[merged - 1], end);
+			}
+			else
+			{
+				starts[merged] = start;
+				ends[merged] = end;
+				merged++;
+			}
+		}
+		return new BinRanges(Arrays.copyOf(starts, merged), Arrays.copyOf(ends, merged));
+	}
+}
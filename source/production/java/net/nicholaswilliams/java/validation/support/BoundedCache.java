@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, concurrent cache of computed values. When the cache is full, arbitrary entries are evicted to make room: a
+ * quarter of the maximum size at a time, and at least one entry, so that eviction is rare. Values are computed by the
+ * caller outside any lock, so threads missing the same key at the same time may each compute it, but only the first
+ * value stored is kept and returned to all of them.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class BoundedCache<K, V>
+{
+	private static final int EVICTED_FRACTION_SHIFT = 2;
+
+	private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<K, V>();
+
+	private final int maximumSize;
+
+	private final int evictedSize;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param maximumSize The number of entries above which entries are evicted
+	 * @throws IllegalArgumentException if the maximum size is not positive.
+	 */
+	BoundedCache(int maximumSize)
+	{
+		if(maximumSize < 1)
+		{
+			throw new IllegalArgumentException("The maximum cache size must be positive.");
+		}
+		this.maximumSize = maximumSize;
+		this.evictedSize = Math.max(1, maximumSize >> EVICTED_FRACTION_SHIFT);
+	}
+
+	/**
+	 * Returns the cached value for the key.
+	 *
+	 * @param key The key
+	 * @return the cached value, or {@code null} if there is none.
+	 */
+	V get(K key)
+	{
+		return this.entries.get(key);
+	}
+
+	/**
+	 * Caches the value for the key unless another value was cached for it first, evicting entries if the cache is
+	 * full.
+	 *
+	 * @param key The key
+	 * @param value The newly computed value
+	 * @return the value now cached for the key, which is {@code value} or the one cached first.
+	 */
+	V put(K key, V value)
+	{
+		if(this.entries.size() >= this.maximumSize)
+		{
+			Iterator<K> iterator = this.entries.keySet().iterator();
+			for(int i = 0; i < this.evictedSize && iterator.hasNext(); i++)
+			{
+				iterator.next();
+				iterator.remove();
+			}
+		}
+		V existing = this.entries.putIfAbsent(key, value);
+		return existing == null ? value : existing;
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 *
+	 * @return the size of the cache.
+	 */
+	int size()
+	{
+		return this.entries.size();
+	}
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.validation.ValidationException;
+
+/**
+ * A read-only set of breached-password SHA-1 hashes stored in a local file of sorted, fixed-width records: each record
+ * is the 20-byte binary SHA-1 hash of a password's UTF-8 bytes, and records are in ascending unsigned byte order with
+ * no header. The file is memory-mapped rather than read, so it never occupies the heap, is paged in on demand, and is
+ * shared through the operating system's page cache by every JVM using it. Lookups are binary searches over the
+ * records, and the password is encoded and hashed through buffers kept for each thread, so a lookup allocates
+ * nothing. Files larger than 2 GB are mapped in several segments, each holding a whole number of records.<br>
+ * <br>
+ * Files are produced from the public text dumps (one uppercase or lowercase hexadecimal SHA-1 hash per line, sorted
+ * by hash, optionally followed by {@code :} and a count, as in the "ordered by hash" downloads) by running this
+ * class's {@link #main} method:
+ * <pre>
+ * java net.nicholaswilliams.java.validation.support.BreachedPasswordFile pwned-passwords-sha1.txt breached.bin</pre>
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class BreachedPasswordFile
+{
+	/**
+	 * The length in bytes of each record.
+	 */
+	public static final int RECORD_LENGTH = 20;
+
+	private static final long RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_LENGTH;
+
+	private static final int SECOND_LONG_OFFSET = 8;
+
+	private static final int LAST_INT_OFFSET = 16;
+
+	private static final int HEX_LENGTH = RECORD_LENGTH * 2;
+
+	private static final int HEX_RADIX = 16;
+
+	private static final int NIBBLE_BITS = 4;
+
+	private static final int OUTPUT_BUFFER_SIZE = 65536;
+
+	private static final int BYTE_MASK = 0xFF;
+
+	private static final long INT_MASK = 0xFFFFFFFFL;
+
+	private static final int ENCODE_BUFFER_SIZE = 1024;
+
+	private static final int MAX_UTF_8_LENGTH = 4;
+
+	private static final int ONE_BYTE_LIMIT = 0x80;
+
+	private static final int TWO_BYTE_LIMIT = 0x800;
+
+	private static final int TWO_BYTE_PREFIX = 0xC0;
+
+	private static final int THREE_BYTE_PREFIX = 0xE0;
+
+	private static final int FOUR_BYTE_PREFIX = 0xF0;
+
+	private static final int CONTINUATION_PREFIX = 0x80;
+
+	private static final int CONTINUATION_MASK = 0x3F;
+
+	private static final int CONTINUATION_BITS = 6;
+
+	private static final int TWO_CONTINUATION_BITS = 12;
+
+	private static final int THREE_CONTINUATION_BITS = 18;
+
+	private static final SharedFiles<BreachedPasswordFile> FILES =
+			new SharedFiles<BreachedPasswordFile>("breached password file")
+			{
+				@Override
+				protected BreachedPasswordFile load(File file) throws IOException
+				{
+					return new BreachedPasswordFile(file);
+				}
+			};
+
+	private static final ThreadLocal<Hasher> HASHERS = new ThreadLocal<Hasher>()
+	{
+		@Override
+		protected Hasher initialValue()
+		{
+			return new Hasher();
+		}
+	};
+
+	private final MappedByteBuffer[] segments;
+
+	private final long count;
+
+	private final long recordsPerSegment;
+
+	private BreachedPasswordFile(File file) throws IOException
+	{
+		this(file, RECORDS_PER_SEGMENT);
+	}
+
+	/**
+	 * Maps the file in segments of the specified number of records. Only tests use a segment size other than the
+	 * largest that fits in a mapping.
+	 *
+	 * @param file The hash file
+	 * @param recordsPerSegment The number of records in each segment
+	 * @throws IOException if the file cannot be mapped or its length is not a whole number of records.
+	 */
+	BreachedPasswordFile(File file, long recordsPerSegment) throws IOException
+	{
+		this.recordsPerSegment = recordsPerSegment;
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = randomAccessFile.getChannel();
+			long size = channel.size();
+			if(size % RECORD_LENGTH != 0)
+			{
+				throw new IOException("The length of [" + file + "] is not a multiple of " + RECORD_LENGTH + ".");
+			}
+
+			this.count = size / RECORD_LENGTH;
+			this.segments = new MappedByteBuffer[(int) ((this.count + recordsPerSegment - 1) / recordsPerSegment)];
+			for(int i = 0; i < this.segments.length; i++)
+			{
+				long start = i * recordsPerSegment * RECORD_LENGTH;
+				long length = Math.min(recordsPerSegment * RECORD_LENGTH, size - start);
+				this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+			}
+		}
+		finally
+		{
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Returns the hash file at the specified path, mapping it the first time it is requested. Every caller naming the
+	 * same path shares one mapping.
+	 *
+	 * @param path The path to the hash file
+	 * @return the hash file.
+	 * @throws javax.validation.ConstraintDeclarationException if the file cannot be mapped or is not a hash file.
+	 */
+	public static BreachedPasswordFile get(String path)
+	{
+		return FILES.get(path);
+	}
+
+	/**
+	 * Converts a sorted text dump of SHA-1 hashes into the binary record format. Duplicate hashes are written once.
+	 *
+	 * @param arguments The input text file followed by the output file
+	 * @throws IOException if a file cannot be read or written, or the input is malformed or not sorted.
+	 */
+	public static void main(String[] arguments) throws IOException
+	{
+		if(arguments.length != 2)
+		{
+			throw new IllegalArgumentException("Usage: BreachedPasswordFile <input text file> <output file>");
+		}
+
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(arguments[0]), "US-ASCII")
+		);
+		try
+		{
+			OutputStream output = new BufferedOutputStream(new FileOutputStream(arguments[1]), OUTPUT_BUFFER_SIZE);
+			try
+			{
+				BreachedPasswordFile.convert(reader, output);
+			}
+			finally
+			{
+				output.close();
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	private static void convert(BufferedReader reader, OutputStream output) throws IOException
+	{
+		byte[] previous = null;
+		byte[] record = new byte[RECORD_LENGTH];
+		long lineNumber = 0;
+		String line;
+		while((line = reader.readLine()) != null)
+		{
+			lineNumber++;
+			line = line.trim();
+			if(line.length() == 0)
+			{
+				continue;
+			}
+			if(line.length() < HEX_LENGTH || (line.length() > HEX_LENGTH && line.charAt(HEX_LENGTH) != ':'))
+			{
+				throw new IOException("Line " + lineNumber + " does not start with a SHA-1 hash.");
+			}
+
+			for(int i = 0; i < RECORD_LENGTH; i++)
+			{
+				int high = Character.digit(line.charAt(i * 2), HEX_RADIX);
+				int low = Character.digit(line.charAt(i * 2 + 1), HEX_RADIX);
+				if(high < 0 || low < 0)
+				{
+					throw new IOException("Line " + lineNumber + " does not start with a SHA-1 hash.");
+				}
+				record[i] = (byte) ((high << NIBBLE_BITS) | low);
+			}
+
+			if(previous != null)
+			{
+				int comparison = BreachedPasswordFile.compareUnsigned(record, previous);
+				if(comparison == 0)
+				{
+					continue;
+				}
+				if(comparison < 0)
+				{
+					throw new IOException("Line " + lineNumber + " is out of order; the input must be sorted by hash.");
+				}
+			}
+			else
+			{
+				previous = new byte[RECORD_LENGTH];
+			}
+
+			output.write(record);
+			System.arraycopy(record, 0, previous, 0, RECORD_LENGTH);
+		}
+	}
+
+	private static int compareUnsigned(byte[] a, byte[] b)
+	{
+		for(int i = 0; i < a.length; i++)
+		{
+			int difference = (a[i] & BYTE_MASK) - (b[i] & BYTE_MASK);
+			if(difference != 0)
+			{
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	private static int compareUnsigned(long a, long b)
+	{
+		long x = a ^ Long.MIN_VALUE;
+		long y = b ^ Long.MIN_VALUE;
+		return x < y ? -1 : x == y ? 0 : 1;
+	}
+
+	/**
+	 * Returns the number of hashes in the file.
+	 *
+	 * @return the number of hashes.
+	 */
+	public long getCount()
+	{
+		return this.count;
+	}
+
+	/**
+	 * Indicates whether the SHA-1 hash of the password's UTF-8 bytes is in the file.
+	 *
+	 * @param password The password to look up
+	 * @return {@code true} if the password is breached.
+	 */
+	public boolean contains(CharSequence password)
+	{
+		return this.containsHash(HASHERS.get().hash(password));
+	}
+
+	/**
+	 * Indicates whether the SHA-1 hash is in the file.
+	 *
+	 * @param hash The 20-byte SHA-1 hash
+	 * @return {@code true} if the hash is in the file.
+	 */
+	public boolean containsHash(byte[] hash)
+	{
+		if(hash.length != RECORD_LENGTH)
+		{
+			throw new IllegalArgumentException("A SHA-1 hash must be " + RECORD_LENGTH + " bytes long.");
+		}
+
+		ByteBuffer target = ByteBuffer.wrap(hash);
+		long first = target.getLong(0);
+		long second = target.getLong(SECOND_LONG_OFFSET);
+		int last = target.getInt(LAST_INT_OFFSET);
+
+		long low = 0;
+		long high = this.count - 1;
+		while(low <= high)
+		{
+			long middle = (low + high) >>> 1;
+			MappedByteBuffer segment = this.segments[(int) (middle / this.recordsPerSegment)];
+			int offset = (int) (middle % this.recordsPerSegment) * RECORD_LENGTH;
+
+			int comparison = BreachedPasswordFile.compareUnsigned(segment.getLong(offset), first);
+			if(comparison == 0)
+			{
+				comparison = BreachedPasswordFile.compareUnsigned(segment.getLong(offset + SECOND_LONG_OFFSET),
+																  second);
+			}
+			if(comparison == 0)
+			{
+				comparison = BreachedPasswordFile.compareUnsigned(segment.getInt(offset + LAST_INT_OFFSET) & INT_MASK,
+																  last & INT_MASK);
+			}
+
+			if(comparison < 0)
+			{
+				low = middle + 1;
+			}
+			else if(comparison > 0)
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A thread's SHA-1 digest, with the buffer that passwords are encoded into and the array that their hashes are
+	 * written to. Passwords are encoded as UTF-8 a buffer at a time, with unpaired surrogates encoded as {@code ?} as
+	 * in {@link String#getBytes(String)}.
+	 */
+	private static final class Hasher
+	{
+		private final MessageDigest digest;
+
+		private final byte[] buffer = new byte[ENCODE_BUFFER_SIZE];
+
+		private final byte[] hash = new byte[RECORD_LENGTH];
+
+		private Hasher()
+		{
+			try
+			{
+				this.digest = MessageDigest.getInstance("SHA-1");
+			}
+			catch(NoSuchAlgorithmException e)
+			{
+				throw new ValidationException("The SHA-1 algorithm is not available.", e);
+			}
+		}
+
+		private byte[] hash(CharSequence password)
+		{
+			byte[] buffer = this.buffer;
+			int position = 0;
+			for(int i = 0, length = password.length(); i < length; i++)
+			{
+				if(position > ENCODE_BUFFER_SIZE - MAX_UTF_8_LENGTH)
+				{
+					this.digest.update(buffer, 0, position);
+					position = 0;
+				}
+
+				char c = password.charAt(i);
+				if(c < ONE_BYTE_LIMIT)
+				{
+					buffer[position++] = (byte) c;
+				}
+				else if(c < TWO_BYTE_LIMIT)
+				{
+					buffer[position++] = (byte) (TWO_BYTE_PREFIX | (c >> CONTINUATION_BITS));
+					buffer[position++] = (byte) (CONTINUATION_PREFIX | (c & CONTINUATION_MASK));
+				}
+				else if(Character.isHighSurrogate(c) && i + 1 < length &&
+						Character.isLowSurrogate(password.charAt(i + 1)))
+				{
+					int codePoint = Character.toCodePoint(c, password.charAt(++i));
+					buffer[position++] = (byte) (FOUR_BYTE_PREFIX | (codePoint >> THREE_CONTINUATION_BITS));
+					buffer[position++] = (byte) (CONTINUATION_PREFIX |
+												 ((codePoint >> TWO_CONTINUATION_BITS) & CONTINUATION_MASK));
+					buffer[position++] = (byte) (CONTINUATION_PREFIX |
+												 ((codePoint >> CONTINUATION_BITS) & CONTINUATION_MASK));
+					buffer[position++] = (byte) (CONTINUATION_PREFIX | (codePoint & CONTINUATION_MASK));
+				}
+				else if(Character.isHighSurrogate(c) || Character.isLowSurrogate(c))
+				{
+					buffer[position++] = '?';
+				}
+				else
+				{
+					buffer[position++] = (byte) (THREE_BYTE_PREFIX | (c >> TWO_CONTINUATION_BITS));
+					buffer[position++] = (byte) (CONTINUATION_PREFIX | ((c >> CONTINUATION_BITS) & CONTINUATION_MASK));
+					buffer[position++] = (byte) (CONTINUATION_PREFIX | (c & CONTINUATION_MASK));
+				}
+			}
+			this.digest.update(buffer, 0, position);
+
+			try
+			{
+				this.digest.digest(this.hash, 0, RECORD_LENGTH);
+			}
+			catch(DigestException e)
+			{
+				throw new ValidationException("Failed to hash the value being validated.", e);
+			}
+			return this.hash;
+		}
+	}
+}
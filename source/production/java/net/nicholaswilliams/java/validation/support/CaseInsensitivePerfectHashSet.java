@@ -0,0 +1,256 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable set of strings, compared case-insensitively, built with hash-and-displace perfect hashing. Each member
+ * occupies its own slot, so a lookup hashes the candidate once, computes its slot from the displacement of its bucket,
+ * and compares it against exactly one member. Candidates are regions of a {@link CharSequence}, so callers can look up
+ * a component of a larger value without creating a substring.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class CaseInsensitivePerfectHashSet
+{
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private static final long MIX_MULTIPLIER_1 = 0xFF51AFD7ED558CCDL;
+
+	private static final long MIX_MULTIPLIER_2 = 0xC4CEB9FE1A85EC53L;
+
+	private static final int MIX_SHIFT = 33;
+
+	private static final int MAX_DISPLACEMENT = 0xFFFF;
+
+	private static final char ASCII_LIMIT = 0x80;
+
+	private final long seed;
+
+	private final int[] displacements;
+
+	private final String[] members;
+
+	private final int size;
+
+	/**
+	 * Builds the set from the given strings. Duplicates (ignoring case) are dropped.
+	 *
+	 * @param values The strings in the set
+	 */
+	CaseInsensitivePerfectHashSet(String... values)
+	{
+		Set<String> unique = new LinkedHashSet<String>();
+		for(String value : values)
+		{
+			unique.add(CaseInsensitivePerfectHashSet.lowerCase(value));
+		}
+		String[] keys = unique.toArray(new String[unique.size()]);
+		this.size = keys.length;
+
+		int slots = Integer.highestOneBit(Math.max(keys.length, 1)) << 1;
+		int buckets = Math.max(slots >> 2, 1);
+		long seed = 0L;
+		int[] displacements = null;
+		String[] members = null;
+		while(members == null)
+		{
+			displacements = new int[buckets];
+			members = CaseInsensitivePerfectHashSet.place(keys, seed, displacements, new String[slots]);
+			if(members == null)
+			{
+				// vanishingly rare: reseed, and give every bucket more room the next time around
+				seed += GOLDEN_GAMMA;
+				slots <<= 1;
+			}
+		}
+		this.seed = seed;
+		this.displacements = displacements;
+		this.members = members;
+	}
+
+	private static String[] place(String[] keys, long seed, int[] displacements, String[] members)
+	{
+		int bucketMask = displacements.length - 1;
+		List<List<String>> buckets = new ArrayList<List<String>>(displacements.length);
+		for(int i = 0; i < displacements.length; i++)
+		{
+			buckets.add(new ArrayList<String>());
+		}
+		for(String key : keys)
+		{
+			long hash = CaseInsensitivePerfectHashSet.hash(seed, key, 0, key.length());
+			buckets.get((int) (hash >>> MIX_SHIFT) & bucketMask).add(key);
+		}
+
+		Integer[] order = new Integer[displacements.length];
+		for(int i = 0; i < order.length; i++)
+		{
+			order[i] = i;
+		}
+		final List<List<String>> sizes = buckets;
+		Arrays.sort(order, Collections.reverseOrder(new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer left, Integer right)
+			{
+				return sizes.get(left).size() - sizes.get(right).size();
+			}
+		}));
+
+		int slotMask = members.length - 1;
+		int[] slots = new int[keys.length];
+		for(int bucket : order)
+		{
+			List<String> bucketKeys = buckets.get(bucket);
+			if(bucketKeys.isEmpty())
+			{
+				break;
+			}
+
+			boolean placed = false;
+			for(int displacement = 0; !placed && displacement <= MAX_DISPLACEMENT; displacement++)
+			{
+				placed = true;
+				for(int i = 0; placed && i < bucketKeys.size(); i++)
+				{
+					String key = bucketKeys.get(i);
+					slots[i] = CaseInsensitivePerfectHashSet.slot(
+							CaseInsensitivePerfectHashSet.hash(seed, key, 0, key.length()), displacement, slotMask
+					);
+					placed = members[slots[i]] == null;
+					for(int j = 0; placed && j < i; j++)
+					{
+						placed = slots[j] != slots[i];
+					}
+				}
+				if(placed)
+				{
+					displacements[bucket] = displacement;
+					for(int i = 0; i < bucketKeys.size(); i++)
+					{
+						members[slots[i]] = bucketKeys.get(i);
+					}
+				}
+			}
+			if(!placed)
+			{
+				return null;
+			}
+		}
+		return members;
+	}
+
+	/**
+	 * Indicates whether the region of the value is a member of this set, ignoring case.
+	 *
+	 * @param value The value containing the candidate
+	 * @param start The start of the candidate, inclusive
+	 * @param end The end of the candidate, exclusive
+	 * @return {@code true} if the candidate is a member.
+	 */
+	boolean contains(CharSequence value, int start, int end)
+	{
+		if(this.size == 0)
+		{
+			return false;
+		}
+
+		long hash = CaseInsensitivePerfectHashSet.hash(this.seed, value, start, end);
+		int displacement = this.displacements[(int) (hash >>> MIX_SHIFT) & (this.displacements.length - 1)];
+		String member = this.members[CaseInsensitivePerfectHashSet.slot(hash, displacement, this.members.length - 1)];
+		if(member == null || member.length() != end - start)
+		{
+			return false;
+		}
+		for(int i = 0; i < member.length(); i++)
+		{
+			if(CaseInsensitivePerfectHashSet.lowerCase(value.charAt(start + i)) != member.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indicates whether the value is a member of this set, ignoring case.
+	 *
+	 * @param value The candidate
+	 * @return {@code true} if the candidate is a member.
+	 */
+	boolean contains(CharSequence value)
+	{
+		return this.contains(value, 0, value.length());
+	}
+
+	/**
+	 * @return the number of members in this set.
+	 */
+	int size()
+	{
+		return this.size;
+	}
+
+	private static long hash(long seed, CharSequence value, int start, int end)
+	{
+		long hash = FNV_OFFSET_BASIS ^ seed;
+		for(int i = start; i < end; i++)
+		{
+			hash = (hash ^ CaseInsensitivePerfectHashSet.lowerCase(value.charAt(i))) * FNV_PRIME;
+		}
+		return CaseInsensitivePerfectHashSet.mix(hash);
+	}
+
+	private static int slot(long hash, int displacement, int mask)
+	{
+		return (int) CaseInsensitivePerfectHashSet.mix(hash + displacement * GOLDEN_GAMMA) & mask;
+	}
+
+	private static long mix(long value)
+	{
+		long mixed = (value ^ (value >>> MIX_SHIFT)) * MIX_MULTIPLIER_1;
+		mixed = (mixed ^ (mixed >>> MIX_SHIFT)) * MIX_MULTIPLIER_2;
+		return mixed ^ (mixed >>> MIX_SHIFT);
+	}
+
+	private static char lowerCase(char c)
+	{
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c < ASCII_LIMIT ? c : Character.toLowerCase(c);
+	}
+
+	private static String lowerCase(String value)
+	{
+		char[] characters = new char[value.length()];
+		for(int i = 0; i < characters.length; i++)
+		{
+			characters[i] = CaseInsensitivePerfectHashSet.lowerCase(value.charAt(i));
+		}
+		return new String(characters);
+	}
+}
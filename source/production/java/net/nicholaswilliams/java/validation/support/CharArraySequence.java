@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+/**
+ * A read-only {@link CharSequence} view of a {@code char[]}, so array targets can be handed to the character-based
+ * validators without copying them into {@link String}s. Each thread reuses one view, so obtaining one does not
+ * allocate; a view is valid only until the next call to {@link #of(char[])} on the same thread and must not be
+ * retained.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class CharArraySequence implements CharSequence
+{
+	private static final char[] EMPTY = new char[0];
+
+	private static final ThreadLocal<CharArraySequence> VIEWS = new ThreadLocal<CharArraySequence>()
+	{
+		@Override
+		protected CharArraySequence initialValue()
+		{
+			return new CharArraySequence();
+		}
+	};
+
+	private char[] array = EMPTY;
+
+	private CharArraySequence()
+	{
+
+	}
+
+	/**
+	 * Returns the calling thread's view, set to the specified array.
+	 *
+	 * @param array The array to view, which must not be {@code null}
+	 * @return the view of the array.
+	 */
+	static CharArraySequence of(char[] array)
+	{
+		CharArraySequence sequence = VIEWS.get();
+		sequence.array = array;
+		return sequence;
+	}
+
+	@Override
+	public int length()
+	{
+		return this.array.length;
+	}
+
+	@Override
+	public char charAt(int index)
+	{
+		return this.array[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		return this.toString().subSequence(start, end);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new String(this.array);
+	}
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+/**
+ * Allocation-free scanning utilities for {@link CharSequence}s, shared by the string constraint validators. None of
+ * these methods call {@link CharSequence#toString()} or otherwise copy the sequence, and {@link String}s take a
+ * monomorphic fast path. "Blank" here has the same meaning as in {@link String#trim()}: any character whose value is
+ * less than or equal to {@code ' '}.<br>
+ * <br>
+ * The ASCII primitives ({@link #digit}, {@link #alphanumericValue}, {@link #isAsciiLetter} and
+ * {@link #isAsciiUppercase}) recognize only the 7-bit ASCII characters, as the syntaxes of identifiers and URIs
+ * require; the {@link CharacterClass}es follow the {@link Character} methods for every code point and answer ASCII
+ * code points from a shared table.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class CharSequenceUtils
+{
+	private static final char BLANK_MAXIMUM = ' ';
+
+	private static final int ASCII_SIZE = 128;
+
+	private static final int RADIX = 10;
+
+	private static final int LETTER_BASE_VALUE = 10;
+
+	private static final byte[] ASCII_CLASSES = new byte[ASCII_SIZE];
+
+	static
+	{
+		for(CharacterClass characterClass : CharacterClass.values())
+		{
+			for(int c = 0; c < ASCII_SIZE; c++)
+			{
+				if(characterClass.matchesCodePoint(c))
+				{
+					ASCII_CLASSES[c] |= characterClass.mask;
+				}
+			}
+		}
+	}
+
+	private CharSequenceUtils()
+	{
+
+	}
+
+	/**
+	 * Indicates whether the specified character is blank in the sense of {@link String#trim()}.
+	 *
+	 * @param c The character
+	 * @return {@code true} if the character is blank.
+	 */
+	public static boolean isBlank(char c)
+	{
+		return c <= BLANK_MAXIMUM;
+	}
+
+	/**
+	 * Indicates whether the sequence is empty or consists only of blank characters. This is equivalent to
+	 * {@code value.toString().trim().length() == 0}, but does not copy the sequence and stops at the first non-blank
+	 * character.
+	 *
+	 * @param value The sequence to check, must not be {@code null}
+	 * @return {@code true} if the sequence is blank.
+	 */
+	public static boolean isBlank(CharSequence value)
+	{
+		return CharSequenceUtils.firstNonBlankIndex(value) < 0;
+	}
+
+	/**
+	 * Finds the index of the first non-blank character in the sequence.
+	 *
+	 * @param value The sequence to scan, must not be {@code null}
+	 * @return the index of the first non-blank character, or -1 if the sequence is blank.
+	 */
+	public static int firstNonBlankIndex(CharSequence value)
+	{
+		if(value instanceof String)
+		{
+			return CharSequenceUtils.firstNonBlankIndex((String) value);
+		}
+
+		for(int i = 0, length = value.length(); i < length; i++)
+		{
+			if(value.charAt(i) > BLANK_MAXIMUM)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int firstNonBlankIndex(String value)
+	{
+		for(int i = 0, length = value.length(); i < length; i++)
+		{
+			if(value.charAt(i) > BLANK_MAXIMUM)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the index of the last non-blank character in the sequence.
+	 *
+	 * @param value The sequence to scan, must not be {@code null}
+	 * @return the index of the last non-blank character, or -1 if the sequence is blank.
+	 */
+	public static int lastNonBlankIndex(CharSequence value)
+	{
+		if(value instanceof String)
+		{
+			return CharSequenceUtils.lastNonBlankIndex((String) value);
+		}
+
+		for(int i = value.length() - 1; i >= 0; i--)
+		{
+			if(value.charAt(i) > BLANK_MAXIMUM)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int lastNonBlankIndex(String value)
+	{
+		for(int i = value.length() - 1; i >= 0; i--)
+		{
+			if(value.charAt(i) > BLANK_MAXIMUM)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Counts the Unicode code points in the sequence. Unpaired surrogates count as one code point each, consistent
+	 * with {@link Character#codePointCount(CharSequence, int, int)}.
+	 *
+	 * @param value The sequence to scan, must not be {@code null}
+	 * @return the number of code points.
+	 */
+	public static int codePointCount(CharSequence value)
+	{
+		if(value instanceof String)
+		{
+			String string = (String) value;
+			return string.codePointCount(0, string.length());
+		}
+
+		int length = value.length();
+		int count = length;
+		for(int i = 0; i < length - 1; i++)
+		{
+			if(Character.isHighSurrogate(value.charAt(i)) && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				count--;
+				i++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Indicates whether the character is in the 7-bit ASCII range.
+	 *
+	 * @param c The character
+	 * @return {@code true} if the character is an ASCII character.
+	 */
+	public static boolean isAscii(char c)
+	{
+		return c < ASCII_SIZE;
+	}
+
+	/**
+	 * Indicates whether every character in the sequence is in the 7-bit ASCII range.
+	 *
+	 * @param value The sequence to scan, must not be {@code null}
+	 * @return {@code true} if the sequence contains only ASCII characters.
+	 */
+	public static boolean isAscii(CharSequence value)
+	{
+		if(value instanceof String)
+		{
+			return CharSequenceUtils.isAscii((String) value);
+		}
+
+		for(int i = 0, length = value.length(); i < length; i++)
+		{
+			if(value.charAt(i) >= ASCII_SIZE)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAscii(String value)
+	{
+		for(int i = 0, length = value.length(); i < length; i++)
+		{
+			if(value.charAt(i) >= ASCII_SIZE)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the value of an ASCII decimal digit.
+	 *
+	 * @param c The character
+	 * @return the value of the digit, or -1 if the character is not one of {@code 0} through {@code 9}.
+	 */
+	public static int digit(char c)
+	{
+		int digit = c - '0';
+		return digit >= 0 && digit < RADIX ? digit : -1;
+	}
+
+	/**
+	 * Returns the value of an ASCII digit or letter in base 36, in which the letters of either case have the values
+	 * 10 through 35.
+	 *
+	 * @param c The character
+	 * @return the value of the character, or -1 if it is not an ASCII digit or letter.
+	 */
+	public static int alphanumericValue(char c)
+	{
+		if(c >= '0' && c <= '9')
+		{
+			return c - '0';
+		}
+		if(c >= 'A' && c <= 'Z')
+		{
+			return c - 'A' + LETTER_BASE_VALUE;
+		}
+		if(c >= 'a' && c <= 'z')
+		{
+			return c - 'a' + LETTER_BASE_VALUE;
+		}
+		return -1;
+	}
+
+	/**
+	 * Indicates whether the character is an ASCII letter of either case.
+	 *
+	 * @param c The character
+	 * @return {@code true} if the character is one of {@code A} through {@code Z} or {@code a} through {@code z}.
+	 */
+	public static boolean isAsciiLetter(char c)
+	{
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+	}
+
+	/**
+	 * Indicates whether the character is an ASCII uppercase letter.
+	 *
+	 * @param c The character
+	 * @return {@code true} if the character is one of {@code A} through {@code Z}.
+	 */
+	public static boolean isAsciiUppercase(char c)
+	{
+		return c >= 'A' && c <= 'Z';
+	}
+
+	/**
+	 * Counts the code points in the sequence that belong to the specified character class. Unpaired surrogates are
+	 * counted as code points of their own, as in {@link #codePointCount}.
+	 *
+	 * @param value The sequence to scan, must not be {@code null}
+	 * @param characterClass The character class to count
+	 * @return the number of matching code points.
+	 */
+	public static int count(CharSequence value, CharacterClass characterClass)
+	{
+		int count = 0;
+		for(int i = 0, length = value.length(); i < length; i++)
+		{
+			char c = value.charAt(i);
+			int codePoint = c;
+			if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				codePoint = Character.toCodePoint(c, value.charAt(++i));
+			}
+
+			if(characterClass.matches(codePoint))
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Character classes understood by {@link CharSequenceUtils#count(CharSequence, CharacterClass)}. ASCII code points
+	 * are looked up in a table shared by every class, and only non-ASCII code points fall back to the
+	 * {@link Character} methods.
+	 */
+	public enum CharacterClass
+	{
+		/**
+		 * Code points for which {@link Character#isUpperCase(int)} is {@code true}.
+		 */
+		UPPERCASE
+		{
+			@Override
+			boolean matchesCodePoint(int codePoint)
+			{
+				return Character.isUpperCase(codePoint);
+			}
+		},
+
+		/**
+		 * Code points for which {@link Character#isLowerCase(int)} is {@code true}.
+		 */
+		LOWERCASE
+		{
+			@Override
+			boolean matchesCodePoint(int codePoint)
+			{
+				return Character.isLowerCase(codePoint);
+			}
+		},
+
+		/**
+		 * Code points for which {@link Character#isDigit(int)} is {@code true}.
+		 */
+		DIGIT
+		{
+			@Override
+			boolean matchesCodePoint(int codePoint)
+			{
+				return Character.isDigit(codePoint);
+			}
+		},
+
+		/**
+		 * Code points for which {@link Character#isLetter(int)} is {@code true}.
+		 */
+		LETTER
+		{
+			@Override
+			boolean matchesCodePoint(int codePoint)
+			{
+				return Character.isLetter(codePoint);
+			}
+		},
+
+		/**
+		 * Code points for which {@link Character#isWhitespace(int)} is {@code true}.
+		 */
+		WHITESPACE
+		{
+			@Override
+			boolean matchesCodePoint(int codePoint)
+			{
+				return Character.isWhitespace(codePoint);
+			}
+		};
+
+		private final byte mask;
+
+		private CharacterClass()
+		{
+			this.mask = (byte) (1 << this.ordinal());
+		}
+
+		/**
+		 * Indicates whether the code point belongs to this character class.
+		 *
+		 * @param codePoint The code point to test
+		 * @return {@code true} if the code point belongs to this class.
+		 */
+		public boolean matches(int codePoint)
+		{
+			return codePoint < ASCII_SIZE ? (ASCII_CLASSES[codePoint] & this.mask) != 0 :
+				   this.matchesCodePoint(codePoint);
+		}
+
+		abstract boolean matchesCodePoint(int codePoint);
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Arrays;
+
+/**
+ * Set algebra over sorted, disjoint, inclusive code point ranges stored as {@code [low0, high0, low1, high1, ...]}.
+ * {@link LinearRegex} reduces every character class, however it was written, to one of these arrays.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class CodePointRanges
+{
+	static final int[] EMPTY = new int[0];
+
+	static final int[] ALL = {0, Character.MAX_CODE_POINT};
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final int ASCII_CASE_BIT = 0x20;
+
+	private CodePointRanges()
+	{
+
+	}
+
+	/**
+	 * Returns the set containing the single inclusive range.
+	 *
+	 * @param low The lowest code point
+	 * @param high The highest code point
+	 * @return the range set.
+	 */
+	static int[] of(int low, int high)
+	{
+		return new int[] {low, high};
+	}
+
+	/**
+	 * Returns the set of the given code points, which need not be sorted or distinct.
+	 *
+	 * @param codePoints The code points
+	 * @return the range set.
+	 */
+	static int[] ofCodePoints(int... codePoints)
+	{
+		int[] ranges = new int[codePoints.length * 2];
+		for(int i = 0; i < codePoints.length; i++)
+		{
+			ranges[i * 2] = codePoints[i];
+			ranges[i * 2 + 1] = codePoints[i];
+		}
+		return CodePointRanges.normalize(ranges);
+	}
+
+	/**
+	 * Indicates whether the set contains the code point.
+	 *
+	 * @param ranges The range set
+	 * @param codePoint The code point
+	 * @return {@code true} if the code point is in one of the ranges.
+	 */
+	static boolean contains(int[] ranges, int codePoint)
+	{
+		int low = 0;
+		int high = ranges.length / 2 - 1;
+		while(low <= high)
+		{
+			int middle = (low + high) >>> 1;
+			if(codePoint < ranges[middle * 2])
+			{
+				high = middle - 1;
+			}
+			else if(codePoint > ranges[middle * 2 + 1])
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the union of two sets.
+	 *
+	 * @param first The first range set
+	 * @param second The second range set
+	 * @return the union.
+	 */
+	static int[] union(int[] first, int[] second)
+	{
+		if(first.length == 0)
+		{
+			return second;
+		}
+		if(second.length == 0)
+		{
+			return first;
+		}
+		int[] ranges = new int[first.length + second.length];
+		System.arraycopy(first, 0, ranges, 0, first.length);
+		System.arraycopy(second, 0, ranges, first.length, second.length);
+		return CodePointRanges.normalize(ranges);
+	}
+
+	/**
+	 * Returns the complement of a set within all code points.
+	 *
+	 * @param ranges The range set
+	 * @return the complement.
+	 */
+	static int[] negate(int[] ranges)
+	{
+		int[] negated = new int[ranges.length + 2];
+		int length = 0;
+		int next = 0;
+		for(int i = 0; i < ranges.length; i += 2)
+		{
+			if(ranges[i] > next)
+			{
+				negated[length++] = next;
+				negated[length++] = ranges[i] - 1;
+			}
+			next = ranges[i + 1] + 1;
+		}
+		if(next <= Character.MAX_CODE_POINT)
+		{
+			negated[length++] = next;
+			negated[length++] = Character.MAX_CODE_POINT;
+		}
+		return Arrays.copyOf(negated, length);
+	}
+
+	/**
+	 * Returns the intersection of two sets.
+	 *
+	 * @param first The first range set
+	 * @param second The second range set
+	 * @return the intersection.
+	 */
+	static int[] intersect(int[] first, int[] second)
+	{
+		return CodePointRanges.negate(CodePointRanges.union(
+				CodePointRanges.negate(first), CodePointRanges.negate(second)
+		));
+	}
+
+	/**
+	 * Returns the code points that a single character matches under {@link java.util.regex.Pattern#CASE_INSENSITIVE},
+	 * the way {@link java.util.regex.Pattern} matches a single character: without {@code unicode} an ASCII letter
+	 * matches both its cases and any other character only itself; otherwise a code point matches when the lower case
+	 * form of its upper case form equals that of the character, or equals the character's own.
+	 *
+	 * @param codePoint The character
+	 * @param unicode Whether to apply Unicode case folding
+	 * @return the range set.
+	 */
+	static int[] foldCase(int codePoint, boolean unicode)
+	{
+		if(!unicode)
+		{
+			if(codePoint >= 'A' && codePoint <= 'Z' || codePoint >= 'a' && codePoint <= 'z')
+			{
+				return CodePointRanges.ofCodePoints(codePoint & ~ASCII_CASE_BIT, codePoint | ASCII_CASE_BIT);
+			}
+			return CodePointRanges.of(codePoint, codePoint);
+		}
+
+		int key = Character.toLowerCase(Character.toUpperCase(codePoint));
+		int[] found = new int[INITIAL_CAPACITY];
+		found[0] = codePoint;
+		found[1] = key;
+		int length = 2;
+		for(int c : CasedCodePoints.VALUES)
+		{
+			if(Character.toLowerCase(Character.toUpperCase(c)) == key)
+			{
+				if(length == found.length)
+				{
+					found = Arrays.copyOf(found, length * 2);
+				}
+				found[length++] = c;
+			}
+		}
+		return CodePointRanges.ofCodePoints(Arrays.copyOf(found, length));
+	}
+
+	/**
+	 * Closes a set of character ranges under {@link java.util.regex.Pattern#CASE_INSENSITIVE}, the way
+	 * {@link java.util.regex.Pattern} matches a range: without {@code unicode} an ASCII letter is added when its other
+	 * case is in the set; otherwise a code point is added when its upper case form, or the lower case form of its
+	 * upper case form, is in the set. Unlike {@link #foldCase(int, boolean)} this is not symmetric: {@code [A-Z]} does
+	 * not match the Kelvin sign, whose upper case form is itself and whose folded form is {@code k}.
+	 *
+	 * @param ranges The range set
+	 * @param unicode Whether to apply Unicode case folding
+	 * @return the closed set.
+	 */
+	static int[] foldCase(int[] ranges, boolean unicode)
+	{
+		int[] added = new int[INITIAL_CAPACITY];
+		int length = 0;
+		for(int c : unicode ? CasedCodePoints.VALUES : CasedCodePoints.ASCII_LETTERS)
+		{
+			if(CodePointRanges.contains(ranges, c))
+			{
+				continue;
+			}
+			boolean folds;
+			if(unicode)
+			{
+				int upper = Character.toUpperCase(c);
+				folds = CodePointRanges.contains(ranges, upper) ||
+						CodePointRanges.contains(ranges, Character.toLowerCase(upper));
+			}
+			else
+			{
+				folds = CodePointRanges.contains(ranges, c ^ ASCII_CASE_BIT);
+			}
+			if(folds)
+			{
+				if(length == added.length)
+				{
+					added = Arrays.copyOf(added, length * 2);
+				}
+				added[length++] = c;
+			}
+		}
+		return length == 0 ? ranges : CodePointRanges.union(
+				ranges, CodePointRanges.ofCodePoints(Arrays.copyOf(added, length))
+		);
+	}
+
+	/**
+	 * Sorts possibly overlapping ranges and merges the overlapping and adjacent ones.
+	 *
+	 * @param ranges The unsorted ranges, which are overwritten
+	 * @return the normalized range set.
+	 */
+	private static int[] normalize(int[] ranges)
+	{
+		int count = ranges.length / 2;
+		long[] packed = new long[count];
+		for(int i = 0; i < count; i++)
+		{
+			packed[i] = ((long) ranges[i * 2] << Integer.SIZE) | ranges[i * 2 + 1];
+		}
+		Arrays.sort(packed);
+		int length = 0;
+		for(long range : packed)
+		{
+			int low = (int) (range >>> Integer.SIZE);
+			int high = (int) range;
+			if(length > 0 && low <= ranges[length - 1] + 1)
+			{
+				ranges[length - 1] = Math.max(ranges[length - 1], high);
+			}
+			else
+			{
+				ranges[length++] = low;
+				ranges[length++] = high;
+			}
+		}
+		return length == ranges.length ? ranges : Arrays.copyOf(ranges, length);
+	}
+
+	/**
+	 * The code points whose upper or lower case form differs from themselves, which are the only ones case folding
+	 * can add to a set. They are found on first use.
+	 *
+	 * @author Nicholas Williams
+	 * @since 1.0.0
+	 */
+	private static final class CasedCodePoints
+	{
+		static final int[] ASCII_LETTERS = CasedCodePoints.find('A', 'z');
+
+		static final int[] VALUES = CasedCodePoints.find(0, Character.MAX_CODE_POINT);
+
+		private CasedCodePoints()
+		{
+
+		}
+
+		private static int[] find(int first, int last)
+		{
+			int[] found = new int[INITIAL_CAPACITY];
+			int length = 0;
+			for(int c = first; c <= last; c++)
+			{
+				if(Character.toUpperCase(c) != c || Character.toLowerCase(c) != c)
+				{
+					if(length == found.length)
+					{
+						found = Arrays.copyOf(found, length * 2);
+					}
+					found[length++] = c;
+				}
+			}
+			return Arrays.copyOf(found, length);
+		}
+	}
+}
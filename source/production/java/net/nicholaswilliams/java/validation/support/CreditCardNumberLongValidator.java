@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.CreditCardNumber;
+
+/**
+ * Validator for {@link CreditCardNumber} on {@code long} and {@link Long} targets. The decimal digits of the value are
+ * computed arithmetically rather than formatted as a {@link String}. Leading zeros cannot be represented by a number,
+ * and negative numbers are invalid.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class CreditCardNumberLongValidator implements ConstraintValidator<CreditCardNumber, Long>
+{
+	private final CreditCardNumberValidator delegate = new CreditCardNumberValidator();
+
+	@Override
+	public void initialize(CreditCardNumber annotation)
+	{
+		this.delegate.initialize(annotation);
+	}
+
+	@Override
+	public boolean isValid(Long value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+		return value >= 0L && this.delegate.isValid(DecimalDigits.of(value), context);
+	}
+}
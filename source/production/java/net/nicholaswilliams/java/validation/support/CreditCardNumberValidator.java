@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.CreditCardNumber;
+
+/**
+ * Validator for the network and BIN table restrictions of {@link CreditCardNumber}. The Luhn check itself is performed
+ * by the composed {@link net.nicholaswilliams.java.validation.Modulus} constraint.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class CreditCardNumberValidator implements ConstraintValidator<CreditCardNumber, CharSequence>
+{
+	private BinRanges networks;
+
+	private BinRangeFile binTable;
+
+	@Override
+	public void initialize(CreditCardNumber annotation)
+	{
+		for(CreditCardNumber.Network network : annotation.acceptedNetworks())
+		{
+			BinRanges ranges = BinRanges.forNetwork(network);
+			this.networks = this.networks == null ? ranges : this.networks.union(ranges);
+		}
+
+		if(annotation.acceptedBinTable().length() > 0)
+		{
+			this.binTable = BinRangeFile.get(annotation.acceptedBinTable());
+		}
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null || (this.networks == null && this.binTable == null))
+		{
+			return true;
+		}
+
+		int bin = BinRanges.binOf(value);
+		if(bin < 0)
+		{
+			return false;
+		}
+
+		return (this.networks == null || this.networks.contains(bin)) &&
+			   (this.binTable == null || this.binTable.get().contains(bin));
+	}
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.TimeZone;
+
+/**
+ * An instant together with the calendar fields of that instant in the system default time zone, computed once so
+ * that {@link TemporalComparator}s can compare dates, times and calendar fields against it with integer arithmetic.
+ * Days, months and years are those of the ISO-8601 (proleptic Gregorian) calendar.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class CurrentTime
+{
+	/**
+	 * The number of milliseconds in a day, ignoring leap seconds as every supported type does.
+	 */
+	public static final long MILLIS_PER_DAY = 86400000L;
+
+	private static final long SHIFT_TO_MARCH_BASED_ERA = 719468L;
+
+	private static final long DAYS_PER_ERA = 146097L;
+
+	private static final long YEARS_PER_ERA = 400L;
+
+	private static final long DAYS_PER_YEAR = 365L;
+
+	private static final long DAYS_PER_FOUR_YEARS = 1460L;
+
+	private static final long DAYS_PER_CENTURY = 36524L;
+
+	private static final long DAYS_PER_ERA_LESS_ONE = 146096L;
+
+	private static final long LEAP_YEAR_INTERVAL = 4L;
+
+	private static final long CENTURY = 100L;
+
+	private static final int DAYS_PER_FIVE_MONTHS = 153;
+
+	private static final int MONTHS_PER_CYCLE = 5;
+
+	private static final int MARCH = 3;
+
+	private static final int MONTHS_FROM_JANUARY_TO_MARCH = 9;
+
+	private static final int DAYS_PER_WEEK = 7;
+
+	private static final int THURSDAY = 4;
+
+	private static final long ZONE_CHECK_INTERVAL = 1000L;
+
+	private static volatile Period period;
+
+	private final long epochMillis;
+
+	private final int offsetMillis;
+
+	private final long epochDay;
+
+	private final int millisOfDay;
+
+	private final int year;
+
+	private final int month;
+
+	private final int dayOfMonth;
+
+	private final int dayOfWeek;
+
+	/**
+	 * Creates a snapshot of an instant in a time zone.
+	 *
+	 * @param epochMillis The instant, in milliseconds since the epoch
+	 * @param offsetMillis The offset of the time zone from UTC at the instant, in milliseconds
+	 */
+	CurrentTime(long epochMillis, int offsetMillis)
+	{
+		this.epochMillis = epochMillis;
+		this.offsetMillis = offsetMillis;
+
+		long localMillis = epochMillis + offsetMillis;
+		this.epochDay = CurrentTime.floorDivide(localMillis, MILLIS_PER_DAY);
+		this.millisOfDay = (int) (localMillis - this.epochDay * MILLIS_PER_DAY);
+		// the epoch was a Thursday
+		long daysSinceMonday = this.epochDay + THURSDAY - 1;
+		this.dayOfWeek = (int) (daysSinceMonday - CurrentTime.floorDivide(daysSinceMonday, DAYS_PER_WEEK) *
+											  DAYS_PER_WEEK) + 1;
+
+		// converts the day to a date in a calendar whose years start in March, so that leap days come last
+		long shifted = this.epochDay + SHIFT_TO_MARCH_BASED_ERA;
+		long era = CurrentTime.floorDivide(shifted, DAYS_PER_ERA);
+		long dayOfEra = shifted - era * DAYS_PER_ERA;
+		long yearOfEra = (dayOfEra - dayOfEra / DAYS_PER_FOUR_YEARS + dayOfEra / DAYS_PER_CENTURY -
+						  dayOfEra / DAYS_PER_ERA_LESS_ONE) / DAYS_PER_YEAR;
+		int dayOfYear = (int) (dayOfEra - (DAYS_PER_YEAR * yearOfEra + yearOfEra / LEAP_YEAR_INTERVAL -
+										   yearOfEra / CENTURY));
+		int shiftedMonth = (MONTHS_PER_CYCLE * dayOfYear + 2) / DAYS_PER_FIVE_MONTHS;
+		this.dayOfMonth = dayOfYear - (DAYS_PER_FIVE_MONTHS * shiftedMonth + 2) / MONTHS_PER_CYCLE + 1;
+		this.month = shiftedMonth < MONTHS_FROM_JANUARY_TO_MARCH + 1 ? shiftedMonth + MARCH :
+					 shiftedMonth - MONTHS_FROM_JANUARY_TO_MARCH;
+		this.year = (int) (yearOfEra + era * YEARS_PER_ERA) + (this.month < MARCH ? 1 : 0);
+	}
+
+	/**
+	 * Creates a snapshot of an instant on the same local date as another snapshot, copying its date fields.
+	 *
+	 * @param epochMillis The instant, in milliseconds since the epoch
+	 * @param offsetMillis The offset of the time zone from UTC at the instant, in milliseconds
+	 * @param sameDay A snapshot of an instant on the same local date
+	 */
+	private CurrentTime(long epochMillis, int offsetMillis, CurrentTime sameDay)
+	{
+		this.epochMillis = epochMillis;
+		this.offsetMillis = offsetMillis;
+		this.epochDay = sameDay.epochDay;
+		this.millisOfDay = (int) (epochMillis + offsetMillis - this.epochDay * MILLIS_PER_DAY);
+		this.year = sameDay.year;
+		this.month = sameDay.month;
+		this.dayOfMonth = sameDay.dayOfMonth;
+		this.dayOfWeek = sameDay.dayOfWeek;
+	}
+
+	/**
+	 * Creates a snapshot of an instant in the system default time zone. The offset of the zone and the date fields are
+	 * cached for the period until the next local midnight or offset transition, whichever comes first, so snapshots of
+	 * instants in that period need neither a time zone lookup nor calendar arithmetic. Whether the system default time
+	 * zone has changed is checked once the instants have advanced a second past the previous check, by comparing its
+	 * ID and rules with those of the cached zone; the cache is kept until the end of its period unless the zone has
+	 * changed. Instants that never advance, such as those of a fixed clock, pick up a change of zone only on leaving
+	 * the cached period.
+	 *
+	 * @param epochMillis The instant, in milliseconds since the epoch
+	 * @return the snapshot.
+	 */
+	static CurrentTime of(long epochMillis)
+	{
+		Period current = CurrentTime.period;
+		if(current == null || !current.contains(epochMillis) || !current.isZoneUnchanged(epochMillis))
+		{
+			current = new Period(TimeZone.getDefault(), epochMillis);
+			CurrentTime.period = current;
+		}
+		return new CurrentTime(epochMillis, current.offsetMillis, current.first);
+	}
+
+	/**
+	 * Compares two numbers.
+	 *
+	 * @param first The first number
+	 * @param second The second number
+	 * @return a negative number, zero or a positive number as the first number is less than, equal to or greater than
+	 * the second.
+	 */
+	public static int compare(long first, long second)
+	{
+		return first < second ? -1 : (first == second ? 0 : 1);
+	}
+
+	/**
+	 * Divides two numbers, rounding toward negative infinity.
+	 *
+	 * @param dividend The dividend
+	 * @param divisor The divisor, which must be positive
+	 * @return the quotient.
+	 */
+	public static long floorDivide(long dividend, long divisor)
+	{
+		return dividend >= 0 ? dividend / divisor : (dividend + 1) / divisor - 1;
+	}
+
+	/**
+	 * @return the instant, in milliseconds since the epoch.
+	 */
+	public long getEpochMillis()
+	{
+		return this.epochMillis;
+	}
+
+	/**
+	 * @return the offset of the system default time zone from UTC at the instant, in milliseconds.
+	 */
+	public int getOffsetMillis()
+	{
+		return this.offsetMillis;
+	}
+
+	/**
+	 * @return the local date and time, in milliseconds since the local epoch ({@code 1970-01-01T00:00}).
+	 */
+	public long getLocalMillis()
+	{
+		return this.epochMillis + this.offsetMillis;
+	}
+
+	/**
+	 * @return the local date, in days since the local epoch ({@code 1970-01-01}).
+	 */
+	public long getEpochDay()
+	{
+		return this.epochDay;
+	}
+
+	/**
+	 * @return the local time, in milliseconds since midnight.
+	 */
+	public int getMillisOfDay()
+	{
+		return this.millisOfDay;
+	}
+
+	/**
+	 * @return the local year.
+	 */
+	public int getYear()
+	{
+		return this.year;
+	}
+
+	/**
+	 * @return the local month of the year, from 1 (January) to 12 (December).
+	 */
+	public int getMonth()
+	{
+		return this.month;
+	}
+
+	/**
+	 * @return the local day of the month, from 1 to 31.
+	 */
+	public int getDayOfMonth()
+	{
+		return this.dayOfMonth;
+	}
+
+	/**
+	 * @return the local day of the week, from 1 (Monday) to 7 (Sunday).
+	 */
+	public int getDayOfWeek()
+	{
+		return this.dayOfWeek;
+	}
+
+	/**
+	 * A period of one local date during which the offset of a time zone from UTC does not change, bounded by the
+	 * local midnights and the offset transitions around an instant. {@link TimeZone} exposes no transitions before
+	 * Java 8, so they are found by bisecting with {@link TimeZone#getOffset(long)}, assuming the offset changes at
+	 * most once between a local midnight and the instant.
+	 */
+	private static final class Period
+	{
+		private final long start;
+
+		private final long end;
+
+		private final TimeZone zone;
+
+		private volatile long zoneCheck;
+
+		private final int offsetMillis;
+
+		private final CurrentTime first;
+
+		Period(TimeZone zone, long epochMillis)
+		{
+			this.zone = zone;
+			this.zoneCheck = epochMillis + ZONE_CHECK_INTERVAL;
+			this.offsetMillis = zone.getOffset(epochMillis);
+			this.first = new CurrentTime(epochMillis, this.offsetMillis);
+
+			long midnight = this.first.epochDay * MILLIS_PER_DAY - this.offsetMillis;
+			this.start = zone.getOffset(midnight) == this.offsetMillis ? midnight :
+						 Period.bisect(zone, this.offsetMillis, midnight, epochMillis, true);
+			long nextMidnight = midnight + MILLIS_PER_DAY;
+			this.end = zone.getOffset(nextMidnight - 1L) == this.offsetMillis ? nextMidnight :
+					   Period.bisect(zone, this.offsetMillis, epochMillis, nextMidnight - 1L, false);
+		}
+
+		/**
+		 * Finds the instant at which the offset of a time zone changes between two instants.
+		 *
+		 * @param zone The time zone
+		 * @param offsetMillis The offset at one of the instants
+		 * @param low The earlier instant
+		 * @param high The later instant
+		 * @param toOffset Whether {@code offsetMillis} is the offset at {@code high} rather than at {@code low}
+		 * @return the first instant after {@code low} with the offset at {@code high}.
+		 */
+		private static long bisect(TimeZone zone, int offsetMillis, long low, long high, boolean toOffset)
+		{
+			long before = low;
+			long after = high;
+			while(after - before > 1L)
+			{
+				long middle = before + (after - before) / 2L;
+				if(zone.getOffset(middle) == offsetMillis == toOffset)
+				{
+					after = middle;
+				}
+				else
+				{
+					before = middle;
+				}
+			}
+			return after;
+		}
+
+		/**
+		 * @param epochMillis The instant, in milliseconds since the epoch
+		 * @return whether the instant is in this period.
+		 */
+		boolean contains(long epochMillis)
+		{
+			return epochMillis >= this.start && epochMillis < this.end;
+		}
+
+		/**
+		 * Checks, at most once a second of advancing instants, that the system default time zone is still the one
+		 * this period was computed in; between checks this is a single comparison.
+		 *
+		 * @param epochMillis The instant, in milliseconds since the epoch
+		 * @return whether the system default time zone is assumed unchanged.
+		 */
+		boolean isZoneUnchanged(long epochMillis)
+		{
+			if(epochMillis < this.zoneCheck)
+			{
+				return true;
+			}
+			TimeZone current = TimeZone.getDefault();
+			if(!current.getID().equals(this.zone.getID()) || !current.hasSameRules(this.zone))
+			{
+				return false;
+			}
+			this.zoneCheck = epochMillis + ZONE_CHECK_INTERVAL;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,739 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A set of words stored as a minimal acyclic finite-state automaton (a directed acyclic word graph), in which common
+ * prefixes and common suffixes are each stored once. This typically takes an order of magnitude less memory than a
+ * {@link java.util.HashSet} of the same words, and because the automaton lives in a {@link ByteBuffer}, it can be
+ * held in a byte array or memory-mapped from a file and lookups never allocate.<br>
+ * <br>
+ * The serialized form is a 12-byte header (a magic number, the format version, and the offset of the start state)
+ * followed by the states' arcs. Each arc is ten bytes: the label {@code char}; an {@code int} holding the offset of
+ * the target state's first arc in its low 30 bits, a flag marking the target state as accepting, and a flag marking
+ * the last arc of its state; and an {@code int} holding the number of words whose paths pass through the arc. A
+ * target offset of 0 means the target state has no arcs. The arcs of each state are sorted by label, so adding up the
+ * word counts of the arcs skipped during a lookup gives the index of the word in sorted order, which
+ * {@link PasswordDictionary} uses to keep a rank for each word.<br>
+ * <br>
+ * Case-insensitive lookups follow every case of each character, keeping the set of states reached at each position
+ * free of duplicates, so a lookup takes time linear in the length of the text however many cases match.<br>
+ * <br>
+ * Automata are compiled from word lists by running this class's {@link #main} method:
+ * <pre>
+ * java net.nicholaswilliams.java.validation.support.Dawg output.dawg list1.txt list2.txt ...</pre>
+ * Each list contains one word per line, read as UTF-8. Blank lines are ignored and words are stored as given, so
+ * exact lookups are case sensitive.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class Dawg
+{
+	/**
+	 * The cursor at the start state, before any character has been read.
+	 */
+	static final long START = 0L;
+
+	private static final int MAGIC = 0x4E574457;
+
+	private static final int VERSION = 2;
+
+	private static final int HEADER_LENGTH = 12;
+
+	private static final int VERSION_POSITION = 4;
+
+	private static final int ROOT_OFFSET_POSITION = 8;
+
+	private static final int ARC_LENGTH = 10;
+
+	private static final int TARGET_POSITION = 2;
+
+	private static final int COUNT_POSITION = 6;
+
+	private static final int INITIAL_FRONTIER_SIZE = 16;
+
+	private static final int ACCEPTING = 0x40000000;
+
+	private static final int LAST = 0x80000000;
+
+	private static final int TARGET_MASK = ACCEPTING - 1;
+
+	private static final ThreadLocal<Frontier> FRONTIERS = new ThreadLocal<Frontier>()
+	{
+		@Override
+		protected Frontier initialValue()
+		{
+			return new Frontier();
+		}
+	};
+
+	private static final SharedFiles<Dawg> FILES = new SharedFiles<Dawg>("word automaton")
+	{
+		@Override
+		protected Dawg load(File file) throws IOException
+		{
+			return Dawg.map(file);
+		}
+	};
+
+	private final ByteBuffer buffer;
+
+	private final int root;
+
+	private Dawg(ByteBuffer buffer) throws IOException
+	{
+		if(buffer.limit() < HEADER_LENGTH || buffer.getInt(0) != MAGIC || buffer.getInt(VERSION_POSITION) != VERSION)
+		{
+			throw new IOException("The data is not a word automaton of a supported version.");
+		}
+		this.buffer = buffer;
+		this.root = buffer.getInt(ROOT_OFFSET_POSITION);
+	}
+
+	/**
+	 * Returns the automaton in the file at the specified path, mapping it into memory the first time it is requested.
+	 * Every caller naming the same path shares one mapping.
+	 *
+	 * @param path The path to the automaton file
+	 * @return the automaton.
+	 * @throws javax.validation.ConstraintDeclarationException if the file cannot be mapped or is not an automaton.
+	 */
+	public static Dawg get(String path)
+	{
+		return FILES.get(path);
+	}
+
+	/**
+	 * Memory-maps an automaton file. The data stays off the heap and is shared through the page cache.
+	 *
+	 * @param file The file to map
+	 * @return the automaton.
+	 * @throws IOException if the file cannot be mapped or is not an automaton.
+	 */
+	public static Dawg map(File file) throws IOException
+	{
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = randomAccessFile.getChannel();
+			return new Dawg(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+		finally
+		{
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Reads an automaton into a heap byte array. The stream is not closed.
+	 *
+	 * @param stream The stream to read
+	 * @return the automaton.
+	 * @throws IOException if the stream cannot be read or does not contain an automaton.
+	 */
+	public static Dawg read(InputStream stream) throws IOException
+	{
+		DataInputStream input = new DataInputStream(stream);
+		byte[] header = new byte[HEADER_LENGTH];
+		input.readFully(header);
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		data.write(header);
+		byte[] chunk = new byte[ReaderUtils.BUFFER_SIZE];
+		int read;
+		while((read = input.read(chunk)) > 0)
+		{
+			data.write(chunk, 0, read);
+		}
+		return new Dawg(ByteBuffer.wrap(data.toByteArray()));
+	}
+
+	/**
+	 * Builds a minimal automaton accepting exactly the specified words and writes it to the stream. The words are
+	 * added in sorted order using the incremental construction of Daciuk et al., so only the states along the most
+	 * recently added word are ever unminimized. The stream is not closed.
+	 *
+	 * @param words The words, none of which may be empty
+	 * @param stream The stream to write to
+	 * @throws IOException if the stream cannot be written to.
+	 */
+	public static void write(Iterable<? extends CharSequence> words, OutputStream stream) throws IOException
+	{
+		TreeSet<String> sorted = new TreeSet<String>();
+		for(CharSequence word : words)
+		{
+			if(word.length() == 0)
+			{
+				throw new IllegalArgumentException("Words must not be empty.");
+			}
+			sorted.add(word.toString());
+		}
+
+		Builder builder = new Builder();
+		for(String word : sorted)
+		{
+			builder.add(word);
+		}
+		builder.write(stream);
+	}
+
+	/**
+	 * Compiles word lists into an automaton file. The first argument is the output file and the remaining arguments
+	 * are the word lists.
+	 *
+	 * @param arguments The output file followed by one or more word lists
+	 * @throws IOException if a file cannot be read or written.
+	 */
+	public static void main(String[] arguments) throws IOException
+	{
+		if(arguments.length < 2)
+		{
+			throw new IllegalArgumentException("Usage: Dawg <output file> <word list> [<word list> ...]");
+		}
+
+		TreeSet<String> words = new TreeSet<String>();
+		for(int i = 1; i < arguments.length; i++)
+		{
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(new FileInputStream(arguments[i]), "UTF-8")
+			);
+			try
+			{
+				String line;
+				while((line = reader.readLine()) != null)
+				{
+					if(line.length() > 0)
+					{
+						words.add(line);
+					}
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+
+		OutputStream output = new FileOutputStream(arguments[0]);
+		try
+		{
+			Dawg.write(words, output);
+		}
+		finally
+		{
+			output.close();
+		}
+	}
+
+	/**
+	 * Returns the size of the serialized automaton in bytes.
+	 *
+	 * @return the size in bytes.
+	 */
+	public int getSize()
+	{
+		return this.buffer.limit();
+	}
+
+	/**
+	 * Returns the number of words in the set.
+	 *
+	 * @return the number of words.
+	 */
+	public int getWordCount()
+	{
+		int count = 0;
+		for(int arc = this.root; arc > 0; arc += ARC_LENGTH)
+		{
+			count += this.buffer.getInt(arc + COUNT_POSITION);
+			if((this.buffer.getInt(arc + TARGET_POSITION) & LAST) != 0)
+			{
+				break;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Indicates whether the word is in the set.
+	 *
+	 * @param word The word to look up
+	 * @param ignoreCase Whether to match the word case-insensitively
+	 * @return {@code true} if the word is in the set.
+	 */
+	public boolean contains(CharSequence word, boolean ignoreCase)
+	{
+		if(word.length() == 0)
+		{
+			return false;
+		}
+		if(ignoreCase)
+		{
+			return this.matches(word, 0, word.length(), word.length(), true);
+		}
+
+		long cursor = START;
+		for(int i = 0, length = word.length(); i < length && cursor >= 0; i++)
+		{
+			cursor = this.next(cursor, word.charAt(i));
+		}
+		return this.wordIndex(cursor) >= 0;
+	}
+
+	/**
+	 * Indicates whether some word in the set starts at the specified index of the text and is at least the specified
+	 * length.
+	 *
+	 * @param text The text to scan
+	 * @param start The index at which the word must start
+	 * @param minLength The minimum length of the word, at least 1
+	 * @param ignoreCase Whether to match case-insensitively
+	 * @return {@code true} if such a word starts at the index.
+	 */
+	public boolean hasWordAt(CharSequence text, int start, int minLength, boolean ignoreCase)
+	{
+		return this.matches(text, start, start + Math.max(minLength, 1), text.length(), ignoreCase);
+	}
+
+	/**
+	 * Indicates whether the text contains any word in the set that is at least the specified length.
+	 *
+	 * @param text The text to scan
+	 * @param minLength The minimum length of the word, at least 1
+	 * @param ignoreCase Whether to match case-insensitively
+	 * @return {@code true} if the text contains such a word.
+	 */
+	public boolean containsWord(CharSequence text, int minLength, boolean ignoreCase)
+	{
+		for(int start = 0, last = text.length() - Math.max(minLength, 1); start <= last; start++)
+		{
+			if(this.hasWordAt(text, start, minLength, ignoreCase))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads a character from the position of the cursor. A cursor holds the offset of the arc last followed (0 at the
+	 * start) in its high 32 bits and the number of words sorted before every word it leads to in its low 32 bits.
+	 *
+	 * @param cursor The cursor, {@link #START} to read the first character
+	 * @param label The character to read
+	 * @return the cursor after the character, or -1 if no word continues with the character.
+	 */
+	long next(long cursor, char label)
+	{
+		int arc = (int) (cursor >>> Integer.SIZE);
+		int index = (int) cursor;
+		int state = this.root;
+		if(arc != 0)
+		{
+			int target = this.buffer.getInt(arc + TARGET_POSITION);
+			state = target & TARGET_MASK;
+			if((target & ACCEPTING) != 0)
+			{
+				// the word read so far comes before every longer word
+				index++;
+			}
+		}
+		if(state == 0)
+		{
+			return -1L;
+		}
+
+		for(arc = state;; arc += ARC_LENGTH)
+		{
+			char arcLabel = this.buffer.getChar(arc);
+			if(arcLabel == label)
+			{
+				return ((long) arc << Integer.SIZE) | index;
+			}
+			if(arcLabel > label || (this.buffer.getInt(arc + TARGET_POSITION) & LAST) != 0)
+			{
+				return -1L;
+			}
+			index += this.buffer.getInt(arc + COUNT_POSITION);
+		}
+	}
+
+	/**
+	 * Returns the index in sorted order of the word read by the cursor.
+	 *
+	 * @param cursor The cursor
+	 * @return the index of the word, or -1 if the characters read are not a word or the cursor is -1.
+	 */
+	int wordIndex(long cursor)
+	{
+		int arc = (int) (cursor >>> Integer.SIZE);
+		return cursor > 0L && (this.buffer.getInt(arc + TARGET_POSITION) & ACCEPTING) != 0 ? (int) cursor : -1;
+	}
+
+	/*
+	 * Walks the text from the index, returning true as soon as an accepting state is reached at or beyond minEnd.
+	 * When ignoring case, the lowercase, uppercase and original forms of each character are all followed, and the
+	 * states reached are merged, so that each state is visited at most once for each position of the text.
+	 */
+	private boolean matches(CharSequence text, int start, int minEnd, int maxEnd, boolean ignoreCase)
+	{
+		if(this.root == 0)
+		{
+			return false;
+		}
+
+		Frontier frontier = FRONTIERS.get();
+		frontier.states[0] = this.root;
+		int count = 1;
+		for(int i = start; i < maxEnd && count > 0; i++)
+		{
+			char c = text.charAt(i);
+			char lower = ignoreCase ? Character.toLowerCase(c) : c;
+			char upper = ignoreCase ? Character.toUpperCase(c) : c;
+			boolean accept = i + 1 >= minEnd;
+			int reached = 0;
+			for(int j = 0; j < count; j++)
+			{
+				int state = frontier.states[j];
+				reached = this.follow(frontier, reached, state, lower, accept);
+				if(reached >= 0 && upper != lower)
+				{
+					reached = this.follow(frontier, reached, state, upper, accept);
+				}
+				if(reached >= 0 && c != lower && c != upper)
+				{
+					reached = this.follow(frontier, reached, state, c, accept);
+				}
+				if(reached < 0)
+				{
+					return true;
+				}
+			}
+			count = reached;
+			frontier.swap();
+		}
+		return false;
+	}
+
+	/*
+	 * Follows the arc from the state, adding its target to the next states and returning their new count, or -1 if
+	 * the target is accepting and a word may end here.
+	 */
+	private int follow(Frontier frontier, int reached, int state, char label, boolean accept)
+	{
+		int arc = this.findArc(state, label);
+		if(arc < 0)
+		{
+			return reached;
+		}
+		int target = this.buffer.getInt(arc + TARGET_POSITION);
+		if(accept && (target & ACCEPTING) != 0)
+		{
+			return -1;
+		}
+		return frontier.add(reached, target & TARGET_MASK);
+	}
+
+	private int findArc(int state, char label)
+	{
+		if(state == 0)
+		{
+			return -1;
+		}
+		int arc = state;
+		while(true)
+		{
+			char arcLabel = this.buffer.getChar(arc);
+			if(arcLabel == label)
+			{
+				return arc;
+			}
+			if(arcLabel > label || (this.buffer.getInt(arc + TARGET_POSITION) & LAST) != 0)
+			{
+				return -1;
+			}
+			arc += ARC_LENGTH;
+		}
+	}
+
+	/**
+	 * A state of the automaton under construction.
+	 */
+	private static final class Node
+	{
+		private char[] labels = new char[0];
+
+		private Node[] targets = new Node[0];
+
+		private boolean accepting;
+
+		private int hash;
+
+		private int words = -1;
+
+		Node lastChild()
+		{
+			return this.targets.length == 0 ? null : this.targets[this.targets.length - 1];
+		}
+
+		void append(char label, Node target)
+		{
+			int length = this.labels.length;
+			this.labels = Arrays.copyOf(this.labels, length + 1);
+			this.targets = Arrays.copyOf(this.targets, length + 1);
+			this.labels[length] = label;
+			this.targets[length] = target;
+		}
+
+		/*
+		 * Counts the words accepted below the arc to the target at the index. Only called once the automaton is
+		 * minimized, so the count of each state is computed once.
+		 */
+		int wordsThrough(int index)
+		{
+			Node target = this.targets[index];
+			if(target.words < 0)
+			{
+				int words = 0;
+				for(int i = 0; i < target.targets.length; i++)
+				{
+					words += target.wordsThrough(i);
+				}
+				target.words = words;
+			}
+			return target.words + (target.accepting ? 1 : 0);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			if(this.hash == 0)
+			{
+				int result = this.accepting ? 1 : 0;
+				for(int i = 0; i < this.labels.length; i++)
+				{
+					result = result * Builder.HASH_MULTIPLIER + this.labels[i];
+					result = result * Builder.HASH_MULTIPLIER + System.identityHashCode(this.targets[i]);
+				}
+				this.hash = result == 0 ? 1 : result;
+			}
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object object)
+		{
+			if(!(object instanceof Node))
+			{
+				return false;
+			}
+			Node other = (Node) object;
+			if(this.accepting != other.accepting || !Arrays.equals(this.labels, other.labels))
+			{
+				return false;
+			}
+			for(int i = 0; i < this.targets.length; i++)
+			{
+				if(this.targets[i] != other.targets[i])
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Builds a minimal automaton from words added in sorted order.
+	 */
+	private static final class Builder
+	{
+		static final int HASH_MULTIPLIER = 31;
+
+		private final Node root = new Node();
+
+		private final Map<Node, Node> register = new HashMap<Node, Node>();
+
+		private String previous = "";
+
+		void add(String word)
+		{
+			int common = 0;
+			Node state = this.root;
+			while(common < word.length() && common < this.previous.length() &&
+				  word.charAt(common) == this.previous.charAt(common))
+			{
+				state = state.lastChild();
+				common++;
+			}
+
+			if(state.targets.length > 0)
+			{
+				this.replaceOrRegister(state);
+			}
+			for(int i = common; i < word.length(); i++)
+			{
+				Node next = new Node();
+				state.append(word.charAt(i), next);
+				state = next;
+			}
+			state.accepting = true;
+			this.previous = word;
+		}
+
+		/*
+		 * Minimizes the most recently added branch below the state. Its states are no longer mutated once this is
+		 * done, so they can be registered by value.
+		 */
+		private void replaceOrRegister(Node state)
+		{
+			Node child = state.lastChild();
+			if(child.targets.length > 0)
+			{
+				this.replaceOrRegister(child);
+			}
+
+			Node equivalent = this.register.get(child);
+			if(equivalent != null)
+			{
+				state.targets[state.targets.length - 1] = equivalent;
+			}
+			else
+			{
+				this.register.put(child, child);
+			}
+		}
+
+		void write(OutputStream stream) throws IOException
+		{
+			if(this.root.targets.length > 0)
+			{
+				this.replaceOrRegister(this.root);
+			}
+
+			ByteArrayOutputStream arcs = new ByteArrayOutputStream();
+			DataOutputStream output = new DataOutputStream(arcs);
+			int rootOffset = this.layOut(this.root, new IdentityHashMap<Node, Integer>(), output);
+			output.flush();
+
+			DataOutputStream header = new DataOutputStream(stream);
+			header.writeInt(MAGIC);
+			header.writeInt(VERSION);
+			header.writeInt(rootOffset);
+			header.flush();
+			arcs.writeTo(stream);
+		}
+
+		/*
+		 * Writes the states below the state before the state itself, so that every target offset is known when its
+		 * arc is written, and returns the offset of the state's first arc.
+		 */
+		private int layOut(Node state, Map<Node, Integer> offsets, DataOutputStream output) throws IOException
+		{
+			Integer known = offsets.get(state);
+			if(known != null)
+			{
+				return known;
+			}
+
+			int[] targetOffsets = new int[state.targets.length];
+			for(int i = 0; i < targetOffsets.length; i++)
+			{
+				targetOffsets[i] = this.layOut(state.targets[i], offsets, output);
+			}
+
+			int offset = 0;
+			if(targetOffsets.length > 0)
+			{
+				offset = HEADER_LENGTH + output.size();
+				if(offset + targetOffsets.length * ARC_LENGTH > TARGET_MASK)
+				{
+					throw new IOException("The automaton is too large to serialize.");
+				}
+				for(int i = 0; i < targetOffsets.length; i++)
+				{
+					output.writeChar(state.labels[i]);
+					output.writeInt(targetOffsets[i] | (state.targets[i].accepting ? ACCEPTING : 0) |
+									(i == targetOffsets.length - 1 ? LAST : 0));
+					output.writeInt(state.wordsThrough(i));
+				}
+			}
+			offsets.put(state, offset);
+			return offset;
+		}
+	}
+
+	/**
+	 * A thread's scratch space for case-insensitive walks: the states reached at the current position and at the next.
+	 */
+	private static final class Frontier
+	{
+		private int[] states = new int[INITIAL_FRONTIER_SIZE];
+
+		private int[] next = new int[INITIAL_FRONTIER_SIZE];
+
+		/*
+		 * Adds the state to the next states unless it has no arcs or is already there, returning the new count.
+		 */
+		int add(int count, int state)
+		{
+			if(state == 0)
+			{
+				return count;
+			}
+			for(int i = 0; i < count; i++)
+			{
+				if(this.next[i] == state)
+				{
+					return count;
+				}
+			}
+			if(count == this.next.length)
+			{
+				this.next = Arrays.copyOf(this.next, count * 2);
+			}
+			this.next[count] = state;
+			return count + 1;
+		}
+
+		void swap()
+		{
+			int[] states = this.states;
+			this.states = this.next;
+			this.next = states;
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.math.BigInteger;
+
+/**
+ * A read-only {@link CharSequence} view of the decimal digits of a non-negative {@code long}. Each character is
+ * computed from the value on demand, so numeric targets can be handed to the character-based validators without
+ * formatting them as {@link String}s. Each thread reuses one view, so obtaining one does not allocate; a view is
+ * valid only until the next call to {@link #of(long)} on the same thread and must not be retained.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class DecimalDigits implements CharSequence
+{
+	private static final long RADIX = 10L;
+
+	private static final long[] POWERS_OF_TEN;
+
+	static
+	{
+		int count = 1;
+		for(long power = 1L; power <= Long.MAX_VALUE / RADIX; power *= RADIX)
+		{
+			count++;
+		}
+
+		POWERS_OF_TEN = new long[count];
+		POWERS_OF_TEN[0] = 1L;
+		for(int i = 1; i < count; i++)
+		{
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * RADIX;
+		}
+	}
+
+	private static final ThreadLocal<DecimalDigits> VIEWS = new ThreadLocal<DecimalDigits>()
+	{
+		@Override
+		protected DecimalDigits initialValue()
+		{
+			return new DecimalDigits();
+		}
+	};
+
+	private long value;
+
+	private int length;
+
+	private DecimalDigits()
+	{
+
+	}
+
+	/**
+	 * Returns the calling thread's view, set to the digits of the specified value.
+	 *
+	 * @param value The value, which must not be negative
+	 * @return the digits of the value.
+	 */
+	static DecimalDigits of(long value)
+	{
+		int length = 1;
+		while(length < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[length])
+		{
+			length++;
+		}
+
+		DecimalDigits digits = VIEWS.get();
+		digits.value = value;
+		digits.length = length;
+		return digits;
+	}
+
+	/**
+	 * Returns the decimal digits of a non-negative {@link BigInteger}. Values that fit in a {@code long} are viewed
+	 * through the calling thread's view without formatting; larger values fall back to {@link BigInteger#toString()}.
+	 *
+	 * @param value The value, which must not be negative
+	 * @return the digits of the value.
+	 */
+	static CharSequence of(BigInteger value)
+	{
+		return value.bitLength() < Long.SIZE ? DecimalDigits.of(value.longValue()) : value.toString();
+	}
+
+	@Override
+	public int length()
+	{
+		return this.length;
+	}
+
+	@Override
+	public char charAt(int index)
+	{
+		if(index < 0 || index >= this.length)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + this.length);
+		}
+		return (char) ('0' + (this.value / POWERS_OF_TEN[this.length - 1 - index]) % RADIX);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		return this.toString().subSequence(start, end);
+	}
+
+	@Override
+	public String toString()
+	{
+		return Long.toString(this.value);
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A local index or list of disposable email domains, loaded into a {@link DisposableDomainIndex} and reloaded when it
+ * changes (see {@link ReloadingFile}).
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class DisposableDomainFile extends ReloadingFile<DisposableDomainIndex>
+{
+	private static final SharedFiles<DisposableDomainFile> FILES =
+			new SharedFiles<DisposableDomainFile>("disposable domain file")
+			{
+				@Override
+				protected DisposableDomainFile load(File file) throws IOException
+				{
+					return new DisposableDomainFile(file);
+				}
+			};
+
+	private DisposableDomainFile(File file) throws IOException
+	{
+		super(file);
+	}
+
+	/**
+	 * Returns the domain file at the specified path, loading it the first time it is requested. Every caller naming
+	 * the same path shares one instance.
+	 *
+	 * @param path The path to the domain index or list
+	 * @return the domain file.
+	 * @throws javax.validation.ConstraintDeclarationException if the file cannot be read or contains a malformed
+	 * domain.
+	 */
+	static DisposableDomainFile get(String path)
+	{
+		return FILES.get(path);
+	}
+
+	@Override
+	protected DisposableDomainIndex load(File file) throws IOException
+	{
+		return DisposableDomainIndex.load(file);
+	}
+}
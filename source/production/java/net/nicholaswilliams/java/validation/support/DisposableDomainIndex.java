@@ -0,0 +1,316 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A set of domain names stored as an open-addressed hash table of 64-bit fingerprints in a {@link ByteBuffer}, which
+ * can be memory-mapped from an index file or built on the heap from a text list. The table is at most half full, so a
+ * lookup probes about two slots, and a domain is never stored or compared as text: the chance of an unlisted domain
+ * sharing a listed domain's fingerprint is about one in 2<sup>64</sup> divided by the number of domains.<br>
+ * <br>
+ * Fingerprints are computed right to left, so a single backward pass over a domain yields the fingerprint of each of
+ * its parent domains as it reaches their label boundaries; {@link #contains} uses this to find listed parent domains
+ * without creating substrings. Domains are compared ignoring ASCII case and a trailing dot, and internationalized
+ * domains are listed and looked up in their ASCII form.<br>
+ * <br>
+ * The index file format is a 16-byte header (the magic number {@code 0x4E574444}, the format version, the number of
+ * domains, and the number of slots, a power of two) followed by the slots, each a big-endian {@code long}
+ * fingerprint or zero for an empty slot. The {@link #main} method builds an index file from a text list. A file
+ * without the header is read as a text list: one domain per line, with blank lines and lines starting with {@code #}
+ * ignored.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class DisposableDomainIndex
+{
+	private static final int MAGIC = 0x4E574444;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_LENGTH = 16;
+
+	private static final int VERSION_POSITION = 4;
+
+	private static final int COUNT_POSITION = 8;
+
+	private static final int CAPACITY_POSITION = 12;
+
+	private static final int SLOT_LENGTH = 8;
+
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	private static final long MIX_MULTIPLIER_1 = 0xFF51AFD7ED558CCDL;
+
+	private static final long MIX_MULTIPLIER_2 = 0xC4CEB9FE1A85EC53L;
+
+	private static final int MIX_SHIFT = 33;
+
+	private static final int MAX_CAPACITY = 0x08000000;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final ByteBuffer buffer;
+
+	private final int count;
+
+	private final int mask;
+
+	private DisposableDomainIndex(ByteBuffer buffer) throws IOException
+	{
+		int capacity = buffer.getInt(CAPACITY_POSITION);
+		if(buffer.getInt(VERSION_POSITION) != VERSION || Integer.bitCount(capacity) != 1 ||
+		   buffer.limit() != HEADER_LENGTH + (long) capacity * SLOT_LENGTH)
+		{
+			throw new IOException("The data is not a domain index of a supported version.");
+		}
+		this.buffer = buffer;
+		this.count = buffer.getInt(COUNT_POSITION);
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Loads the index in a file. An index file is memory-mapped, so its data stays off the heap and is shared through
+	 * the page cache; any other file is read as a text list and indexed on the heap.
+	 *
+	 * @param file The file to load
+	 * @return the index.
+	 * @throws IOException if the file cannot be read or is a corrupt index file.
+	 */
+	public static DisposableDomainIndex load(File file) throws IOException
+	{
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = randomAccessFile.getChannel();
+			if(channel.size() >= HEADER_LENGTH && randomAccessFile.readInt() == MAGIC)
+			{
+				return new DisposableDomainIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			}
+		}
+		finally
+		{
+			randomAccessFile.close();
+		}
+
+		List<String> domains = DisposableDomainIndex.readList(file);
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + DisposableDomainIndex.capacity(domains.size()) *
+																SLOT_LENGTH);
+		DisposableDomainIndex.fill(domains, buffer);
+		return new DisposableDomainIndex(buffer);
+	}
+
+	/**
+	 * Builds an index of the specified domains and writes it to the stream. The stream is not closed.
+	 *
+	 * @param domains The domains, in their lower-case ASCII form
+	 * @param stream The stream to write to
+	 * @throws IOException if the stream cannot be written to.
+	 */
+	public static void write(List<String> domains, OutputStream stream) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + DisposableDomainIndex.capacity(domains.size()) *
+																SLOT_LENGTH);
+		DisposableDomainIndex.fill(domains, buffer);
+		stream.write(buffer.array());
+	}
+
+	/**
+	 * Builds an index file from a text list of domains.
+	 *
+	 * @param arguments The input text file followed by the output file
+	 * @throws IOException if a file cannot be read or written.
+	 */
+	public static void main(String[] arguments) throws IOException
+	{
+		if(arguments.length != 2)
+		{
+			throw new IllegalArgumentException("Usage: DisposableDomainIndex <input text file> <output file>");
+		}
+
+		List<String> domains = DisposableDomainIndex.readList(new File(arguments[0]));
+		OutputStream output = new BufferedOutputStream(new FileOutputStream(arguments[1]));
+		try
+		{
+			DisposableDomainIndex.write(domains, output);
+		}
+		finally
+		{
+			output.close();
+		}
+	}
+
+	private static List<String> readList(File file) throws IOException
+	{
+		List<String> domains = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8));
+		try
+		{
+			String line;
+			while((line = reader.readLine()) != null)
+			{
+				line = line.trim();
+				if(line.length() > 0 && line.charAt(0) != '#')
+				{
+					String domain = InternationalHostNames.normalize(line.toLowerCase(Locale.ENGLISH));
+					if(domain == null)
+					{
+						throw new IllegalArgumentException("Malformed domain [" + line + "].");
+					}
+					domains.add(domain);
+				}
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return domains;
+	}
+
+	private static int capacity(int count)
+	{
+		int capacity = Integer.highestOneBit(Math.max(count, 1)) << 2;
+		if(capacity > MAX_CAPACITY)
+		{
+			throw new IllegalArgumentException("Too many domains: " + count + ".");
+		}
+		return capacity;
+	}
+
+	private static void fill(List<String> domains, ByteBuffer buffer)
+	{
+		int capacity = (buffer.limit() - HEADER_LENGTH) / SLOT_LENGTH;
+		int mask = capacity - 1;
+		int count = 0;
+		for(String domain : domains)
+		{
+			int end = domain.endsWith(".") ? domain.length() - 1 : domain.length();
+			long fingerprint = DisposableDomainIndex.fingerprint(DisposableDomainIndex.hash(domain, 0, end));
+			int slot = (int) fingerprint & mask;
+			long existing;
+			while((existing = buffer.getLong(HEADER_LENGTH + slot * SLOT_LENGTH)) != 0L && existing != fingerprint)
+			{
+				slot = (slot + 1) & mask;
+			}
+			if(existing == 0L)
+			{
+				buffer.putLong(HEADER_LENGTH + slot * SLOT_LENGTH, fingerprint);
+				count++;
+			}
+		}
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(VERSION_POSITION, VERSION);
+		buffer.putInt(COUNT_POSITION, count);
+		buffer.putInt(CAPACITY_POSITION, capacity);
+	}
+
+	/**
+	 * Indicates whether the domain in the region of the value, or any of its parent domains, is in this index. The
+	 * domain must already be in its ASCII form.
+	 *
+	 * @param value The value containing the domain
+	 * @param start The start of the domain, inclusive
+	 * @param end The end of the domain, exclusive
+	 * @return {@code true} if the domain or a parent domain is listed.
+	 */
+	public boolean contains(CharSequence value, int start, int end)
+	{
+		if(end > start && value.charAt(end - 1) == '.')
+		{
+			end--;
+		}
+
+		long hash = FNV_OFFSET_BASIS;
+		for(int i = end - 1; i >= start; i--)
+		{
+			char c = value.charAt(i);
+			if(c == '.' && this.containsFingerprint(DisposableDomainIndex.fingerprint(hash)))
+			{
+				return true;
+			}
+			hash = DisposableDomainIndex.next(hash, c);
+		}
+		return end > start && this.containsFingerprint(DisposableDomainIndex.fingerprint(hash));
+	}
+
+	/**
+	 * @return the number of domains in this index.
+	 */
+	public int getCount()
+	{
+		return this.count;
+	}
+
+	private boolean containsFingerprint(long fingerprint)
+	{
+		int slot = (int) fingerprint & this.mask;
+		long stored;
+		while((stored = this.buffer.getLong(HEADER_LENGTH + slot * SLOT_LENGTH)) != 0L)
+		{
+			if(stored == fingerprint)
+			{
+				return true;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return false;
+	}
+
+	private static long hash(CharSequence value, int start, int end)
+	{
+		long hash = FNV_OFFSET_BASIS;
+		for(int i = end - 1; i >= start; i--)
+		{
+			hash = DisposableDomainIndex.next(hash, value.charAt(i));
+		}
+		return hash;
+	}
+
+	private static long next(long hash, char c)
+	{
+		return (hash ^ (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c)) * FNV_PRIME;
+	}
+
+	/*
+	 * Finishes a hash into a fingerprint, which is never zero because zero marks an empty slot.
+	 */
+	private static long fingerprint(long hash)
+	{
+		long mixed = (hash ^ (hash >>> MIX_SHIFT)) * MIX_MULTIPLIER_1;
+		mixed = (mixed ^ (mixed >>> MIX_SHIFT)) * MIX_MULTIPLIER_2;
+		mixed ^= mixed >>> MIX_SHIFT;
+		return mixed == 0L ? 1L : mixed;
+	}
+}
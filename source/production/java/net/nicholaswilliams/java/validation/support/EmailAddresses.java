@@ -0,0 +1,336 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+/**
+ * Recognizers for the email address grammars of {@link net.nicholaswilliams.java.validation.EmailSimple} and
+ * {@link net.nicholaswilliams.java.validation.EmailExtended}. Each is a hand-written deterministic automaton over a
+ * 128-entry character-class table, so it reads every character at most once, runs in time linear in the length of
+ * the address whatever its content, and allocates nothing unless the domain is internationalized. The grammars
+ * accept exactly the strings matched, case-insensitively, by the regular expressions these constraints were
+ * originally declared with, which backtrack exponentially on some inputs:
+ * <pre>
+ * simple:   atom+ ("." atom+)* "@" label ("." label)*
+ * extended: (atom+ ("." atom+)* | quoted) "@" (label ("." label)+ | "[" octet "." octet "." octet "."
+ *           (octet | tag ":" literal+) "]")
+ * </pre>
+ * where a label is a letter or digit, optionally followed by letters, digits, and hyphens ending in a letter or digit;
+ * an octet is one to three digits with a value no greater than 255; and quoted strings and address literals allow
+ * most other ASCII characters, with backslash escapes. The one exception is a domain name that contains non-ASCII
+ * characters or an {@code xn--} label: it is first normalized to its ASCII form by {@link InternationalHostNames},
+ * which rejects malformed {@code xn--} labels, and that form must then match the grammar. The local part must still
+ * be ASCII.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class EmailAddresses
+{
+	private static final int ASCII_SIZE = 128;
+
+	private static final byte ATOM = 1;
+
+	private static final byte ALPHANUMERIC = 2;
+
+	private static final byte QUOTED = 4;
+
+	private static final byte ESCAPED = 8;
+
+	private static final byte LITERAL = 16;
+
+	private static final byte[] CLASSES = new byte[ASCII_SIZE];
+
+	private static final int MAX_OCTET = 255;
+
+	private static final int MAX_OCTET_DIGITS = 3;
+
+	private static final int RADIX = 10;
+
+	private static final int OCTETS_BEFORE_LAST = 3;
+
+	private static final int LITERAL_EMPTY = 0;
+
+	private static final int LITERAL_CONTENT = 1;
+
+	private static final int LITERAL_CLOSED = 2;
+
+	private static final int LITERAL_BACKSLASH = 3;
+
+	static
+	{
+		for(char c = 1; c < ASCII_SIZE; c++)
+		{
+			boolean alphanumeric = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+			boolean lineBreak = c == '\n' || c == '\r';
+			boolean blank = c == '\t' || c == ' ';
+			int classes = 0;
+			if(alphanumeric || "`!#$%^&*'{}?/+=|_~-".indexOf(c) >= 0)
+			{
+				classes |= ATOM;
+			}
+			if(alphanumeric)
+			{
+				classes |= ALPHANUMERIC;
+			}
+			if(!lineBreak && !blank && c != '"' && c != '\\')
+			{
+				classes |= QUOTED;
+			}
+			if(!lineBreak)
+			{
+				classes |= ESCAPED;
+			}
+			if(!lineBreak && !blank)
+			{
+				classes |= LITERAL;
+			}
+			CLASSES[c] = (byte) classes;
+		}
+	}
+
+	private EmailAddresses()
+	{
+
+	}
+
+	/**
+	 * Indicates whether the value is an email address according to the simple grammar.
+	 *
+	 * @param value The value to check
+	 * @return {@code true} if the value is a simple email address.
+	 */
+	static boolean isSimple(CharSequence value)
+	{
+		int length = value.length();
+		int i = EmailAddresses.dotAtomEnd(value, 0, length);
+		if(i < 0 || i >= length || value.charAt(i) != '@')
+		{
+			return false;
+		}
+		return EmailAddresses.isHostName(value, i + 1, length, false);
+	}
+
+	/**
+	 * Indicates whether the value is an email address according to the extended grammar.
+	 *
+	 * @param value The value to check
+	 * @return {@code true} if the value is an extended email address.
+	 */
+	static boolean isExtended(CharSequence value)
+	{
+		int length = value.length();
+		int i = length > 0 && value.charAt(0) == '"' ? EmailAddresses.quotedEnd(value, length) :
+				EmailAddresses.dotAtomEnd(value, 0, length);
+		if(i < 0 || i >= length || value.charAt(i) != '@')
+		{
+			return false;
+		}
+		i++;
+		if(i < length && value.charAt(i) == '[')
+		{
+			return EmailAddresses.isAddressLiteral(value, i + 1, length);
+		}
+		return EmailAddresses.isHostName(value, i, length, true);
+	}
+
+	private static boolean is(char c, int classes)
+	{
+		return c < ASCII_SIZE && (CLASSES[c] & classes) != 0;
+	}
+
+	/*
+	 * Recognizes atom+ ("." atom+)*, returning the index after it or -1 if an atom is empty.
+	 */
+	private static int dotAtomEnd(CharSequence value, int start, int length)
+	{
+		int i = start;
+		while(true)
+		{
+			int atomStart = i;
+			while(i < length && EmailAddresses.is(value.charAt(i), ATOM))
+			{
+				i++;
+			}
+			if(i == atomStart)
+			{
+				return -1;
+			}
+			if(i < length && value.charAt(i) == '.')
+			{
+				i++;
+			}
+			else
+			{
+				return i;
+			}
+		}
+	}
+
+	/*
+	 * Recognizes a double-quoted string starting at index zero, returning the index after the closing quote or -1.
+	 */
+	private static int quotedEnd(CharSequence value, int length)
+	{
+		int i = 1;
+		while(i < length)
+		{
+			char c = value.charAt(i);
+			if(c == '"')
+			{
+				return i + 1;
+			}
+			if(c == '\\')
+			{
+				if(i + 1 >= length || !EmailAddresses.is(value.charAt(i + 1), ESCAPED))
+				{
+					return -1;
+				}
+				i += 2;
+			}
+			else if(EmailAddresses.is(c, QUOTED))
+			{
+				i++;
+			}
+			else
+			{
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Recognizes a host name extending to the end of the value, in its ASCII form if it is internationalized.
+	 */
+	private static boolean isHostName(CharSequence value, int start, int length, boolean requireDot)
+	{
+		if(InternationalHostNames.needsNormalization(value, start, length))
+		{
+			String ascii = InternationalHostNames.normalize(value, start, length);
+			return ascii != null && EmailAddresses.hostNameEnd(ascii, 0, ascii.length(), requireDot) == ascii.length();
+		}
+		return EmailAddresses.hostNameEnd(value, start, length, requireDot) == length;
+	}
+
+	/*
+	 * Recognizes label ("." label)*, or label ("." label)+ if a dot is required, returning the index after it or -1.
+	 */
+	private static int hostNameEnd(CharSequence value, int start, int length, boolean requireDot)
+	{
+		int i = start;
+		boolean dotted = false;
+		while(true)
+		{
+			if(i >= length || !EmailAddresses.is(value.charAt(i), ALPHANUMERIC))
+			{
+				return -1;
+			}
+			i++;
+			while(i < length && (EmailAddresses.is(value.charAt(i), ALPHANUMERIC) || value.charAt(i) == '-'))
+			{
+				i++;
+			}
+			if(value.charAt(i - 1) == '-')
+			{
+				return -1;
+			}
+			if(i < length && value.charAt(i) == '.')
+			{
+				dotted = true;
+				i++;
+			}
+			else
+			{
+				return dotted || !requireDot ? i : -1;
+			}
+		}
+	}
+
+	/*
+	 * Recognizes the rest of an address literal after the opening bracket, which must extend to the end of the value.
+	 */
+	private static boolean isAddressLiteral(CharSequence value, int start, int length)
+	{
+		int i = start;
+		for(int octet = 0; octet < OCTETS_BEFORE_LAST; octet++)
+		{
+			i = EmailAddresses.octetEnd(value, i, length);
+			if(i < 0 || i >= length || value.charAt(i) != '.')
+			{
+				return false;
+			}
+			i++;
+		}
+
+		// the last part is either an octet or a tag, which are told apart by what follows them
+		int partStart = i;
+		while(i < length && (EmailAddresses.is(value.charAt(i), ALPHANUMERIC) || value.charAt(i) == '-'))
+		{
+			i++;
+		}
+		if(i >= length)
+		{
+			return false;
+		}
+		if(value.charAt(i) == ']')
+		{
+			return i + 1 == length && EmailAddresses.octetEnd(value, partStart, i) == i;
+		}
+		if(value.charAt(i) != ':' || i == partStart || value.charAt(i - 1) == '-')
+		{
+			return false;
+		}
+
+		// literal+ "]", where a literal is a character or a backslash escape, and "]" is itself a literal character
+		int state = LITERAL_EMPTY;
+		for(i++; i < length; i++)
+		{
+			char c = value.charAt(i);
+			if(!EmailAddresses.is(c, LITERAL))
+			{
+				if(state != LITERAL_BACKSLASH || !EmailAddresses.is(c, ESCAPED))
+				{
+					return false;
+				}
+				state = LITERAL_CONTENT;
+			}
+			else if(c == ']')
+			{
+				state = state == LITERAL_EMPTY ? LITERAL_CONTENT : LITERAL_CLOSED;
+			}
+			else
+			{
+				state = c == '\\' ? LITERAL_BACKSLASH : LITERAL_CONTENT;
+			}
+		}
+		return state == LITERAL_CLOSED;
+	}
+
+	/*
+	 * Recognizes one to three digits with a value no greater than 255, returning the index after them or -1.
+	 */
+	private static int octetEnd(CharSequence value, int start, int length)
+	{
+		int i = start;
+		int octet = 0;
+		while(i < length && i - start < MAX_OCTET_DIGITS && value.charAt(i) >= '0' && value.charAt(i) <= '9')
+		{
+			octet = octet * RADIX + (value.charAt(i) - '0');
+			i++;
+		}
+		return i == start || octet > MAX_OCTET ? -1 : i;
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.EmailSimple;
+
+/**
+ * Validator for {@link EmailSimple}. The address is recognized in linear time, without regular expressions, by
+ * {@link EmailAddresses#isSimple}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class EmailSimpleValidator implements ConstraintValidator<EmailSimple, CharSequence>
+{
+	@Override
+	public void initialize(EmailSimple annotation)
+	{
+		// Nothing to do here
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		return value == null || EmailAddresses.isSimple(value);
+	}
+}
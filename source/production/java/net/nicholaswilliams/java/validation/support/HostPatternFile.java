@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A local file of host name patterns, one per line, compiled into a {@link HostPatternTrie} and reloaded when it
+ * changes (see {@link ReloadingFile}). Blank lines and lines starting with {@code #} are ignored.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class HostPatternFile extends ReloadingFile<HostPatternTrie>
+{
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final SharedFiles<HostPatternFile> FILES = new SharedFiles<HostPatternFile>("host name pattern file")
+	{
+		@Override
+		protected HostPatternFile load(File file) throws IOException
+		{
+			return new HostPatternFile(file);
+		}
+	};
+
+	private HostPatternFile(File file) throws IOException
+	{
+		super(file);
+	}
+
+	/**
+	 * Returns the pattern file at the specified path, loading it the first time it is requested. Every caller naming
+	 * the same path shares one instance.
+	 *
+	 * @param path The path to the pattern file
+	 * @return the pattern file.
+	 * @throws javax.validation.ConstraintDeclarationException if the file cannot be read or contains a malformed
+	 * pattern.
+	 */
+	static HostPatternFile get(String path)
+	{
+		return FILES.get(path);
+	}
+
+	@Override
+	protected HostPatternTrie load(File file) throws IOException
+	{
+		List<String> patterns = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8));
+		try
+		{
+			String line;
+			while((line = reader.readLine()) != null)
+			{
+				line = line.trim();
+				if(line.length() > 0 && line.charAt(0) != '#')
+				{
+					patterns.add(line);
+				}
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return new HostPatternTrie(patterns);
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Locale;
+
+/**
+ * An immutable set of host name patterns compiled into a trie keyed by reversed DNS labels, so that
+ * {@code www.example.com} is stored as {@code com}, {@code example}, {@code www}. Three kinds of pattern are
+ * supported:
+ * <ul>
+ *     <li>{@code example.com} matches exactly that host name;</li>
+ *     <li>{@code *.example.com} matches any subdomain of {@code example.com}, at any depth, but not
+ *         {@code example.com} itself;</li>
+ *     <li>{@code .example.com} matches {@code example.com} and any subdomain of it.</li>
+ * </ul>
+ * A lone {@code *} matches every host name. Matching ignores case and a single trailing dot. Internationalized
+ * patterns are stored in their ASCII form, so candidates must be normalized the same way. A candidate host is
+ * walked right to left, one label at a time, through a {@link LabelTrie}, so no substrings are created.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class HostPatternTrie
+{
+	private static final byte EXACT = 1;
+
+	private static final byte WILDCARD = 2;
+
+	private final LabelTrie trie;
+
+	private final int patternCount;
+
+	/**
+	 * Compiles the patterns. Blank patterns are ignored.
+	 *
+	 * @param patterns The host name patterns
+	 * @throws IllegalArgumentException if a pattern is malformed.
+	 */
+	HostPatternTrie(Iterable<String> patterns)
+	{
+		LabelTrie.Builder builder = new LabelTrie.Builder();
+		int patternCount = 0;
+		for(String pattern : patterns)
+		{
+			String host = pattern.trim().toLowerCase(Locale.ENGLISH);
+			if(host.length() == 0)
+			{
+				continue;
+			}
+			patternCount++;
+
+			byte flag = EXACT;
+			if(host.equals("*"))
+			{
+				flag = WILDCARD;
+				host = "";
+			}
+			else if(host.startsWith("*."))
+			{
+				flag = WILDCARD;
+				host = host.substring(2);
+			}
+			else if(host.startsWith("."))
+			{
+				flag = EXACT | WILDCARD;
+				host = host.substring(1);
+			}
+			if(host.endsWith("."))
+			{
+				host = host.substring(0, host.length() - 1);
+			}
+
+			host = InternationalHostNames.normalize(host);
+			if(host == null)
+			{
+				throw new IllegalArgumentException("Malformed host name pattern [" + pattern + "].");
+			}
+
+			int node = LabelTrie.ROOT;
+			if(host.length() > 0)
+			{
+				String[] hostLabels = host.split("\\.", -1);
+				for(int i = hostLabels.length - 1; i >= 0; i--)
+				{
+					String label = hostLabels[i];
+					if(label.length() == 0 || label.indexOf('*') >= 0)
+					{
+						throw new IllegalArgumentException("Malformed host name pattern [" + pattern + "].");
+					}
+					node = builder.child(node, label);
+				}
+			}
+			else if(flag != WILDCARD)
+			{
+				throw new IllegalArgumentException("Malformed host name pattern [" + pattern + "].");
+			}
+			builder.addFlags(node, flag);
+		}
+
+		this.trie = builder.build();
+		this.patternCount = patternCount;
+	}
+
+	/**
+	 * Indicates whether the host name in the region of the value matches any pattern.
+	 *
+	 * @param value The value containing the host name
+	 * @param start The start of the host name, inclusive
+	 * @param end The end of the host name, exclusive
+	 * @return {@code true} if the host name matches.
+	 */
+	boolean matches(CharSequence value, int start, int end)
+	{
+		if(end > start && value.charAt(end - 1) == '.')
+		{
+			end--;
+		}
+		if(end == start)
+		{
+			return false;
+		}
+
+		int node = LabelTrie.ROOT;
+		int i = end;
+		while(true)
+		{
+			if((this.trie.getFlags(node) & WILDCARD) != 0)
+			{
+				return HostPatternTrie.hasLabels(value, start, i);
+			}
+
+			int j = LabelTrie.labelStart(value, start, i);
+			if(j == i)
+			{
+				return false;
+			}
+
+			node = this.trie.child(node, value, j, i);
+			if(node < 0)
+			{
+				return false;
+			}
+			if(j == start)
+			{
+				return (this.trie.getFlags(node) & EXACT) != 0;
+			}
+			i = j - 1;
+		}
+	}
+
+	/*
+	 * The part of a host matched by a wildcard must be one or more labels, none of them empty, so *.example.com does
+	 * not match .example.com or a..example.com.
+	 */
+	private static boolean hasLabels(CharSequence value, int start, int end)
+	{
+		if(end == start || value.charAt(start) == '.' || value.charAt(end - 1) == '.')
+		{
+			return false;
+		}
+		for(int i = start + 1; i < end; i++)
+		{
+			if(value.charAt(i) == '.' && value.charAt(i - 1) == '.')
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of patterns compiled into this trie.
+	 */
+	int getPatternCount()
+	{
+		return this.patternCount;
+	}
+}
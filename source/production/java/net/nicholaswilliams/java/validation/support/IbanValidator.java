@@ -0,0 +1,245 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Iban;
+
+/**
+ * Validator for {@link Iban}. The value is checked in a single pass without rearranging or copying it: the country
+ * code selects the country's BBAN structure from a table indexed directly by the two letters, each BBAN character is
+ * checked against that structure as it is read, and the MOD 97-10 remainder is accumulated in a {@code long} that is
+ * only reduced when it grows large. The country code and check digits, which the algorithm requires to be moved to the
+ * end, are folded in last.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class IbanValidator implements ConstraintValidator<Iban, CharSequence>
+{
+	private static final int LETTERS = 26;
+
+	private static final int COUNTRY_LENGTH = 2;
+
+	private static final int PREFIX_LENGTH = 4;
+
+	private static final int RADIX = 10;
+
+	private static final int LETTER_RADIX = 100;
+
+	private static final int LETTER_BASE_VALUE = 10;
+
+	private static final int MODULUS = 97;
+
+	private static final long REDUCTION_THRESHOLD = 1000000000000000L;
+
+	private static final int MIN_CHECK_DIGITS = 2;
+
+	private static final int MAX_CHECK_DIGITS = 98;
+
+	private static final byte DIGIT = 1;
+
+	private static final byte LETTER = 2;
+
+	private static final byte ALPHANUMERIC = DIGIT | LETTER;
+
+	/*
+	 * The BBAN structure of each country in the IBAN registry, in the registry's notation: n = digits, a = uppercase
+	 * letters, c = digits or uppercase letters.
+	 */
+	private static final String[] REGISTRY = {
+			"AD 4n4n12c", "AE 3n16n", "AL 8n16c", "AT 5n11n", "AZ 4a20c", "BA 3n3n8n2n", "BE 3n7n2n",
+			"BG 4a4n2n8c", "BH 4a14c", "BR 8n5n10n1a1c", "BY 4c4n16c", "CH 5n12c", "CR 4n14n", "CY 3n5n16c",
+			"CZ 4n6n10n", "DE 8n10n", "DK 4n9n1n", "DO 4c20n", "EE 2n2n11n1n", "EG 4n4n17n", "ES 4n4n1n1n10n",
+			"FI 3n11n", "FO 4n9n1n", "FR 5n5n11c2n", "GB 4a6n8n", "GE 2a16n", "GI 4a15c", "GL 4n9n1n",
+			"GR 3n4n16c", "GT 4c20c", "HR 7n10n", "HU 3n4n1n15n1n", "IE 4a6n8n", "IL 3n3n13n", "IQ 4a3n12n",
+			"IS 4n2n6n10n", "IT 1a5n5n12c", "JO 4a4n18c", "KW 4a22c", "KZ 3n13c", "LB 4n20c", "LC 4a24c",
+			"LI 5n12c", "LT 5n11n", "LU 3n13c", "LV 4a13c", "MC 5n5n11c2n", "MD 2c18c", "ME 3n13n2n",
+			"MK 3n10c2n", "MR 5n5n11n2n", "MT 4a5n18c", "MU 4a2n2n12n3n3a", "NL 4a10n", "NO 4n6n1n",
+			"PK 4a16c", "PL 8n16n", "PS 4a21c", "PT 4n4n11n2n", "QA 4a21c", "RO 4a16c", "RS 3n13n2n",
+			"SA 2n18c", "SC 4a2n2n16n3a", "SE 3n16n1n", "SI 5n8n2n", "SK 4n6n10n", "SM 1a5n5n12c",
+			"ST 8n11n2n", "SV 4a20n", "TL 3n14n2n", "TN 2n3n13n2n", "TR 5n1n16c", "UA 6n19c", "VA 3n15n",
+			"VG 4a16n", "XK 4n10n2n"
+	};
+
+	private static final byte[][] FORMATS = new byte[LETTERS * LETTERS][];
+
+	static
+	{
+		for(String entry : REGISTRY)
+		{
+			FORMATS[IbanValidator.countryIndex(entry)] = IbanValidator.parseFormat(entry.substring(COUNTRY_LENGTH + 1));
+		}
+	}
+
+	private boolean[] allowedCountries;
+
+	private static int countryIndex(CharSequence code)
+	{
+		if(code.length() < COUNTRY_LENGTH || IbanValidator.classOf(code.charAt(0)) != LETTER ||
+		   IbanValidator.classOf(code.charAt(1)) != LETTER)
+		{
+			return -1;
+		}
+		return (code.charAt(0) - 'A') * LETTERS + (code.charAt(1) - 'A');
+	}
+
+	private static byte[] parseFormat(String format)
+	{
+		int length = 0;
+		for(int i = 0, count = 0; i < format.length(); i++)
+		{
+			int digit = CharSequenceUtils.digit(format.charAt(i));
+			if(digit >= 0)
+			{
+				count = count * RADIX + digit;
+			}
+			else
+			{
+				length += count;
+				count = 0;
+			}
+		}
+
+		byte[] classes = new byte[length];
+		for(int i = 0, count = 0, position = 0; i < format.length(); i++)
+		{
+			char c = format.charAt(i);
+			int digit = CharSequenceUtils.digit(c);
+			if(digit >= 0)
+			{
+				count = count * RADIX + digit;
+				continue;
+			}
+
+			byte characterClass = c == 'n' ? DIGIT : c == 'a' ? LETTER : ALPHANUMERIC;
+			for(; count > 0; count--)
+			{
+				classes[position++] = characterClass;
+			}
+		}
+		return classes;
+	}
+
+	private static int classOf(char c)
+	{
+		if(CharSequenceUtils.digit(c) >= 0)
+		{
+			return DIGIT;
+		}
+		return CharSequenceUtils.isAsciiUppercase(c) ? LETTER : 0;
+	}
+
+	@Override
+	public void initialize(Iban annotation)
+	{
+		if(annotation.allowedCountries().length == 0)
+		{
+			return;
+		}
+
+		this.allowedCountries = new boolean[LETTERS * LETTERS];
+		for(String country : annotation.allowedCountries())
+		{
+			int index = country.length() == COUNTRY_LENGTH ? IbanValidator.countryIndex(country) : -1;
+			if(index < 0 || FORMATS[index] == null)
+			{
+				throw new ConstraintDeclarationException("The country [" + country + "] does not issue IBANs.");
+			}
+			this.allowedCountries[index] = true;
+		}
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		byte[] format = null;
+		int country = 0;
+		int checkDigits = 0;
+		long remainder = 0L;
+		int position = 0;
+		for(int i = 0, length = value.length(); i < length; i++)
+		{
+			char c = value.charAt(i);
+			if(c == ' ')
+			{
+				continue;
+			}
+
+			int characterClass = IbanValidator.classOf(c);
+			if(position < COUNTRY_LENGTH)
+			{
+				if(characterClass != LETTER)
+				{
+					return false;
+				}
+				country = country * LETTERS + (c - 'A');
+				if(position == COUNTRY_LENGTH - 1)
+				{
+					format = FORMATS[country];
+					if(format == null || (this.allowedCountries != null && !this.allowedCountries[country]))
+					{
+						return false;
+					}
+				}
+			}
+			else if(position < PREFIX_LENGTH)
+			{
+				if(characterClass != DIGIT)
+				{
+					return false;
+				}
+				checkDigits = checkDigits * RADIX + CharSequenceUtils.digit(c);
+			}
+			else
+			{
+				int bbanPosition = position - PREFIX_LENGTH;
+				if(bbanPosition >= format.length || (format[bbanPosition] & characterClass) == 0)
+				{
+					return false;
+				}
+
+				remainder = remainder * (characterClass == DIGIT ? RADIX : LETTER_RADIX) +
+							CharSequenceUtils.alphanumericValue(c);
+				if(remainder >= REDUCTION_THRESHOLD)
+				{
+					remainder %= MODULUS;
+				}
+			}
+			position++;
+		}
+
+		if(format == null || position != PREFIX_LENGTH + format.length || checkDigits < MIN_CHECK_DIGITS ||
+		   checkDigits > MAX_CHECK_DIGITS)
+		{
+			return false;
+		}
+
+		remainder %= MODULUS;
+		remainder = remainder * LETTER_RADIX + (country / LETTERS + LETTER_BASE_VALUE);
+		remainder = remainder * LETTER_RADIX + (country % LETTERS + LETTER_BASE_VALUE);
+		remainder = remainder * LETTER_RADIX + checkDigits;
+		return remainder % MODULUS == 1;
+	}
+}
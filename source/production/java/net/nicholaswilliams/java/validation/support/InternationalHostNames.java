@@ -0,0 +1,487 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.net.IDN;
+import java.util.Locale;
+
+/**
+ * Normalizes internationalized host names, given either in Unicode or in their ASCII-compatible ({@code xn--}) form,
+ * to their lower-case ASCII form. Host names that are plain ASCII with no {@code xn--} label take a fast path
+ * ({@link #needsNormalization} returns {@code false}) and never touch {@link IDN}. Other host names are converted one
+ * label at a time with {@link IDN#toASCII(String, int)} under the STD3 rules, which check each label's length and
+ * characters, and every {@code xn--} label must decode to Unicode that encodes back to the same label. Conversion is
+ * expensive, so results, including rejections, are kept in a {@link BoundedCache} keyed by the raw host name.<br>
+ * <br>
+ * {@link IDN} implements IDNA2003, which maps the sharp s (<code>&szlig;</code>) to {@code ss} and the final sigma
+ * (<code>&sigmaf;</code>) to <code>&sigma;</code>. IDNA2008 and the non-transitional processing of UTS #46, which
+ * browsers and registries use, keep both, so <code>fa&szlig;.de</code> is {@code xn--fa-hia.de} and not {@code
+ * fass.de}. Labels containing these characters are therefore encoded here, with the rest of the label mapped by {@link
+ * IDN}, and {@code xn--} labels decoding to them are accepted. The capital sharp s (<code>&#x1E9E;</code>), unassigned
+ * in IDNA2003, is mapped to <code>&szlig;</code>. The zero-width joiner and non-joiner, which IDNA2003 deletes but
+ * IDNA2008 keeps in a few scripts depending on the characters around them, are not supported: labels containing them,
+ * in either form, are rejected rather than silently changed.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class InternationalHostNames
+{
+	private static final int MAX_CACHE_SIZE = 4096;
+
+	private static final int MAX_LENGTH = 253;
+
+	private static final int MAX_LABEL_LENGTH = 63;
+
+	private static final String ACE_PREFIX = "xn--";
+
+	private static final String DOTS = ".\u3002\uFF0E\uFF61";
+
+	private static final char SHARP_S = '\u00DF';
+
+	private static final char CAPITAL_SHARP_S = '\u1E9E';
+
+	private static final char FINAL_SIGMA = '\u03C2';
+
+	private static final char ZERO_WIDTH_NON_JOINER = '\u200C';
+
+	private static final char ZERO_WIDTH_JOINER = '\u200D';
+
+	private static final int PUNYCODE_BASE = 36;
+
+	private static final int PUNYCODE_T_MIN = 1;
+
+	private static final int PUNYCODE_T_MAX = 26;
+
+	private static final int PUNYCODE_SKEW = 38;
+
+	private static final int PUNYCODE_DAMP = 700;
+
+	private static final int PUNYCODE_INITIAL_BIAS = 72;
+
+	private static final int PUNYCODE_INITIAL_N = 0x80;
+
+	private static final char PUNYCODE_DELIMITER = '-';
+
+	private static final String INVALID = "";
+
+	private static final BoundedCache<String, String> CACHE = new BoundedCache<String, String>(MAX_CACHE_SIZE);
+
+	private InternationalHostNames()
+	{
+
+	}
+
+	/**
+	 * Indicates whether the host name in the region of the value must be normalized: that is, whether it contains a
+	 * non-ASCII character or a label starting with {@code xn--} (ignoring case).
+	 *
+	 * @param value The value containing the host name
+	 * @param start The start of the host name, inclusive
+	 * @param end The end of the host name, exclusive
+	 * @return {@code true} if the host name must be normalized, {@code false} if it is plain ASCII.
+	 */
+	static boolean needsNormalization(CharSequence value, int start, int end)
+	{
+		for(int i = start; i < end; i++)
+		{
+			char c = value.charAt(i);
+			if(c > Byte.MAX_VALUE)
+			{
+				return true;
+			}
+			if((c == 'x' || c == 'X') && (i == start || value.charAt(i - 1) == '.') &&
+			   InternationalHostNames.isAcePrefix(value, i, end))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Normalizes the host name in the region of the value to its lower-case ASCII form.
+	 *
+	 * @param value The value containing the host name
+	 * @param start The start of the host name, inclusive
+	 * @param end The end of the host name, exclusive
+	 * @return the ASCII host name, or {@code null} if the host name is not a valid internationalized host name.
+	 */
+	static String normalize(CharSequence value, int start, int end)
+	{
+		String host = value.subSequence(start, end).toString();
+		String ascii = CACHE.get(host);
+		if(ascii == null)
+		{
+			ascii = CACHE.put(host, InternationalHostNames.convert(host));
+		}
+		return ascii.length() == 0 ? null : ascii;
+	}
+
+	/**
+	 * Normalizes a host name to its lower-case ASCII form, if it needs to be normalized.
+	 *
+	 * @param host The host name
+	 * @return the host name, the ASCII host name, or {@code null} if it is not a valid internationalized host name.
+	 */
+	static String normalize(String host)
+	{
+		if(!InternationalHostNames.needsNormalization(host, 0, host.length()))
+		{
+			return host;
+		}
+		return InternationalHostNames.normalize(host, 0, host.length());
+	}
+
+	private static String convert(String host)
+	{
+		StringBuilder ascii = new StringBuilder(host.length());
+		int labelStart = 0;
+		for(int i = 0; i <= host.length(); i++)
+		{
+			if(i < host.length() && DOTS.indexOf(host.charAt(i)) < 0)
+			{
+				continue;
+			}
+			if(i > 0)
+			{
+				if(i == labelStart && i < host.length())
+				{
+					return INVALID;
+				}
+				String label = InternationalHostNames.convertLabel(host.substring(labelStart, i));
+				if(label == null)
+				{
+					return INVALID;
+				}
+				ascii.append(label);
+				if(i < host.length())
+				{
+					ascii.append('.');
+				}
+			}
+			labelStart = i + 1;
+		}
+		if(ascii.length() == 0 || ascii.length() > MAX_LENGTH)
+		{
+			return INVALID;
+		}
+		return ascii.toString();
+	}
+
+	private static String convertLabel(String label)
+	{
+		if(InternationalHostNames.isAcePrefix(label, 0, label.length()))
+		{
+			return InternationalHostNames.isGenuineAce(label) ? label.toLowerCase(Locale.ENGLISH) : null;
+		}
+
+		if(label.indexOf(SHARP_S) >= 0 || label.indexOf(CAPITAL_SHARP_S) >= 0 || label.indexOf(FINAL_SIGMA) >= 0)
+		{
+			String unicode = InternationalHostNames.mapDeviations(label);
+			if(unicode == null)
+			{
+				return null;
+			}
+			String ascii = ACE_PREFIX + InternationalHostNames.encode(unicode);
+			return ascii.length() > MAX_LABEL_LENGTH ? null : ascii;
+		}
+
+		if(label.indexOf(ZERO_WIDTH_NON_JOINER) >= 0 || label.indexOf(ZERO_WIDTH_JOINER) >= 0)
+		{
+			return null;
+		}
+		try
+		{
+			return IDN.toASCII(label, IDN.USE_STD3_ASCII_RULES).toLowerCase(Locale.ENGLISH);
+		}
+		catch(IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+
+	/*
+	 * IDN.toASCII passes xn-- labels through unchecked, so make sure they are genuine: the label must decode to
+	 * Unicode that encodes back to the same label, under IDNA2003 or, for labels with a sharp s or final sigma, here.
+	 */
+	private static boolean isGenuineAce(String label)
+	{
+		try
+		{
+			String unicode = IDN.toUnicode(label, IDN.USE_STD3_ASCII_RULES);
+			if(!unicode.equals(label))
+			{
+				return IDN.toASCII(unicode, IDN.USE_STD3_ASCII_RULES).equalsIgnoreCase(label);
+			}
+		}
+		catch(IllegalArgumentException e)
+		{
+			return false;
+		}
+
+		String punycode = label.substring(ACE_PREFIX.length()).toLowerCase(Locale.ENGLISH);
+		String unicode = InternationalHostNames.decode(punycode);
+		return unicode != null && (unicode.indexOf(SHARP_S) >= 0 || unicode.indexOf(FINAL_SIGMA) >= 0) &&
+			   unicode.equals(InternationalHostNames.mapDeviations(unicode)) &&
+			   InternationalHostNames.encode(unicode).equals(punycode);
+	}
+
+	/*
+	 * Maps a label the way IDNA2003 would, except that the sharp s and final sigma are kept, or returns null if the
+	 * label is invalid. IDNA2003 maps each character on its own, and both characters block normalization across them,
+	 * so the parts between them are mapped separately; the hyphen rules apply to the whole label.
+	 */
+	private static String mapDeviations(String label)
+	{
+		String unicode = label.replace(CAPITAL_SHARP_S, SHARP_S);
+		if(unicode.indexOf(ZERO_WIDTH_NON_JOINER) >= 0 || unicode.indexOf(ZERO_WIDTH_JOINER) >= 0)
+		{
+			return null;
+		}
+
+		StringBuilder mapped = new StringBuilder(unicode.length());
+		int partStart = 0;
+		for(int i = 0; i <= unicode.length(); i++)
+		{
+			char c = i < unicode.length() ? unicode.charAt(i) : SHARP_S;
+			if(c != SHARP_S && c != FINAL_SIGMA)
+			{
+				continue;
+			}
+			if(i > partStart)
+			{
+				try
+				{
+					String part = IDN.toASCII(unicode.substring(partStart, i));
+					mapped.append(IDN.toUnicode(part).toLowerCase(Locale.ENGLISH));
+				}
+				catch(IllegalArgumentException e)
+				{
+					return null;
+				}
+			}
+			if(i < unicode.length())
+			{
+				mapped.append(c);
+			}
+			partStart = i + 1;
+		}
+
+		for(int i = 0; i < mapped.length(); i++)
+		{
+			char c = mapped.charAt(i);
+			if(c <= Byte.MAX_VALUE && !(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && c != '-')
+			{
+				return null;
+			}
+		}
+		if(mapped.length() == 0 || mapped.charAt(0) == '-' || mapped.charAt(mapped.length() - 1) == '-')
+		{
+			return null;
+		}
+		return mapped.toString();
+	}
+
+	/*
+	 * Encodes Unicode as Punycode (RFC 3492), without the xn-- prefix.
+	 */
+	private static String encode(String unicode)
+	{
+		int[] codePoints = new int[unicode.codePointCount(0, unicode.length())];
+		for(int i = 0, j = 0; i < unicode.length(); i += Character.charCount(codePoints[j++]))
+		{
+			codePoints[j] = unicode.codePointAt(i);
+		}
+
+		StringBuilder output = new StringBuilder();
+		for(int codePoint : codePoints)
+		{
+			if(codePoint < PUNYCODE_INITIAL_N)
+			{
+				output.append((char) codePoint);
+			}
+		}
+		int basic = output.length();
+		if(basic > 0)
+		{
+			output.append(PUNYCODE_DELIMITER);
+		}
+
+		int n = PUNYCODE_INITIAL_N;
+		int delta = 0;
+		int bias = PUNYCODE_INITIAL_BIAS;
+		for(int handled = basic; handled < codePoints.length; n++, delta++)
+		{
+			int next = Integer.MAX_VALUE;
+			for(int codePoint : codePoints)
+			{
+				if(codePoint >= n && codePoint < next)
+				{
+					next = codePoint;
+				}
+			}
+			delta += (next - n) * (handled + 1);
+			n = next;
+			for(int codePoint : codePoints)
+			{
+				if(codePoint < n)
+				{
+					delta++;
+				}
+				else if(codePoint == n)
+				{
+					int q = delta;
+					for(int k = PUNYCODE_BASE;; k += PUNYCODE_BASE)
+					{
+						int t = InternationalHostNames.threshold(k, bias);
+						if(q < t)
+						{
+							break;
+						}
+						output.append(InternationalHostNames.digit(t + (q - t) % (PUNYCODE_BASE - t)));
+						q = (q - t) / (PUNYCODE_BASE - t);
+					}
+					output.append(InternationalHostNames.digit(q));
+					bias = InternationalHostNames.adapt(delta, handled + 1, handled == basic);
+					delta = 0;
+					handled++;
+				}
+			}
+		}
+		return output.toString();
+	}
+
+	/*
+	 * Decodes Punycode (RFC 3492), without the xn-- prefix, or returns null if it is malformed or decodes to nothing
+	 * but ASCII.
+	 */
+	private static String decode(String punycode)
+	{
+		int delimiter = punycode.lastIndexOf(PUNYCODE_DELIMITER);
+		StringBuilder output = new StringBuilder(punycode.length());
+		for(int i = 0; i < delimiter; i++)
+		{
+			output.append(punycode.charAt(i));
+		}
+
+		int n = PUNYCODE_INITIAL_N;
+		int bias = PUNYCODE_INITIAL_BIAS;
+		int i = 0;
+		int codePoints = Math.max(delimiter, 0);
+		boolean decoded = false;
+		for(int in = delimiter + 1; in < punycode.length();)
+		{
+			int previous = i;
+			int w = 1;
+			for(int k = PUNYCODE_BASE;; k += PUNYCODE_BASE)
+			{
+				if(in == punycode.length())
+				{
+					return null;
+				}
+				int digit = InternationalHostNames.digitValue(punycode.charAt(in++));
+				if(digit < 0 || digit > (Integer.MAX_VALUE - i) / w)
+				{
+					return null;
+				}
+				i += digit * w;
+				int t = InternationalHostNames.threshold(k, bias);
+				if(digit < t)
+				{
+					break;
+				}
+				if(w > Integer.MAX_VALUE / (PUNYCODE_BASE - t))
+				{
+					return null;
+				}
+				w *= PUNYCODE_BASE - t;
+			}
+			codePoints++;
+			bias = InternationalHostNames.adapt(i - previous, codePoints, previous == 0);
+			if(i / codePoints > Character.MAX_CODE_POINT - n)
+			{
+				return null;
+			}
+			n += i / codePoints;
+			i %= codePoints;
+			if(n < PUNYCODE_INITIAL_N || (n >= Character.MIN_SURROGATE && n <= Character.MAX_SURROGATE))
+			{
+				return null;
+			}
+			output.insert(output.offsetByCodePoints(0, i), Character.toChars(n));
+			i++;
+			decoded = true;
+		}
+		return decoded ? output.toString() : null;
+	}
+
+	private static int threshold(int k, int bias)
+	{
+		return k <= bias ? PUNYCODE_T_MIN : k >= bias + PUNYCODE_T_MAX ? PUNYCODE_T_MAX : k - bias;
+	}
+
+	private static int adapt(int delta, int codePoints, boolean first)
+	{
+		int d = first ? delta / PUNYCODE_DAMP : delta / 2;
+		d += d / codePoints;
+		int k = 0;
+		while(d > ((PUNYCODE_BASE - PUNYCODE_T_MIN) * PUNYCODE_T_MAX) / 2)
+		{
+			d /= PUNYCODE_BASE - PUNYCODE_T_MIN;
+			k += PUNYCODE_BASE;
+		}
+		return k + (PUNYCODE_BASE - PUNYCODE_T_MIN + 1) * d / (d + PUNYCODE_SKEW);
+	}
+
+	private static char digit(int value)
+	{
+		return (char) (value < PUNYCODE_T_MAX ? 'a' + value : '0' + value - PUNYCODE_T_MAX);
+	}
+
+	private static int digitValue(char c)
+	{
+		if(c >= 'a' && c <= 'z')
+		{
+			return c - 'a';
+		}
+		if(c >= 'A' && c <= 'Z')
+		{
+			return c - 'A';
+		}
+		if(c >= '0' && c <= '9')
+		{
+			return c - '0' + PUNYCODE_T_MAX;
+		}
+		return -1;
+	}
+
+	private static boolean isAcePrefix(CharSequence value, int start, int end)
+	{
+		if(end - start < ACE_PREFIX.length())
+		{
+			return false;
+		}
+		for(int i = 0; i < ACE_PREFIX.length(); i++)
+		{
+			if(Character.toLowerCase(value.charAt(start + i)) != ACE_PREFIX.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Arrays;
+
+/**
+ * A keyboard adjacency graph used to find spatial patterns such as {@code qwerty} or {@code 7896321} in passwords.
+ * Each key holds one or two characters (unshifted and shifted). The graph is derived from a compact description of
+ * the key rows: on slanted keyboards each row is offset half a key from the row above it, so every key has up to six
+ * neighbors, while on aligned keypads every key has up to eight.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class KeyboardGraph
+{
+	static final int[][] SLANTED_DIRECTIONS = {
+			{-1, 0}, {0, -1}, {1, -1}, {1, 0}, {0, 1}, {-1, 1}
+	};
+
+	static final int[][] ALIGNED_DIRECTIONS = {
+			{-1, 0}, {-1, -1}, {0, -1}, {1, -1}, {1, 0}, {1, 1}, {0, 1}, {-1, 1}
+	};
+
+	static final KeyboardGraph QWERTY = new KeyboardGraph(
+			2, true,
+			"`~1!2@3#4$5%6^7&8*9(0)-_=+",
+			" qQwWeErRtTyYuUiIoOpP[{]}\\|",
+			" aAsSdDfFgGhHjJkKlL;:'\"",
+			" zZxXcCvVbBnNmM,<.>/?"
+	);
+
+	static final KeyboardGraph DVORAK = new KeyboardGraph(
+			2, true,
+			"`~1!2@3#4$5%6^7&8*9(0)[{]}",
+			" '\",<.>pPyYfFgGcCrRlL/?=+\\|",
+			" aAoOeEuUiIdDhHtTnNsS-_",
+			" ;:qQjJkKxXbBmMwWvVzZ"
+	);
+
+	static final KeyboardGraph KEYPAD = new KeyboardGraph(
+			1, false,
+			" /*-",
+			"789+",
+			"456",
+			"123",
+			" 0."
+	);
+
+	private static final int ASCII_SIZE = 128;
+
+	private final int directions;
+
+	private final int[] keyOf = new int[ASCII_SIZE];
+
+	private final boolean[] shifted = new boolean[ASCII_SIZE];
+
+	private final int[] neighbors;
+
+	private final int startingPositions;
+
+	private final double averageDegree;
+
+	/*
+	 * Each row lists its keys from left to right, each key being keyWidth characters (unshifted then shifted). A row
+	 * starting with a space is indented by one key position. Spaces elsewhere mark gaps.
+	 */
+	private KeyboardGraph(int keyWidth, boolean slanted, String... rows)
+	{
+		int[][] offsets = slanted ? SLANTED_DIRECTIONS : ALIGNED_DIRECTIONS;
+		this.directions = offsets.length;
+		Arrays.fill(this.keyOf, -1);
+
+		int width = 0;
+		for(String row : rows)
+		{
+			width = Math.max(width, (row.length() + keyWidth - 1) / keyWidth + 1);
+		}
+
+		int[][] grid = new int[rows.length][width];
+		int keys = 0;
+		for(int y = 0; y < rows.length; y++)
+		{
+			Arrays.fill(grid[y], -1);
+			String row = rows[y];
+			int indent = slanted && row.charAt(0) == ' ' ? 1 : 0;
+			for(int i = indent, x = indent; i < row.length(); i += keyWidth, x++)
+			{
+				if(row.charAt(i) == ' ')
+				{
+					continue;
+				}
+				grid[y][x] = keys;
+				for(int c = 0; c < keyWidth; c++)
+				{
+					char character = row.charAt(i + c);
+					this.keyOf[character] = keys;
+					this.shifted[character] = c > 0;
+				}
+				keys++;
+			}
+		}
+
+		this.neighbors = new int[keys * this.directions];
+		int characters = 0;
+		int degrees = 0;
+		for(int y = 0; y < rows.length; y++)
+		{
+			for(int x = 0; x < width; x++)
+			{
+				int key = grid[y][x];
+				if(key < 0)
+				{
+					continue;
+				}
+				int degree = 0;
+				for(int d = 0; d < this.directions; d++)
+				{
+					int nx = x + offsets[d][0];
+					int ny = y + offsets[d][1];
+					int neighbor = ny >= 0 && ny < rows.length && nx >= 0 && nx < width ? grid[ny][nx] : -1;
+					this.neighbors[key * this.directions + d] = neighbor;
+					if(neighbor >= 0)
+					{
+						degree++;
+					}
+				}
+				characters += keyWidth;
+				degrees += degree * keyWidth;
+			}
+		}
+
+		this.startingPositions = characters;
+		this.averageDegree = (double) degrees / characters;
+	}
+
+	/**
+	 * Finds the direction from one key to an adjacent key.
+	 *
+	 * @param from The character on the first key
+	 * @param to The character on the second key
+	 * @return the direction, or -1 if the keys are not adjacent.
+	 */
+	int direction(char from, char to)
+	{
+		if(from >= ASCII_SIZE || to >= ASCII_SIZE || this.keyOf[from] < 0 || this.keyOf[to] < 0)
+		{
+			return -1;
+		}
+
+		int base = this.keyOf[from] * this.directions;
+		int target = this.keyOf[to];
+		for(int d = 0; d < this.directions; d++)
+		{
+			if(this.neighbors[base + d] == target)
+			{
+				return d;
+			}
+		}
+		return -1;
+	}
+
+	boolean isShifted(char c)
+	{
+		return c < ASCII_SIZE && this.shifted[c];
+	}
+
+	int getStartingPositions()
+	{
+		return this.startingPositions;
+	}
+
+	double getAverageDegree()
+	{
+		return this.averageDegree;
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable trie of DNS labels with a byte of flags per node, for walking domain names right to left. Each node
+ * is found from its parent through an open-addressed table keyed by the parent node and the label's characters, so a
+ * label can be looked up as a region of a larger value without creating a substring. Labels are compared ignoring
+ * ASCII case.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class LabelTrie
+{
+	/**
+	 * The root node, which has no label.
+	 */
+	static final int ROOT = 0;
+
+	private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+
+	private static final int FNV_PRIME = 0x01000193;
+
+	private static final int PARENT_MULTIPLIER = 0x9E3779B9;
+
+	private static final int MIX_SHIFT = 16;
+
+	private final int[] parents;
+
+	private final String[] labels;
+
+	private final byte[] flags;
+
+	private final int[] table;
+
+	private LabelTrie(Builder builder)
+	{
+		int size = builder.parents.size();
+		this.parents = new int[size];
+		this.labels = builder.labels.toArray(new String[size]);
+		this.flags = new byte[size];
+		this.table = new int[Integer.highestOneBit(size) << 2];
+		int mask = this.table.length - 1;
+		for(int node = 0; node < size; node++)
+		{
+			this.parents[node] = builder.parents.get(node);
+			this.flags[node] = builder.flags.get(node);
+			if(node != ROOT)
+			{
+				String label = this.labels[node];
+				int slot = LabelTrie.hash(this.parents[node], label, 0, label.length()) & mask;
+				while(this.table[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				this.table[slot] = node;
+			}
+		}
+	}
+
+	/**
+	 * Finds the child of a node whose label is the region of the value.
+	 *
+	 * @param parent The parent node
+	 * @param value The value containing the label
+	 * @param start The start of the label, inclusive
+	 * @param end The end of the label, exclusive
+	 * @return the child node, or {@code -1} if there is none.
+	 */
+	int child(int parent, CharSequence value, int start, int end)
+	{
+		int mask = this.table.length - 1;
+		for(int slot = LabelTrie.hash(parent, value, start, end) & mask; this.table[slot] != 0;
+			slot = (slot + 1) & mask)
+		{
+			int node = this.table[slot];
+			if(this.parents[node] == parent && LabelTrie.labelEquals(this.labels[node], value, start, end))
+			{
+				return node;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param node The node
+	 * @return the flags of the node.
+	 */
+	int getFlags(int node)
+	{
+		return this.flags[node];
+	}
+
+	/**
+	 * @return the number of nodes, including the root.
+	 */
+	int size()
+	{
+		return this.parents.length;
+	}
+
+	/**
+	 * Finds the start of the label that ends just before the end index, scanning left to the previous dot.
+	 *
+	 * @param value The domain name
+	 * @param start The start of the domain name, which bounds the scan
+	 * @param end The end of the label, exclusive
+	 * @return the start of the label, which equals {@code end} if the label is empty.
+	 */
+	static int labelStart(CharSequence value, int start, int end)
+	{
+		int i = end;
+		while(i > start && value.charAt(i - 1) != '.')
+		{
+			i--;
+		}
+		return i;
+	}
+
+	private static boolean labelEquals(String label, CharSequence value, int start, int end)
+	{
+		if(label.length() != end - start)
+		{
+			return false;
+		}
+		for(int i = 0; i < label.length(); i++)
+		{
+			if(LabelTrie.lowerCase(value.charAt(start + i)) != label.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int hash(int parent, CharSequence value, int start, int end)
+	{
+		int hash = FNV_OFFSET_BASIS ^ (parent * PARENT_MULTIPLIER);
+		for(int i = start; i < end; i++)
+		{
+			hash = (hash ^ LabelTrie.lowerCase(value.charAt(i))) * FNV_PRIME;
+		}
+		return hash ^ (hash >>> MIX_SHIFT);
+	}
+
+	private static char lowerCase(char c)
+	{
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+
+	/**
+	 * Collects the nodes of a {@link LabelTrie}. Labels must already be lower case.
+	 */
+	static final class Builder
+	{
+		private final List<Integer> parents = new ArrayList<Integer>();
+
+		private final List<String> labels = new ArrayList<String>();
+
+		private final List<Byte> flags = new ArrayList<Byte>();
+
+		private final Map<String, Integer> children = new HashMap<String, Integer>();
+
+		/**
+		 * Creates a builder containing only the root.
+		 */
+		Builder()
+		{
+			this.parents.add(-1);
+			this.labels.add("");
+			this.flags.add((byte) 0);
+		}
+
+		/**
+		 * Returns the child of a node with the given label, adding it if it does not exist yet.
+		 *
+		 * @param parent The parent node
+		 * @param label The lower-case label
+		 * @return the child node.
+		 */
+		int child(int parent, String label)
+		{
+			String key = parent + "." + label;
+			Integer child = this.children.get(key);
+			if(child == null)
+			{
+				child = this.parents.size();
+				this.parents.add(parent);
+				this.labels.add(label);
+				this.flags.add((byte) 0);
+				this.children.put(key, child);
+			}
+			return child;
+		}
+
+		/**
+		 * Adds flags to a node.
+		 *
+		 * @param node The node
+		 * @param flags The flags to add
+		 */
+		void addFlags(int node, int flags)
+		{
+			this.flags.set(node, (byte) (this.flags.get(node) | flags));
+		}
+
+		/**
+		 * @return the trie.
+		 */
+		LabelTrie build()
+		{
+			return new LabelTrie(this);
+		}
+	}
+}
@@ -0,0 +1,1693 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A regular expression engine whose running time is bounded by the length of the input times the size of the
+ * expression, whatever the expression and input. It accepts the {@link Pattern} syntax with the exception of the
+ * constructs that cannot be matched without backtracking (back references, lookaround, atomic groups and possessive
+ * quantifiers), boundary matchers other than {@code ^}, {@code $}, {@code \A}, {@code \z} and {@code \Z}, and embedded
+ * flags; {@link #compile(String, int)} rejects those rather than changing their meaning. Only whole-input matching is
+ * supported. An input matches when the expression, read as a regular language, contains it; this differs from
+ * {@link Pattern} only where a counted repetition must match the empty string at an assertion to reach its minimum,
+ * because Pattern never starts an iteration where the previous one started ({@code (\A|b){2}} matches {@code b}
+ * here but not in Pattern).<br>
+ * <br>
+ * The expression is compiled to a Thompson NFA of at most {@link #MAX_INSTRUCTIONS} instructions. Expressions without
+ * assertions run on a DFA built lazily from the NFA, one per thread, whose states are discarded whenever they would
+ * exceed {@value #MAX_DFA_MEMORY} bytes; other expressions run on an NFA simulation. Either way each input character
+ * costs at most one pass over the NFA.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class LinearRegex
+{
+	static final int MAX_INSTRUCTIONS = 10000;
+
+	static final int MAX_DFA_MEMORY = 0x40000;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final int STATE_OVERHEAD = 64;
+
+	private static final int MINIMUM_STATES = 3;
+
+	private static final int ASCII = 128;
+
+	private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	private static final int LOOK_AHEAD = 5;
+
+	private static final int UNSUPPORTED_FLAGS = Pattern.COMMENTS | Pattern.CANON_EQ | Pattern.UNICODE_CHARACTER_CLASS;
+
+	private static final int OP_CLASS = 0;
+
+	private static final int OP_SPLIT = 1;
+
+	private static final int OP_ASSERT = 2;
+
+	private static final int OP_MATCH = 3;
+
+	private static final int BEGIN_TEXT = 0;
+
+	private static final int BEGIN_LINE = 1;
+
+	private static final int END_TEXT = 2;
+
+	private static final int END_TEXT_TERMINATOR = 3;
+
+	private static final int END_LINE = 4;
+
+	private static final int NEXT_LINE = 0x85;
+
+	private static final int LINE_SEPARATOR = 0x2028;
+
+	private static final int PARAGRAPH_SEPARATOR = 0x2029;
+
+	private static final int BELL = 0x07;
+
+	private static final int FORM_FEED = 0x0C;
+
+	private static final int ESCAPE = 0x1B;
+
+	private static final int CONTROL = 0x40;
+
+	private static final int MAX_OCTAL_LEAD = 3;
+
+	private static final int OCTAL = 8;
+
+	private static final int DECIMAL = 10;
+
+	private static final int HEXADECIMAL = 16;
+
+	private static final int UNICODE_ESCAPE_LENGTH = 4;
+
+	private static final int[] LINE_TERMINATORS = CodePointRanges.ofCodePoints(
+			'\n', '\r', NEXT_LINE, LINE_SEPARATOR, PARAGRAPH_SEPARATOR
+	);
+
+	private static final int[] DIGITS = CodePointRanges.of('0', '9');
+
+	private static final int[] SPACES = CodePointRanges.union(
+			CodePointRanges.of('\t', '\r'), CodePointRanges.of(' ', ' ')
+	);
+
+	private static final int[] WORD = CodePointRanges.union(
+			CodePointRanges.ofCodePoints('_'), CodePointRanges.union(
+					CodePointRanges.union(CodePointRanges.of('a', 'z'), CodePointRanges.of('A', 'Z')), DIGITS
+			)
+	);
+
+	private static final int[] HORIZONTAL_SPACES = {
+			'\t', '\t', ' ', ' ', 0xA0, 0xA0, 0x1680, 0x1680, 0x180E, 0x180E, 0x2000, 0x200A, 0x202F, 0x202F,
+			0x205F, 0x205F, 0x3000, 0x3000
+	};
+
+	private static final int[] VERTICAL_SPACES = {
+			'\n', '\r', NEXT_LINE, NEXT_LINE, LINE_SEPARATOR, PARAGRAPH_SEPARATOR
+	};
+
+	private static final Map<String, int[]> PROPERTIES = new ConcurrentHashMap<String, int[]>();
+
+	private final int[] operations;
+
+	private final int[] arguments;
+
+	private final int[] outs;
+
+	private final int[] alternateOuts;
+
+	private final int start;
+
+	private final boolean assertions;
+
+	private final boolean unixLines;
+
+	private final int[] equivalenceStarts;
+
+	private final int[] asciiEquivalences;
+
+	private final boolean[][] members;
+
+	private final ThreadLocal<Runner> runners = new ThreadLocal<Runner>()
+	{
+		@Override
+		protected Runner initialValue()
+		{
+			return new Runner();
+		}
+	};
+
+	private LinearRegex(Compiler compiler, boolean unixLines)
+	{
+		this.operations = Arrays.copyOf(compiler.operations, compiler.size);
+		this.arguments = Arrays.copyOf(compiler.arguments, compiler.size);
+		this.outs = Arrays.copyOf(compiler.outs, compiler.size);
+		this.alternateOuts = Arrays.copyOf(compiler.alternateOuts, compiler.size);
+		this.start = compiler.start;
+		this.assertions = compiler.assertions;
+		this.unixLines = unixLines;
+
+		int[] boundaries = new int[1];
+		int count = 1;
+		for(int[] ranges : compiler.classes)
+		{
+			if(count + ranges.length > boundaries.length)
+			{
+				boundaries = Arrays.copyOf(boundaries, (count + ranges.length) * 2);
+			}
+			for(int i = 0; i < ranges.length; i += 2)
+			{
+				boundaries[count++] = ranges[i];
+				if(ranges[i + 1] < Character.MAX_CODE_POINT)
+				{
+					boundaries[count++] = ranges[i + 1] + 1;
+				}
+			}
+		}
+		Arrays.sort(boundaries, 0, count);
+		int unique = 0;
+		for(int i = 0; i < count; i++)
+		{
+			if(i == 0 || boundaries[i] != boundaries[i - 1])
+			{
+				boundaries[unique++] = boundaries[i];
+			}
+		}
+		this.equivalenceStarts = Arrays.copyOf(boundaries, unique);
+
+		this.members = new boolean[compiler.classes.size()][unique];
+		for(int c = 0; c < this.members.length; c++)
+		{
+			for(int e = 0; e < unique; e++)
+			{
+				this.members[c][e] = CodePointRanges.contains(compiler.classes.get(c), this.equivalenceStarts[e]);
+			}
+		}
+
+		this.asciiEquivalences = new int[ASCII];
+		for(int c = 0; c < ASCII; c++)
+		{
+			this.asciiEquivalences[c] = this.searchEquivalence(c);
+		}
+	}
+
+	/**
+	 * Compiles an expression.
+	 *
+	 * @param regexp The expression in {@link Pattern} syntax
+	 * @param flags The {@link Pattern} flags
+	 * @return the compiled expression.
+	 * @throws PatternSyntaxException if the expression is not valid.
+	 * @throws IllegalArgumentException if the expression or flags use a construct this engine does not support, or if
+	 * the expression compiles to more than {@link #MAX_INSTRUCTIONS} instructions.
+	 */
+	static LinearRegex compile(String regexp, int flags)
+	{
+		if((flags & UNSUPPORTED_FLAGS) != 0)
+		{
+			throw new IllegalArgumentException("The linear-time engine does not support the COMMENTS, CANON_EQ or " +
+											   "UNICODE_CHARACTER_CLASS flags.");
+		}
+
+		Node root = LinearRegex.stripAnchors(new Parser(regexp, flags).parse());
+		Compiler compiler = new Compiler();
+		compiler.start = compiler.compile(root, compiler.emit(OP_MATCH, 0, -1, -1));
+		return new LinearRegex(compiler, (flags & Pattern.UNIX_LINES) != 0);
+	}
+
+	/**
+	 * Removes the assertions that always hold at the start and end of the expression, because only whole inputs are
+	 * matched; what remains of most anchored expressions can then run on the DFA.
+	 *
+	 * @param root The parsed expression
+	 * @return the expression without the redundant anchors.
+	 */
+	private static Node stripAnchors(Node root)
+	{
+		if(root.kind == Node.ASSERTION)
+		{
+			return LinearRegex.isRedundantAnchor(root, true) || LinearRegex.isRedundantAnchor(root, false) ?
+				   Node.empty() : root;
+		}
+		if(root.kind != Node.CONCATENATION)
+		{
+			return root;
+		}
+
+		List<Node> children = new ArrayList<Node>(root.children);
+		while(!children.isEmpty() && LinearRegex.isRedundantAnchor(children.get(0), true))
+		{
+			children.remove(0);
+		}
+		while(!children.isEmpty() && LinearRegex.isRedundantAnchor(children.get(children.size() - 1), false))
+		{
+			children.remove(children.size() - 1);
+		}
+		return Node.list(Node.CONCATENATION, children);
+	}
+
+	/**
+	 * Indicates whether a node is an assertion that always holds at the start or the end of the input.
+	 *
+	 * @param node The node
+	 * @param leading Whether the node is at the start, as opposed to the end, of the expression
+	 * @return {@code true} if the node can be removed.
+	 */
+	private static boolean isRedundantAnchor(Node node, boolean leading)
+	{
+		if(node.kind != Node.ASSERTION)
+		{
+			return false;
+		}
+		return leading ? node.assertion == BEGIN_TEXT :
+			   node.assertion == END_TEXT || node.assertion == END_TEXT_TERMINATOR || node.assertion == END_LINE;
+	}
+
+	/**
+	 * Resolves a {@code \p} property name to its code points. {@link Pattern} is the authority on property names, so
+	 * the property is compiled with it once and tested against every code point; the result is cached for the life of
+	 * the JVM.
+	 *
+	 * @param name The property name
+	 * @return the code points having the property.
+	 * @throws PatternSyntaxException if the property is unknown.
+	 */
+	private static int[] property(String name)
+	{
+		int[] ranges = LinearRegex.PROPERTIES.get(name);
+		if(ranges == null)
+		{
+			Matcher matcher = Pattern.compile("\\p{" + name + "}").matcher("");
+			int[] found = new int[INITIAL_CAPACITY];
+			int length = 0;
+			for(int c = 0; c <= Character.MAX_CODE_POINT; c++)
+			{
+				if(matcher.reset(new String(Character.toChars(c))).matches())
+				{
+					if(length > 0 && found[length - 1] == c - 1)
+					{
+						found[length - 1] = c;
+					}
+					else
+					{
+						if(length == found.length)
+						{
+							found = Arrays.copyOf(found, length * 2);
+						}
+						found[length++] = c;
+						found[length++] = c;
+					}
+				}
+			}
+			ranges = Arrays.copyOf(found, length);
+			LinearRegex.PROPERTIES.put(name, ranges);
+		}
+		return ranges;
+	}
+
+	/**
+	 * Indicates whether the whole input matches the expression.
+	 *
+	 * @param input The input
+	 * @return {@code true} if the input matches.
+	 */
+	boolean matches(CharSequence input)
+	{
+		Runner runner = this.runners.get();
+		return this.assertions ? runner.simulate(input) : runner.run(input);
+	}
+
+	/**
+	 * Indicates whether the whole content of a reader matches the expression. The content is read through a
+	 * fixed-size buffer, so memory use does not depend on its length, and reading stops as soon as no match is
+	 * possible. Assertions look at most one character behind and three ahead of their position, so only that much
+	 * of the content is kept between reads.
+	 *
+	 * @param reader The reader, which is consumed but not closed
+	 * @return {@code true} if the content matches.
+	 * @throws IOException if reading fails.
+	 */
+	boolean matches(Reader reader) throws IOException
+	{
+		Runner runner = this.runners.get();
+		return this.assertions ? runner.simulate(reader) : runner.run(reader);
+	}
+
+	/**
+	 * Returns the equivalence class of a code point: code points in the same class belong to exactly the same
+	 * character classes of the expression, so the DFA needs only one transition per equivalence class.
+	 *
+	 * @param codePoint The code point
+	 * @return the equivalence class.
+	 */
+	private int equivalence(int codePoint)
+	{
+		return codePoint < ASCII ? this.asciiEquivalences[codePoint] : this.searchEquivalence(codePoint);
+	}
+
+	/**
+	 * Finds the equivalence class of a code point by binary search.
+	 *
+	 * @param codePoint The code point
+	 * @return the equivalence class.
+	 */
+	private int searchEquivalence(int codePoint)
+	{
+		int index = Arrays.binarySearch(this.equivalenceStarts, codePoint);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * A node of the parsed expression.
+	 *
+	 * @author Nicholas Williams
+	 * @since 1.0.0
+	 */
+	private static final class Node
+	{
+		static final int CHARACTERS = 0;
+
+		static final int EMPTY = 1;
+
+		static final int ASSERTION = 2;
+
+		static final int CONCATENATION = 3;
+
+		static final int ALTERNATION = 4;
+
+		static final int REPETITION = 5;
+
+		private final int kind;
+
+		private int[] ranges;
+
+		private int assertion;
+
+		private List<Node> children;
+
+		private Node child;
+
+		private int minimum;
+
+		private int maximum;
+
+		Node(int kind)
+		{
+			this.kind = kind;
+		}
+
+		static Node characters(int[] ranges)
+		{
+			Node node = new Node(CHARACTERS);
+			node.ranges = ranges;
+			return node;
+		}
+
+		static Node empty()
+		{
+			return new Node(EMPTY);
+		}
+
+		static Node assertion(int assertion)
+		{
+			Node node = new Node(ASSERTION);
+			node.assertion = assertion;
+			return node;
+		}
+
+		static Node list(int kind, List<Node> children)
+		{
+			if(children.isEmpty())
+			{
+				return Node.empty();
+			}
+			if(children.size() == 1)
+			{
+				return children.get(0);
+			}
+			Node node = new Node(kind);
+			node.children = children;
+			return node;
+		}
+
+		static Node repetition(Node child, int minimum, int maximum)
+		{
+			Node node = new Node(REPETITION);
+			node.child = child;
+			node.minimum = minimum;
+			node.maximum = maximum;
+			return node;
+		}
+	}
+
+	/**
+	 * Parses {@link Pattern} syntax into {@link Node}s.
+	 *
+	 * @author Nicholas Williams
+	 * @since 1.0.0
+	 */
+	private static final class Parser
+	{
+		private final String expression;
+
+		private final String regexp;
+
+		private final int length;
+
+		private final boolean caseInsensitive;
+
+		private final boolean unicodeCase;
+
+		private final boolean multiline;
+
+		private final boolean literal;
+
+		private final int[] dot;
+
+		private final Set<String> groupNames = new HashSet<String>();
+
+		private int position;
+
+		Parser(String regexp, int flags)
+		{
+			this.expression = regexp;
+			this.literal = (flags & Pattern.LITERAL) != 0;
+			this.regexp = this.literal ? regexp : Parser.removeQuotation(regexp);
+			this.length = this.regexp.length();
+			this.caseInsensitive = (flags & Pattern.CASE_INSENSITIVE) != 0;
+			this.unicodeCase = (flags & Pattern.UNICODE_CASE) != 0;
+			this.multiline = (flags & Pattern.MULTILINE) != 0;
+			if((flags & Pattern.DOTALL) != 0)
+			{
+				this.dot = CodePointRanges.ALL;
+			}
+			else if((flags & Pattern.UNIX_LINES) != 0)
+			{
+				this.dot = CodePointRanges.negate(CodePointRanges.ofCodePoints('\n'));
+			}
+			else
+			{
+				this.dot = CodePointRanges.negate(LINE_TERMINATORS);
+			}
+		}
+
+		/*
+		 * Replaces each quotation (\Q...\E) with the escaped characters it quotes before parsing, exactly as Pattern
+		 * does, so that a quotation has the same effect on the syntax around it as in Pattern: an empty one is as if
+		 * it were not there, and a quantifier after one applies to its last character only. A digit at the start of a
+		 * quotation becomes a hexadecimal escape, so that it cannot extend an escape before the quotation.
+		 */
+		private static String removeQuotation(String regexp)
+		{
+			int length = regexp.length();
+			int i = 0;
+			while(i < length - 1 && (regexp.charAt(i) != '\\' || regexp.charAt(i + 1) != 'Q'))
+			{
+				i += regexp.charAt(i) == '\\' ? 2 : 1;
+			}
+			if(i >= length - 1)
+			{
+				return regexp;
+			}
+
+			StringBuilder builder = new StringBuilder(length * 2).append(regexp, 0, i);
+			i += 2;
+			boolean quoted = true;
+			boolean beginning = true;
+			while(i < length)
+			{
+				char c = regexp.charAt(i++);
+				char following = i < length ? regexp.charAt(i) : 0;
+				if(c >= ASCII || Parser.isAsciiLetter(c))
+				{
+					builder.append(c);
+				}
+				else if(Parser.isAsciiDigit(c))
+				{
+					builder.append(beginning ? "\\x3" : "").append(c);
+				}
+				else if(c != '\\')
+				{
+					builder.append(quoted ? "\\" : "").append(c);
+				}
+				else if(quoted)
+				{
+					if(following == 'E')
+					{
+						quoted = false;
+						i++;
+					}
+					else
+					{
+						builder.append("\\\\");
+					}
+				}
+				else if(following == 'Q')
+				{
+					quoted = true;
+					beginning = true;
+					i++;
+					continue;
+				}
+				else
+				{
+					builder.append(c);
+					if(i < length)
+					{
+						builder.append(regexp.charAt(i++));
+					}
+				}
+				beginning = false;
+			}
+			return builder.toString();
+		}
+
+		Node parse()
+		{
+			if(this.literal)
+			{
+				return Node.list(Node.CONCATENATION, this.quoted(this.length));
+			}
+			Node node = this.alternation();
+			if(this.position < this.length)
+			{
+				throw this.syntax("Unmatched closing ')'", this.position);
+			}
+			return node;
+		}
+
+		private Node alternation()
+		{
+			Node first = this.concatenation();
+			if(!this.at('|'))
+			{
+				return first;
+			}
+			List<Node> alternatives = new ArrayList<Node>();
+			alternatives.add(first);
+			while(this.at('|'))
+			{
+				this.position++;
+				alternatives.add(this.concatenation());
+			}
+			return Node.list(Node.ALTERNATION, alternatives);
+		}
+
+		private Node concatenation()
+		{
+			List<Node> items = new ArrayList<Node>();
+			while(this.position < this.length && !this.at('|') && !this.at(')'))
+			{
+				items.add(this.quantified(this.atom()));
+			}
+			return Node.list(Node.CONCATENATION, items);
+		}
+
+		private Node quantified(Node atom)
+		{
+			if(this.position >= this.length)
+			{
+				return atom;
+			}
+			int minimum;
+			int maximum;
+			switch(this.regexp.charAt(this.position))
+			{
+				case '*':
+					minimum = 0;
+					maximum = UNBOUNDED;
+					this.position++;
+					break;
+				case '+':
+					minimum = 1;
+					maximum = UNBOUNDED;
+					this.position++;
+					break;
+				case '?':
+					minimum = 0;
+					maximum = 1;
+					this.position++;
+					break;
+				case '{':
+					int brace = this.position++;
+					if(this.position >= this.length || !Character.isDigit(this.regexp.charAt(this.position)))
+					{
+						throw this.syntax("Illegal repetition", brace);
+					}
+					minimum = this.number();
+					maximum = minimum;
+					if(this.at(','))
+					{
+						this.position++;
+						maximum = this.position < this.length && Character.isDigit(this.regexp.charAt(this.position)) ?
+								  this.number() : UNBOUNDED;
+					}
+					if(!this.at('}'))
+					{
+						throw this.syntax("Unclosed counted closure", this.position);
+					}
+					this.position++;
+					if(maximum < minimum)
+					{
+						throw this.syntax("Illegal repetition range", brace);
+					}
+					break;
+				default:
+					return atom;
+			}
+			// a reluctant quantifier matches the same whole inputs as a greedy one; a possessive one does not
+			if(this.at('?'))
+			{
+				this.position++;
+			}
+			else if(this.at('+'))
+			{
+				throw this.unsupported("possessive quantifier", this.position);
+			}
+			return Node.repetition(atom, minimum, maximum);
+		}
+
+		private int number()
+		{
+			long value = 0;
+			while(this.position < this.length && Character.isDigit(this.regexp.charAt(this.position)))
+			{
+				value = Math.min(value * DECIMAL + Character.digit(this.regexp.charAt(this.position++), DECIMAL),
+								 MAX_INSTRUCTIONS + 1);
+			}
+			return (int) value;
+		}
+
+		private Node atom()
+		{
+			int start = this.position;
+			int c = this.next();
+			switch(c)
+			{
+				case '(':
+					return this.group(start);
+				case '[':
+					return Node.characters(this.characterClass(start));
+				case '.':
+					return Node.characters(this.dot);
+				case '^':
+					return Node.assertion(this.multiline ? BEGIN_LINE : BEGIN_TEXT);
+				case '$':
+					return Node.assertion(this.multiline ? END_LINE : END_TEXT_TERMINATOR);
+				case '\\':
+					return this.escape(start);
+				case '*':
+				case '+':
+				case '?':
+					throw this.syntax("Dangling meta character '" + (char) c + "'", start);
+				case '{':
+					// like Pattern, a counted closure with nothing before it repeats the empty string
+					this.position = start;
+					return Node.empty();
+				default:
+					return Node.characters(this.fold(c));
+			}
+		}
+
+		private Node group(int start)
+		{
+			if(this.at('?'))
+			{
+				this.position++;
+				if(this.at(':'))
+				{
+					this.position++;
+				}
+				else if(this.at('<') && this.position + 1 < this.length &&
+						this.regexp.charAt(this.position + 1) != '=' && this.regexp.charAt(this.position + 1) != '!')
+				{
+					// like Pattern, group names are ASCII letters and digits starting with a letter
+					int nameStart = ++this.position;
+					if(!Parser.isAsciiLetter(this.regexp.charAt(this.position)))
+					{
+						throw this.syntax("capturing group name does not start with a Latin letter", this.position);
+					}
+					while(this.position < this.length && (Parser.isAsciiLetter(this.regexp.charAt(this.position)) ||
+														  Parser.isAsciiDigit(this.regexp.charAt(this.position))))
+					{
+						this.position++;
+					}
+					if(!this.at('>'))
+					{
+						throw this.syntax("named capturing group is missing trailing '>'", this.position);
+					}
+					String name = this.regexp.substring(nameStart, this.position++);
+					if(!this.groupNames.add(name))
+					{
+						throw this.syntax("Named capturing group <" + name + "> is already defined", this.position);
+					}
+				}
+				else
+				{
+					throw this.unsupported("lookaround, atomic group or embedded flag", start);
+				}
+			}
+			Node node = this.alternation();
+			if(!this.at(')'))
+			{
+				throw this.syntax("Unclosed group", this.length);
+			}
+			this.position++;
+			return node;
+		}
+
+		private Node escape(int start)
+		{
+			if(this.position >= this.length)
+			{
+				throw this.syntax("Unexpected internal error", this.length);
+			}
+			int c = this.next();
+			switch(c)
+			{
+				case 'A':
+					return Node.assertion(BEGIN_TEXT);
+				case 'z':
+					return Node.assertion(END_TEXT);
+				case 'Z':
+					return Node.assertion(END_TEXT_TERMINATOR);
+				case 'b':
+				case 'B':
+				case 'G':
+				case 'R':
+				case 'X':
+					throw this.unsupported("boundary or sequence matcher \\" + (char) c, start);
+				case 'k':
+					throw this.unsupported("back reference", start);
+				default:
+					if(c >= '1' && c <= '9')
+					{
+						throw this.unsupported("back reference", start);
+					}
+					int single = this.escapedCharacter(c, start);
+					return Node.characters(single >= 0 ? this.fold(single) :
+										   this.escapedClass(c, start));
+			}
+		}
+
+		private List<Node> quoted(int end)
+		{
+			List<Node> characters = new ArrayList<Node>();
+			while(this.position < end)
+			{
+				int c = this.next();
+				characters.add(Node.characters(this.fold(c)));
+			}
+			return characters;
+		}
+
+		private int[] characterClass(int start)
+		{
+			boolean negated = this.at('^');
+			if(negated)
+			{
+				this.position++;
+			}
+			int[] operand = null;
+			int[] intersection = null;
+			boolean first = true;
+			while(true)
+			{
+				if(this.position >= this.length)
+				{
+					throw this.syntax("Unclosed character class", this.length - 1);
+				}
+				char c = this.regexp.charAt(this.position);
+				if(c == ']' && !first)
+				{
+					this.position++;
+					break;
+				}
+				first = false;
+				int[] set;
+				if(c == '[' || c == '&' && this.position + 1 < this.length &&
+							   this.regexp.charAt(this.position + 1) == '&')
+				{
+					// Pattern does not apply ^ to nested and intersected classes consistently across versions
+					if(negated)
+					{
+						throw this.unsupported("nested class or intersection in a negated class", this.position);
+					}
+					if(c == '&')
+					{
+						this.position += 2;
+						if(operand != null)
+						{
+							intersection = intersection == null ? operand :
+										   CodePointRanges.intersect(intersection, operand);
+						}
+						operand = null;
+						continue;
+					}
+					set = this.characterClass(this.position++);
+				}
+				else
+				{
+					set = this.classItem();
+				}
+				operand = operand == null ? set : CodePointRanges.union(operand, set);
+			}
+			if(operand != null)
+			{
+				intersection = intersection == null ? operand : CodePointRanges.intersect(intersection, operand);
+			}
+			int[] result = intersection == null ? CodePointRanges.EMPTY : intersection;
+			return negated ? CodePointRanges.negate(result) : result;
+		}
+
+		private int[] classItem()
+		{
+			int start = this.position;
+			int low = this.next();
+			if(low == '\\')
+			{
+				if(this.position >= this.length)
+				{
+					throw this.syntax("Unclosed character class", this.length - 1);
+				}
+				int c = this.next();
+				low = this.escapedCharacter(c, start);
+				if(low < 0)
+				{
+					return this.escapedClass(c, start);
+				}
+			}
+			int high = low;
+			boolean range = this.at('-') && this.position + 1 < this.length &&
+							this.regexp.charAt(this.position + 1) != ']' &&
+							this.regexp.charAt(this.position + 1) != '[';
+			if(range)
+			{
+				this.position++;
+				int rangeStart = this.position;
+				high = this.next();
+				if(high == '\\')
+				{
+					if(this.position >= this.length)
+					{
+						throw this.syntax("Illegal character range", rangeStart);
+					}
+					high = this.escapedCharacter(this.next(), rangeStart);
+				}
+				if(high < low)
+				{
+					throw this.syntax("Illegal character range", rangeStart);
+				}
+			}
+			return range ? this.fold(CodePointRanges.of(low, high)) : this.fold(low);
+		}
+
+		private int escapedCharacter(int c, int start)
+		{
+			switch(c)
+			{
+				case 't':
+					return '\t';
+				case 'n':
+					return '\n';
+				case 'r':
+					return '\r';
+				case 'f':
+					return FORM_FEED;
+				case 'a':
+					return BELL;
+				case 'e':
+					return ESCAPE;
+				case 'c':
+					if(this.position >= this.length)
+					{
+						throw this.syntax("Illegal control escape sequence", start);
+					}
+					return this.next() ^ CONTROL;
+				case '0':
+					return this.octal(start);
+				case 'x':
+					if(this.at('{'))
+					{
+						int end = this.regexp.indexOf('}', ++this.position);
+						if(end < 0)
+						{
+							throw this.syntax("Unclosed hexadecimal escape sequence", start);
+						}
+						int value = this.hexadecimal(end, start);
+						if(!Character.isValidCodePoint(value))
+						{
+							throw this.syntax("Hexadecimal codepoint is too big", start);
+						}
+						this.position = end + 1;
+						return value;
+					}
+					return this.hexadecimal(this.position + 2, start);
+				case 'u':
+					int unit = this.hexadecimal(this.position + UNICODE_ESCAPE_LENGTH, start);
+					// like Pattern, join a surrogate pair written as two escapes into one code point
+					if(Character.isHighSurrogate((char) unit) && this.regexp.startsWith("\\u", this.position))
+					{
+						int resume = this.position;
+						this.position += 2;
+						int low = this.hexadecimal(this.position + UNICODE_ESCAPE_LENGTH, start);
+						if(Character.isLowSurrogate((char) low))
+						{
+							return Character.toCodePoint((char) unit, (char) low);
+						}
+						this.position = resume;
+					}
+					return unit;
+				default:
+					return Character.isLetterOrDigit(c) ? -1 : c;
+			}
+		}
+
+		private int octal(int start)
+		{
+			int value = 0;
+			int digits = 0;
+			while(digits < MAX_OCTAL_LEAD && this.position < this.length)
+			{
+				int digit = Character.digit(this.regexp.charAt(this.position), OCTAL);
+				// three digits only when the first is at most 3, so that the value fits in a byte
+				if(digit < 0 || digits == 2 && value / OCTAL > MAX_OCTAL_LEAD)
+				{
+					break;
+				}
+				value = value * OCTAL + digit;
+				digits++;
+				this.position++;
+			}
+			if(digits == 0)
+			{
+				throw this.syntax("Illegal octal escape sequence", start);
+			}
+			return value;
+		}
+
+		private int hexadecimal(int end, int start)
+		{
+			if(end > this.length || end == this.position)
+			{
+				throw this.syntax("Illegal hexadecimal escape sequence", start);
+			}
+			int value = 0;
+			while(this.position < end)
+			{
+				int digit = Character.digit(this.regexp.charAt(this.position++), HEXADECIMAL);
+				if(digit < 0)
+				{
+					throw this.syntax("Illegal hexadecimal escape sequence", start);
+				}
+				value = (int) Math.min((long) value * HEXADECIMAL + digit, Integer.MAX_VALUE);
+			}
+			return value;
+		}
+
+		private int[] escapedClass(int c, int start)
+		{
+			switch(c)
+			{
+				case 'd':
+					return DIGITS;
+				case 'D':
+					return CodePointRanges.negate(DIGITS);
+				case 's':
+					return SPACES;
+				case 'S':
+					return CodePointRanges.negate(SPACES);
+				case 'w':
+					return WORD;
+				case 'W':
+					return CodePointRanges.negate(WORD);
+				case 'h':
+					return HORIZONTAL_SPACES;
+				case 'H':
+					return CodePointRanges.negate(HORIZONTAL_SPACES);
+				case 'v':
+					return VERTICAL_SPACES;
+				case 'V':
+					return CodePointRanges.negate(VERTICAL_SPACES);
+				case 'p':
+				case 'P':
+					String name;
+					if(this.at('{'))
+					{
+						int end = this.regexp.indexOf('}', this.position);
+						if(end < 0)
+						{
+							throw this.syntax("Unclosed character family", this.length);
+						}
+						name = this.regexp.substring(this.position + 1, end);
+						this.position = end + 1;
+					}
+					else if(this.position < this.length)
+					{
+						name = String.valueOf(this.regexp.charAt(this.position++));
+					}
+					else
+					{
+						throw this.syntax("Illegal character family", start);
+					}
+					int[] set;
+					try
+					{
+						set = LinearRegex.property(name);
+					}
+					catch(PatternSyntaxException e)
+					{
+						throw this.syntax(e.getDescription(), start);
+					}
+					return c == 'P' ? CodePointRanges.negate(set) : set;
+				default:
+					throw this.syntax("Illegal/unsupported escape sequence", start);
+			}
+		}
+
+		private int[] fold(int codePoint)
+		{
+			return this.caseInsensitive ? CodePointRanges.foldCase(codePoint, this.unicodeCase) :
+				   CodePointRanges.of(codePoint, codePoint);
+		}
+
+		private int[] fold(int[] ranges)
+		{
+			return this.caseInsensitive ? CodePointRanges.foldCase(ranges, this.unicodeCase) : ranges;
+		}
+
+		private static boolean isAsciiLetter(char c)
+		{
+			return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+		}
+
+		private static boolean isAsciiDigit(char c)
+		{
+			return c >= '0' && c <= '9';
+		}
+
+		private boolean at(char c)
+		{
+			return this.position < this.length && this.regexp.charAt(this.position) == c;
+		}
+
+		private int next()
+		{
+			int c = this.regexp.codePointAt(this.position);
+			this.position += Character.charCount(c);
+			return c;
+		}
+
+		private PatternSyntaxException syntax(String description, int index)
+		{
+			return new PatternSyntaxException(description, this.expression, index);
+		}
+
+		private IllegalArgumentException unsupported(String construct, int index)
+		{
+			return new IllegalArgumentException("The linear-time engine does not support the " + construct +
+												" at index " + index + " of [" + this.expression + "].");
+		}
+	}
+
+	/**
+	 * Compiles {@link Node}s into Thompson NFA instructions, last instruction first, so that every instruction is
+	 * emitted knowing its successor.
+	 *
+	 * @author Nicholas Williams
+	 * @since 1.0.0
+	 */
+	private static final class Compiler
+	{
+		private final List<int[]> classes = new ArrayList<int[]>();
+
+		private int[] operations = new int[INITIAL_CAPACITY];
+
+		private int[] arguments = new int[INITIAL_CAPACITY];
+
+		private int[] outs = new int[INITIAL_CAPACITY];
+
+		private int[] alternateOuts = new int[INITIAL_CAPACITY];
+
+		private int size;
+
+		private int start;
+
+		private boolean assertions;
+
+		int compile(Node node, int next)
+		{
+			switch(node.kind)
+			{
+				case Node.CHARACTERS:
+					return this.emit(OP_CLASS, this.classIndex(node.ranges), next, -1);
+				case Node.ASSERTION:
+					this.assertions = true;
+					return this.emit(OP_ASSERT, node.assertion, next, -1);
+				case Node.CONCATENATION:
+					int entry = next;
+					for(int i = node.children.size() - 1; i >= 0; i--)
+					{
+						entry = this.compile(node.children.get(i), entry);
+					}
+					return entry;
+				case Node.ALTERNATION:
+					int first = this.compile(node.children.get(node.children.size() - 1), next);
+					for(int i = node.children.size() - 2; i >= 0; i--)
+					{
+						first = this.emit(OP_SPLIT, 0, this.compile(node.children.get(i), next), first);
+					}
+					return first;
+				case Node.REPETITION:
+					int repeated = next;
+					if(node.maximum == UNBOUNDED)
+					{
+						repeated = this.emit(OP_SPLIT, 0, -1, next);
+						// compile first: it may replace the arrays
+						int body = this.compile(node.child, repeated);
+						this.outs[repeated] = body;
+					}
+					else
+					{
+						for(int i = node.minimum; i < node.maximum; i++)
+						{
+							repeated = this.emit(OP_SPLIT, 0, this.compile(node.child, repeated), next);
+						}
+					}
+					for(int i = 0; i < node.minimum; i++)
+					{
+						repeated = this.compile(node.child, repeated);
+					}
+					return repeated;
+				default:
+					return next;
+			}
+		}
+
+		int emit(int operation, int argument, int out, int alternateOut)
+		{
+			if(this.size == MAX_INSTRUCTIONS)
+			{
+				throw new IllegalArgumentException("The expression is too large for the linear-time engine; it " +
+												   "needs more than " + MAX_INSTRUCTIONS + " instructions.");
+			}
+			if(this.size == this.operations.length)
+			{
+				this.operations = Arrays.copyOf(this.operations, this.size * 2);
+				this.arguments = Arrays.copyOf(this.arguments, this.size * 2);
+				this.outs = Arrays.copyOf(this.outs, this.size * 2);
+				this.alternateOuts = Arrays.copyOf(this.alternateOuts, this.size * 2);
+			}
+			this.operations[this.size] = operation;
+			this.arguments[this.size] = argument;
+			this.outs[this.size] = out;
+			this.alternateOuts[this.size] = alternateOut;
+			return this.size++;
+		}
+
+		private int classIndex(int[] ranges)
+		{
+			for(int i = 0; i < this.classes.size(); i++)
+			{
+				if(Arrays.equals(this.classes.get(i), ranges))
+				{
+					return i;
+				}
+			}
+			this.classes.add(ranges);
+			return this.classes.size() - 1;
+		}
+	}
+
+	/**
+	 * The identity of a DFA state: the sorted NFA instructions it stands for.
+	 *
+	 * @author Nicholas Williams
+	 * @since 1.0.0
+	 */
+	private static final class StateKey
+	{
+		private final int[] instructions;
+
+		private final int hash;
+
+		StateKey(int[] instructions)
+		{
+			this.instructions = instructions;
+			this.hash = Arrays.hashCode(instructions);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object object)
+		{
+			return object instanceof StateKey && Arrays.equals(this.instructions, ((StateKey) object).instructions);
+		}
+	}
+
+	/**
+	 * The per-thread matching state: the lazily built DFA and the NFA simulation's work lists.
+	 *
+	 * @author Nicholas Williams
+	 * @since 1.0.0
+	 */
+	private final class Runner
+	{
+		private final Map<StateKey, Integer> stateIds = new HashMap<StateKey, Integer>();
+
+		private final List<int[]> states = new ArrayList<int[]>();
+
+		private final List<int[]> transitions = new ArrayList<int[]>();
+
+		private final List<Boolean> accepting = new ArrayList<Boolean>();
+
+		private final int[] marks = new int[LinearRegex.this.operations.length];
+
+		private final int[] stack = new int[LinearRegex.this.operations.length * 2 + 1];
+
+		private int[] current = new int[LinearRegex.this.operations.length];
+
+		private int[] following = new int[LinearRegex.this.operations.length];
+
+		private int generation;
+
+		private int memory;
+
+		private int begin;
+
+		private int end;
+
+		/**
+		 * Runs the DFA over the input, building the states it lacks.
+		 */
+		boolean run(CharSequence input)
+		{
+			int state = this.initial();
+			for(int i = 0, length = input.length(); i < length && state >= 0;)
+			{
+				int c = Character.codePointAt(input, i);
+				i += Character.charCount(c);
+				state = this.advance(state, c);
+			}
+			return state >= 0 && this.accepting.get(state);
+		}
+
+		/**
+		 * Runs the DFA over the content of a reader, building the states it lacks.
+		 */
+		boolean run(Reader reader) throws IOException
+		{
+			char[] buffer = new char[ReaderUtils.BUFFER_SIZE];
+			int state = this.initial();
+			int carried = 0;
+			int read;
+			while(state >= 0 && (read = reader.read(buffer, carried, buffer.length - carried)) >= 0)
+			{
+				int limit = carried + read;
+				// a high surrogate ending the chunk may pair with the first character of the next chunk
+				int stop = limit > 0 && Character.isHighSurrogate(buffer[limit - 1]) ? limit - 1 : limit;
+				int i = 0;
+				while(i < stop && state >= 0)
+				{
+					int c = Character.codePointAt(buffer, i, limit);
+					i += Character.charCount(c);
+					state = this.advance(state, c);
+				}
+				carried = limit - i;
+				if(carried > 0)
+				{
+					buffer[0] = buffer[i];
+				}
+			}
+			if(state >= 0 && carried > 0)
+			{
+				state = this.advance(state, buffer[0]);
+			}
+			return state >= 0 && this.accepting.get(state);
+		}
+
+		/**
+		 * Returns the start state of the DFA, building it if necessary.
+		 */
+		private int initial()
+		{
+			if(this.states.isEmpty())
+			{
+				this.state(this.closure(new int[] {LinearRegex.this.start}, 1));
+			}
+			return 0;
+		}
+
+		/**
+		 * Returns the DFA state following a state on a code point, or -1 for the dead state.
+		 */
+		private int advance(int state, int codePoint)
+		{
+			int equivalence = LinearRegex.this.equivalence(codePoint);
+			int target = this.transitions.get(state)[equivalence];
+			if(target == 0)
+			{
+				target = this.transition(state, equivalence);
+			}
+			return target < 0 ? -1 : target - 1;
+		}
+
+		/**
+		 * Computes, caches and returns a DFA transition as the target state plus one, or -1 for the dead state.
+		 */
+		private int transition(int state, int equivalence)
+		{
+			int[] instructions = this.states.get(state);
+			int count = 0;
+			for(int instruction : instructions)
+			{
+				if(LinearRegex.this.operations[instruction] == OP_CLASS &&
+				   LinearRegex.this.members[LinearRegex.this.arguments[instruction]][equivalence])
+				{
+					this.current[count++] = LinearRegex.this.outs[instruction];
+				}
+			}
+			if(count == 0)
+			{
+				this.transitions.get(state)[equivalence] = -1;
+				return -1;
+			}
+			int[] target = this.closure(Arrays.copyOf(this.current, count), count);
+			int id = this.state(target);
+			if(id < 0)
+			{
+				// the cache is full: start over with the states in hand, as the bound on time does not depend on it
+				this.stateIds.clear();
+				this.states.clear();
+				this.transitions.clear();
+				this.accepting.clear();
+				this.memory = 0;
+				this.state(this.closure(new int[] {LinearRegex.this.start}, 1));
+				state = this.state(instructions);
+				id = this.state(target);
+			}
+			this.transitions.get(state)[equivalence] = id + 1;
+			return id + 1;
+		}
+
+		/**
+		 * Returns the id of the DFA state for the instructions, adding it if there is room, or -1 if there is not.
+		 */
+		private int state(int[] instructions)
+		{
+			StateKey key = new StateKey(instructions);
+			Integer id = this.stateIds.get(key);
+			if(id != null)
+			{
+				return id;
+			}
+			int cost = STATE_OVERHEAD + Integer.SIZE / Byte.SIZE *
+										(instructions.length + LinearRegex.this.equivalenceStarts.length);
+			if(this.memory + cost > MAX_DFA_MEMORY && this.states.size() >= MINIMUM_STATES)
+			{
+				return -1;
+			}
+			this.memory += cost;
+			boolean match = false;
+			for(int instruction : instructions)
+			{
+				match |= LinearRegex.this.operations[instruction] == OP_MATCH;
+			}
+			this.stateIds.put(key, this.states.size());
+			this.states.add(instructions);
+			this.transitions.add(new int[LinearRegex.this.equivalenceStarts.length]);
+			this.accepting.add(match);
+			return this.states.size() - 1;
+		}
+
+		/**
+		 * Returns the sorted character and match instructions reachable from the seeds without consuming input.
+		 */
+		private int[] closure(int[] seeds, int count)
+		{
+			this.nextGeneration();
+			int found = 0;
+			for(int i = 0; i < count; i++)
+			{
+				found = this.follow(seeds[i], found, this.following, null, 0);
+			}
+			int[] instructions = Arrays.copyOf(this.following, found);
+			Arrays.sort(instructions);
+			return instructions;
+		}
+
+		/**
+		 * Runs the NFA simulation over the input; used when the expression has assertions.
+		 */
+		boolean simulate(CharSequence input)
+		{
+			this.begin = 0;
+			this.end = input.length();
+			int count = this.seed(input);
+			for(int i = 0; i < this.end && count > 0;)
+			{
+				int c = Character.codePointAt(input, i);
+				i += Character.charCount(c);
+				count = this.step(count, c, input, i);
+			}
+			return this.accepts(count);
+		}
+
+		/**
+		 * Runs the NFA simulation over the content of a reader. The buffer always holds the character before the
+		 * position and, until the content is exhausted, at least {@link #LOOK_AHEAD} characters from it on, which is
+		 * all that the next code point and the assertions after it read; while the end of the content is unknown,
+		 * it is taken to be beyond the buffer.
+		 */
+		boolean simulate(Reader reader) throws IOException
+		{
+			char[] buffer = new char[ReaderUtils.BUFFER_SIZE];
+			CharSequence input = CharBuffer.wrap(buffer);
+			this.begin = 0;
+			this.end = Integer.MAX_VALUE;
+			int filled = this.fill(reader, buffer, 0);
+			int count = this.seed(input);
+			int i = 0;
+			while(count > 0)
+			{
+				if(this.end == Integer.MAX_VALUE && filled - i < LOOK_AHEAD)
+				{
+					int shift = Math.max(i - 1, 0);
+					System.arraycopy(buffer, shift, buffer, 0, filled - shift);
+					i -= shift;
+					filled -= shift;
+					this.begin -= shift;
+					filled = this.fill(reader, buffer, filled);
+				}
+				if(i >= this.end)
+				{
+					break;
+				}
+				int c = Character.codePointAt(buffer, i, filled);
+				i += Character.charCount(c);
+				count = this.step(count, c, input, i);
+			}
+			return this.accepts(count);
+		}
+
+		/**
+		 * Reads into the buffer until it is full or the reader is exhausted, in which case the end of the content
+		 * becomes known. Returns the number of characters in the buffer.
+		 */
+		private int fill(Reader reader, char[] buffer, int filled) throws IOException
+		{
+			int total = filled;
+			int read;
+			while(total < buffer.length && (read = reader.read(buffer, total, buffer.length - total)) >= 0)
+			{
+				total += read;
+			}
+			if(total < buffer.length)
+			{
+				this.end = total;
+			}
+			return total;
+		}
+
+		/**
+		 * Puts the instructions reachable from the start of the expression in the current list and returns their
+		 * count.
+		 */
+		private int seed(CharSequence input)
+		{
+			this.nextGeneration();
+			return this.follow(LinearRegex.this.start, 0, this.current, input, this.begin);
+		}
+
+		/**
+		 * Advances the current list over a code point that ends at a position and returns the new count.
+		 */
+		private int step(int count, int codePoint, CharSequence input, int position)
+		{
+			int equivalence = LinearRegex.this.equivalence(codePoint);
+			this.nextGeneration();
+			int next = 0;
+			for(int j = 0; j < count; j++)
+			{
+				int instruction = this.current[j];
+				if(LinearRegex.this.operations[instruction] == OP_CLASS &&
+				   LinearRegex.this.members[LinearRegex.this.arguments[instruction]][equivalence])
+				{
+					next = this.follow(LinearRegex.this.outs[instruction], next, this.following, input, position);
+				}
+			}
+			int[] swap = this.current;
+			this.current = this.following;
+			this.following = swap;
+			return next;
+		}
+
+		/**
+		 * Indicates whether the current list contains the match instruction.
+		 */
+		private boolean accepts(int count)
+		{
+			for(int j = 0; j < count; j++)
+			{
+				if(LinearRegex.this.operations[this.current[j]] == OP_MATCH)
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Indicates whether an assertion holds at a position, with the semantics {@link Pattern} gives it, where the
+		 * text runs from {@link #begin} to {@link #end}.
+		 */
+		private boolean holds(int assertion, CharSequence input, int position)
+		{
+			switch(assertion)
+			{
+				case BEGIN_TEXT:
+					return position == this.begin;
+				case BEGIN_LINE:
+					return position < this.end && (position == this.begin ||
+							this.isLineTerminator(input.charAt(position - 1)) &&
+							!this.isCarriageReturnLineFeed(input, position - 1));
+				case END_TEXT:
+					return position == this.end;
+				case END_TEXT_TERMINATOR:
+					if(position == this.end)
+					{
+						return true;
+					}
+					if(position == this.end - 2)
+					{
+						return !LinearRegex.this.unixLines && this.isCarriageReturnLineFeed(input, position);
+					}
+					return position == this.end - 1 && this.isLineTerminator(input.charAt(position)) &&
+						   (position == this.begin || !this.isCarriageReturnLineFeed(input, position - 1));
+				default:
+					return position == this.end || this.isLineTerminator(input.charAt(position)) &&
+							(position == this.begin || !this.isCarriageReturnLineFeed(input, position - 1));
+			}
+		}
+
+		/**
+		 * Indicates whether a character terminates a line.
+		 */
+		private boolean isLineTerminator(char c)
+		{
+			return LinearRegex.this.unixLines ? c == '\n' : CodePointRanges.contains(LINE_TERMINATORS, c);
+		}
+
+		/**
+		 * Indicates whether a carriage return and line feed pair starts at a position.
+		 */
+		private boolean isCarriageReturnLineFeed(CharSequence input, int position)
+		{
+			return !LinearRegex.this.unixLines && position + 1 < this.end && input.charAt(position) == '\r' &&
+				   input.charAt(position + 1) == '\n';
+		}
+
+		/**
+		 * Starts a new generation of instruction marks, clearing them when the counter wraps around.
+		 */
+		private void nextGeneration()
+		{
+			if(++this.generation == 0)
+			{
+				Arrays.fill(this.marks, 0);
+				this.generation = 1;
+			}
+		}
+
+		/**
+		 * Adds the character and match instructions reachable from an instruction to a list, visiting each
+		 * instruction at most once per generation; assertions are followed only if they hold at the position.
+		 */
+		private int follow(int instruction, int count, int[] list, CharSequence input, int position)
+		{
+			int depth = 0;
+			this.stack[depth++] = instruction;
+			while(depth > 0)
+			{
+				int i = this.stack[--depth];
+				if(this.marks[i] == this.generation)
+				{
+					continue;
+				}
+				this.marks[i] = this.generation;
+				switch(LinearRegex.this.operations[i])
+				{
+					case OP_SPLIT:
+						this.stack[depth++] = LinearRegex.this.alternateOuts[i];
+						this.stack[depth++] = LinearRegex.this.outs[i];
+						break;
+					case OP_ASSERT:
+						if(input != null && this.holds(LinearRegex.this.arguments[i], input, position))
+						{
+							this.stack[depth++] = LinearRegex.this.outs[i];
+						}
+						break;
+					default:
+						list[count++] = i;
+						break;
+				}
+			}
+			return count;
+		}
+	}
+}
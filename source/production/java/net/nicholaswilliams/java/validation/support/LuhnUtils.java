@@ -0,0 +1,286 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.BitSet;
+
+/**
+ * Bulk <a href="http://en.wikipedia.org/wiki/Luhn_algorithm">Luhn</a> checks for batches of card numbers, computing the
+ * same result as {@link net.nicholaswilliams.java.validation.CreditCardNumber @CreditCardNumber} on values consisting
+ * only of digits. Digits are processed eight at a time, packed one per byte into a {@code long}, and the doubling,
+ * the "subtract nine" correction, and the summing of the eight digits are each done with a handful of arithmetic
+ * operations on the whole {@code long} (SIMD within a register).<br>
+ * <br>
+ * Values containing anything other than the digits 0 through 9, and empty values, fail the check. {@code null}
+ * values, like {@code null} constraint targets, pass it.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class LuhnUtils
+{
+	private static final int DIGITS_PER_GROUP = 8;
+
+	private static final int BITS_PER_DIGIT = 8;
+
+	private static final int MAX_DIGIT = 9;
+
+	private static final int MODULUS = 10;
+
+	private static final long GROUP_DIVISOR = 100000000L;
+
+	private static final long QUAD_DIVISOR = 10000L;
+
+	private static final int QUAD_SHIFT = 32;
+
+	private static final int PAIR_SHIFT = 16;
+
+	/*
+	 * Each 32-bit lane holds a value below 10,000; multiplying by 5,243 and shifting right by 19 divides it by 100.
+	 */
+	private static final long DIVIDE_BY_100_MULTIPLIER = 5243L;
+
+	private static final int DIVIDE_BY_100_SHIFT = 19;
+
+	private static final long QUAD_QUOTIENT_MASK = 0x0000007F0000007FL;
+
+	private static final long ONE_HUNDRED = 100L;
+
+	/*
+	 * Each 16-bit lane holds a value below 100; multiplying by 103 and shifting right by 10 divides it by 10.
+	 */
+	private static final long DIVIDE_BY_10_MULTIPLIER = 103L;
+
+	private static final int DIVIDE_BY_10_SHIFT = 10;
+
+	private static final long PAIR_QUOTIENT_MASK = 0x000F000F000F000FL;
+
+	private static final long TEN = 10L;
+
+	/*
+	 * Digit i (counting from the right, starting at 0) lives in byte i. Odd positions are the ones Luhn doubles.
+	 */
+	private static final long DOUBLED_LANES = 0xFF00FF00FF00FF00L;
+
+	private static final long LOW_BIT_OF_EACH_LANE = 0x0101010101010101L;
+
+	/*
+	 * Adding 123 to a lane holding a digit sets the lane's high bit exactly when the digit is 5 or more.
+	 */
+	private static final long AT_LEAST_FIVE_BIAS = 0x7B7B7B7B7B7B7B7BL;
+
+	private static final int LANE_HIGH_BIT_SHIFT = 7;
+
+	private static final long NINE = 9L;
+
+	private static final int SUM_SHIFT = 56;
+
+	private LuhnUtils()
+	{
+
+	}
+
+	/**
+	 * Checks a single all-digit value.
+	 *
+	 * @param value The value to check
+	 * @return {@code true} if the value is {@code null} or passes the Luhn check.
+	 */
+	public static boolean isValid(CharSequence value)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		int i = value.length();
+		if(i == 0)
+		{
+			return false;
+		}
+
+		int sum = 0;
+		while(i > 0)
+		{
+			int groupStart = Math.max(0, i - DIGITS_PER_GROUP);
+			long lanes = 0L;
+			int invalid = 0;
+			for(int shift = 0; i > groupStart; shift += BITS_PER_DIGIT)
+			{
+				int digit = value.charAt(--i) - '0';
+				invalid |= digit | (MAX_DIGIT - digit);
+				lanes |= (long) digit << shift;
+			}
+			if(invalid < 0)
+			{
+				return false;
+			}
+			sum += LuhnUtils.sumGroup(lanes);
+		}
+		return sum % MODULUS == 0;
+	}
+
+	/**
+	 * Checks a single all-digit value stored in a section of a character buffer.
+	 *
+	 * @param buffer The buffer containing the value
+	 * @param offset The index of the first character of the value
+	 * @param length The number of characters in the value
+	 * @return {@code true} if the value passes the Luhn check.
+	 */
+	public static boolean isValid(char[] buffer, int offset, int length)
+	{
+		if(length <= 0)
+		{
+			return false;
+		}
+
+		int sum = 0;
+		int i = offset + length;
+		while(i > offset)
+		{
+			int groupStart = Math.max(offset, i - DIGITS_PER_GROUP);
+			long lanes = 0L;
+			int invalid = 0;
+			for(int shift = 0; i > groupStart; shift += BITS_PER_DIGIT)
+			{
+				int digit = buffer[--i] - '0';
+				invalid |= digit | (MAX_DIGIT - digit);
+				lanes |= (long) digit << shift;
+			}
+			if(invalid < 0)
+			{
+				return false;
+			}
+			sum += LuhnUtils.sumGroup(lanes);
+		}
+		return sum % MODULUS == 0;
+	}
+
+	/**
+	 * Checks a single value held as a number. Leading zeros do not affect the Luhn check, so numbers of up to 18
+	 * digits, and 19-digit numbers up to {@link Long#MAX_VALUE}, are checked exactly as their digit strings would be.
+	 *
+	 * @param number The number to check
+	 * @return {@code true} if the number is non-negative and passes the Luhn check.
+	 */
+	public static boolean isValid(long number)
+	{
+		if(number < 0L)
+		{
+			return false;
+		}
+
+		long high = number / GROUP_DIVISOR;
+		int sum = LuhnUtils.sumGroup(LuhnUtils.unpack(number - high * GROUP_DIVISOR));
+		if(high > 0L)
+		{
+			long highest = high / GROUP_DIVISOR;
+			sum += LuhnUtils.sumGroup(LuhnUtils.unpack(high - highest * GROUP_DIVISOR));
+			sum += LuhnUtils.sumGroup(LuhnUtils.unpack(highest));
+		}
+		return sum % MODULUS == 0;
+	}
+
+	/**
+	 * Checks every value in the array.
+	 *
+	 * @param values The values to check
+	 * @return the set of indexes of the values that failed the check.
+	 */
+	public static BitSet validate(CharSequence[] values)
+	{
+		BitSet failures = new BitSet(values.length);
+		for(int i = 0; i < values.length; i++)
+		{
+			if(!LuhnUtils.isValid(values[i]))
+			{
+				failures.set(i);
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * Checks every number in the array.
+	 *
+	 * @param numbers The numbers to check
+	 * @return the set of indexes of the numbers that failed the check.
+	 * @see #isValid(long)
+	 */
+	public static BitSet validate(long[] numbers)
+	{
+		BitSet failures = new BitSet(numbers.length);
+		for(int i = 0; i < numbers.length; i++)
+		{
+			if(!LuhnUtils.isValid(numbers[i]))
+			{
+				failures.set(i);
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * Checks values stored back-to-back in a single character buffer. Value {@code i} occupies the characters from
+	 * {@code offsets[i]} (inclusive) to {@code offsets[i + 1]} (exclusive), so {@code offsets} must contain at least
+	 * {@code count + 1} entries.
+	 *
+	 * @param buffer The buffer containing the values
+	 * @param offsets The start offset of each value, followed by the end offset of the last value
+	 * @param count The number of values
+	 * @return the set of indexes of the values that failed the check.
+	 */
+	public static BitSet validate(char[] buffer, int[] offsets, int count)
+	{
+		BitSet failures = new BitSet(count);
+		for(int i = 0; i < count; i++)
+		{
+			if(!LuhnUtils.isValid(buffer, offsets[i], offsets[i + 1] - offsets[i]))
+			{
+				failures.set(i);
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * Computes the Luhn contribution of eight digits packed one per byte, rightmost digit in the lowest byte.
+	 */
+	private static int sumGroup(long lanes)
+	{
+		long doubled = lanes & DOUBLED_LANES;
+		long atLeastFive = ((doubled + AT_LEAST_FIVE_BIAS) >>> LANE_HIGH_BIT_SHIFT) & LOW_BIT_OF_EACH_LANE;
+		long adjusted = (lanes & ~DOUBLED_LANES) + (doubled << 1) - atLeastFive * NINE;
+		return (int) ((adjusted * LOW_BIT_OF_EACH_LANE) >>> SUM_SHIFT);
+	}
+
+	/**
+	 * Converts a number below 100,000,000 into its eight decimal digits packed one per byte, rightmost digit in the
+	 * lowest byte.
+	 */
+	private static long unpack(long group)
+	{
+		long highQuad = group / QUAD_DIVISOR;
+		long quads = (group - highQuad * QUAD_DIVISOR) | (highQuad << QUAD_SHIFT);
+
+		long highPairs = ((quads * DIVIDE_BY_100_MULTIPLIER) >>> DIVIDE_BY_100_SHIFT) & QUAD_QUOTIENT_MASK;
+		long pairs = (quads - highPairs * ONE_HUNDRED) | (highPairs << PAIR_SHIFT);
+
+		long highDigits = ((pairs * DIVIDE_BY_10_MULTIPLIER) >>> DIVIDE_BY_10_SHIFT) & PAIR_QUOTIENT_MASK;
+		return (pairs - highDigits * TEN) | (highDigits << BITS_PER_DIGIT);
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Modulus;
+
+/**
+ * Validator for {@link Modulus} on {@code char[]} targets. The array is viewed through the calling thread's
+ * reusable {@link CharArraySequence} rather than copied into a {@link String}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class ModulusCharArrayValidator implements ConstraintValidator<Modulus, char[]>
+{
+	private final ModulusValidator delegate = new ModulusValidator();
+
+	@Override
+	public void initialize(Modulus annotation)
+	{
+		this.delegate.initialize(annotation);
+	}
+
+	@Override
+	public boolean isValid(char[] value, ConstraintValidatorContext context)
+	{
+		return value == null || this.delegate.isValid(CharArraySequence.of(value), context);
+	}
+}
@@ -0,0 +1,490 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Modulus;
+
+/**
+ * Validator for {@link Modulus}. Every algorithm scans the target once and never allocates: the weighted
+ * algorithms ({@link Modulus.Modulo#MOD10}, {@link Modulus.Modulo#MOD11}, and {@link Modulus.Modulo#VERHOEFF}) scan
+ * from the right so that each digit's weight is known as soon as the digit is seen, and the others scan from the left.
+ * The values of the weighted MOD10 digits are looked up in a table built in {@link #initialize}, and digits and the
+ * symbols of the ISO 7064 algorithms are read with {@link CharSequenceUtils}; Verhoeff and Damm use their fixed
+ * permutation and multiplication tables.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class ModulusValidator implements ConstraintValidator<Modulus, CharSequence>
+{
+	private static final int RADIX = 10;
+
+	private static final int MOD10 = 10;
+
+	private static final int MOD11 = 11;
+
+	private static final int MOD11_FIRST_WEIGHT = 2;
+
+	private static final int MOD11_TEN = 10;
+
+	private static final int LETTER_BASE_VALUE = 10;
+
+	private static final int ISO7064_MOD11_2_MODULUS = 11;
+
+	private static final int ISO7064_MOD37_2_MODULUS = 37;
+
+	private static final int ISO7064_MOD97_10_MODULUS = 97;
+
+	private static final int ISO7064_MOD97_10_LETTER_RADIX = 100;
+
+	private static final int ISO7064_RESIDUE = 1;
+
+	private static final int VERHOEFF_PERMUTATIONS = 8;
+
+	/*
+	 * The Verhoeff multiplication table (the dihedral group D5), flattened: D[c * 10 + x].
+	 */
+	private static final byte[] VERHOEFF_MULTIPLICATION = {
+			0, 1, 2, 3, 4, 5, 6, 7, 8, 9,
+			1, 2, 3, 4, 0, 6, 7, 8, 9, 5,
+			2, 3, 4, 0, 1, 7, 8, 9, 5, 6,
+			3, 4, 0, 1, 2, 8, 9, 5, 6, 7,
+			4, 0, 1, 2, 3, 9, 5, 6, 7, 8,
+			5, 9, 8, 7, 6, 0, 4, 3, 2, 1,
+			6, 5, 9, 8, 7, 1, 0, 4, 3, 2,
+			7, 6, 5, 9, 8, 2, 1, 0, 4, 3,
+			8, 7, 6, 5, 9, 3, 2, 1, 0, 4,
+			9, 8, 7, 6, 5, 4, 3, 2, 1, 0
+	};
+
+	/*
+	 * The Verhoeff position permutation table, flattened: P[(position % 8) * 10 + digit].
+	 */
+	private static final byte[] VERHOEFF_PERMUTATION = {
+			0, 1, 2, 3, 4, 5, 6, 7, 8, 9,
+			1, 5, 7, 6, 2, 8, 3, 0, 9, 4,
+			5, 8, 0, 3, 7, 9, 6, 1, 4, 2,
+			8, 9, 1, 6, 0, 4, 3, 5, 2, 7,
+			9, 4, 5, 3, 1, 2, 6, 8, 7, 0,
+			4, 2, 8, 6, 5, 7, 3, 9, 0, 1,
+			2, 7, 9, 3, 8, 0, 6, 4, 1, 5,
+			7, 0, 4, 6, 9, 1, 3, 2, 5, 8
+	};
+
+	/*
+	 * The Damm totally anti-symmetric quasigroup table, flattened: Q[interim * 10 + digit].
+	 */
+	private static final byte[] DAMM_QUASIGROUP = {
+			0, 3, 1, 7, 5, 9, 8, 6, 4, 2,
+			7, 0, 9, 2, 1, 5, 4, 8, 6, 3,
+			4, 2, 0, 6, 8, 7, 1, 3, 5, 9,
+			1, 7, 5, 0, 9, 8, 3, 4, 2, 6,
+			6, 1, 2, 3, 0, 4, 5, 9, 7, 8,
+			3, 6, 7, 4, 2, 0, 9, 5, 8, 1,
+			5, 8, 6, 9, 7, 2, 0, 1, 3, 4,
+			8, 9, 4, 5, 3, 6, 2, 0, 1, 7,
+			9, 4, 3, 8, 6, 1, 7, 2, 0, 5,
+			2, 5, 8, 1, 4, 3, 6, 7, 9, 0
+	};
+
+	private Modulus.Modulo type;
+
+	private int multiplier;
+
+	private int startIndex;
+
+	private int endIndex;
+
+	private int checkDigitIndex;
+
+	private boolean ignoreNonDigits;
+
+	private int[] weightedDigits;
+
+	private boolean letters;
+
+	private int symbolRadix;
+
+	private int letterRadix;
+
+	private char checkOnlySymbol;
+
+	private int checkOnlyValue;
+
+	private int modulus;
+
+	private int checkCharacters;
+
+	@Override
+	public void initialize(Modulus annotation)
+	{
+		this.type = annotation.type();
+		this.multiplier = annotation.multiplier();
+		this.startIndex = annotation.startIndex();
+		this.endIndex = annotation.endIndex();
+		this.checkDigitIndex = annotation.checkDigitIndex();
+		this.ignoreNonDigits = annotation.ignoreNonDigits();
+		this.checkCharacters = this.type == Modulus.Modulo.ISO7064_MOD97_10 ? 2 : 1;
+
+		if(this.startIndex < 0)
+		{
+			throw new ConstraintDeclarationException("The start index must not be negative.");
+		}
+		if(this.endIndex <= this.startIndex)
+		{
+			throw new ConstraintDeclarationException("The end index must be greater than the start index.");
+		}
+		if(this.checkDigitIndex >= 0 && this.checkDigitIndex + this.checkCharacters > this.startIndex &&
+		   this.checkDigitIndex < this.endIndex)
+		{
+			throw new ConstraintDeclarationException(
+					"The check digit index must lie outside of the range being checked."
+			);
+		}
+
+		switch(this.type)
+		{
+			case MOD10:
+				this.initializeMod10();
+				break;
+
+			case MOD11:
+				if(this.multiplier < MOD11_FIRST_WEIGHT)
+				{
+					throw new ConstraintDeclarationException("The multiplier for MOD11 must be at least 2.");
+				}
+				break;
+
+			case ISO7064_MOD11_2:
+				this.initializeIso7064(ISO7064_MOD11_2_MODULUS, 2, false, 'X');
+				break;
+
+			case ISO7064_MOD37_2:
+				this.initializeIso7064(ISO7064_MOD37_2_MODULUS, 2, true, '*');
+				break;
+
+			case ISO7064_MOD97_10:
+				this.initializeIso7064(ISO7064_MOD97_10_MODULUS, RADIX, true, '\u0000');
+				this.letterRadix = ISO7064_MOD97_10_LETTER_RADIX;
+				break;
+
+			default:
+				break;
+		}
+	}
+
+	private void initializeMod10()
+	{
+		if(this.multiplier < 1)
+		{
+			throw new ConstraintDeclarationException("The multiplier for MOD10 must be positive.");
+		}
+
+		this.weightedDigits = new int[RADIX];
+		for(int digit = 0; digit < RADIX; digit++)
+		{
+			int product = digit * this.multiplier;
+			int sum = 0;
+			while(product > 0)
+			{
+				sum += product % RADIX;
+				product /= RADIX;
+			}
+			this.weightedDigits[digit] = sum;
+		}
+	}
+
+	private void initializeIso7064(int modulus, int radix, boolean letters, char checkOnlySymbol)
+	{
+		this.modulus = modulus;
+		this.symbolRadix = radix;
+		this.letterRadix = radix;
+		this.letters = letters;
+		this.checkOnlySymbol = checkOnlySymbol;
+		this.checkOnlyValue = checkOnlySymbol == '\u0000' ? -1 : modulus - 1;
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		int length = value.length();
+		if(this.checkDigitIndex >= 0 && this.checkDigitIndex + this.checkCharacters > length)
+		{
+			return false;
+		}
+
+		int end = Math.min(this.endIndex, length);
+		switch(this.type)
+		{
+			case MOD10:
+				return this.isValidMod10(value, end);
+
+			case MOD11:
+				return this.isValidMod11(value, end);
+
+			case VERHOEFF:
+				return this.isValidVerhoeff(value, end);
+
+			case DAMM:
+				return this.isValidDamm(value, end);
+
+			default:
+				return this.isValidIso7064(value, end);
+		}
+	}
+
+	private int explicitCheckDigit(CharSequence value)
+	{
+		return this.checkDigitIndex < 0 ? -1 : CharSequenceUtils.digit(value.charAt(this.checkDigitIndex));
+	}
+
+	private boolean isValidMod10(CharSequence value, int end)
+	{
+		int checkDigit = this.explicitCheckDigit(value);
+		if(this.checkDigitIndex >= 0 && checkDigit < 0)
+		{
+			return false;
+		}
+
+		int[] weighted = this.weightedDigits;
+		int sum = 0;
+		boolean weight = true;
+		for(int i = end - 1; i >= this.startIndex; i--)
+		{
+			int digit = CharSequenceUtils.digit(value.charAt(i));
+			if(digit < 0)
+			{
+				if(this.ignoreNonDigits)
+				{
+					continue;
+				}
+				return false;
+			}
+
+			if(checkDigit < 0)
+			{
+				checkDigit = digit;
+			}
+			else
+			{
+				sum += weight ? weighted[digit] : digit;
+				weight = !weight;
+			}
+		}
+
+		return checkDigit >= 0 && (sum + checkDigit) % MOD10 == 0;
+	}
+
+	private boolean isValidMod11(CharSequence value, int end)
+	{
+		int checkDigit = this.checkDigitIndex < 0 ? -1 :
+						 ModulusValidator.mod11CheckDigit(value.charAt(this.checkDigitIndex));
+		if(this.checkDigitIndex >= 0 && checkDigit < 0)
+		{
+			return false;
+		}
+
+		long sum = 0;
+		int weight = MOD11_FIRST_WEIGHT;
+		for(int i = end - 1; i >= this.startIndex; i--)
+		{
+			char c = value.charAt(i);
+			if(checkDigit < 0 && (c == 'X' || c == 'x'))
+			{
+				checkDigit = MOD11_TEN;
+				continue;
+			}
+
+			int digit = CharSequenceUtils.digit(c);
+			if(digit < 0)
+			{
+				if(this.ignoreNonDigits)
+				{
+					continue;
+				}
+				return false;
+			}
+
+			if(checkDigit < 0)
+			{
+				checkDigit = digit;
+			}
+			else
+			{
+				sum += (long) digit * weight;
+				weight = weight == this.multiplier ? MOD11_FIRST_WEIGHT : weight + 1;
+			}
+		}
+
+		if(checkDigit < 0)
+		{
+			return false;
+		}
+
+		return checkDigit == (MOD11 - (int) (sum % MOD11)) % MOD11;
+	}
+
+	private static int mod11CheckDigit(char c)
+	{
+		return c == 'X' || c == 'x' ? MOD11_TEN : CharSequenceUtils.digit(c);
+	}
+
+	private boolean isValidVerhoeff(CharSequence value, int end)
+	{
+		int check = 0;
+		int position = 0;
+		if(this.checkDigitIndex >= 0)
+		{
+			int checkDigit = this.explicitCheckDigit(value);
+			if(checkDigit < 0)
+			{
+				return false;
+			}
+			check = VERHOEFF_MULTIPLICATION[check * RADIX + VERHOEFF_PERMUTATION[position * RADIX + checkDigit]];
+			position++;
+		}
+
+		for(int i = end - 1; i >= this.startIndex; i--)
+		{
+			int digit = CharSequenceUtils.digit(value.charAt(i));
+			if(digit < 0)
+			{
+				if(this.ignoreNonDigits)
+				{
+					continue;
+				}
+				return false;
+			}
+
+			int permuted = VERHOEFF_PERMUTATION[(position & (VERHOEFF_PERMUTATIONS - 1)) * RADIX + digit];
+			check = VERHOEFF_MULTIPLICATION[check * RADIX + permuted];
+			position++;
+		}
+
+		return position > 1 && check == 0;
+	}
+
+	private boolean isValidDamm(CharSequence value, int end)
+	{
+		int interim = 0;
+		int count = 0;
+		for(int i = this.startIndex; i < end; i++)
+		{
+			int digit = CharSequenceUtils.digit(value.charAt(i));
+			if(digit < 0)
+			{
+				if(this.ignoreNonDigits)
+				{
+					continue;
+				}
+				return false;
+			}
+
+			interim = DAMM_QUASIGROUP[interim * RADIX + digit];
+			count++;
+		}
+
+		if(this.checkDigitIndex >= 0)
+		{
+			int checkDigit = this.explicitCheckDigit(value);
+			if(checkDigit < 0)
+			{
+				return false;
+			}
+			interim = DAMM_QUASIGROUP[interim * RADIX + checkDigit];
+			count++;
+		}
+
+		return count > 1 && interim == 0;
+	}
+
+	/*
+	 * The ISO 7064 pure systems require that the sum of every symbol, including the check symbol(s), multiplied by
+	 * increasing powers of the radix from the right, is congruent to 1. Horner's rule evaluates that from the left
+	 * without knowing in advance where the check symbols are.
+	 */
+	private boolean isValidIso7064(CharSequence value, int end)
+	{
+		int accumulator = 0;
+		int count = 0;
+		boolean checkOnlySeen = false;
+		for(int i = this.startIndex; i < end; i++)
+		{
+			int symbol = this.symbolValue(value.charAt(i));
+			if(symbol < 0)
+			{
+				if(this.ignoreNonDigits)
+				{
+					continue;
+				}
+				return false;
+			}
+
+			if(checkOnlySeen || (this.checkDigitIndex >= 0 && symbol == this.checkOnlyValue))
+			{
+				return false;
+			}
+			checkOnlySeen = symbol == this.checkOnlyValue;
+			accumulator = (accumulator * this.radixOf(symbol) + symbol) % this.modulus;
+			count++;
+		}
+
+		if(this.checkDigitIndex >= 0)
+		{
+			for(int i = this.checkDigitIndex; i < this.checkDigitIndex + this.checkCharacters; i++)
+			{
+				int symbol = this.symbolValue(value.charAt(i));
+				if(symbol < 0 || checkOnlySeen)
+				{
+					return false;
+				}
+				checkOnlySeen = symbol == this.checkOnlyValue;
+				accumulator = (accumulator * this.radixOf(symbol) + symbol) % this.modulus;
+				count++;
+			}
+		}
+
+		return count > this.checkCharacters && accumulator == ISO7064_RESIDUE;
+	}
+
+	private int symbolValue(char c)
+	{
+		int symbol = CharSequenceUtils.alphanumericValue(c);
+		if(symbol >= LETTER_BASE_VALUE && !this.letters)
+		{
+			symbol = -1;
+		}
+		if(symbol < 0 && this.checkOnlyValue >= 0 && Character.toUpperCase(c) == this.checkOnlySymbol)
+		{
+			symbol = this.checkOnlyValue;
+		}
+		return symbol;
+	}
+
+	private int radixOf(int symbol)
+	{
+		return symbol < LETTER_BASE_VALUE ? this.symbolRadix : this.letterRadix;
+	}
+}
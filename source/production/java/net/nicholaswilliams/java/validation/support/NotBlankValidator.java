@@ -37,6 +37,6 @@ public class NotBlankValidator implements ConstraintValidator<NotBlank, CharSequ
 	@Override
 	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
 	{
-		return value == null || value.toString().trim().length() > 0;
+		return value == null || !CharSequenceUtils.isBlank(value);
 	}
 }
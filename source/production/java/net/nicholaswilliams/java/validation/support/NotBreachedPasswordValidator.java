@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.NotBreachedPassword;
+
+/**
+ * Validator for {@link NotBreachedPassword}, which looks passwords up in a memory-mapped {@link BreachedPasswordFile}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class NotBreachedPasswordValidator implements ConstraintValidator<NotBreachedPassword, CharSequence>
+{
+	private BreachedPasswordFile file;
+
+	@Override
+	public void initialize(NotBreachedPassword annotation)
+	{
+		if(annotation.hashFile().length() == 0)
+		{
+			throw new ConstraintDeclarationException("The breached password hash file must be specified.");
+		}
+		this.file = BreachedPasswordFile.get(annotation.hashFile());
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		return value == null || !this.file.contains(value);
+	}
+}
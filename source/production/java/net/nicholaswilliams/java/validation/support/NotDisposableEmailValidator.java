@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.NotDisposableEmail;
+
+/**
+ * Validator for {@link NotDisposableEmail}. The domain after the last {@code @} is looked up in place, with its parent
+ * domains, in the current {@link DisposableDomainIndex}; only internationalized domains are copied, to be normalized.
+ * A domain that cannot be normalized is rejected rather than let through unchecked.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class NotDisposableEmailValidator implements ConstraintValidator<NotDisposableEmail, CharSequence>
+{
+	private DisposableDomainFile domainFile;
+
+	@Override
+	public void initialize(NotDisposableEmail annotation)
+	{
+		this.domainFile = DisposableDomainFile.get(annotation.domainFile());
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		int end = value.length();
+		int start = end;
+		while(start > 0 && value.charAt(start - 1) != '@')
+		{
+			start--;
+		}
+
+		if(InternationalHostNames.needsNormalization(value, start, end))
+		{
+			String domain = InternationalHostNames.normalize(value, start, end);
+			return domain != null && !this.domainFile.get().contains(domain, 0, domain.length());
+		}
+		return !this.domainFile.get().contains(value, start, end);
+	}
+}
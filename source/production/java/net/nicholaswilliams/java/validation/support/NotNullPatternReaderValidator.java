@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.IOException;
+import java.io.Reader;
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ValidationException;
+
+import net.nicholaswilliams.java.validation.NotNullPattern;
+
+/**
+ * Validator for {@link NotNullPattern} on {@link Reader} targets. The content is streamed through the
+ * {@link NotNullPattern.Engine#LINEAR} engine in a fixed-size buffer, so arbitrarily large content is matched in
+ * constant memory, and the reader is then reset as described by {@link ReaderUtils#reset}. The backtracking engine
+ * needs the whole value in memory, so declaring it for a reader is an error.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class NotNullPatternReaderValidator implements ConstraintValidator<NotNullPattern, Reader>
+{
+	private SharedPattern pattern;
+
+	@Override
+	public void initialize(NotNullPattern annotation)
+	{
+		if(annotation.engine() != NotNullPattern.Engine.LINEAR)
+		{
+			throw new ConstraintDeclarationException("@NotNullPattern on a Reader requires engine = Engine.LINEAR.");
+		}
+		this.pattern = NotNullPatternValidator.compile(annotation);
+	}
+
+	@Override
+	public boolean isValid(Reader value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return false;
+		}
+
+		try
+		{
+			boolean marked = ReaderUtils.mark(value);
+			try
+			{
+				return this.pattern.matches(value);
+			}
+			finally
+			{
+				ReaderUtils.reset(value, marked);
+			}
+		}
+		catch(IOException e)
+		{
+			throw new ValidationException("Failed to read the value being validated.", e);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.regex.PatternSyntaxException;
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.constraints.Pattern;
+
+import net.nicholaswilliams.java.validation.NotNullPattern;
+
+/**
+ * Validator for {@link NotNullPattern}, which checks for {@code null} and matches the expression in one step. The
+ * compiled pattern is a {@link SharedPattern} shared with every other constraint declaring the same expression and
+ * flags, and matching reuses a per-thread {@link java.util.regex.Matcher}. With {@link NotNullPattern.Engine#LINEAR}
+ * the expression is compiled into a {@link LinearRegex} instead, and an expression that engine does not support is a
+ * declaration error.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class NotNullPatternValidator implements ConstraintValidator<NotNullPattern, CharSequence>
+{
+	private SharedPattern pattern;
+
+	@Override
+	public void initialize(NotNullPattern annotation)
+	{
+		this.pattern = NotNullPatternValidator.compile(annotation);
+	}
+
+	/**
+	 * Returns the shared pattern for the constraint's expression, flags and engine.
+	 *
+	 * @param annotation The constraint
+	 * @return the shared pattern.
+	 * @throws ConstraintDeclarationException if the expression is invalid or the engine does not support it.
+	 */
+	static SharedPattern compile(NotNullPattern annotation)
+	{
+		int flags = 0;
+		for(Pattern.Flag flag : annotation.flags())
+		{
+			flags |= flag.getValue();
+		}
+
+		try
+		{
+			return SharedPattern.get(annotation.regexp(), flags, annotation.engine() == NotNullPattern.Engine.LINEAR);
+		}
+		catch(PatternSyntaxException e)
+		{
+			throw new ConstraintDeclarationException("Invalid regular expression [" + annotation.regexp() + "].", e);
+		}
+		catch(IllegalArgumentException e)
+		{
+			throw new ConstraintDeclarationException(e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		return value != null && this.pattern.matches(value);
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Collection;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.NotNullSize;
+
+/**
+ * Validator for {@link NotNullSize} on {@link Collection} targets.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class NotNullSizeCollectionValidator implements ConstraintValidator<NotNullSize, Collection<?>>
+{
+	private final NotNullSizeValidator delegate = new NotNullSizeValidator();
+
+	@Override
+	public void initialize(NotNullSize annotation)
+	{
+		this.delegate.initialize(annotation);
+	}
+
+	@Override
+	public boolean isValid(Collection<?> value, ConstraintValidatorContext context)
+	{
+		return value != null && this.delegate.isValidSize(value.size());
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.IOException;
+import java.io.Reader;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ValidationException;
+
+import net.nicholaswilliams.java.validation.NotNullSize;
+
+/**
+ * Validator for {@link NotNullSize} on {@link Reader} targets, whose size is their number of characters. The reader is
+ * counted through a fixed-size buffer only until its length exceeds the maximum, so arbitrarily large content is
+ * validated in constant memory, and is then reset as described by {@link ReaderUtils#reset}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class NotNullSizeReaderValidator implements ConstraintValidator<NotNullSize, Reader>
+{
+	private final NotNullSizeValidator delegate = new NotNullSizeValidator();
+
+	@Override
+	public void initialize(NotNullSize annotation)
+	{
+		this.delegate.initialize(annotation);
+	}
+
+	@Override
+	public boolean isValid(Reader value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return false;
+		}
+
+		try
+		{
+			boolean marked = ReaderUtils.mark(value);
+			try
+			{
+				return this.delegate.isValidSize(ReaderUtils.length(value, this.delegate.getMax()));
+			}
+			finally
+			{
+				ReaderUtils.reset(value, marked);
+			}
+		}
+		catch(IOException e)
+		{
+			throw new ValidationException("Failed to read the value being validated.", e);
+		}
+	}
+}
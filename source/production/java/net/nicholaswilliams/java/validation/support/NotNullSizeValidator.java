@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.NotNullSize;
+
+/**
+ * Validator for {@link NotNullSize} on {@link CharSequence} targets, which checks for {@code null} and the length in
+ * one step. The validators for the other supported types delegate their size check to this one.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class NotNullSizeValidator implements ConstraintValidator<NotNullSize, CharSequence>
+{
+	private int min;
+
+	private int max;
+
+	@Override
+	public void initialize(NotNullSize annotation)
+	{
+		if(annotation.min() < 0)
+		{
+			throw new ConstraintDeclarationException("The min parameter cannot be negative.");
+		}
+		if(annotation.max() < annotation.min())
+		{
+			throw new ConstraintDeclarationException("The max parameter cannot be less than the min parameter.");
+		}
+
+		this.min = annotation.min();
+		this.max = annotation.max();
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		return value != null && this.isValidSize(value.length());
+	}
+
+	/**
+	 * Indicates whether the size is within the bounds of the constraint.
+	 *
+	 * @param size The size of the target
+	 * @return {@code true} if the size is between the minimum and maximum, inclusive.
+	 */
+	boolean isValidSize(long size)
+	{
+		return size >= this.min && size <= this.max;
+	}
+
+	/**
+	 * @return the maximum size.
+	 */
+	int getMax()
+	{
+		return this.max;
+	}
+}
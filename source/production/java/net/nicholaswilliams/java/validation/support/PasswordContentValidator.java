@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.BitSet;
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.PasswordContent;
+
+/**
+ * Validator for {@link PasswordContent}. Each code point is classified once by the
+ * {@link CharSequenceUtils.CharacterClass}es, which answer ASCII code points from a table (with a {@link BitSet} of
+ * the {@link PasswordContent#allowedWhitespace allowed whitespace}, if any). The scan stops as soon as a maximum is
+ * exceeded, or as soon as every minimum is met and the remaining characters are too few to exceed any maximum.
+ * Passwords that pass are then looked up in the optional common password {@link Dawg}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class PasswordContentValidator implements ConstraintValidator<PasswordContent, CharSequence>
+{
+	private static final byte LETTER = 0;
+
+	private static final byte UPPERCASE = 1;
+
+	private static final byte LOWERCASE = 2;
+
+	private static final byte NUMBER = 3;
+
+	private static final byte WHITESPACE = 4;
+
+	private static final byte SPECIAL = 5;
+
+	private int minLength;
+
+	private int minUppercase;
+
+	private int minLowercase;
+
+	private int minNumber;
+
+	private int minSpecial;
+
+	private int maxSpecial;
+
+	private int minWhitespace;
+
+	private int maxWhitespace;
+
+	private BitSet allowedWhitespace;
+
+	private Dawg commonPasswords;
+
+	private int minEmbeddedWordLength;
+
+	@Override
+	public void initialize(PasswordContent annotation)
+	{
+		this.minLength = annotation.minLength();
+		this.minUppercase = annotation.minUppercase();
+		this.minLowercase = annotation.minLowercase();
+		this.minNumber = annotation.minNumber();
+		this.minSpecial = annotation.minSpecial();
+		this.maxSpecial = annotation.maxSpecial();
+		this.minWhitespace = annotation.minWhitespace();
+		this.maxWhitespace = annotation.maxWhitespace();
+
+		if(this.minLength < 0 || this.minUppercase < 0 || this.minLowercase < 0 || this.minNumber < 0 ||
+		   this.minSpecial < 0 || this.minWhitespace < 0)
+		{
+			throw new ConstraintDeclarationException("The minimum counts must not be negative.");
+		}
+		if(this.maxSpecial < this.minSpecial || this.maxWhitespace < this.minWhitespace)
+		{
+			throw new ConstraintDeclarationException("The maximum counts must not be less than the minimum counts.");
+		}
+
+		this.minEmbeddedWordLength = annotation.minEmbeddedWordLength();
+		if(this.minEmbeddedWordLength < 0)
+		{
+			throw new ConstraintDeclarationException("The minimum embedded word length must not be negative.");
+		}
+		if(annotation.commonPasswordDictionary().length() > 0)
+		{
+			this.commonPasswords = Dawg.get(annotation.commonPasswordDictionary());
+		}
+
+		if(annotation.allowedWhitespace().length > 0)
+		{
+			this.allowedWhitespace = new BitSet();
+			for(char c : annotation.allowedWhitespace())
+			{
+				this.allowedWhitespace.set(c);
+			}
+		}
+	}
+
+	private byte classify(int codePoint)
+	{
+		if(this.allowedWhitespace == null ? CharSequenceUtils.CharacterClass.WHITESPACE.matches(codePoint) :
+		   this.allowedWhitespace.get(codePoint))
+		{
+			return WHITESPACE;
+		}
+		if(CharSequenceUtils.CharacterClass.UPPERCASE.matches(codePoint))
+		{
+			return UPPERCASE;
+		}
+		if(CharSequenceUtils.CharacterClass.LOWERCASE.matches(codePoint))
+		{
+			return LOWERCASE;
+		}
+		if(CharSequenceUtils.CharacterClass.DIGIT.matches(codePoint))
+		{
+			return NUMBER;
+		}
+		return CharSequenceUtils.CharacterClass.LETTER.matches(codePoint) ? LETTER : SPECIAL;
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		return value == null || (this.hasValidContent(value) && !this.isCommonPassword(value));
+	}
+
+	private boolean isCommonPassword(CharSequence value)
+	{
+		return this.commonPasswords != null && (this.commonPasswords.contains(value, true) ||
+			   (this.minEmbeddedWordLength > 0 && this.commonPasswords.containsWord(value, this.minEmbeddedWordLength,
+																					 true)));
+	}
+
+	private boolean hasValidContent(CharSequence value)
+	{
+		int length = value.length();
+		if(length < this.minLength)
+		{
+			return false;
+		}
+
+		int codePoints = 0;
+		int uppercase = 0;
+		int lowercase = 0;
+		int number = 0;
+		int special = 0;
+		int whitespace = 0;
+		for(int i = 0; i < length;)
+		{
+			int codePoint = Character.codePointAt(value, i);
+			i += Character.charCount(codePoint);
+			codePoints++;
+
+			switch(this.classify(codePoint))
+			{
+				case UPPERCASE:
+					uppercase++;
+					break;
+
+				case LOWERCASE:
+					lowercase++;
+					break;
+
+				case NUMBER:
+					number++;
+					break;
+
+				case WHITESPACE:
+					if(++whitespace > this.maxWhitespace)
+					{
+						return false;
+					}
+					break;
+
+				case SPECIAL:
+					if(++special > this.maxSpecial)
+					{
+						return false;
+					}
+					break;
+
+				default:
+					break;
+			}
+
+			int remaining = length - i;
+			if(codePoints >= this.minLength && uppercase >= this.minUppercase && lowercase >= this.minLowercase &&
+			   number >= this.minNumber && special >= this.minSpecial && whitespace >= this.minWhitespace &&
+			   remaining <= this.maxSpecial - special && remaining <= this.maxWhitespace - whitespace)
+			{
+				return true;
+			}
+		}
+
+		return codePoints >= this.minLength && this.minUppercase == 0 && this.minLowercase == 0 &&
+			   this.minNumber == 0 && this.minSpecial == 0 && this.minWhitespace == 0;
+	}
+}
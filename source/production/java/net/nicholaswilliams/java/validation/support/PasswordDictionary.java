@@ -0,0 +1,349 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.validation.ValidationException;
+
+/**
+ * A ranked dictionary of common passwords and words, held in memory as a {@link Dawg} so that every dictionary word
+ * starting at a given position of a password is found in a single walk. The automaton numbers its words in sorted
+ * order, so the ranks are kept in an array indexed by that number. Rank 1 is the most common word.<br>
+ * <br>
+ * Dictionaries are stored in a compact binary form: a GZIP stream containing a magic number, the word count, and the
+ * words in sorted order, each front-coded against the previous word and followed by its rank as a variable-length
+ * integer. The {@linkplain #getDefault() default dictionary} is loaded from the JAR once, the first time it is used.
+ * It is compiled from the lists in {@code build/password-dictionaries} by running this class's {@link #main} method:
+ * <pre>
+ * java net.nicholaswilliams.java.validation.support.PasswordDictionary output.bin list1.txt list2.txt ...</pre>
+ * Each list contains one word per line, most common first; blank lines and lines starting with {@code #} are
+ * ignored. A word appearing in several lists keeps its best rank.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class PasswordDictionary
+{
+	static final long ROOT = Dawg.START;
+
+	private static final String DEFAULT_RESOURCE = "password-dictionary.bin";
+
+	private static final int MAGIC = 0x4E575044;
+
+	private static final int MAX_WORD_LENGTH = 0xFF;
+
+	private static final int VARINT_MASK = 0x7F;
+
+	private static final int VARINT_CONTINUE = 0x80;
+
+	private static final int VARINT_SHIFT = 7;
+
+	private final Dawg words;
+
+	private final int[] ranks;
+
+	private PasswordDictionary(Dawg words, int[] ranks)
+	{
+		this.words = words;
+		this.ranks = ranks;
+	}
+
+	/**
+	 * Returns the dictionary bundled with this library, loading it the first time it is requested.
+	 *
+	 * @return the default dictionary.
+	 * @throws ValidationException if the dictionary cannot be loaded.
+	 */
+	public static PasswordDictionary getDefault()
+	{
+		return DefaultHolder.DICTIONARY;
+	}
+
+	/**
+	 * Reads a dictionary in the binary form written by {@link #write}. The stream is not closed.
+	 *
+	 * @param stream The stream to read from
+	 * @return the dictionary.
+	 * @throws IOException if the stream cannot be read or is not a dictionary.
+	 */
+	public static PasswordDictionary read(InputStream stream) throws IOException
+	{
+		DataInputStream input = new DataInputStream(new GZIPInputStream(stream));
+		if(input.readInt() != MAGIC)
+		{
+			throw new IOException("The stream does not contain a password dictionary.");
+		}
+
+		// the words are stored in sorted order, which is the order in which the automaton numbers them
+		int count = input.readInt();
+		List<String> words = new ArrayList<String>(count);
+		int[] ranks = new int[count];
+		char[] word = new char[MAX_WORD_LENGTH];
+		for(int i = 0; i < count; i++)
+		{
+			int shared = input.readUnsignedByte();
+			int length = shared + input.readUnsignedByte();
+			for(int j = shared; j < length; j++)
+			{
+				word[j] = (char) input.readUnsignedByte();
+			}
+			words.add(new String(word, 0, length));
+			ranks[i] = PasswordDictionary.readVarInt(input);
+		}
+
+		ByteArrayOutputStream automaton = new ByteArrayOutputStream();
+		Dawg.write(words, automaton);
+		Dawg dawg = Dawg.read(new ByteArrayInputStream(automaton.toByteArray()));
+		if(dawg.getWordCount() != count)
+		{
+			throw new IOException("The password dictionary contains duplicate words.");
+		}
+		return new PasswordDictionary(dawg, ranks);
+	}
+
+	/**
+	 * Writes a dictionary in compact binary form. Words are lowercased, must not be longer than 255 characters, and
+	 * must consist only of ISO-8859-1 characters. The stream is finished but not closed.
+	 *
+	 * @param ranks The words to write and their ranks (1 being the most common)
+	 * @param stream The stream to write to
+	 * @throws IOException if the stream cannot be written to.
+	 */
+	public static void write(Map<String, Integer> ranks, OutputStream stream) throws IOException
+	{
+		TreeMap<String, Integer> sorted = new TreeMap<String, Integer>();
+		for(Map.Entry<String, Integer> entry : ranks.entrySet())
+		{
+			String word = entry.getKey().toLowerCase(Locale.ENGLISH);
+			if(word.length() == 0 || word.length() > MAX_WORD_LENGTH)
+			{
+				throw new IllegalArgumentException("Invalid dictionary word length: [" + word + "].");
+			}
+			for(int i = 0; i < word.length(); i++)
+			{
+				if(word.charAt(i) > MAX_WORD_LENGTH)
+				{
+					throw new IllegalArgumentException("Dictionary word is not ISO-8859-1: [" + word + "].");
+				}
+			}
+			Integer existing = sorted.get(word);
+			if(existing == null || existing > entry.getValue())
+			{
+				sorted.put(word, entry.getValue());
+			}
+		}
+
+		GZIPOutputStream compressed = new GZIPOutputStream(stream);
+		DataOutputStream output = new DataOutputStream(compressed);
+		output.writeInt(MAGIC);
+		output.writeInt(sorted.size());
+		String previous = "";
+		for(Map.Entry<String, Integer> entry : sorted.entrySet())
+		{
+			String word = entry.getKey();
+			int shared = 0;
+			while(shared < previous.length() && shared < word.length() &&
+				  previous.charAt(shared) == word.charAt(shared))
+			{
+				shared++;
+			}
+
+			output.writeByte(shared);
+			output.writeByte(word.length() - shared);
+			for(int i = shared; i < word.length(); i++)
+			{
+				output.writeByte(word.charAt(i));
+			}
+			PasswordDictionary.writeVarInt(output, entry.getValue());
+			previous = word;
+		}
+		output.flush();
+		compressed.finish();
+	}
+
+	/**
+	 * Compiles word lists into a binary dictionary. The first argument is the output file and the remaining arguments
+	 * are the word lists, which are read as UTF-8.
+	 *
+	 * @param arguments The output file followed by one or more word lists
+	 * @throws IOException if a file cannot be read or written.
+	 */
+	public static void main(String[] arguments) throws IOException
+	{
+		if(arguments.length < 2)
+		{
+			throw new IllegalArgumentException("Usage: PasswordDictionary <output file> <word list> [<word list> ...]");
+		}
+
+		Map<String, Integer> ranks = new TreeMap<String, Integer>();
+		for(int i = 1; i < arguments.length; i++)
+		{
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(new FileInputStream(arguments[i]), "UTF-8")
+			);
+			try
+			{
+				int rank = 1;
+				String line;
+				while((line = reader.readLine()) != null)
+				{
+					String word = line.trim().toLowerCase(Locale.ENGLISH);
+					if(word.length() == 0 || word.charAt(0) == '#')
+					{
+						continue;
+					}
+					Integer existing = ranks.get(word);
+					if(existing == null || existing > rank)
+					{
+						ranks.put(word, rank);
+					}
+					rank++;
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+
+		OutputStream output = new FileOutputStream(arguments[0]);
+		try
+		{
+			PasswordDictionary.write(ranks, output);
+		}
+		finally
+		{
+			output.close();
+		}
+	}
+
+	private static int readVarInt(DataInputStream input) throws IOException
+	{
+		int value = 0;
+		int shift = 0;
+		int b;
+		do
+		{
+			b = input.readUnsignedByte();
+			value |= (b & VARINT_MASK) << shift;
+			shift += VARINT_SHIFT;
+		}
+		while((b & VARINT_CONTINUE) != 0);
+		return value;
+	}
+
+	private static void writeVarInt(DataOutputStream output, int value) throws IOException
+	{
+		int remaining = value;
+		while((remaining & ~VARINT_MASK) != 0)
+		{
+			output.writeByte((remaining & VARINT_MASK) | VARINT_CONTINUE);
+			remaining >>>= VARINT_SHIFT;
+		}
+		output.writeByte(remaining);
+	}
+
+	/**
+	 * Looks up the rank of a word.
+	 *
+	 * @param word The word, which is matched case-insensitively
+	 * @return the rank of the word, or 0 if it is not in the dictionary.
+	 */
+	public int rank(CharSequence word)
+	{
+		long node = ROOT;
+		for(int i = 0, length = word.length(); i < length && node >= 0; i++)
+		{
+			node = this.child(node, Character.toLowerCase(word.charAt(i)));
+		}
+		return this.rankOf(node);
+	}
+
+	/**
+	 * Returns the size of the automaton holding the words in bytes, which is a measure of its memory use.
+	 *
+	 * @return the size in bytes.
+	 */
+	public int getSize()
+	{
+		return this.words.getSize();
+	}
+
+	long child(long node, char label)
+	{
+		return this.words.next(node, label);
+	}
+
+	int rankOf(long node)
+	{
+		int index = this.words.wordIndex(node);
+		return index < 0 ? 0 : this.ranks[index];
+	}
+
+	/**
+	 * Defers loading the default dictionary until it is first requested.
+	 */
+	private static final class DefaultHolder
+	{
+		private static final PasswordDictionary DICTIONARY = DefaultHolder.load();
+
+		private DefaultHolder()
+		{
+
+		}
+
+		private static PasswordDictionary load()
+		{
+			InputStream stream = PasswordDictionary.class.getResourceAsStream(DEFAULT_RESOURCE);
+			if(stream == null)
+			{
+				throw new ValidationException("The password dictionary [" + DEFAULT_RESOURCE + "] is missing.");
+			}
+			try
+			{
+				try
+				{
+					return PasswordDictionary.read(stream);
+				}
+				finally
+				{
+					stream.close();
+				}
+			}
+			catch(IOException e)
+			{
+				throw new ValidationException("Failed to load the password dictionary.", e);
+			}
+		}
+	}
+}
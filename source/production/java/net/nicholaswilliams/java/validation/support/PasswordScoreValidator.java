@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.PasswordScore;
+
+/**
+ * Validator for {@link PasswordScore}, which scores passwords with the {@link PasswordStrengthEstimator} after
+ * rejecting those found in the optional common password {@link Dawg}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class PasswordScoreValidator implements ConstraintValidator<PasswordScore, CharSequence>
+{
+	private int minimumScore;
+
+	private Dawg commonPasswords;
+
+	@Override
+	public void initialize(PasswordScore annotation)
+	{
+		this.minimumScore = annotation.value();
+		if(this.minimumScore < 0 || this.minimumScore > PasswordStrengthEstimator.MAX_SCORE)
+		{
+			throw new ConstraintDeclarationException(
+					"The minimum password score must be between 0 and " + PasswordStrengthEstimator.MAX_SCORE + "."
+			);
+		}
+		if(annotation.commonPasswordDictionary().length() > 0)
+		{
+			this.commonPasswords = Dawg.get(annotation.commonPasswordDictionary());
+		}
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null || this.minimumScore == 0)
+		{
+			return true;
+		}
+		if(this.commonPasswords != null && this.commonPasswords.contains(value, true))
+		{
+			return false;
+		}
+		return PasswordStrengthEstimator.score(value) >= this.minimumScore;
+	}
+}
@@ -0,0 +1,952 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * Estimates password strength by pattern matching, following the approach of Dropbox's zxcvbn. Every substring of the
+ * password that matches a known pattern (a dictionary word, optionally reversed, capitalized, or with l33t
+ * substitutions; a keyboard walk; a repeat; a character sequence; a year; or a date) is assigned the number of guesses
+ * an attacker modeling that pattern would need. Dynamic programming then finds the sequence of non-overlapping
+ * matches, with brute force filling the gaps, that minimizes the total number of guesses. That number determines the
+ * score from 0 (too guessable) to {@value #MAX_SCORE} (very unguessable).<br>
+ * <br>
+ * The dictionary is matched with a walk of its automaton from each position, so the cost does not depend on its size.
+ * Patterns are matched within windows of at most {@value #MAX_ANALYZED_LENGTH} characters, which bounds the work per
+ * character. Past the first window, text that continues a repeat of the preceding characters (such as the rest of
+ * {@code aaaa...} or of a repeated phrase) only increases the repeat count, as it would in a single window; any other
+ * text is estimated as a further window, and the estimates of the windows are multiplied.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class PasswordStrengthEstimator
+{
+	/**
+	 * The highest score.
+	 */
+	public static final int MAX_SCORE = 4;
+
+	/**
+	 * The number of characters analyzed for patterns at a time.
+	 */
+	public static final int MAX_ANALYZED_LENGTH = 100;
+
+	/*
+	 * The guesses below which each score is given, as powers of ten.
+	 */
+	private static final int[] SCORE_THRESHOLD_EXPONENTS = {3, 6, 8, 10};
+
+	private static final double SCORE_THRESHOLD_DELTA = 5.0;
+
+	private static final double BRUTEFORCE_CARDINALITY = 10.0;
+
+	private static final double MIN_GUESSES_BEFORE_GROWING_SEQUENCE = 10000.0;
+
+	private static final double MIN_SUBMATCH_GUESSES_SINGLE_CHAR = 10.0;
+
+	private static final double MIN_SUBMATCH_GUESSES_MULTI_CHAR = 50.0;
+
+	private static final int ASCII_SIZE = 128;
+
+	private static final int MIN_SPATIAL_LENGTH = 3;
+
+	private static final int MIN_SEQUENCE_LENGTH = 3;
+
+	private static final int MAX_SEQUENCE_DELTA = 5;
+
+	private static final double SEQUENCE_OBVIOUS_START_GUESSES = 4.0;
+
+	private static final double SEQUENCE_DIGIT_GUESSES = 10.0;
+
+	private static final double SEQUENCE_LETTER_GUESSES = 26.0;
+
+	private static final String SEQUENCE_OBVIOUS_STARTS = "aAzZ019";
+
+	private static final int YEAR_LENGTH = 4;
+
+	private static final int MIN_YEAR_SPACE = 20;
+
+	private static final int MIN_DATE_YEAR = 1000;
+
+	private static final int MAX_DATE_YEAR = 2050;
+
+	private static final int MIN_RECENT_YEAR = 1900;
+
+	private static final int MAX_RECENT_YEAR = 2099;
+
+	private static final int MAX_TWO_DIGIT_YEAR = 99;
+
+	private static final int TWO_DIGIT_YEAR_PIVOT = 50;
+
+	private static final int NINETEEN_HUNDRED = 1900;
+
+	private static final int TWO_THOUSAND = 2000;
+
+	private static final int MAX_DAY = 31;
+
+	private static final int MAX_MONTH = 12;
+
+	private static final double DAYS_PER_YEAR = 365.0;
+
+	private static final double DATE_SEPARATOR_GUESSES = 4.0;
+
+	private static final int MIN_DATE_LENGTH = 4;
+
+	private static final int MAX_DATE_LENGTH = 8;
+
+	private static final int MIN_SEPARATED_DATE_LENGTH = 6;
+
+	private static final int MAX_SEPARATED_DATE_LENGTH = 10;
+
+	private static final String DATE_SEPARATORS = " /\\_.-";
+
+	/*
+	 * The ways of splitting an unseparated date of 4 to 8 digits into three parts: {length, first split, second split}.
+	 */
+	private static final int[][] DATE_SPLITS = {
+			{4, 1, 2}, {4, 2, 3},
+			{5, 1, 3}, {5, 2, 3},
+			{6, 1, 2}, {6, 2, 4}, {6, 4, 5},
+			{7, 1, 3}, {7, 2, 3}, {7, 4, 5}, {7, 4, 6},
+			{8, 2, 4}, {8, 4, 6}
+	};
+
+	private static final String[] L33T_SUBSTITUTIONS = {
+			"4a", "@a", "8b", "(c", "{c", "[c", "<c", "3e", "6g", "9g", "1i", "!i", "|i", "1l", "|l", "7l", "0o",
+			"$s", "5s", "+t", "7t", "%x", "2z"
+	};
+
+	private static final char[][] L33T_TABLE = new char[ASCII_SIZE][];
+
+	private static final int REFERENCE_YEAR = Calendar.getInstance().get(Calendar.YEAR);
+
+	private static final double[] FACTORIALS = new double[MAX_ANALYZED_LENGTH + 1];
+
+	static
+	{
+		for(String substitution : L33T_SUBSTITUTIONS)
+		{
+			char c = substitution.charAt(0);
+			char[] letters = L33T_TABLE[c];
+			letters = letters == null ? new char[1] : Arrays.copyOf(letters, letters.length + 1);
+			letters[letters.length - 1] = substitution.charAt(1);
+			L33T_TABLE[c] = letters;
+		}
+
+		FACTORIALS[0] = 1.0;
+		for(int i = 1; i < FACTORIALS.length; i++)
+		{
+			FACTORIALS[i] = FACTORIALS[i - 1] * i;
+		}
+	}
+
+	private PasswordStrengthEstimator()
+	{
+
+	}
+
+	/**
+	 * Scores the password from 0 (too guessable: risky password) to {@value #MAX_SCORE} (very unguessable: strong
+	 * protection from offline attacks). The scores correspond to estimates of fewer than 10<sup>3</sup>,
+	 * 10<sup>6</sup>, 10<sup>8</sup>, and 10<sup>10</sup> guesses, and more.
+	 *
+	 * @param password The password to score, must not be {@code null}
+	 * @return the score.
+	 */
+	public static int score(CharSequence password)
+	{
+		double guesses = PasswordStrengthEstimator.guesses(password);
+		for(int score = 0; score < SCORE_THRESHOLD_EXPONENTS.length; score++)
+		{
+			if(guesses < Math.pow(BRUTEFORCE_CARDINALITY, SCORE_THRESHOLD_EXPONENTS[score]) + SCORE_THRESHOLD_DELTA)
+			{
+				return score;
+			}
+		}
+		return MAX_SCORE;
+	}
+
+	/**
+	 * Estimates the number of guesses an attacker needs to find the password.
+	 *
+	 * @param password The password to estimate, must not be {@code null}
+	 * @return the estimated number of guesses, which may be {@link Double#POSITIVE_INFINITY} for very long passwords.
+	 */
+	public static double guesses(CharSequence password)
+	{
+		int length = password.length();
+		double guesses = 1.0;
+		int start = 0;
+		while(start < length && guesses < Double.POSITIVE_INFINITY)
+		{
+			int period = PasswordStrengthEstimator.repeatPeriod(password, start);
+			int run = period == 0 ? 0 : PasswordStrengthEstimator.repeatRun(password, start, period);
+			if(run > 0 && (run >= period || start + run == length))
+			{
+				int repeated = start - PasswordStrengthEstimator.repeatStart(password, start, period);
+				guesses *= (double) (repeated + run) / repeated;
+				start += run;
+				continue;
+			}
+
+			// a window ends after the first occurrence of a repeat that continues past it, which the next step counts
+			int end = Math.min(length, start + MAX_ANALYZED_LENGTH);
+			period = end == length ? 0 : PasswordStrengthEstimator.repeatPeriod(password, end);
+			run = period == 0 ? 0 : PasswordStrengthEstimator.repeatRun(password, end, period);
+			if(run > 0 && (run >= period || end + run == length))
+			{
+				end = Math.max(PasswordStrengthEstimator.repeatStart(password, end, period) + period, start + 1);
+			}
+
+			char[] characters = new char[end - start];
+			for(int i = start; i < end; i++)
+			{
+				characters[i - start] = password.charAt(i);
+			}
+			guesses *= PasswordStrengthEstimator.guesses(characters, 0, characters.length);
+			start = end;
+		}
+		return guesses;
+	}
+
+	/*
+	 * The period, up to the analyzed length, of the longest repeat of the preceding characters that continues at the
+	 * start, or 0 if the character at the start repeats none of them.
+	 */
+	private static int repeatPeriod(CharSequence password, int start)
+	{
+		int period = 0;
+		int run = 0;
+		for(int p = 1, maximum = Math.min(start, MAX_ANALYZED_LENGTH); p <= maximum && start + run < password.length();
+			p++)
+		{
+			int r = PasswordStrengthEstimator.repeatRun(password, start, p);
+			if(r > run)
+			{
+				period = p;
+				run = r;
+			}
+		}
+		return period;
+	}
+
+	/*
+	 * The number of characters from the start that repeat the character the period before them.
+	 */
+	private static int repeatRun(CharSequence password, int start, int period)
+	{
+		int i = start;
+		while(i < password.length() && password.charAt(i) == password.charAt(i - period))
+		{
+			i++;
+		}
+		return i - start;
+	}
+
+	/*
+	 * The start of the repeat with the period that ends just before the start: its first occurrence of the repeated
+	 * characters, and every further character that repeats the one the period before it.
+	 */
+	private static int repeatStart(CharSequence password, int start, int period)
+	{
+		int i = start;
+		while(i > period && password.charAt(i - 1) == password.charAt(i - 1 - period))
+		{
+			i--;
+		}
+		return i - period;
+	}
+
+	private static double guesses(char[] password, int offset, int length)
+	{
+		if(length == 0)
+		{
+			return 1.0;
+		}
+
+		Analysis analysis = new Analysis(Arrays.copyOfRange(password, offset, offset + length));
+		analysis.matchDictionary();
+		analysis.matchReversedDictionary();
+		analysis.matchSpatial(KeyboardGraph.QWERTY);
+		analysis.matchSpatial(KeyboardGraph.DVORAK);
+		analysis.matchSpatial(KeyboardGraph.KEYPAD);
+		analysis.matchRepeats();
+		analysis.matchSequences();
+		analysis.matchYears();
+		analysis.matchDates();
+		analysis.matchSeparatedDates();
+		return analysis.mostGuessableSequence();
+	}
+
+	private static double choose(int n, int k)
+	{
+		if(k > n)
+		{
+			return 0.0;
+		}
+		double result = 1.0;
+		for(int d = 1, m = n; d <= k; d++, m--)
+		{
+			result = result * m / d;
+		}
+		return result;
+	}
+
+	/*
+	 * The number of ways of choosing which of the characters are in the less common variant (uppercase, shifted, or
+	 * substituted), given that at least one is.
+	 */
+	private static double variations(int variant, int plain)
+	{
+		if(variant == 0 || plain == 0)
+		{
+			return 2.0;
+		}
+		double variations = 0.0;
+		for(int i = 1, maximum = Math.min(variant, plain); i <= maximum; i++)
+		{
+			variations += PasswordStrengthEstimator.choose(variant + plain, i);
+		}
+		return variations;
+	}
+
+	private static boolean isDigit(char c)
+	{
+		return c >= '0' && c <= '9';
+	}
+
+	private static int yearGuesses(int year)
+	{
+		return Math.max(Math.abs(year - REFERENCE_YEAR), MIN_YEAR_SPACE);
+	}
+
+	/*
+	 * Returns the year of the most plausible day-month-year interpretation of the three numbers, or -1 if there is
+	 * none.
+	 */
+	private static int yearOf(int first, int second, int third)
+	{
+		if(second > MAX_DAY || second <= 0)
+		{
+			return -1;
+		}
+
+		int over12 = 0;
+		int over31 = 0;
+		int under1 = 0;
+		for(int value : new int[] {first, second, third})
+		{
+			if((value > MAX_TWO_DIGIT_YEAR && value < MIN_DATE_YEAR) || value > MAX_DATE_YEAR)
+			{
+				return -1;
+			}
+			over31 += value > MAX_DAY ? 1 : 0;
+			over12 += value > MAX_MONTH ? 1 : 0;
+			under1 += value <= 0 ? 1 : 0;
+		}
+		if(over31 >= 2 || over12 == 3 || under1 >= 2)
+		{
+			return -1;
+		}
+
+		if(third >= MIN_DATE_YEAR && third <= MAX_DATE_YEAR && PasswordStrengthEstimator.isDayMonth(first, second))
+		{
+			return third;
+		}
+		if(first >= MIN_DATE_YEAR && first <= MAX_DATE_YEAR && PasswordStrengthEstimator.isDayMonth(second, third))
+		{
+			return first;
+		}
+		if(third <= MAX_TWO_DIGIT_YEAR && PasswordStrengthEstimator.isDayMonth(first, second))
+		{
+			return PasswordStrengthEstimator.fourDigitYear(third);
+		}
+		if(first <= MAX_TWO_DIGIT_YEAR && PasswordStrengthEstimator.isDayMonth(second, third))
+		{
+			return PasswordStrengthEstimator.fourDigitYear(first);
+		}
+		return -1;
+	}
+
+	private static boolean isDayMonth(int a, int b)
+	{
+		return (a >= 1 && a <= MAX_DAY && b >= 1 && b <= MAX_MONTH) ||
+			   (b >= 1 && b <= MAX_DAY && a >= 1 && a <= MAX_MONTH);
+	}
+
+	private static int fourDigitYear(int year)
+	{
+		return year > TWO_DIGIT_YEAR_PIVOT ? year + NINETEEN_HUNDRED : year + TWO_THOUSAND;
+	}
+
+	/**
+	 * The state of one estimate: the password, the matches found so far (grouped by the index of their last
+	 * character), and the scratch space of the dictionary walk.
+	 */
+	private static final class Analysis
+	{
+		private final char[] password;
+
+		private final char[] lowercase;
+
+		private final int length;
+
+		private final PasswordDictionary dictionary = PasswordDictionary.getDefault();
+
+		private final char[] walked;
+
+		private int[] starts = new int[MAX_ANALYZED_LENGTH];
+
+		private double[] guesses = new double[MAX_ANALYZED_LENGTH];
+
+		private int[] nextByEnd = new int[MAX_ANALYZED_LENGTH];
+
+		private final int[] firstByEnd;
+
+		private int matchCount;
+
+		Analysis(char[] password)
+		{
+			this.password = password;
+			this.length = password.length;
+			this.lowercase = new char[this.length];
+			for(int i = 0; i < this.length; i++)
+			{
+				this.lowercase[i] = Character.toLowerCase(password[i]);
+			}
+			this.walked = new char[this.length];
+			this.firstByEnd = new int[this.length];
+			Arrays.fill(this.firstByEnd, -1);
+		}
+
+		private void addMatch(int start, int end, double guesses)
+		{
+			int tokenLength = end - start + 1;
+			double minimum = tokenLength == this.length ? 1.0 :
+							 tokenLength == 1 ? MIN_SUBMATCH_GUESSES_SINGLE_CHAR : MIN_SUBMATCH_GUESSES_MULTI_CHAR;
+
+			if(this.matchCount == this.starts.length)
+			{
+				int capacity = this.matchCount * 2;
+				this.starts = Arrays.copyOf(this.starts, capacity);
+				this.guesses = Arrays.copyOf(this.guesses, capacity);
+				this.nextByEnd = Arrays.copyOf(this.nextByEnd, capacity);
+			}
+			this.starts[this.matchCount] = start;
+			this.guesses[this.matchCount] = Math.max(guesses, minimum);
+			this.nextByEnd[this.matchCount] = this.firstByEnd[end];
+			this.firstByEnd[end] = this.matchCount++;
+		}
+
+		void matchDictionary()
+		{
+			for(int start = 0; start < this.length; start++)
+			{
+				this.walk(PasswordDictionary.ROOT, start, start, 0);
+			}
+		}
+
+		private void walk(long node, int start, int position, int substitutions)
+		{
+			if(position == this.length)
+			{
+				return;
+			}
+
+			char c = this.lowercase[position];
+			long child = this.dictionary.child(node, c);
+			if(child >= 0)
+			{
+				this.walked[position] = c;
+				this.visit(child, start, position, substitutions);
+			}
+
+			char[] letters = c < ASCII_SIZE ? L33T_TABLE[c] : null;
+			if(letters != null)
+			{
+				for(char letter : letters)
+				{
+					child = this.dictionary.child(node, letter);
+					if(child >= 0)
+					{
+						this.walked[position] = letter;
+						this.visit(child, start, position, substitutions + 1);
+					}
+				}
+			}
+		}
+
+		private void visit(long node, int start, int position, int substitutions)
+		{
+			int rank = this.dictionary.rankOf(node);
+			if(rank > 0 && (substitutions == 0 || position > start))
+			{
+				double guesses = rank * this.uppercaseVariations(start, position);
+				if(substitutions > 0)
+				{
+					guesses *= this.l33tVariations(start, position);
+				}
+				this.addMatch(start, position, guesses);
+			}
+			this.walk(node, start, position + 1, substitutions);
+		}
+
+		void matchReversedDictionary()
+		{
+			for(int end = this.length - 1; end > 0; end--)
+			{
+				long node = PasswordDictionary.ROOT;
+				for(int position = end; position >= 0; position--)
+				{
+					node = this.dictionary.child(node, this.lowercase[position]);
+					if(node < 0)
+					{
+						break;
+					}
+					int rank = this.dictionary.rankOf(node);
+					if(rank > 0 && position < end)
+					{
+						this.addMatch(position, end, 2.0 * rank * this.uppercaseVariations(position, end));
+					}
+				}
+			}
+		}
+
+		private double uppercaseVariations(int start, int end)
+		{
+			int upper = 0;
+			int lower = 0;
+			for(int i = start; i <= end; i++)
+			{
+				char c = this.password[i];
+				if(Character.isUpperCase(c))
+				{
+					upper++;
+				}
+				else if(Character.isLowerCase(c))
+				{
+					lower++;
+				}
+			}
+
+			if(upper == 0)
+			{
+				return 1.0;
+			}
+			if(lower == 0 || (upper == 1 && (Character.isUpperCase(this.password[start]) ||
+											 Character.isUpperCase(this.password[end]))))
+			{
+				return 2.0;
+			}
+			return PasswordStrengthEstimator.variations(upper, lower);
+		}
+
+		private double l33tVariations(int start, int end)
+		{
+			double variations = 1.0;
+			for(int i = start; i <= end; i++)
+			{
+				char substituted = this.lowercase[i];
+				char letter = this.walked[i];
+				if(substituted == letter || this.isSubstitutionBefore(start, i, substituted, letter))
+				{
+					continue;
+				}
+
+				int variant = 0;
+				int plain = 0;
+				for(int j = start; j <= end; j++)
+				{
+					if(this.walked[j] == letter)
+					{
+						if(this.lowercase[j] == substituted)
+						{
+							variant++;
+						}
+						else if(this.lowercase[j] == letter)
+						{
+							plain++;
+						}
+					}
+				}
+				variations *= plain == 0 ? 2.0 : PasswordStrengthEstimator.variations(variant, plain);
+			}
+			return variations;
+		}
+
+		private boolean isSubstitutionBefore(int start, int index, char substituted, char letter)
+		{
+			for(int i = start; i < index; i++)
+			{
+				if(this.lowercase[i] == substituted && this.walked[i] == letter)
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void matchSpatial(KeyboardGraph graph)
+		{
+			int i = 0;
+			while(i < this.length - 1)
+			{
+				int j = i + 1;
+				int lastDirection = -1;
+				int turns = 0;
+				int shifted = graph.isShifted(this.password[i]) ? 1 : 0;
+				while(j < this.length)
+				{
+					int direction = graph.direction(this.password[j - 1], this.password[j]);
+					if(direction < 0)
+					{
+						break;
+					}
+					if(graph.isShifted(this.password[j]))
+					{
+						shifted++;
+					}
+					if(direction != lastDirection)
+					{
+						turns++;
+						lastDirection = direction;
+					}
+					j++;
+				}
+
+				if(j - i >= MIN_SPATIAL_LENGTH)
+				{
+					this.addMatch(i, j - 1, Analysis.spatialGuesses(graph, j - i, turns, shifted));
+				}
+				i = j;
+			}
+		}
+
+		private static double spatialGuesses(KeyboardGraph graph, int length, int turns, int shifted)
+		{
+			double startingPositions = graph.getStartingPositions();
+			double degree = graph.getAverageDegree();
+			double guesses = 0.0;
+			for(int i = 2; i <= length; i++)
+			{
+				for(int j = 1, possibleTurns = Math.min(turns, i - 1); j <= possibleTurns; j++)
+				{
+					guesses += PasswordStrengthEstimator.choose(i - 1, j - 1) * startingPositions * Math.pow(degree, j);
+				}
+			}
+
+			if(shifted > 0)
+			{
+				guesses *= PasswordStrengthEstimator.variations(shifted, length - shifted);
+			}
+			return guesses;
+		}
+
+		void matchRepeats()
+		{
+			for(int period = 1; period <= this.length / 2; period++)
+			{
+				int run = 0;
+				for(int k = 0; k + period < this.length; k++)
+				{
+					if(this.password[k] == this.password[k + period])
+					{
+						run++;
+					}
+					else
+					{
+						this.addRepeat(k - run, run, period);
+						run = 0;
+					}
+				}
+				this.addRepeat(this.length - period - run, run, period);
+			}
+		}
+
+		private void addRepeat(int start, int run, int period)
+		{
+			if(run < period || this.hasShorterPeriod(start, period))
+			{
+				return;
+			}
+
+			int count = (run + period) / period;
+			double baseGuesses = PasswordStrengthEstimator.guesses(this.password, start, period);
+			this.addMatch(start, start + count * period - 1, baseGuesses * count);
+		}
+
+		private boolean hasShorterPeriod(int start, int period)
+		{
+			for(int shorter = 1; shorter < period; shorter++)
+			{
+				if(period % shorter != 0)
+				{
+					continue;
+				}
+				int i = start;
+				while(i + shorter < start + period && this.password[i] == this.password[i + shorter])
+				{
+					i++;
+				}
+				if(i + shorter == start + period)
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void matchSequences()
+		{
+			if(this.length < MIN_SEQUENCE_LENGTH)
+			{
+				return;
+			}
+
+			int start = 0;
+			int lastDelta = this.password[1] - this.password[0];
+			for(int k = 2; k < this.length; k++)
+			{
+				int delta = this.password[k] - this.password[k - 1];
+				if(delta != lastDelta)
+				{
+					this.addSequence(start, k - 1, lastDelta);
+					start = k - 1;
+					lastDelta = delta;
+				}
+			}
+			this.addSequence(start, this.length - 1, lastDelta);
+		}
+
+		private void addSequence(int start, int end, int delta)
+		{
+			if(end - start + 1 < MIN_SEQUENCE_LENGTH || delta == 0 || Math.abs(delta) > MAX_SEQUENCE_DELTA)
+			{
+				return;
+			}
+
+			char first = this.password[start];
+			double guesses;
+			if(SEQUENCE_OBVIOUS_STARTS.indexOf(first) >= 0)
+			{
+				guesses = SEQUENCE_OBVIOUS_START_GUESSES;
+			}
+			else if(PasswordStrengthEstimator.isDigit(first))
+			{
+				guesses = SEQUENCE_DIGIT_GUESSES;
+			}
+			else
+			{
+				guesses = SEQUENCE_LETTER_GUESSES;
+			}
+			if(delta < 0)
+			{
+				guesses *= 2.0;
+			}
+			this.addMatch(start, end, guesses * (end - start + 1));
+		}
+
+		void matchYears()
+		{
+			for(int i = 0; i + YEAR_LENGTH <= this.length; i++)
+			{
+				int year = this.number(i, i + YEAR_LENGTH);
+				if(year >= MIN_RECENT_YEAR && year <= MAX_RECENT_YEAR)
+				{
+					this.addMatch(i, i + YEAR_LENGTH - 1, PasswordStrengthEstimator.yearGuesses(year));
+				}
+			}
+		}
+
+		void matchDates()
+		{
+			for(int i = 0; i + MIN_DATE_LENGTH <= this.length; i++)
+			{
+				for(int[] split : DATE_SPLITS)
+				{
+					int end = i + split[0];
+					if(end > this.length)
+					{
+						break;
+					}
+					int first = this.number(i, i + split[1]);
+					int second = this.number(i + split[1], i + split[2]);
+					int third = this.number(i + split[2], end);
+					if(first < 0 || second < 0 || third < 0)
+					{
+						continue;
+					}
+					int year = PasswordStrengthEstimator.yearOf(first, second, third);
+					if(year > 0)
+					{
+						this.addMatch(i, end - 1, PasswordStrengthEstimator.yearGuesses(year) * DAYS_PER_YEAR);
+					}
+				}
+			}
+		}
+
+		void matchSeparatedDates()
+		{
+			for(int i = 0; i + MIN_SEPARATED_DATE_LENGTH <= this.length; i++)
+			{
+				int firstEnd = i;
+				while(firstEnd < this.length && firstEnd - i < YEAR_LENGTH &&
+					  PasswordStrengthEstimator.isDigit(this.password[firstEnd]))
+				{
+					firstEnd++;
+				}
+				if(firstEnd == i || firstEnd >= this.length ||
+				   DATE_SEPARATORS.indexOf(this.password[firstEnd]) < 0)
+				{
+					continue;
+				}
+
+				char separator = this.password[firstEnd];
+				int secondEnd = firstEnd + 1;
+				while(secondEnd < this.length && secondEnd - firstEnd - 1 < 2 &&
+					  PasswordStrengthEstimator.isDigit(this.password[secondEnd]))
+				{
+					secondEnd++;
+				}
+				if(secondEnd == firstEnd + 1 || secondEnd >= this.length || this.password[secondEnd] != separator)
+				{
+					continue;
+				}
+
+				int first = this.number(i, firstEnd);
+				int second = this.number(firstEnd + 1, secondEnd);
+				for(int end = secondEnd + 2; end <= secondEnd + 1 + YEAR_LENGTH && end <= this.length; end++)
+				{
+					int third = this.number(secondEnd + 1, end);
+					if(third < 0)
+					{
+						break;
+					}
+					int year = end - i < MIN_SEPARATED_DATE_LENGTH || end - i > MAX_SEPARATED_DATE_LENGTH ? -1 :
+							   PasswordStrengthEstimator.yearOf(first, second, third);
+					if(year > 0)
+					{
+						this.addMatch(i, end - 1, PasswordStrengthEstimator.yearGuesses(year) * DAYS_PER_YEAR *
+												  DATE_SEPARATOR_GUESSES);
+					}
+				}
+			}
+		}
+
+		private int number(int start, int end)
+		{
+			int value = 0;
+			for(int i = start; i < end; i++)
+			{
+				char c = this.password[i];
+				if(!PasswordStrengthEstimator.isDigit(c))
+				{
+					return -1;
+				}
+				value = value * (int) BRUTEFORCE_CARDINALITY + (c - '0');
+			}
+			return value;
+		}
+
+		/*
+		 * For each end position k and sequence length l, keeps the best product of guesses (pi) over sequences of l
+		 * matches covering the first k + 1 characters, discarding candidates whose overall estimate
+		 * (l! * pi + D^(l - 1)) is no better than that of a shorter sequence. Brute-force matches are generated here
+		 * for every range, but never two in a row.
+		 */
+		double mostGuessableSequence()
+		{
+			int n = this.length;
+			int stride = n + 1;
+			double[] pi = new double[n * stride];
+			double[] g = new double[n * stride];
+			boolean[] bruteforce = new boolean[n * stride];
+
+			for(int k = 0; k < n; k++)
+			{
+				for(int m = this.firstByEnd[k]; m >= 0; m = this.nextByEnd[m])
+				{
+					int start = this.starts[m];
+					if(start == 0)
+					{
+						Analysis.update(pi, g, bruteforce, k * stride, 1, this.guesses[m], false);
+						continue;
+					}
+					int previous = (start - 1) * stride;
+					for(int l = 1; l <= start; l++)
+					{
+						if(g[previous + l] > 0.0)
+						{
+							Analysis.update(pi, g, bruteforce, k * stride, l + 1, pi[previous + l] * this.guesses[m],
+											false);
+						}
+					}
+				}
+
+				Analysis.update(pi, g, bruteforce, k * stride, 1, Analysis.bruteforceGuesses(k + 1), true);
+				for(int i = 1; i <= k; i++)
+				{
+					double guesses = Analysis.bruteforceGuesses(k - i + 1);
+					int previous = (i - 1) * stride;
+					for(int l = 1; l <= i; l++)
+					{
+						if(g[previous + l] > 0.0 && !bruteforce[previous + l])
+						{
+							Analysis.update(pi, g, bruteforce, k * stride, l + 1, pi[previous + l] * guesses, true);
+						}
+					}
+				}
+			}
+
+			double best = Double.POSITIVE_INFINITY;
+			int last = (n - 1) * stride;
+			for(int l = 1; l <= n; l++)
+			{
+				if(g[last + l] > 0.0 && g[last + l] < best)
+				{
+					best = g[last + l];
+				}
+			}
+			return best;
+		}
+
+		private static void update(double[] pi, double[] g, boolean[] bruteforce, int row, int l, double product,
+								   boolean isBruteforce)
+		{
+			double estimate = FACTORIALS[l] * product + Math.pow(MIN_GUESSES_BEFORE_GROWING_SEQUENCE, l - 1);
+			for(int competing = 1; competing <= l; competing++)
+			{
+				if(g[row + competing] > 0.0 && g[row + competing] <= estimate)
+				{
+					return;
+				}
+			}
+			pi[row + l] = product;
+			g[row + l] = estimate;
+			bruteforce[row + l] = isBruteforce;
+		}
+
+		private static double bruteforceGuesses(int length)
+		{
+			double guesses = Math.pow(BRUTEFORCE_CARDINALITY, length);
+			return Math.max(guesses, length == 1 ? MIN_SUBMATCH_GUESSES_SINGLE_CHAR + 1 :
+									 MIN_SUBMATCH_GUESSES_MULTI_CHAR + 1);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Past;
+
+/**
+ * Validator for {@link Past}, which accepts every supported date, time or temporal type. The comparison for the
+ * runtime class of the value is resolved once and cached, so validation is a cache lookup and a comparison. The
+ * current time comes from the {@link TimeSource} given to the constructor or, by default, from
+ * {@link TimeSource#getDefault()}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class PastValidator implements ConstraintValidator<Past, Object>
+{
+	private final TimeSource timeSource;
+
+	/**
+	 * Creates a validator that reads the current time from {@link TimeSource#getDefault()}.
+	 */
+	public PastValidator()
+	{
+		this(null);
+	}
+
+	/**
+	 * Creates a validator that reads the current time from the given source.
+	 *
+	 * @param timeSource The source of the current time, or {@code null} to use {@link TimeSource#getDefault()}
+	 */
+	public PastValidator(TimeSource timeSource)
+	{
+		this.timeSource = timeSource;
+	}
+
+	@Override
+	public void initialize(Past annotation)
+	{
+		// Nothing to do here
+	}
+
+	@Override
+	public boolean isValid(Object value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		TimeSource source = this.timeSource == null ? TimeSource.getDefault() : this.timeSource;
+		return TemporalComparatorCache.get(value.getClass()).compareToNow(value, source.currentTime()) < 0;
+	}
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.IDN;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * A compiled <a href="https://publicsuffix.org/">Public Suffix List</a>, loaded from a local copy of the list in its
+ * published text format ({@code public_suffix_list.dat}). The rules, including wildcard ({@code *.ck}) and exception
+ * ({@code !www.ck}) rules, are compiled into a trie of reversed labels; internationalized rules are added in both their
+ * Unicode and ASCII (Punycode) forms. A domain name is evaluated in a single right-to-left pass over its labels,
+ * following the list's algorithm: the longest matching rule wins, an exception rule overrides it, and a domain
+ * matching no rule has its top-level label as its public suffix.<br>
+ * <br>
+ * Other validators can use {@link #getPublicSuffixStart} and {@link #getRegistrableDomainStart} to find the
+ * effective TLD and the effective TLD+1 (the registrable domain) of a host without creating substrings.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class PublicSuffixList
+{
+	private static final int RULE = 1;
+
+	private static final int WILDCARD = 2;
+
+	private static final int EXCEPTION = 4;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final SharedFiles<PublicSuffixList> FILES = new SharedFiles<PublicSuffixList>("public suffix list")
+	{
+		@Override
+		protected PublicSuffixList load(File file) throws IOException
+		{
+			InputStream stream = new FileInputStream(file);
+			try
+			{
+				return PublicSuffixList.read(stream);
+			}
+			finally
+			{
+				stream.close();
+			}
+		}
+	};
+
+	private final LabelTrie trie;
+
+	private final int ruleCount;
+
+	private PublicSuffixList(InputStream stream) throws IOException
+	{
+		LabelTrie.Builder builder = new LabelTrie.Builder();
+		int ruleCount = 0;
+		BufferedReader reader = new BufferedReader(new InputStreamReader(stream, UTF_8));
+		String line;
+		while((line = reader.readLine()) != null)
+		{
+			line = line.trim();
+			if(line.length() == 0 || line.startsWith("//"))
+			{
+				continue;
+			}
+			int whitespace = 0;
+			while(whitespace < line.length() && !Character.isWhitespace(line.charAt(whitespace)))
+			{
+				whitespace++;
+			}
+			String rule = line.substring(0, whitespace).toLowerCase(Locale.ENGLISH);
+			PublicSuffixList.addRule(builder, rule);
+			if(!PublicSuffixList.isAscii(rule))
+			{
+				PublicSuffixList.addRule(builder, PublicSuffixList.toAscii(rule));
+			}
+			ruleCount++;
+		}
+		this.trie = builder.build();
+		this.ruleCount = ruleCount;
+	}
+
+	private static void addRule(LabelTrie.Builder builder, String rule)
+	{
+		int flag = RULE;
+		if(rule.startsWith("!"))
+		{
+			flag = EXCEPTION;
+			rule = rule.substring(1);
+		}
+		else if(rule.startsWith("*."))
+		{
+			flag = WILDCARD;
+			rule = rule.substring(2);
+		}
+
+		int node = LabelTrie.ROOT;
+		int end = rule.length();
+		while(end > 0)
+		{
+			int start = rule.lastIndexOf('.', end - 1) + 1;
+			if(start == end)
+			{
+				throw new IllegalArgumentException("Malformed public suffix rule [" + rule + "].");
+			}
+			node = builder.child(node, rule.substring(start, end));
+			end = start - 1;
+		}
+		builder.addFlags(node, flag);
+	}
+
+	private static boolean isAscii(String rule)
+	{
+		for(int i = 0; i < rule.length(); i++)
+		{
+			if(rule.charAt(i) > Byte.MAX_VALUE)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String toAscii(String rule)
+	{
+		int prefix = rule.startsWith("!") ? 1 : rule.startsWith("*.") ? 2 : 0;
+		try
+		{
+			return rule.substring(0, prefix) + IDN.toASCII(rule.substring(prefix)).toLowerCase(Locale.ENGLISH);
+		}
+		catch(IllegalArgumentException e)
+		{
+			return rule;
+		}
+	}
+
+	/**
+	 * Returns the list at the specified path, loading it the first time it is requested. Every caller naming the same
+	 * path shares one instance.
+	 *
+	 * @param path The path to the local copy of the list
+	 * @return the public suffix list.
+	 * @throws javax.validation.ConstraintDeclarationException if the file cannot be read or contains a malformed rule.
+	 */
+	public static PublicSuffixList get(String path)
+	{
+		return FILES.get(path);
+	}
+
+	/**
+	 * Reads and compiles a list in its published text format. The stream is closed.
+	 *
+	 * @param stream The stream to read the list from
+	 * @return the public suffix list.
+	 * @throws IOException if the stream cannot be read.
+	 * @throws IllegalArgumentException if the list contains a malformed rule.
+	 */
+	public static PublicSuffixList read(InputStream stream) throws IOException
+	{
+		try
+		{
+			return new PublicSuffixList(stream);
+		}
+		finally
+		{
+			stream.close();
+		}
+	}
+
+	/**
+	 * Finds the start of the public suffix (the effective top-level domain) of the domain name in the region of the
+	 * value. A single trailing dot is ignored.
+	 *
+	 * @param value The value containing the domain name
+	 * @param start The start of the domain name, inclusive
+	 * @param end The end of the domain name, exclusive
+	 * @return the index at which the public suffix starts, or {@code -1} if the domain name is empty or has an empty
+	 *         label within the suffix.
+	 */
+	public int getPublicSuffixStart(CharSequence value, int start, int end)
+	{
+		if(end > start && value.charAt(end - 1) == '.')
+		{
+			end--;
+		}
+
+		int suffixStart = LabelTrie.labelStart(value, start, end);
+		if(suffixStart == end)
+		{
+			return -1;
+		}
+
+		int node = LabelTrie.ROOT;
+		int i = end;
+		while(true)
+		{
+			int j = LabelTrie.labelStart(value, start, i);
+			if(j == i)
+			{
+				return -1;
+			}
+
+			int child = this.trie.child(node, value, j, i);
+			if(child >= 0 && (this.trie.getFlags(child) & EXCEPTION) != 0)
+			{
+				// an exception rule's suffix is the rule without its leftmost label
+				return i + 1;
+			}
+			if((this.trie.getFlags(node) & WILDCARD) != 0)
+			{
+				suffixStart = j;
+			}
+			if(child < 0)
+			{
+				return suffixStart;
+			}
+			if((this.trie.getFlags(child) & RULE) != 0)
+			{
+				suffixStart = j;
+			}
+			if(j == start)
+			{
+				return suffixStart;
+			}
+			node = child;
+			i = j - 1;
+		}
+	}
+
+	/**
+	 * Finds the start of the registrable domain (the effective TLD+1: the public suffix and one more label) of the
+	 * domain name in the region of the value. A single trailing dot is ignored.
+	 *
+	 * @param value The value containing the domain name
+	 * @param start The start of the domain name, inclusive
+	 * @param end The end of the domain name, exclusive
+	 * @return the index at which the registrable domain starts, or {@code -1} if the domain name is itself a public
+	 *         suffix, is empty, or has an empty label.
+	 */
+	public int getRegistrableDomainStart(CharSequence value, int start, int end)
+	{
+		int suffixStart = this.getPublicSuffixStart(value, start, end);
+		if(suffixStart <= start)
+		{
+			return -1;
+		}
+		int domainStart = LabelTrie.labelStart(value, start, suffixStart - 1);
+		if(domainStart == suffixStart - 1)
+		{
+			return -1;
+		}
+
+		// the labels left of the registrable domain were not walked, so check them for empty labels here
+		for(int i = start; i < domainStart; i++)
+		{
+			if(value.charAt(i) == '.' && (i == start || value.charAt(i - 1) == '.'))
+			{
+				return -1;
+			}
+		}
+		return domainStart;
+	}
+
+	/**
+	 * Finds the start of the public suffix of the domain name.
+	 *
+	 * @param domain The domain name
+	 * @return the index at which the public suffix starts, or {@code -1}.
+	 * @see #getPublicSuffixStart(CharSequence, int, int)
+	 */
+	public int getPublicSuffixStart(CharSequence domain)
+	{
+		return this.getPublicSuffixStart(domain, 0, domain.length());
+	}
+
+	/**
+	 * Finds the start of the registrable domain of the domain name.
+	 *
+	 * @param domain The domain name
+	 * @return the index at which the registrable domain starts, or {@code -1}.
+	 * @see #getRegistrableDomainStart(CharSequence, int, int)
+	 */
+	public int getRegistrableDomainStart(CharSequence domain)
+	{
+		return this.getRegistrableDomainStart(domain, 0, domain.length());
+	}
+
+	/**
+	 * @return the number of rules in the list.
+	 */
+	public int getRuleCount()
+	{
+		return this.ruleCount;
+	}
+}
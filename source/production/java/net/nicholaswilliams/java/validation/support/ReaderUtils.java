@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming counterparts to {@link CharSequenceUtils} for content held as a {@link Reader}. Readers are consumed in
+ * chunks through a fixed-size buffer, so memory use is constant regardless of the size of the content, and reading
+ * stops as soon as the outcome is known. The scanning methods consume the reader and do not close it; validators
+ * bracket them with {@link #mark} and {@link #reset} so that readers supporting marks can be validated again.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public final class ReaderUtils
+{
+	/**
+	 * The number of characters read from the reader at a time.
+	 */
+	public static final int BUFFER_SIZE = 512;
+
+	/**
+	 * The read-ahead limit with which readers are marked before validation. Content beyond it is not kept for a
+	 * reset, so memory use stays bounded even for readers, like {@link java.io.BufferedReader}, that buffer up to the
+	 * limit while marked.
+	 */
+	public static final int READ_AHEAD_LIMIT = 65536;
+
+	private ReaderUtils()
+	{
+
+	}
+
+	/**
+	 * Finds the offset of the first non-blank character in the reader, in the sense of
+	 * {@link CharSequenceUtils#isBlank(char)}. Reading stops at the end of the chunk containing that character.
+	 *
+	 * @param reader The reader to scan, must not be {@code null}
+	 * @return the offset of the first non-blank character, or -1 if the content is blank.
+	 * @throws IOException if reading fails.
+	 */
+	public static long firstNonBlankOffset(Reader reader) throws IOException
+	{
+		char[] buffer = new char[BUFFER_SIZE];
+		long offset = 0;
+		int read;
+		while((read = reader.read(buffer, 0, BUFFER_SIZE)) >= 0)
+		{
+			for(int i = 0; i < read; i++)
+			{
+				if(!CharSequenceUtils.isBlank(buffer[i]))
+				{
+					return offset + i;
+				}
+			}
+			offset += read;
+		}
+		return -1;
+	}
+
+	/**
+	 * Indicates whether the reader's content is empty or consists only of blank characters.
+	 *
+	 * @param reader The reader to scan, must not be {@code null}
+	 * @return {@code true} if the content is blank.
+	 * @throws IOException if reading fails.
+	 */
+	public static boolean isBlank(Reader reader) throws IOException
+	{
+		return ReaderUtils.firstNonBlankOffset(reader) < 0;
+	}
+
+	/**
+	 * Counts the characters in the reader, stopping once the count exceeds a limit.
+	 *
+	 * @param reader The reader to scan, must not be {@code null}
+	 * @param limit The count beyond which reading stops
+	 * @return the number of characters, or a number greater than {@code limit} if there are more than that.
+	 * @throws IOException if reading fails.
+	 */
+	public static long length(Reader reader, long limit) throws IOException
+	{
+		char[] buffer = new char[BUFFER_SIZE];
+		long length = 0;
+		int read;
+		while(length <= limit && (read = reader.read(buffer, 0, BUFFER_SIZE)) >= 0)
+		{
+			length += read;
+		}
+		return length;
+	}
+
+	/**
+	 * Marks the reader's current position with a read-ahead limit of {@link #READ_AHEAD_LIMIT}, if the reader
+	 * supports marks, so that {@link #reset} can return the reader there after it has been scanned.
+	 *
+	 * @param reader The reader to mark, must not be {@code null}
+	 * @return {@code true} if the reader was marked.
+	 * @throws IOException if marking fails.
+	 */
+	public static boolean mark(Reader reader) throws IOException
+	{
+		if(reader.markSupported())
+		{
+			reader.mark(READ_AHEAD_LIMIT);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a reader marked by {@link #mark} to the marked position. A reader that was not marked, or that lost
+	 * its mark because more than {@link #READ_AHEAD_LIMIT} characters were read, stays where reading stopped.
+	 *
+	 * @param reader The reader to reset, must not be {@code null}
+	 * @param marked Whether {@link #mark} marked the reader
+	 */
+	public static void reset(Reader reader, boolean marked)
+	{
+		if(marked)
+		{
+			try
+			{
+				reader.reset();
+			}
+			catch(IOException ignore)
+			{
+				// the mark was lost past the read-ahead limit, so the reader stays consumed
+			}
+		}
+	}
+}
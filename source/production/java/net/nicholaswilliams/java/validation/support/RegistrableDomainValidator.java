@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.RegistrableDomain;
+
+/**
+ * Validator for {@link RegistrableDomain}. The domain is located in the target (after the last {@code @} of an email
+ * address, or as the host of a URL), internationalized domains are normalized to their ASCII form (see
+ * {@link InternationalHostNames}), its syntax is checked, and the {@link PublicSuffixList} is walked right to left over
+ * it in place.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class RegistrableDomainValidator implements ConstraintValidator<RegistrableDomain, CharSequence>
+{
+	private static final int MAX_LABEL_LENGTH = 63;
+
+	private static final int MAX_DOMAIN_LENGTH = 253;
+
+	private PublicSuffixList publicSuffixList;
+
+	private boolean allowSubdomains;
+
+	@Override
+	public void initialize(RegistrableDomain annotation)
+	{
+		this.publicSuffixList = PublicSuffixList.get(annotation.publicSuffixFile());
+		this.allowSubdomains = annotation.allowSubdomains();
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		int start = 0;
+		int end = value.length();
+		UriReference url = UriReference.parse(value);
+		if(url != null && url.hasScheme() && url.hasAuthority())
+		{
+			start = url.getHostStart();
+			end = url.getHostEnd();
+		}
+		else
+		{
+			for(int i = end - 1; i >= 0; i--)
+			{
+				if(value.charAt(i) == '@')
+				{
+					start = i + 1;
+					break;
+				}
+			}
+		}
+
+		CharSequence domain = value;
+		if(InternationalHostNames.needsNormalization(value, start, end))
+		{
+			String ascii = InternationalHostNames.normalize(value, start, end);
+			if(ascii == null)
+			{
+				return false;
+			}
+			domain = ascii;
+			start = 0;
+			end = ascii.length();
+		}
+		if(end > start && domain.charAt(end - 1) == '.')
+		{
+			end--;
+		}
+
+		if(!RegistrableDomainValidator.isDomainName(domain, start, end))
+		{
+			return false;
+		}
+		int domainStart = this.publicSuffixList.getRegistrableDomainStart(domain, start, end);
+		return domainStart >= 0 && (this.allowSubdomains || domainStart == start);
+	}
+
+	/*
+	 * Checks that the region is an ASCII domain name of letters, digits, and hyphens, with no empty label, no label
+	 * starting or ending with a hyphen, and a top-level label that is not all digits.
+	 */
+	private static boolean isDomainName(CharSequence value, int start, int end)
+	{
+		if(end == start || end - start > MAX_DOMAIN_LENGTH)
+		{
+			return false;
+		}
+
+		int labelStart = start;
+		boolean numeric = true;
+		for(int i = start; i <= end; i++)
+		{
+			char c = i < end ? value.charAt(i) : '.';
+			if(c == '.')
+			{
+				int length = i - labelStart;
+				if(length == 0 || length > MAX_LABEL_LENGTH || value.charAt(labelStart) == '-' ||
+				   value.charAt(i - 1) == '-')
+				{
+					return false;
+				}
+				if(i == end)
+				{
+					return !numeric;
+				}
+				labelStart = i + 1;
+				numeric = true;
+			}
+			else if(c >= '0' && c <= '9')
+			{
+				continue;
+			}
+			else if((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-')
+			{
+				numeric = false;
+			}
+			else
+			{
+				return false;
+			}
+		}
+		return false;
+	}
+}
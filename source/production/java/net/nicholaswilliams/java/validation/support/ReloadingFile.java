@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A value loaded from a local file and reloaded when the file changes. At most once per second, {@link #get} checks
+ * whether the file's modification time or length has changed and, if so, loads the new contents and swaps them in
+ * atomically; callers already holding the previous value keep using it. If the changed file cannot be loaded, the
+ * previous value stays in use and the file is checked again later. To avoid loading a partially written file, replace
+ * it by renaming a complete file over it.
+ *
+ * @param <T> The type of the loaded value
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+abstract class ReloadingFile<T>
+{
+	private static final long CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1L);
+
+	private final File file;
+
+	private volatile T value;
+
+	private volatile long nextCheck;
+
+	private long lastModified;
+
+	private long length;
+
+	/**
+	 * Loads the file for the first time.
+	 *
+	 * @param file The file to load
+	 * @throws IOException if the file cannot be loaded.
+	 * @throws IllegalArgumentException if the file's contents are malformed.
+	 */
+	protected ReloadingFile(File file) throws IOException
+	{
+		this.file = file;
+		this.lastModified = file.lastModified();
+		this.length = file.length();
+		this.value = this.load(file);
+		this.nextCheck = System.nanoTime() + CHECK_INTERVAL;
+	}
+
+	/**
+	 * Loads the contents of the file.
+	 *
+	 * @param file The file to load
+	 * @return the loaded value.
+	 * @throws IOException if the file cannot be loaded.
+	 * @throws IllegalArgumentException if the file's contents are malformed.
+	 */
+	protected abstract T load(File file) throws IOException;
+
+	/**
+	 * Returns the current value, first reloading it if the check interval has passed and the file has changed.
+	 *
+	 * @return the current value.
+	 */
+	final T get()
+	{
+		if(System.nanoTime() - this.nextCheck >= 0L)
+		{
+			this.reloadIfChanged();
+		}
+		return this.value;
+	}
+
+	private synchronized void reloadIfChanged()
+	{
+		long now = System.nanoTime();
+		if(now - this.nextCheck < 0L)
+		{
+			return;
+		}
+		this.nextCheck = now + CHECK_INTERVAL;
+
+		long lastModified = this.file.lastModified();
+		long length = this.file.length();
+		if(lastModified == this.lastModified && length == this.length)
+		{
+			return;
+		}
+
+		try
+		{
+			this.value = this.load(this.file);
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+		catch(IOException ignore)
+		{
+			// keep the previous value and try again at the next check
+		}
+		catch(IllegalArgumentException ignore)
+		{
+			// keep the previous value and try again at the next check
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.validation.ConstraintDeclarationException;
+
+/**
+ * Values loaded from local files, one per path, each loaded the first time its path is requested and then shared by
+ * every caller naming the same path. Two callers racing to load the same path may both load it, but only one value is
+ * kept and returned to both.
+ *
+ * @param <T> The type of the loaded values
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+abstract class SharedFiles<T>
+{
+	private final ConcurrentMap<String, T> files = new ConcurrentHashMap<String, T>();
+
+	private final String description;
+
+	/**
+	 * Creates an empty set of shared files.
+	 *
+	 * @param description What the files are, for error messages, such as {@code "public suffix list"}
+	 */
+	protected SharedFiles(String description)
+	{
+		this.description = description;
+	}
+
+	/**
+	 * Loads the value of a file.
+	 *
+	 * @param file The file to load
+	 * @return the loaded value.
+	 * @throws IOException if the file cannot be loaded.
+	 * @throws IllegalArgumentException if the file's contents are malformed.
+	 */
+	protected abstract T load(File file) throws IOException;
+
+	/**
+	 * Returns the value of the file at the specified path, loading it the first time it is requested.
+	 *
+	 * @param path The path to the file
+	 * @return the shared value.
+	 * @throws ConstraintDeclarationException if the file cannot be loaded or its contents are malformed.
+	 */
+	final T get(String path)
+	{
+		T value = this.files.get(path);
+		if(value == null)
+		{
+			try
+			{
+				value = this.load(new File(path));
+			}
+			catch(IOException e)
+			{
+				throw new ConstraintDeclarationException("Failed to load " + this.description + " [" + path + "].", e);
+			}
+			catch(IllegalArgumentException e)
+			{
+				throw new ConstraintDeclarationException("Failed to load " + this.description + " [" + path + "].", e);
+			}
+			T existing = this.files.putIfAbsent(path, value);
+			if(existing != null)
+			{
+				value = existing;
+			}
+		}
+		return value;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled expression shared by every constraint that declares the same regular expression, flags and engine. Shared
+ * patterns come from a process-wide {@link BoundedCache} keyed by the expression and flags, so hundreds of fields
+ * declaring a handful of expressions hold a handful of compiled patterns (constraints already holding an evicted
+ * pattern keep it). Each thread reuses one
+ * {@link Matcher} per pattern, so matching does not allocate. Expressions compiled for the linear-time engine are
+ * {@link LinearRegex}es instead of {@link Pattern}s.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class SharedPattern
+{
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	private static final BoundedCache<String, SharedPattern> CACHE =
+			new BoundedCache<String, SharedPattern>(MAX_CACHE_SIZE);
+
+	private final Pattern pattern;
+
+	private final LinearRegex linear;
+
+	private final ThreadLocal<Matcher> matchers = new ThreadLocal<Matcher>()
+	{
+		@Override
+		protected Matcher initialValue()
+		{
+			return SharedPattern.this.pattern.matcher("");
+		}
+	};
+
+	private SharedPattern(Pattern pattern, LinearRegex linear)
+	{
+		this.pattern = pattern;
+		this.linear = linear;
+	}
+
+	/**
+	 * Returns the shared pattern for the expression and flags, compiling it the first time it is requested.
+	 *
+	 * @param regexp The regular expression
+	 * @param flags The {@link Pattern} flags
+	 * @return the shared pattern.
+	 * @throws java.util.regex.PatternSyntaxException if the expression is invalid.
+	 */
+	static SharedPattern get(String regexp, int flags)
+	{
+		return SharedPattern.get(regexp, flags, false);
+	}
+
+	/**
+	 * Returns the shared pattern for the expression, flags and engine, compiling it the first time it is requested.
+	 *
+	 * @param regexp The regular expression
+	 * @param flags The {@link Pattern} flags
+	 * @param linear Whether to compile the expression for the linear-time engine instead of {@link Pattern}
+	 * @return the shared pattern.
+	 * @throws java.util.regex.PatternSyntaxException if the expression is invalid.
+	 * @throws IllegalArgumentException if {@code linear} is set and the engine does not support the expression.
+	 */
+	static SharedPattern get(String regexp, int flags, boolean linear)
+	{
+		String key = (linear ? "L" : "") + flags + "/" + regexp;
+		SharedPattern pattern = CACHE.get(key);
+		if(pattern == null)
+		{
+			pattern = CACHE.put(key, linear ? new SharedPattern(null, LinearRegex.compile(regexp, flags)) :
+									 new SharedPattern(Pattern.compile(regexp, flags), null));
+		}
+		return pattern;
+	}
+
+	/**
+	 * Indicates whether the entire value matches the pattern, using this thread's matcher.
+	 *
+	 * @param value The value to match
+	 * @return {@code true} if the value matches.
+	 */
+	boolean matches(CharSequence value)
+	{
+		if(this.linear != null)
+		{
+			return this.linear.matches(value);
+		}
+		Matcher matcher = this.matchers.get();
+		try
+		{
+			return matcher.reset(value).matches();
+		}
+		finally
+		{
+			// do not keep the value reachable from the thread
+			matcher.reset("");
+		}
+	}
+
+	/**
+	 * Indicates whether the entire content of a reader matches the pattern, which must have been compiled for the
+	 * linear-time engine; see {@link LinearRegex#matches(Reader)}.
+	 *
+	 * @param value The reader, which is consumed but not closed
+	 * @return {@code true} if the content matches.
+	 * @throws IOException if reading fails.
+	 */
+	boolean matches(Reader value) throws IOException
+	{
+		return this.linear.matches(value);
+	}
+
+	/**
+	 * @return the compiled pattern, or {@code null} if the expression was compiled for the linear-time engine.
+	 */
+	Pattern getPattern()
+	{
+		return this.pattern;
+	}
+}
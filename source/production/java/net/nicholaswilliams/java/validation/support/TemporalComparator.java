@@ -0,0 +1,37 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+/**
+ * Compares values of one date, time or temporal type with the current time, for {@link PastValidator} and
+ * {@link FutureValidator}. A comparator is resolved once per runtime class and cached, so it can assume the type of
+ * the values it receives.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public interface TemporalComparator
+{
+	/**
+	 * Compares a value with the current time, at the precision of the value's type: dates are compared with the
+	 * current date, months with the current month and so on.
+	 *
+	 * @param value The value, which is never {@code null}
+	 * @param now The current time
+	 * @return a negative number, zero or a positive number as the value is before, at or after the current time.
+	 */
+	int compareToNow(Object value, CurrentTime now);
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the {@link TemporalComparator} resolved for each runtime class, so that validating a value costs one lookup
+ * instead of a test against every supported type. This class is replaced by a {@link ClassValue}-based version, which
+ * does not keep the classes it has seen reachable, in the {@code META-INF/versions/9} section of the multi-release
+ * JAR.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class TemporalComparatorCache
+{
+	private static final ConcurrentMap<Class<?>, TemporalComparator> CACHE =
+			new ConcurrentHashMap<Class<?>, TemporalComparator>();
+
+	private TemporalComparatorCache()
+	{
+
+	}
+
+	/**
+	 * Returns the comparator for a class, resolving it the first time the class is seen.
+	 *
+	 * @param type The runtime class of the values to compare
+	 * @return the comparator.
+	 */
+	static TemporalComparator get(Class<?> type)
+	{
+		TemporalComparator comparator = CACHE.get(type);
+		if(comparator == null)
+		{
+			comparator = TemporalComparators.resolve(type);
+			TemporalComparator existing = CACHE.putIfAbsent(type, comparator);
+			if(existing != null)
+			{
+				comparator = existing;
+			}
+		}
+		return comparator;
+	}
+}
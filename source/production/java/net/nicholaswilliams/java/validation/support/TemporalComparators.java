@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Calendar;
+import java.util.Date;
+import javax.validation.UnexpectedTypeException;
+
+import net.nicholaswilliams.java.validation.support.jdk8.Jdk8TemporalComparator;
+import net.nicholaswilliams.java.validation.support.joda.JodaTemporalComparator;
+
+/**
+ * Resolves the {@link TemporalComparator} for a runtime class. Resolution tests the class against every supported
+ * type, so it is done once per class by {@link TemporalComparatorCache} rather than on every validation. Joda Time and
+ * Java SE 8 types are only considered if their classes are present.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class TemporalComparators
+{
+	static final boolean JODA_SUPPORTED = ReflectionUtils.classExists("org.joda.time.ReadableInstant");
+
+	static final boolean JDK8_SUPPORTED = ReflectionUtils.classExists("java.time.Instant");
+
+	private static final TemporalComparator DATE = new TemporalComparator()
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return CurrentTime.compare(((Date) value).getTime(), now.getEpochMillis());
+		}
+	};
+
+	private static final TemporalComparator CALENDAR = new TemporalComparator()
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return CurrentTime.compare(((Calendar) value).getTimeInMillis(), now.getEpochMillis());
+		}
+	};
+
+	private TemporalComparators()
+	{
+
+	}
+
+	/**
+	 * Resolves the comparator for a class. For unsupported classes the comparator throws
+	 * {@link UnexpectedTypeException}, so that they, too, are resolved only once.
+	 *
+	 * @param type The runtime class of the values to compare
+	 * @return the comparator.
+	 */
+	static TemporalComparator resolve(final Class<?> type)
+	{
+		if(Date.class.isAssignableFrom(type))
+		{
+			return DATE;
+		}
+		if(Calendar.class.isAssignableFrom(type))
+		{
+			return CALENDAR;
+		}
+
+		TemporalComparator comparator = null;
+		if(JODA_SUPPORTED)
+		{
+			comparator = JodaTemporalComparator.forClass(type);
+		}
+		if(comparator == null && JDK8_SUPPORTED)
+		{
+			comparator = Jdk8TemporalComparator.forClass(type);
+		}
+		if(comparator != null)
+		{
+			return comparator;
+		}
+
+		return new TemporalComparator()
+		{
+			@Override
+			public int compareToNow(Object value, CurrentTime now)
+			{
+				throw new UnexpectedTypeException(
+						"Type [" + type.getName() + "] is not a supported date, time or temporal type."
+				);
+			}
+		};
+	}
+}
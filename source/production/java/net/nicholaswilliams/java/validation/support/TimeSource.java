@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The source of the current time against which {@link PastValidator} and {@link FutureValidator} compare values.
+ * Validators created by the validation provider use the {@linkplain #getDefault default source}, which is the
+ * {@linkplain #system system clock} unless {@linkplain #setDefault replaced}; a
+ * {@link javax.validation.ConstraintValidatorFactory} can instead pass a source to the validator constructors.
+ * Implementations must be thread-safe.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public abstract class TimeSource implements Closeable
+{
+	private static final TimeSource SYSTEM = new SystemTimeSource();
+
+	private static final Map<Long, CoarseTimeSource> COARSE = new HashMap<Long, CoarseTimeSource>();
+
+	private static volatile TimeSource defaultSource = SYSTEM;
+
+	/**
+	 * Returns the current time.
+	 *
+	 * @return the current time, in milliseconds since the epoch.
+	 */
+	public abstract long currentTimeMillis();
+
+	/**
+	 * Returns the current time together with its calendar fields in the system default time zone.
+	 *
+	 * @return the current time.
+	 */
+	CurrentTime currentTime()
+	{
+		return CurrentTime.of(this.currentTimeMillis());
+	}
+
+	/**
+	 * Stops any background work of this source. The source remains usable: a {@linkplain #coarse coarse} source reads
+	 * the system clock on every call once closed, and other sources are not affected.
+	 */
+	@Override
+	public void close()
+	{
+		// Nothing to do here
+	}
+
+	/**
+	 * Returns the source used by validators not given a source of their own.
+	 *
+	 * @return the default source.
+	 */
+	public static TimeSource getDefault()
+	{
+		return TimeSource.defaultSource;
+	}
+
+	/**
+	 * Replaces the source used by validators not given a source of their own, including validators already created.
+	 *
+	 * @param source The new default source, or {@code null} to restore the {@linkplain #system system clock}
+	 */
+	public static void setDefault(TimeSource source)
+	{
+		TimeSource.defaultSource = source == null ? SYSTEM : source;
+	}
+
+	/**
+	 * Returns a source that reads {@link System#currentTimeMillis()} on every call.
+	 *
+	 * @return the system clock.
+	 */
+	public static TimeSource system()
+	{
+		return SYSTEM;
+	}
+
+	/**
+	 * Returns a source that always returns the same time, for tests.
+	 *
+	 * @param epochMillis The time, in milliseconds since the epoch
+	 * @return the fixed clock.
+	 */
+	public static TimeSource fixed(long epochMillis)
+	{
+		return new FixedTimeSource(epochMillis);
+	}
+
+	/**
+	 * Returns a source that reads the system clock only once per {@code granularity}, on a daemon thread, so that
+	 * reading the time costs a single volatile read. The time returned lags the system clock by up to
+	 * {@code granularity}, so values that close to the current time may be validated as if slightly in the future.<br>
+	 * <br>
+	 * Every call with the same granularity returns the same source, so there is at most one thread per distinct
+	 * granularity. The thread stops when the source is {@linkplain #close closed} or the thread is interrupted; the
+	 * source then reads the system clock on every call instead of freezing, and the next call to this method with
+	 * that granularity starts a new source.
+	 *
+	 * @param granularity The interval between reads of the system clock, at least one millisecond
+	 * @param unit The unit of {@code granularity}
+	 * @return the coarse clock.
+	 * @throws IllegalArgumentException if {@code granularity} is less than one millisecond.
+	 */
+	public static TimeSource coarse(long granularity, TimeUnit unit)
+	{
+		long intervalMillis = unit.toMillis(granularity);
+		if(intervalMillis < 1L)
+		{
+			throw new IllegalArgumentException("The granularity must be at least one millisecond.");
+		}
+
+		synchronized(COARSE)
+		{
+			CoarseTimeSource source = COARSE.get(intervalMillis);
+			if(source == null || source.isStopped())
+			{
+				source = new CoarseTimeSource(intervalMillis);
+				source.start();
+				COARSE.put(intervalMillis, source);
+			}
+			return source;
+		}
+	}
+
+	/**
+	 * Reads the system clock on every call.
+	 */
+	private static final class SystemTimeSource extends TimeSource
+	{
+		@Override
+		public long currentTimeMillis()
+		{
+			return System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Always returns the same time.
+	 */
+	private static final class FixedTimeSource extends TimeSource
+	{
+		private final long epochMillis;
+
+		FixedTimeSource(long epochMillis)
+		{
+			this.epochMillis = epochMillis;
+		}
+
+		@Override
+		public long currentTimeMillis()
+		{
+			return this.epochMillis;
+		}
+	}
+
+	/**
+	 * Returns the time last published by its ticker thread, or reads the system clock once the thread has stopped.
+	 */
+	private static final class CoarseTimeSource extends TimeSource implements Runnable
+	{
+		private final AtomicReference<CurrentTime> current =
+				new AtomicReference<CurrentTime>(CurrentTime.of(System.currentTimeMillis()));
+
+		private final long intervalMillis;
+
+		private final Thread ticker;
+
+		CoarseTimeSource(long intervalMillis)
+		{
+			this.intervalMillis = intervalMillis;
+			this.ticker = new Thread(this, "coarse-time-source-" + intervalMillis + "ms");
+			this.ticker.setDaemon(true);
+		}
+
+		void start()
+		{
+			this.ticker.start();
+		}
+
+		@Override
+		public long currentTimeMillis()
+		{
+			CurrentTime time = this.current.get();
+			return time == null ? System.currentTimeMillis() : time.getEpochMillis();
+		}
+
+		@Override
+		CurrentTime currentTime()
+		{
+			CurrentTime time = this.current.get();
+			return time == null ? CurrentTime.of(System.currentTimeMillis()) : time;
+		}
+
+		@Override
+		public void close()
+		{
+			this.current.set(null);
+			this.ticker.interrupt();
+		}
+
+		boolean isStopped()
+		{
+			return this.current.get() == null;
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				while(true)
+				{
+					Thread.sleep(this.intervalMillis);
+					CurrentTime previous = this.current.get();
+					// a failed swap means the source was closed meanwhile, and must not be restarted
+					if(previous == null ||
+					   !this.current.compareAndSet(previous, CurrentTime.of(System.currentTimeMillis())))
+					{
+						return;
+					}
+				}
+			}
+			catch(InterruptedException e)
+			{
+				// the thread is exiting, so fall back to the system clock rather than freeze the time
+				this.current.set(null);
+			}
+		}
+	}
+}
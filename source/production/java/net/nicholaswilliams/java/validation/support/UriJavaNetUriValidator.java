@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.net.URI;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Uri;
+
+/**
+ * Validator for {@link Uri} on {@link URI} targets. The URI's ASCII string form is checked with the same single-pass
+ * recognizer as {@code CharSequence} targets, so other characters that {@code java.net.URI} tolerates are checked in
+ * their percent-encoded form.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class UriJavaNetUriValidator implements ConstraintValidator<Uri, URI>
+{
+	private final UriValidator delegate = new UriValidator();
+
+	@Override
+	public void initialize(Uri annotation)
+	{
+		this.delegate.initialize(annotation);
+	}
+
+	@Override
+	public boolean isValid(URI value, ConstraintValidatorContext context)
+	{
+		return value == null || this.delegate.isValid(value.toASCIIString(), context);
+	}
+}
@@ -0,0 +1,549 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+/**
+ * The offsets of the components of an RFC 3986 URI reference within a {@link CharSequence}. A reference is recognized
+ * in a single left-to-right pass by {@link #parse}, and only the component boundaries are recorded; no substrings are
+ * created, so the validators compare components against their prepared lookup structures in place. As an exception
+ * to RFC 3986, the host may contain non-ASCII characters, so that internationalized host names can be given in their
+ * Unicode form; callers must check such host names with {@link InternationalHostNames}.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class UriReference
+{
+	static final int MAX_PORT = 65535;
+
+	private static final int ASCII_SIZE = 128;
+
+	private static final byte UNRESERVED = 1;
+
+	private static final byte SUB_DELIMITER = 2;
+
+	private static final byte SCHEME = 4;
+
+	private static final byte[] CLASSES = new byte[ASCII_SIZE];
+
+	private static final int RADIX = 10;
+
+	private static final int HEX_RADIX = 16;
+
+	private static final int IPV6_GROUPS = 8;
+
+	private static final int IPV6_GROUP_DIGITS = 4;
+
+	private static final int IPV4_OCTETS = 4;
+
+	private static final int MAX_OCTET = 255;
+
+	private static final int MAX_OCTET_DIGITS = 3;
+
+	static
+	{
+		for(char c = 0; c < ASCII_SIZE; c++)
+		{
+			if(CharSequenceUtils.alphanumericValue(c) >= 0)
+			{
+				CLASSES[c] = UNRESERVED | SCHEME;
+			}
+		}
+		CLASSES['-'] = UNRESERVED | SCHEME;
+		CLASSES['.'] = UNRESERVED | SCHEME;
+		CLASSES['_'] = UNRESERVED;
+		CLASSES['~'] = UNRESERVED;
+		for(char c : "!$&'()*,;=".toCharArray())
+		{
+			CLASSES[c] = SUB_DELIMITER;
+		}
+		CLASSES['+'] = SUB_DELIMITER | SCHEME;
+	}
+
+	private int schemeEnd;
+
+	private int authorityStart;
+
+	private int hostStart;
+
+	private int hostEnd;
+
+	private int port;
+
+	private int pathStart;
+
+	private int pathEnd;
+
+	private int queryEnd;
+
+	private int length;
+
+	private UriReference()
+	{
+
+	}
+
+	/**
+	 * Recognizes the URI reference in the value.
+	 *
+	 * @param value The value to parse
+	 * @return the component offsets, or {@code null} if the value is not a valid URI reference.
+	 */
+	static UriReference parse(CharSequence value)
+	{
+		int length = value.length();
+		int i = 0;
+
+		// scheme ":"
+		int schemeEnd = -1;
+		if(length > 0 && CharSequenceUtils.isAsciiLetter(value.charAt(0)))
+		{
+			int j = 1;
+			while(j < length && UriReference.is(value.charAt(j), SCHEME))
+			{
+				j++;
+			}
+			if(j < length && value.charAt(j) == ':')
+			{
+				schemeEnd = j;
+				i = j + 1;
+			}
+		}
+
+		// "//" authority
+		int authorityStart = -1;
+		int hostStart = -1;
+		int hostEnd = -1;
+		int port = -1;
+		if(i + 1 < length && value.charAt(i) == '/' && value.charAt(i + 1) == '/')
+		{
+			i += 2;
+			authorityStart = i;
+			hostStart = i;
+			int colon = -1;
+			int colons = 0;
+			int international = -1;
+			for(; i < length; i++)
+			{
+				char c = value.charAt(i);
+				if(c == '/' || c == '?' || c == '#')
+				{
+					break;
+				}
+				if(c == '@')
+				{
+					if(hostStart > authorityStart)
+					{
+						return null;
+					}
+					hostStart = i + 1;
+					colon = -1;
+					colons = 0;
+				}
+				else if(c == '[' && i == hostStart)
+				{
+					i = UriReference.ipLiteralEnd(value, i + 1, length);
+					if(i < 0 || (i + 1 < length && ":/?#".indexOf(value.charAt(i + 1)) < 0))
+					{
+						return null;
+					}
+				}
+				else if(c == ':')
+				{
+					colon = i;
+					colons++;
+				}
+				else if(c == '%')
+				{
+					if(!UriReference.isPercentEncoded(value, i, length))
+					{
+						return null;
+					}
+					i += 2;
+				}
+				else if(!CharSequenceUtils.isAscii(c))
+				{
+					international = international < 0 ? i : international;
+				}
+				else if(!UriReference.is(c, UNRESERVED | SUB_DELIMITER))
+				{
+					return null;
+				}
+			}
+
+			// non-ASCII characters may only appear in an internationalized host name, which the caller must check
+			if(colons > 1 || (international >= 0 && international < hostStart))
+			{
+				return null;
+			}
+			hostEnd = colon >= 0 ? colon : i;
+			if(colon >= 0 && colon + 1 < i)
+			{
+				port = UriReference.port(value, colon + 1, i);
+				if(port < 0)
+				{
+					return null;
+				}
+			}
+		}
+		else if(schemeEnd < 0 && UriReference.hasColonInFirstSegment(value, i, length))
+		{
+			// a relative path's first segment must not contain ":", or it would be taken for a scheme
+			return null;
+		}
+
+		// path
+		int pathStart = i;
+		i = UriReference.scan(value, i, length, false);
+		if(i < 0)
+		{
+			return null;
+		}
+		int pathEnd = i;
+
+		// "?" query
+		if(i < length && value.charAt(i) == '?')
+		{
+			i = UriReference.scan(value, i + 1, length, true);
+			if(i < 0)
+			{
+				return null;
+			}
+		}
+		int queryEnd = i;
+
+		// "#" fragment
+		if(i < length && value.charAt(i) == '#' && UriReference.scan(value, i + 1, length, true) != length)
+		{
+			return null;
+		}
+
+		UriReference reference = new UriReference();
+		reference.schemeEnd = schemeEnd;
+		reference.authorityStart = authorityStart;
+		reference.hostStart = hostStart;
+		reference.hostEnd = hostEnd;
+		reference.port = port;
+		reference.pathStart = pathStart;
+		reference.pathEnd = pathEnd;
+		reference.queryEnd = queryEnd;
+		reference.length = length;
+		return reference;
+	}
+
+	/**
+	 * @return whether the reference has a scheme.
+	 */
+	boolean hasScheme()
+	{
+		return this.schemeEnd >= 0;
+	}
+
+	/**
+	 * @return the end of the scheme, which starts at zero, or {@code -1} if there is no scheme.
+	 */
+	int getSchemeEnd()
+	{
+		return this.schemeEnd;
+	}
+
+	/**
+	 * @return the start of the scheme-specific part: everything after the scheme and its colon.
+	 */
+	int getSchemeSpecificPartStart()
+	{
+		return this.schemeEnd + 1;
+	}
+
+	/**
+	 * @return the end of the scheme-specific part, which excludes the fragment.
+	 */
+	int getSchemeSpecificPartEnd()
+	{
+		return this.queryEnd;
+	}
+
+	/**
+	 * @return whether the reference has an authority (introduced by {@code //}).
+	 */
+	boolean hasAuthority()
+	{
+		return this.authorityStart >= 0;
+	}
+
+	/**
+	 * @return whether the authority has a user-info part.
+	 */
+	boolean hasUserInfo()
+	{
+		return this.hostStart > this.authorityStart;
+	}
+
+	/**
+	 * @return the start of the host, or {@code -1} if there is no authority.
+	 */
+	int getHostStart()
+	{
+		return this.hostStart;
+	}
+
+	/**
+	 * @return the end of the host, or {@code -1} if there is no authority.
+	 */
+	int getHostEnd()
+	{
+		return this.hostEnd;
+	}
+
+	/**
+	 * @return the port, or {@code -1} if the authority has no port.
+	 */
+	int getPort()
+	{
+		return this.port;
+	}
+
+	/**
+	 * @return whether the path is non-empty.
+	 */
+	boolean hasPath()
+	{
+		return this.pathEnd > this.pathStart;
+	}
+
+	/**
+	 * @return whether the reference has a query part.
+	 */
+	boolean hasQuery()
+	{
+		return this.queryEnd > this.pathEnd;
+	}
+
+	/**
+	 * @return whether the reference has a fragment.
+	 */
+	boolean hasFragment()
+	{
+		return this.length > this.queryEnd;
+	}
+
+	private static boolean is(char c, int classes)
+	{
+		return CharSequenceUtils.isAscii(c) && (CLASSES[c] & classes) != 0;
+	}
+
+	private static boolean isHexDigit(char c)
+	{
+		int value = CharSequenceUtils.alphanumericValue(c);
+		return value >= 0 && value < HEX_RADIX;
+	}
+
+	private static boolean isPercentEncoded(CharSequence value, int index, int length)
+	{
+		return index + 2 < length && UriReference.isHexDigit(value.charAt(index + 1)) &&
+			   UriReference.isHexDigit(value.charAt(index + 2));
+	}
+
+	private static boolean hasColonInFirstSegment(CharSequence value, int start, int length)
+	{
+		for(int i = start; i < length; i++)
+		{
+			char c = value.charAt(i);
+			if(c == ':')
+			{
+				return true;
+			}
+			if(c == '/' || c == '?' || c == '#')
+			{
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Scans path characters (pchar and "/"), and also "?" if the component is a query or fragment, returning the
+	 * index of the first character that ends the component or -1 if an invalid character is found.
+	 */
+	private static int scan(CharSequence value, int start, int length, boolean queryOrFragment)
+	{
+		for(int i = start; i < length; i++)
+		{
+			char c = value.charAt(i);
+			if(c == '%')
+			{
+				if(!UriReference.isPercentEncoded(value, i, length))
+				{
+					return -1;
+				}
+				i += 2;
+			}
+			else if(c == '#' || (c == '?' && !queryOrFragment))
+			{
+				return i;
+			}
+			else if(!UriReference.is(c, UNRESERVED | SUB_DELIMITER) && c != ':' && c != '@' && c != '/' && c != '?')
+			{
+				return -1;
+			}
+		}
+		return length;
+	}
+
+	/*
+	 * Parses the port digits, returning the port, or -1 if they are not digits or the port is out of range.
+	 */
+	private static int port(CharSequence value, int start, int end)
+	{
+		int port = 0;
+		for(int i = start; i < end; i++)
+		{
+			int digit = CharSequenceUtils.digit(value.charAt(i));
+			if(digit < 0)
+			{
+				return -1;
+			}
+			port = port * RADIX + digit;
+			if(port > MAX_PORT)
+			{
+				return -1;
+			}
+		}
+		return port;
+	}
+
+	/*
+	 * Recognizes the IPv6address or IPvFuture inside an IP-literal starting at the index (just after "["), returning
+	 * the index of the closing "]" or -1 if it is invalid.
+	 */
+	private static int ipLiteralEnd(CharSequence value, int start, int length)
+	{
+		if(start < length && (value.charAt(start) == 'v' || value.charAt(start) == 'V'))
+		{
+			int i = start + 1;
+			while(i < length && UriReference.isHexDigit(value.charAt(i)))
+			{
+				i++;
+			}
+			if(i == start + 1 || i >= length || value.charAt(i) != '.')
+			{
+				return -1;
+			}
+			int characters = ++i;
+			while(i < length && (UriReference.is(value.charAt(i), UNRESERVED | SUB_DELIMITER) ||
+								 value.charAt(i) == ':'))
+			{
+				i++;
+			}
+			return i > characters && i < length && value.charAt(i) == ']' ? i : -1;
+		}
+
+		int groups = 0;
+		boolean compressed = false;
+		int i = start;
+		if(i + 1 < length && value.charAt(i) == ':' && value.charAt(i + 1) == ':')
+		{
+			compressed = true;
+			i += 2;
+		}
+		while(i < length && value.charAt(i) != ']')
+		{
+			int groupStart = i;
+			while(i < length && i - groupStart < IPV6_GROUP_DIGITS && UriReference.isHexDigit(value.charAt(i)))
+			{
+				i++;
+			}
+			if(i == groupStart)
+			{
+				return -1;
+			}
+			if(i < length && value.charAt(i) == '.')
+			{
+				// a trailing IPv4 address takes the place of the last two groups
+				i = UriReference.ipv4End(value, groupStart, length);
+				groups += 2;
+				if(i < 0 || i >= length || value.charAt(i) != ']')
+				{
+					return -1;
+				}
+				break;
+			}
+
+			groups++;
+			if(i < length && value.charAt(i) == ':')
+			{
+				i++;
+				if(i < length && value.charAt(i) == ':')
+				{
+					if(compressed)
+					{
+						return -1;
+					}
+					compressed = true;
+					i++;
+				}
+				else if(i < length && value.charAt(i) == ']')
+				{
+					return -1;
+				}
+			}
+			else if(i < length && value.charAt(i) != ']')
+			{
+				return -1;
+			}
+		}
+
+		if(i >= length || (compressed ? groups >= IPV6_GROUPS : groups != IPV6_GROUPS))
+		{
+			return -1;
+		}
+		return i;
+	}
+
+	private static int ipv4End(CharSequence value, int start, int length)
+	{
+		int i = start;
+		for(int octet = 0; octet < IPV4_OCTETS; octet++)
+		{
+			if(octet > 0)
+			{
+				if(i >= length || value.charAt(i) != '.')
+				{
+					return -1;
+				}
+				i++;
+			}
+
+			int octetStart = i;
+			int number = 0;
+			while(i < length && i - octetStart < MAX_OCTET_DIGITS)
+			{
+				int digit = CharSequenceUtils.digit(value.charAt(i));
+				if(digit < 0)
+				{
+					break;
+				}
+				number = number * RADIX + digit;
+				i++;
+			}
+			if(i == octetStart || number > MAX_OCTET || (i - octetStart > 1 && value.charAt(octetStart) == '0'))
+			{
+				return -1;
+			}
+		}
+		return i;
+	}
+}
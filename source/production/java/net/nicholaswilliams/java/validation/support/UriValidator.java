@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.BitSet;
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Uri;
+
+/**
+ * Validator for {@link Uri}. The target is recognized as an RFC 3986 URI reference in a single left-to-right pass
+ * that only records the offsets of the components (see {@link UriReference}); no substrings, {@link java.net.URI}s, or
+ * exceptions are created, so invalid input is rejected as cheaply as valid input is accepted. The allowed schemes,
+ * scheme-specific parts, and ports are prepared in {@link #initialize} and compared against the recorded regions in
+ * place.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class UriValidator implements ConstraintValidator<Uri, CharSequence>
+{
+	private CaseInsensitivePerfectHashSet schemes;
+
+	private boolean schemeOptional;
+
+	private String[] schemeSpecificParts;
+
+	private BitSet ports;
+
+	private boolean portOptional;
+
+	private boolean requiresPath;
+
+	private boolean requiresQuery;
+
+	private boolean requiresFragment;
+
+	private boolean requiresUserInfo;
+
+	@Override
+	public void initialize(Uri annotation)
+	{
+		this.schemeOptional = annotation.schemes().length == 0;
+		if(!this.schemeOptional)
+		{
+			this.schemes = new CaseInsensitivePerfectHashSet(annotation.schemes());
+			this.schemeOptional = this.schemes.contains("");
+		}
+
+		if(annotation.ssp().length > 0)
+		{
+			this.schemeSpecificParts = annotation.ssp().clone();
+		}
+
+		this.portOptional = annotation.port().length == 0;
+		if(!this.portOptional)
+		{
+			this.ports = new BitSet(UriReference.MAX_PORT + 1);
+			for(int port : annotation.port())
+			{
+				if(port == -1)
+				{
+					this.portOptional = true;
+				}
+				else if(port < 0 || port > UriReference.MAX_PORT)
+				{
+					throw new ConstraintDeclarationException("Invalid port [" + port + "].");
+				}
+				else
+				{
+					this.ports.set(port);
+				}
+			}
+		}
+
+		this.requiresPath = annotation.requiresPath();
+		this.requiresQuery = annotation.requiresQuery();
+		this.requiresFragment = annotation.requiresFragment();
+		this.requiresUserInfo = annotation.requiresUserInfo();
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		UriReference uri = UriReference.parse(value);
+		if(uri == null || (uri.hasAuthority() &&
+						   InternationalHostNames.needsNormalization(value, uri.getHostStart(), uri.getHostEnd()) &&
+						   InternationalHostNames.normalize(value, uri.getHostStart(), uri.getHostEnd()) == null))
+		{
+			return false;
+		}
+
+		if(uri.hasScheme() ? this.schemes != null && !this.schemes.contains(value, 0, uri.getSchemeEnd()) :
+			!this.schemeOptional)
+		{
+			return false;
+		}
+		return (uri.getPort() < 0 ? this.portOptional : this.ports == null || this.ports.get(uri.getPort())) &&
+			   (!this.requiresUserInfo || uri.hasUserInfo()) && (!this.requiresPath || uri.hasPath()) &&
+			   (!this.requiresQuery || uri.hasQuery()) && (!this.requiresFragment || uri.hasFragment()) &&
+			   (this.schemeSpecificParts == null || this.isAllowedSchemeSpecificPart(
+					   value, uri.getSchemeSpecificPartStart(), uri.getSchemeSpecificPartEnd()
+			   ));
+	}
+
+	private boolean isAllowedSchemeSpecificPart(CharSequence value, int start, int end)
+	{
+		for(String ssp : this.schemeSpecificParts)
+		{
+			if(ssp.length() == end - start)
+			{
+				int j = 0;
+				while(j < ssp.length() && value.charAt(start + j) == ssp.charAt(j))
+				{
+					j++;
+				}
+				if(j == ssp.length())
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.net.URL;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Url;
+
+/**
+ * Validator for {@link Url} on {@link URL} targets. The URL's external form is checked with the same offline parser
+ * as {@code CharSequence} targets; {@link URL#equals} and {@link URL#hashCode}, which can resolve the host, are never
+ * called.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class UrlJavaNetUrlValidator implements ConstraintValidator<Url, URL>
+{
+	private final UrlValidator delegate = new UrlValidator();
+
+	@Override
+	public void initialize(Url annotation)
+	{
+		this.delegate.initialize(annotation);
+	}
+
+	@Override
+	public boolean isValid(URL value, ConstraintValidatorContext context)
+	{
+		return value == null || this.delegate.isValid(value.toExternalForm(), context);
+	}
+}
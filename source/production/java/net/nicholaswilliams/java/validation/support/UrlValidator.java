@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import net.nicholaswilliams.java.validation.Url;
+
+/**
+ * Validator for {@link Url}. The target is parsed offline with the same single-pass RFC 3986 recognizer as
+ * {@link UriValidator}; unlike {@link java.net.URL}, no protocol handler is looked up and no host name is ever
+ * resolved. In {@link #initialize}, the allowed protocols are compiled into a case-insensitive perfect-hash set, the
+ * host name patterns into a {@link HostPatternTrie} walked right to left over the recorded host, and the allowed ports
+ * into a 65,536-bit bitmap, so no check scans the annotation's arrays. Patterns from a host file are reloaded when the
+ * file changes (see {@link HostPatternFile}). Internationalized host names are normalized to their ASCII form (see
+ * {@link InternationalHostNames}) before they are matched.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public class UrlValidator implements ConstraintValidator<Url, CharSequence>
+{
+	private static final String FILE_SCHEME = "file";
+
+	private CaseInsensitivePerfectHashSet protocols;
+
+	private HostPatternTrie hosts;
+
+	private HostPatternFile hostFile;
+
+	private BitSet ports;
+
+	@Override
+	public void initialize(Url annotation)
+	{
+		if(annotation.protocols().length > 0)
+		{
+			this.protocols = new CaseInsensitivePerfectHashSet(annotation.protocols());
+		}
+
+		if(annotation.host().length > 0)
+		{
+			try
+			{
+				this.hosts = new HostPatternTrie(Arrays.asList(annotation.host()));
+			}
+			catch(IllegalArgumentException e)
+			{
+				throw new ConstraintDeclarationException(e.getMessage(), e);
+			}
+		}
+
+		if(annotation.hostFile().length() > 0)
+		{
+			this.hostFile = HostPatternFile.get(annotation.hostFile());
+		}
+
+		if(annotation.port().length > 0)
+		{
+			this.ports = new BitSet(UriReference.MAX_PORT + 1);
+			for(int port : annotation.port())
+			{
+				if(port < 0 || port > UriReference.MAX_PORT)
+				{
+					throw new ConstraintDeclarationException("Invalid port [" + port + "].");
+				}
+				this.ports.set(port);
+			}
+		}
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+	{
+		if(value == null)
+		{
+			return true;
+		}
+
+		UriReference url = UriReference.parse(value);
+		return url != null && url.hasScheme() && url.hasAuthority() &&
+			   (url.getHostEnd() > url.getHostStart() || UrlValidator.isFileScheme(value, url.getSchemeEnd())) &&
+			   (this.protocols == null || this.protocols.contains(value, 0, url.getSchemeEnd())) &&
+			   this.isAllowedHost(value, url.getHostStart(), url.getHostEnd()) &&
+			   (this.ports == null || url.getPort() < 0 || this.ports.get(url.getPort()));
+	}
+
+	/*
+	 * Only file URLs may have an empty host, which RFC 8089 reads as the local host (file:///etc/hosts). Every other
+	 * scheme used with an authority names a host, so http:// and http:///path are not URLs.
+	 */
+	private static boolean isFileScheme(CharSequence value, int schemeEnd)
+	{
+		if(schemeEnd != FILE_SCHEME.length())
+		{
+			return false;
+		}
+		for(int i = 0; i < schemeEnd; i++)
+		{
+			if(Character.toLowerCase(value.charAt(i)) != FILE_SCHEME.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isAllowedHost(CharSequence value, int start, int end)
+	{
+		CharSequence host = value;
+		int hostStart = start;
+		int hostEnd = end;
+		if(InternationalHostNames.needsNormalization(value, start, end))
+		{
+			String ascii = InternationalHostNames.normalize(value, start, end);
+			if(ascii == null)
+			{
+				return false;
+			}
+			host = ascii;
+			hostStart = 0;
+			hostEnd = ascii.length();
+		}
+
+		if(this.hosts == null && this.hostFile == null)
+		{
+			return true;
+		}
+		return (this.hosts != null && this.hosts.matches(host, hostStart, hostEnd)) ||
+			   (this.hostFile != null && this.hostFile.get().matches(host, hostStart, hostEnd));
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support.el;
+
+import java.lang.reflect.Method;
+import javax.el.ELContext;
+
+import net.nicholaswilliams.java.validation.support.ReflectionUtils;
+
+/**
+ * Bridges the differences between the EL 2.2 and EL 3.0 {@link ELContext} APIs. This class is replaced by a
+ * {@link java.lang.invoke.MethodHandle}-based version in the {@code META-INF/versions/9} section of the multi-release
+ * JAR.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class ELContextUtils
+{
+	private static final Method SET_PROPERTY_RESOLVED = ReflectionUtils.getMethodIfExists(
+			ELContext.class, "setPropertyResolved", Object.class, Object.class
+	);
+
+	private ELContextUtils()
+	{
+
+	}
+
+	/**
+	 * Marks the property as resolved, using the EL 3.0 method (which also notifies evaluation listeners) if it exists.
+	 *
+	 * @param context The EL context
+	 * @param base The base object
+	 * @param property The property that was resolved
+	 */
+	static void setPropertyResolved(ELContext context, Object base, Object property)
+	{
+		if(SET_PROPERTY_RESOLVED != null)
+		{
+			ReflectionUtils.invokeMethod(SET_PROPERTY_RESOLVED, context, Void.class, base, property);
+		}
+		else
+		{
+			context.setPropertyResolved(true);
+		}
+	}
+}
@@ -247,10 +247,6 @@ public class JuelExpressionValidator extends ELContext implements ExpressionVali
 	 */
 	private static final class BeanNameELResolver extends ELResolver
 	{
-		private static final Method SET_PROPERTY_RESOLVED = ReflectionUtils.getMethodIfExists(
-				ELContext.class, "setPropertyResolved", Object.class, Object.class
-		);
-
 		private final Map<String, Object> beans;
 
 		public BeanNameELResolver(Map<String, Object> beans)
@@ -265,7 +261,7 @@ public class JuelExpressionValidator extends ELContext implements ExpressionVali
 			{
 				if(this.beans.containsKey(property))
 				{
-					this.setPropertyResolved(context, base, property);
+					ELContextUtils.setPropertyResolved(context, base, property);
 					return this.beans.get(property);
 				}
 			}
@@ -279,25 +275,13 @@ public class JuelExpressionValidator extends ELContext implements ExpressionVali
 			{
 				if(this.beans.containsKey(property))
 				{
-					this.setPropertyResolved(context, base, property);
+					ELContextUtils.setPropertyResolved(context, base, property);
 					return this.beans.get(property).getClass();
 				}
 			}
 			return null;
 		}
 
-		private void setPropertyResolved(ELContext context, Object base, Object property)
-		{
-			if(SET_PROPERTY_RESOLVED != null)
-			{
-				ReflectionUtils.invokeMethod(SET_PROPERTY_RESOLVED, context, Void.class, base, property);
-			}
-			else
-			{
-				context.setPropertyResolved(true);
-			}
-		}
-
 		@Override
 		public void setValue(ELContext context, Object base, Object property, Object value)
 		{
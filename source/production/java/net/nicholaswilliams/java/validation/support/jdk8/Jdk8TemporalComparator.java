@@ -0,0 +1,309 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support.jdk8;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import net.nicholaswilliams.java.validation.support.CurrentTime;
+import net.nicholaswilliams.java.validation.support.TemporalComparator;
+
+/**
+ * Compares Java SE 8 Date and Time API types with the current time. Local types are compared with the current date
+ * and time in the system default time zone, by their fields, without converting them to instants.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public enum Jdk8TemporalComparator implements TemporalComparator
+{
+	/**
+	 * {@link Instant}, compared by its seconds and nanoseconds since the epoch.
+	 *
+	 * @since 1.0.0
+	 */
+	INSTANT
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			Instant instant = (Instant) value;
+			return Jdk8TemporalComparator.compare(instant.getEpochSecond(), instant.getNano(), now.getEpochMillis());
+		}
+	},
+
+	/**
+	 * {@link Clock}, compared by the milliseconds since the epoch of its current instant.
+	 *
+	 * @since 1.0.0
+	 */
+	CLOCK
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return Long.compare(((Clock) value).millis(), now.getEpochMillis());
+		}
+	},
+
+	/**
+	 * {@link OffsetDateTime}, compared by its instant.
+	 *
+	 * @since 1.0.0
+	 */
+	OFFSET_DATE_TIME
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			OffsetDateTime dateTime = (OffsetDateTime) value;
+			return Jdk8TemporalComparator.compare(dateTime.toEpochSecond(), dateTime.getNano(), now.getEpochMillis());
+		}
+	},
+
+	/**
+	 * {@link ZonedDateTime}, compared by its instant.
+	 *
+	 * @since 1.0.0
+	 */
+	ZONED_DATE_TIME
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			ZonedDateTime dateTime = (ZonedDateTime) value;
+			return Jdk8TemporalComparator.compare(dateTime.toEpochSecond(), dateTime.getNano(), now.getEpochMillis());
+		}
+	},
+
+	/**
+	 * {@link LocalDateTime}, compared with the current local date and time.
+	 *
+	 * @since 1.0.0
+	 */
+	LOCAL_DATE_TIME
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			LocalDateTime dateTime = (LocalDateTime) value;
+			return Jdk8TemporalComparator.compare(
+					dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano(), now.getLocalMillis()
+			);
+		}
+	},
+
+	/**
+	 * {@link LocalDate}, compared with the current local date.
+	 *
+	 * @since 1.0.0
+	 */
+	LOCAL_DATE
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return Long.compare(((LocalDate) value).toEpochDay(), now.getEpochDay());
+		}
+	},
+
+	/**
+	 * {@link LocalTime}, compared with the current local time.
+	 *
+	 * @since 1.0.0
+	 */
+	LOCAL_TIME
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return Long.compare(((LocalTime) value).toNanoOfDay(), now.getMillisOfDay() * NANOS_PER_MILLI);
+		}
+	},
+
+	/**
+	 * {@link OffsetTime}, adjusted to the current offset of the system default time zone and compared with the current
+	 * local time.
+	 *
+	 * @since 1.0.0
+	 */
+	OFFSET_TIME
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			OffsetTime time = (OffsetTime) value;
+			long nanoOfDay = ((time.getHour() * MINUTES_PER_HOUR + time.getMinute()) * SECONDS_PER_MINUTE +
+							  time.getSecond() - time.getOffset().getTotalSeconds()) * NANOS_PER_SECOND +
+							 time.getNano() + now.getOffsetMillis() * NANOS_PER_MILLI;
+			return Long.compare(Math.floorMod(nanoOfDay, NANOS_PER_DAY), now.getMillisOfDay() * NANOS_PER_MILLI);
+		}
+	},
+
+	/**
+	 * {@link YearMonth}, compared with the current year and month.
+	 *
+	 * @since 1.0.0
+	 */
+	YEAR_MONTH
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			YearMonth yearMonth = (YearMonth) value;
+			int result = Integer.compare(yearMonth.getYear(), now.getYear());
+			return result != 0 ? result : Integer.compare(yearMonth.getMonthValue(), now.getMonth());
+		}
+	},
+
+	/**
+	 * {@link Month}, compared with the current month.
+	 *
+	 * @since 1.0.0
+	 */
+	MONTH
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return Integer.compare(((Month) value).getValue(), now.getMonth());
+		}
+	},
+
+	/**
+	 * {@link Year}, compared with the current year.
+	 *
+	 * @since 1.0.0
+	 */
+	YEAR
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return Integer.compare(((Year) value).getValue(), now.getYear());
+		}
+	},
+
+	/**
+	 * {@link DayOfWeek}, compared with the current day of the week.
+	 *
+	 * @since 1.0.0
+	 */
+	DAY_OF_WEEK
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return Integer.compare(((DayOfWeek) value).getValue(), now.getDayOfWeek());
+		}
+	};
+
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	private static final long NANOS_PER_DAY = CurrentTime.MILLIS_PER_DAY * NANOS_PER_MILLI;
+
+	private static final long SECONDS_PER_MINUTE = 60L;
+
+	private static final long MINUTES_PER_HOUR = 60L;
+
+	/**
+	 * Returns the comparator for a Java SE 8 Date and Time API class.
+	 *
+	 * @param type The class
+	 * @return the comparator, or {@code null} if the class is not a supported type.
+	 */
+	public static TemporalComparator forClass(Class<?> type)
+	{
+		if(type == Instant.class)
+		{
+			return INSTANT;
+		}
+		if(Clock.class.isAssignableFrom(type))
+		{
+			return CLOCK;
+		}
+		if(type == OffsetDateTime.class)
+		{
+			return OFFSET_DATE_TIME;
+		}
+		if(type == ZonedDateTime.class)
+		{
+			return ZONED_DATE_TIME;
+		}
+		if(type == LocalDateTime.class)
+		{
+			return LOCAL_DATE_TIME;
+		}
+		if(type == LocalDate.class)
+		{
+			return LOCAL_DATE;
+		}
+		if(type == LocalTime.class)
+		{
+			return LOCAL_TIME;
+		}
+		if(type == OffsetTime.class)
+		{
+			return OFFSET_TIME;
+		}
+		if(type == YearMonth.class)
+		{
+			return YEAR_MONTH;
+		}
+		if(Month.class.isAssignableFrom(type))
+		{
+			return MONTH;
+		}
+		if(type == Year.class)
+		{
+			return YEAR;
+		}
+		if(DayOfWeek.class.isAssignableFrom(type))
+		{
+			return DAY_OF_WEEK;
+		}
+		return null;
+	}
+
+	/**
+	 * Compares an instant given in seconds and nanoseconds with one given in milliseconds.
+	 *
+	 * @param seconds The seconds of the first instant
+	 * @param nanos The nanoseconds of the second of the first instant
+	 * @param millis The second instant in milliseconds
+	 * @return a negative number, zero or a positive number as the first instant is before, at or after the second.
+	 */
+	private static int compare(long seconds, int nanos, long millis)
+	{
+		int result = Long.compare(seconds, Math.floorDiv(millis, MILLIS_PER_SECOND));
+		return result != 0 ? result : Long.compare(nanos, Math.floorMod(millis, MILLIS_PER_SECOND) * NANOS_PER_MILLI);
+	}
+}
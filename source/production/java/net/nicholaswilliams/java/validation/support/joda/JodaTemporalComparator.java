@@ -0,0 +1,229 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support.joda;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.joda.time.Months;
+import org.joda.time.ReadableInstant;
+import org.joda.time.YearMonth;
+import org.joda.time.Years;
+
+import net.nicholaswilliams.java.validation.support.CurrentTime;
+import net.nicholaswilliams.java.validation.support.TemporalComparator;
+
+/**
+ * Compares Joda Time types with the current time. Local types are compared with the current date and time in the
+ * system default time zone, by their fields, without converting them to instants.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+public enum JodaTemporalComparator implements TemporalComparator
+{
+	/**
+	 * Any {@link ReadableInstant} other than {@link DateMidnight}, compared by its milliseconds since the epoch.
+	 *
+	 * @since 1.0.0
+	 */
+	INSTANT
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return CurrentTime.compare(((ReadableInstant) value).getMillis(), now.getEpochMillis());
+		}
+	},
+
+	/**
+	 * {@link DateMidnight}, compared by its date with the current date in its time zone.
+	 *
+	 * @since 1.0.0
+	 */
+	DATE_MIDNIGHT
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			DateMidnight date = (DateMidnight) value;
+			DateTimeZone zone = date.getZone();
+			long millis = date.getMillis();
+			return CurrentTime.compare(
+					CurrentTime.floorDivide(millis + zone.getOffset(millis), CurrentTime.MILLIS_PER_DAY),
+					CurrentTime.floorDivide(now.getEpochMillis() + zone.getOffset(now.getEpochMillis()),
+											CurrentTime.MILLIS_PER_DAY)
+			);
+		}
+	},
+
+	/**
+	 * {@link LocalDateTime}, compared with the current local date and time.
+	 *
+	 * @since 1.0.0
+	 */
+	LOCAL_DATE_TIME
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			LocalDateTime dateTime = (LocalDateTime) value;
+			return CurrentTime.compare(dateTime.getChronology().getDateTimeMillis(
+					dateTime.getYear(), dateTime.getMonthOfYear(), dateTime.getDayOfMonth(), dateTime.getMillisOfDay()
+			), now.getLocalMillis());
+		}
+	},
+
+	/**
+	 * {@link LocalDate}, compared with the current local date.
+	 *
+	 * @since 1.0.0
+	 */
+	LOCAL_DATE
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			LocalDate date = (LocalDate) value;
+			long millis = date.getChronology().getDateTimeMillis(
+					date.getYear(), date.getMonthOfYear(), date.getDayOfMonth(), 0
+			);
+			return CurrentTime.compare(CurrentTime.floorDivide(millis, CurrentTime.MILLIS_PER_DAY), now.getEpochDay());
+		}
+	},
+
+	/**
+	 * {@link LocalTime}, compared with the current local time.
+	 *
+	 * @since 1.0.0
+	 */
+	LOCAL_TIME
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return CurrentTime.compare(((LocalTime) value).getMillisOfDay(), now.getMillisOfDay());
+		}
+	},
+
+	/**
+	 * {@link YearMonth}, compared with the current year and month.
+	 *
+	 * @since 1.0.0
+	 */
+	YEAR_MONTH
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			YearMonth yearMonth = (YearMonth) value;
+			int result = CurrentTime.compare(yearMonth.getYear(), now.getYear());
+			return result != 0 ? result : CurrentTime.compare(yearMonth.getMonthOfYear(), now.getMonth());
+		}
+	},
+
+	/**
+	 * {@link Months}, compared as a month of the year with the current month.
+	 *
+	 * @since 1.0.0
+	 */
+	MONTHS
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return CurrentTime.compare(((Months) value).getMonths(), now.getMonth());
+		}
+	},
+
+	/**
+	 * {@link Years}, compared as a year with the current year.
+	 *
+	 * @since 1.0.0
+	 */
+	YEARS
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return CurrentTime.compare(((Years) value).getYears(), now.getYear());
+		}
+	},
+
+	/**
+	 * {@link Days}, compared as a day of the week (1 for Monday through 7 for Sunday) with the current day of the week.
+	 *
+	 * @since 1.0.0
+	 */
+	DAYS
+	{
+		@Override
+		public int compareToNow(Object value, CurrentTime now)
+		{
+			return CurrentTime.compare(((Days) value).getDays(), now.getDayOfWeek());
+		}
+	};
+
+	/**
+	 * Returns the comparator for a Joda Time class.
+	 *
+	 * @param type The class
+	 * @return the comparator, or {@code null} if the class is not a supported Joda Time type.
+	 */
+	public static TemporalComparator forClass(Class<?> type)
+	{
+		if(DateMidnight.class.isAssignableFrom(type))
+		{
+			return DATE_MIDNIGHT;
+		}
+		if(ReadableInstant.class.isAssignableFrom(type))
+		{
+			return INSTANT;
+		}
+		if(type == LocalDateTime.class)
+		{
+			return LOCAL_DATE_TIME;
+		}
+		if(type == LocalDate.class)
+		{
+			return LOCAL_DATE;
+		}
+		if(type == LocalTime.class)
+		{
+			return LOCAL_TIME;
+		}
+		if(type == YearMonth.class)
+		{
+			return YEAR_MONTH;
+		}
+		if(type == Months.class)
+		{
+			return MONTHS;
+		}
+		if(type == Years.class)
+		{
+			return YEARS;
+		}
+		if(type == Days.class)
+		{
+			return DAYS;
+		}
+		return null;
+	}
+}
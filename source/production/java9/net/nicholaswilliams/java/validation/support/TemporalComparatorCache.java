@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+/**
+ * Caches the {@link TemporalComparator} resolved for each runtime class, so that validating a value costs one lookup
+ * instead of a test against every supported type. On Java 9 and higher the comparator is stored in a
+ * {@link ClassValue}, which the JIT compiler can reduce to a field load and which does not keep the classes it has
+ * seen reachable.
+ *
+ * @author Nicholas Williams
+ * @since 1.0.0
+ */
+final class TemporalComparatorCache
+{
+	private static final ClassValue<TemporalComparator> CACHE = new ClassValue<TemporalComparator>()
+	{
+		@Override
+		protected TemporalComparator computeValue(Class<?> type)
+		{
+			return TemporalComparators.resolve(type);
+		}
+	};
+
+	private TemporalComparatorCache()
+	{
+
+	}
+
+	/**
+	 * Returns the comparator for a class, resolving it the first time the class is seen.
+	 *
+	 * @param type The runtime class of the values to compare
+	 * @return the comparator.
+	 */
+	static TemporalComparator get(Class<?> type)
+	{
+		return CACHE.get(type);
+	}
+}
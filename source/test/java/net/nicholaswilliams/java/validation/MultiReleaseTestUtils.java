@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation;
+
+import java.net.URL;
+
+/**
+ * Helpers for tests of classes that the multi-release JAR replaces in its {@code META-INF/versions/9} section. The
+ * default build runs these tests against the baseline classes; the {@code multi-release} profile runs them again on
+ * Java 17 against the packaged JAR, where the versioned classes are loaded instead.
+ *
+ * @author Nicholas Williams
+ */
+public final class MultiReleaseTestUtils
+{
+	private MultiReleaseTestUtils()
+	{
+
+	}
+
+	/**
+	 * Indicates whether a class was loaded from the {@code META-INF/versions/9} section of a multi-release JAR.
+	 *
+	 * @param type The class
+	 * @return {@code true} if the versioned class was loaded, {@code false} if the baseline class was loaded.
+	 */
+	public static boolean isVersioned(Class<?> type)
+	{
+		URL resource = type.getResource(type.getSimpleName() + ".class");
+		return resource != null && resource.toString().contains("/META-INF/versions/9/");
+	}
+
+	/**
+	 * Indicates whether the tests run from a JAR on a runtime that reads its versioned entries, in which case every
+	 * class with a versioned counterpart must have been loaded from the versioned section.
+	 *
+	 * @param type A class under test
+	 * @return {@code true} if the versioned class should have been loaded.
+	 */
+	public static boolean expectVersioned(Class<?> type)
+	{
+		URL resource = type.getResource(type.getSimpleName() + ".class");
+		return resource != null && "jar".equals(resource.getProtocol()) &&
+			   !System.getProperty("java.specification.version").startsWith("1.");
+	}
+}
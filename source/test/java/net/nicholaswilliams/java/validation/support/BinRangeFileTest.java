@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BinRangeFileTest
+{
+	private static final long RELOAD_WAIT_MILLIS = 1100L;
+
+	private static void write(String path, String contents) throws IOException
+	{
+		OutputStream stream = new FileOutputStream(new File(path));
+		try
+		{
+			stream.write(contents.getBytes("UTF-8"));
+		}
+		finally
+		{
+			stream.close();
+		}
+	}
+
+	private static boolean contains(BinRangeFile file, String cardNumber)
+	{
+		return file.get().contains(BinRanges.binOf(cardNumber));
+	}
+
+	@Test
+	public void testSharedAndReloaded() throws IOException, InterruptedException
+	{
+		String path = "target/BinRangeFileTest-reloaded.txt";
+		BinRangeFileTest.write(path, "# accepted\n411111 Visa\n");
+		BinRangeFile file = BinRangeFile.get(path);
+		assertSame("The file should be shared.", file, BinRangeFile.get(path));
+		assertTrue("The BIN should be accepted.", BinRangeFileTest.contains(file, "4111111111111111"));
+		assertFalse("The BIN should not be accepted.", BinRangeFileTest.contains(file, "5500000000000004"));
+
+		BinRangeFileTest.write(path, "# accepted\n222100-272099 Mastercard\n550000\n");
+		Thread.sleep(RELOAD_WAIT_MILLIS);
+		assertFalse("The old BIN should no longer be accepted.", BinRangeFileTest.contains(file, "4111111111111111"));
+		assertTrue("The new BIN should be accepted.", BinRangeFileTest.contains(file, "5500000000000004"));
+		assertTrue("The new range should be accepted.", BinRangeFileTest.contains(file, "2223000048400011"));
+
+		BinRangeFileTest.write(path, "# accepted\n550000\n99-11 reversed\n");
+		Thread.sleep(RELOAD_WAIT_MILLIS);
+		assertTrue("A malformed file should leave the previous table in use.",
+				   BinRangeFileTest.contains(file, "2223000048400011"));
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testMalformedFile() throws IOException
+	{
+		String path = "target/BinRangeFileTest-malformed.txt";
+		BinRangeFileTest.write(path, "411111\n4x1111\n");
+		BinRangeFile.get(path);
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testMissingFile()
+	{
+		BinRangeFile.get("target/BinRangeFileTest-missing.txt");
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoundedCacheTest
+{
+	@Test
+	public void testFirstValueIsKept()
+	{
+		BoundedCache<String, String> cache = new BoundedCache<String, String>(8);
+		assertNull("The cache should start empty.", cache.get("a"));
+		assertEquals("The new value should be cached.", "first", cache.put("a", "first"));
+		assertEquals("The first value should be kept.", "first", cache.put("a", "second"));
+		assertEquals("The first value should be cached.", "first", cache.get("a"));
+		assertEquals("The cache size is wrong.", 1, cache.size());
+	}
+
+	@Test
+	public void testSizeIsBounded()
+	{
+		BoundedCache<Integer, Integer> cache = new BoundedCache<Integer, Integer>(16);
+		for(int i = 0; i < 1000; i++)
+		{
+			assertEquals("The new value should be returned.", Integer.valueOf(-i), cache.put(i, -i));
+			assertTrue("The cache should not grow beyond its bound.", cache.size() <= 16);
+			assertEquals("The newest value should be cached.", Integer.valueOf(-i), cache.get(i));
+		}
+		assertTrue("Only a quarter should be evicted at a time.", cache.size() > 12);
+	}
+
+	@Test
+	public void testSmallCachesAreBounded()
+	{
+		for(int maximumSize = 1; maximumSize <= 4; maximumSize++)
+		{
+			BoundedCache<Integer, Integer> cache = new BoundedCache<Integer, Integer>(maximumSize);
+			for(int i = 0; i < 100; i++)
+			{
+				cache.put(i, i);
+				assertTrue("A cache of " + maximumSize + " should not grow beyond its bound.",
+						   cache.size() <= maximumSize);
+				assertEquals("The newest value should be cached.", Integer.valueOf(i), cache.get(i));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMaximumSizeMustBePositive()
+	{
+		new BoundedCache<String, String>(0);
+	}
+}
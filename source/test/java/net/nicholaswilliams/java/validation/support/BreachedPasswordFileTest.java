@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BreachedPasswordFileTest
+{
+	private static final String TEXT_PATH = "target/BreachedPasswordFileTest.txt";
+
+	private static final String BINARY_PATH = "target/BreachedPasswordFileTest.bin";
+
+	private static final List<String> BREACHED = new ArrayList<String>();
+
+	private static final List<String> HASHES = new ArrayList<String>();
+
+	@BeforeClass
+	public static void convert() throws IOException
+	{
+		for(int i = 0; i < 40; i++)
+		{
+			BREACHED.add("password" + i);
+		}
+		BREACHED.addAll(Arrays.asList("", "123456", "pässwörd", "密码", "😀😀", "a\ud800b", "\udc00",
+									   BreachedPasswordFileTest.repeat("é😀密", 1000)));
+		for(String password : BREACHED)
+		{
+			HASHES.add(BreachedPasswordFileTest.hex(BreachedPasswordFileTest.sha1(password)));
+		}
+		Collections.sort(HASHES);
+
+		StringBuilder text = new StringBuilder();
+		for(int i = 0; i < HASHES.size(); i++)
+		{
+			String hash = HASHES.get(i);
+			text.append(i % 2 == 0 ? hash : hash.toLowerCase(Locale.ENGLISH));
+			text.append(i % 3 == 0 ? ":" + (i + 1) : "").append("\n");
+			if(i == HASHES.size() / 2)
+			{
+				text.append(hash).append(":7\n\n");
+			}
+		}
+		BreachedPasswordFileTest.write(TEXT_PATH, text.toString());
+
+		BreachedPasswordFile.main(new String[] { TEXT_PATH, BINARY_PATH });
+	}
+
+	private static String repeat(String value, int count)
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < count; i++)
+		{
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+
+	private static byte[] sha1(String password)
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-1").digest(password.getBytes("UTF-8"));
+		}
+		catch(NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		catch(IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String hex(byte[] hash)
+	{
+		StringBuilder builder = new StringBuilder();
+		for(byte b : hash)
+		{
+			builder.append(String.format("%02X", b & 0xFF));
+		}
+		return builder.toString();
+	}
+
+	private static byte[] bytes(String hex)
+	{
+		byte[] bytes = new byte[hex.length() / 2];
+		for(int i = 0; i < bytes.length; i++)
+		{
+			bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		return bytes;
+	}
+
+	private static void write(String path, String contents) throws IOException
+	{
+		OutputStream stream = new FileOutputStream(new File(path));
+		try
+		{
+			stream.write(contents.getBytes("UTF-8"));
+		}
+		finally
+		{
+			stream.close();
+		}
+	}
+
+	@Test
+	public void testConversion()
+	{
+		BreachedPasswordFile file = BreachedPasswordFile.get(BINARY_PATH);
+
+		assertSame("The file should be shared.", file, BreachedPasswordFile.get(BINARY_PATH));
+		assertEquals("The duplicate should be written once.", HASHES.size(), file.getCount());
+		assertEquals("The file length is wrong.", HASHES.size() * BreachedPasswordFile.RECORD_LENGTH,
+					 new File(BINARY_PATH).length());
+	}
+
+	@Test
+	public void testHitsAndMisses()
+	{
+		BreachedPasswordFile file = BreachedPasswordFile.get(BINARY_PATH);
+
+		for(String password : BREACHED)
+		{
+			assertTrue("The password [" + password + "] should be found.", file.contains(password));
+			assertTrue("The password [" + password + "] should be found in a builder.",
+					   file.contains(new StringBuilder(password)));
+		}
+		for(int i = 0; i < 100; i++)
+		{
+			assertFalse("The password should not be found.", file.contains("not breached " + i));
+		}
+		assertFalse("A prefix should not be found.", file.contains("password"));
+		assertFalse("The password should not be found.", file.contains("a\ud800"));
+	}
+
+	@Test
+	public void testFirstAndLastRecords()
+	{
+		BreachedPasswordFile file = BreachedPasswordFile.get(BINARY_PATH);
+		byte[] first = BreachedPasswordFileTest.bytes(HASHES.get(0));
+		byte[] last = BreachedPasswordFileTest.bytes(HASHES.get(HASHES.size() - 1));
+		byte[] lowest = new byte[BreachedPasswordFile.RECORD_LENGTH];
+		byte[] highest = new byte[BreachedPasswordFile.RECORD_LENGTH];
+		Arrays.fill(highest, (byte) 0xFF);
+
+		assertTrue("The first record should be found.", file.containsHash(first));
+		assertTrue("The last record should be found.", file.containsHash(last));
+		assertFalse("A hash before the first record should not be found.", file.containsHash(lowest));
+		assertFalse("A hash after the last record should not be found.", file.containsHash(highest));
+
+		first[first.length - 1]--;
+		last[last.length - 1]++;
+		assertFalse("A hash just before the first record should not be found.", file.containsHash(first));
+		assertFalse("A hash just after the last record should not be found.", file.containsHash(last));
+	}
+
+	@Test
+	public void testSegmentBoundaries() throws IOException
+	{
+		for(int recordsPerSegment = 1; recordsPerSegment <= HASHES.size() + 1; recordsPerSegment++)
+		{
+			BreachedPasswordFile file = new BreachedPasswordFile(new File(BINARY_PATH), recordsPerSegment);
+			assertEquals("The count is wrong.", HASHES.size(), file.getCount());
+			for(String hash : HASHES)
+			{
+				assertTrue("The hash " + hash + " should be found with " + recordsPerSegment + " records per segment.",
+						   file.containsHash(BreachedPasswordFileTest.bytes(hash)));
+				byte[] miss = BreachedPasswordFileTest.bytes(hash);
+				miss[miss.length - 1] ^= 1;
+				assertEquals("Only breached hashes should be found with " + recordsPerSegment + " records per segment.",
+							 HASHES.contains(BreachedPasswordFileTest.hex(miss)), file.containsHash(miss));
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnsortedInput() throws IOException
+	{
+		String path = "target/BreachedPasswordFileTest-unsorted.txt";
+		BreachedPasswordFileTest.write(path, HASHES.get(1) + "\n" + HASHES.get(0) + "\n");
+		BreachedPasswordFile.main(new String[] { path, "target/BreachedPasswordFileTest-unsorted.bin" });
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedInput() throws IOException
+	{
+		String path = "target/BreachedPasswordFileTest-malformed.txt";
+		BreachedPasswordFileTest.write(path, HASHES.get(0).substring(1) + "G\n");
+		BreachedPasswordFile.main(new String[] { path, "target/BreachedPasswordFileTest-malformed.bin" });
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CharSequenceUtilsTest
+{
+	private static final String[] VALUES = {
+			"", " ", " \t\r\n\u0000 ", "a", "  a  ", " ", "   ", "abc def", "été",
+			"𝐀𝐁", "a\ud800b", "\udc00\ud800", "😀 x 😀", "Kİı",
+			"١٢ 12 １", "　 x ", "MiXeD 42 ßTRASSE"
+	};
+
+	/*
+	 * Every value is scanned as a String and through the generic CharSequence paths.
+	 */
+	private static List<CharSequence> forms(String value)
+	{
+		return Arrays.<CharSequence>asList(value, new StringBuilder(value), CharBuffer.wrap(value));
+	}
+
+	@Test
+	public void testBlank()
+	{
+		for(String value : VALUES)
+		{
+			String trimmed = value.trim();
+			int first = trimmed.length() == 0 ? -1 : value.indexOf(trimmed);
+			int last = trimmed.length() == 0 ? -1 : first + trimmed.length() - 1;
+			for(CharSequence form : CharSequenceUtilsTest.forms(value))
+			{
+				String message = "Wrong result for [" + value + "] as " + form.getClass().getSimpleName() + ".";
+				assertEquals(message, trimmed.length() == 0, CharSequenceUtils.isBlank(form));
+				assertEquals(message, first, CharSequenceUtils.firstNonBlankIndex(form));
+				assertEquals(message, last, CharSequenceUtils.lastNonBlankIndex(form));
+			}
+		}
+	}
+
+	@Test
+	public void testBlankCharacters()
+	{
+		for(char c = 0; c < Character.MAX_VALUE; c++)
+		{
+			assertEquals("Wrong result for " + (int) c + ".", String.valueOf(c).trim().length() == 0,
+						 CharSequenceUtils.isBlank(c));
+		}
+	}
+
+	@Test
+	public void testCodePointCount()
+	{
+		for(String value : VALUES)
+		{
+			for(CharSequence form : CharSequenceUtilsTest.forms(value))
+			{
+				assertEquals("Wrong result for [" + value + "] as " + form.getClass().getSimpleName() + ".",
+							 Character.codePointCount(value, 0, value.length()), CharSequenceUtils.codePointCount(form));
+			}
+		}
+	}
+
+	@Test
+	public void testAscii()
+	{
+		for(String value : VALUES)
+		{
+			boolean ascii = value.matches("\\p{ASCII}*");
+			for(CharSequence form : CharSequenceUtilsTest.forms(value))
+			{
+				assertEquals("Wrong result for [" + value + "] as " + form.getClass().getSimpleName() + ".", ascii,
+							 CharSequenceUtils.isAscii(form));
+			}
+		}
+		assertTrue("DEL should be ASCII.", CharSequenceUtils.isAscii('\u007f'));
+		assertFalse("The first Latin-1 character should not be ASCII.", CharSequenceUtils.isAscii('\u0080'));
+	}
+
+	@Test
+	public void testAsciiPrimitives()
+	{
+		for(char c = 0; c < Character.MAX_VALUE; c++)
+		{
+			boolean ascii = c < 128;
+			String message = "Wrong result for " + (int) c + ".";
+			assertEquals(message, ascii ? Character.digit(c, 10) : -1, CharSequenceUtils.digit(c));
+			assertEquals(message, ascii ? Character.digit(c, 36) : -1, CharSequenceUtils.alphanumericValue(c));
+			assertEquals(message, ascii && Character.isLetter(c), CharSequenceUtils.isAsciiLetter(c));
+			assertEquals(message, ascii && Character.isUpperCase(c), CharSequenceUtils.isAsciiUppercase(c));
+		}
+	}
+
+	@Test
+	public void testCharacterClassesAgreeWithCharacter()
+	{
+		for(int c = 0; c <= Character.MAX_CODE_POINT; c++)
+		{
+			String message = "Wrong result for " + Integer.toHexString(c) + ".";
+			assertEquals(message, Character.isUpperCase(c), CharSequenceUtils.CharacterClass.UPPERCASE.matches(c));
+			assertEquals(message, Character.isLowerCase(c), CharSequenceUtils.CharacterClass.LOWERCASE.matches(c));
+			assertEquals(message, Character.isDigit(c), CharSequenceUtils.CharacterClass.DIGIT.matches(c));
+			assertEquals(message, Character.isLetter(c), CharSequenceUtils.CharacterClass.LETTER.matches(c));
+			assertEquals(message, Character.isWhitespace(c), CharSequenceUtils.CharacterClass.WHITESPACE.matches(c));
+		}
+	}
+
+	@Test
+	public void testCount()
+	{
+		String value = "MiXeD 42 ß𝐀𝐚𝟎 \ud800 ";
+		for(CharSequence form : CharSequenceUtilsTest.forms(value))
+		{
+			String message = "Wrong result as " + form.getClass().getSimpleName() + ".";
+			assertEquals(message, 4, CharSequenceUtils.count(form, CharSequenceUtils.CharacterClass.UPPERCASE));
+			assertEquals(message, 4, CharSequenceUtils.count(form, CharSequenceUtils.CharacterClass.LOWERCASE));
+			assertEquals(message, 3, CharSequenceUtils.count(form, CharSequenceUtils.CharacterClass.DIGIT));
+			assertEquals(message, 8, CharSequenceUtils.count(form, CharSequenceUtils.CharacterClass.LETTER));
+			assertEquals(message, 4, CharSequenceUtils.count(form, CharSequenceUtils.CharacterClass.WHITESPACE));
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CodePointRangesTest
+{
+	/*
+	 * Set operations are checked against bit sets over a small universe, which random ranges cover densely.
+	 */
+	private static final int UNIVERSE = 200;
+
+	/*
+	 * The characters case folding is checked on: Latin, Greek, Cyrillic and Armenian with the long s, sharp s and
+	 * dotted and dotless i, the Latin and Greek extended additions, the letterlike symbols with the Kelvin and
+	 * Angstrom signs, and Deseret in the supplementary planes.
+	 */
+	private static final int[][] CASED_BLOCKS = {
+			{ 0x0000, 0x058F }, { 0x1E00, 0x1FFF }, { 0x2100, 0x2184 }, { 0x10400, 0x1044F }
+	};
+
+	private static final List<Integer> CASED = new ArrayList<Integer>();
+
+	static
+	{
+		for(int[] block : CASED_BLOCKS)
+		{
+			for(int c = block[0]; c <= block[1]; c++)
+			{
+				CASED.add(c);
+			}
+		}
+	}
+
+	private final Random random = new Random(1968L);
+
+	private int[] ranges(BitSet bits)
+	{
+		int[] ranges = CodePointRanges.EMPTY;
+		for(int count = this.random.nextInt(5); count > 0; count--)
+		{
+			int low = this.random.nextInt(UNIVERSE);
+			int high = Math.min(UNIVERSE - 1, low + this.random.nextInt(20));
+			ranges = CodePointRanges.union(ranges, CodePointRanges.of(low, high));
+			bits.set(low, high + 1);
+		}
+		return ranges;
+	}
+
+	private static void assertSameSet(String message, BitSet expected, int[] actual)
+	{
+		assertEquals(message + " The ranges should be pairs.", 0, actual.length % 2);
+		for(int i = 0; i < actual.length; i += 2)
+		{
+			assertTrue(message + " The range should not be empty.", actual[i] <= actual[i + 1]);
+			assertTrue(message + " The ranges should be sorted, disjoint and not adjacent.",
+					   i == 0 || actual[i] > actual[i - 1] + 1);
+		}
+		for(int c = 0; c <= UNIVERSE; c++)
+		{
+			assertEquals(message + " Wrong result for " + c + ".", expected.get(c), CodePointRanges.contains(actual, c));
+		}
+	}
+
+	private static String string(int codePoint)
+	{
+		return new String(Character.toChars(codePoint));
+	}
+
+	@Test
+	public void testOfCodePoints()
+	{
+		for(int i = 0; i < 1000; i++)
+		{
+			int[] codePoints = new int[this.random.nextInt(10)];
+			BitSet expected = new BitSet();
+			for(int j = 0; j < codePoints.length; j++)
+			{
+				codePoints[j] = this.random.nextInt(UNIVERSE);
+				expected.set(codePoints[j]);
+			}
+			CodePointRangesTest.assertSameSet("ofCodePoints:", expected, CodePointRanges.ofCodePoints(codePoints));
+		}
+	}
+
+	@Test
+	public void testSetOperationsAgreeWithBitSets()
+	{
+		for(int i = 0; i < 1000; i++)
+		{
+			BitSet firstBits = new BitSet();
+			BitSet secondBits = new BitSet();
+			int[] first = this.ranges(firstBits);
+			int[] second = this.ranges(secondBits);
+			CodePointRangesTest.assertSameSet("First:", firstBits, first);
+
+			BitSet union = (BitSet) firstBits.clone();
+			union.or(secondBits);
+			CodePointRangesTest.assertSameSet("Union:", union, CodePointRanges.union(first, second));
+
+			BitSet intersection = (BitSet) firstBits.clone();
+			intersection.and(secondBits);
+			CodePointRangesTest.assertSameSet("Intersection:", intersection, CodePointRanges.intersect(first, second));
+
+			BitSet complement = (BitSet) firstBits.clone();
+			complement.flip(0, UNIVERSE + 1);
+			int[] negated = CodePointRanges.negate(first);
+			CodePointRangesTest.assertSameSet("Complement:", complement, negated);
+			assertTrue("The complement should contain the last code point.",
+					   CodePointRanges.contains(negated, Character.MAX_CODE_POINT));
+			assertArrayEquals("The double complement should be the set.", first, CodePointRanges.negate(negated));
+		}
+	}
+
+	@Test
+	public void testEdges()
+	{
+		assertArrayEquals("The complement of nothing should be everything.", CodePointRanges.ALL,
+						  CodePointRanges.negate(CodePointRanges.EMPTY));
+		assertArrayEquals("The complement of everything should be nothing.", CodePointRanges.EMPTY,
+						  CodePointRanges.negate(CodePointRanges.ALL));
+		assertArrayEquals("The complement is wrong.", new int[] { 0, 0x60, 0x7B, Character.MAX_CODE_POINT },
+						  CodePointRanges.negate(CodePointRanges.of('a', 'z')));
+		assertFalse("Nothing should contain nothing.", CodePointRanges.contains(CodePointRanges.EMPTY, 0));
+		assertTrue("Everything should contain the last code point.",
+				   CodePointRanges.contains(CodePointRanges.ALL, Character.MAX_CODE_POINT));
+		assertArrayEquals("Adjacent ranges should merge.", new int[] { 'a', 'c' },
+						  CodePointRanges.ofCodePoints('c', 'a', 'b', 'a'));
+	}
+
+	@Test
+	public void testFoldCaseOfCodePointAgreesWithPattern()
+	{
+		for(int flags : new int[] { Pattern.CASE_INSENSITIVE, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE })
+		{
+			boolean unicode = (flags & Pattern.UNICODE_CASE) != 0;
+			for(int c : CASED)
+			{
+				if(Character.toUpperCase(c) == c && Character.toLowerCase(c) == c && this.random.nextInt(10) != 0)
+				{
+					continue;
+				}
+				Pattern pattern = Pattern.compile(Pattern.quote(CodePointRangesTest.string(c)), flags);
+				int[] folded = CodePointRanges.foldCase(c, unicode);
+				for(int y : CASED)
+				{
+					assertEquals("Wrong result for " + Integer.toHexString(y) + " against " +
+								 Integer.toHexString(c) + " with flags " + flags + ".",
+								 pattern.matcher(CodePointRangesTest.string(y)).matches(),
+								 CodePointRanges.contains(folded, y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFoldCaseOfRangesAgreesWithPattern()
+	{
+		for(int i = 0; i < 300; i++)
+		{
+			int flags = Pattern.CASE_INSENSITIVE | (i % 2 == 0 ? Pattern.UNICODE_CASE : 0);
+			int low = CASED.get(this.random.nextInt(CASED.size()));
+			int high = this.random.nextInt(4) == 0 ? low : Math.min(Character.MAX_CODE_POINT,
+																	 low + this.random.nextInt(64));
+			Pattern pattern = Pattern.compile(
+					"[\\x{" + Integer.toHexString(low) + "}-\\x{" + Integer.toHexString(high) + "}]", flags
+			);
+			int[] folded = CodePointRanges.foldCase(CodePointRanges.of(low, high), (flags & Pattern.UNICODE_CASE) != 0);
+			for(int y : CASED)
+			{
+				assertEquals("Wrong result for " + Integer.toHexString(y) + " against [" + Integer.toHexString(low) +
+							 "-" + Integer.toHexString(high) + "] with flags " + flags + ".",
+							 pattern.matcher(CodePointRangesTest.string(y)).matches(),
+							 CodePointRanges.contains(folded, y));
+			}
+		}
+	}
+
+	@Test
+	public void testFoldCaseIsAsymmetricForTheKelvinSign()
+	{
+		int[] upper = CodePointRanges.foldCase(CodePointRanges.of('A', 'Z'), true);
+		assertTrue("[A-Z] should match k.", CodePointRanges.contains(upper, 'k'));
+		assertFalse("[A-Z] should not match the Kelvin sign.", CodePointRanges.contains(upper, 0x212A));
+		int[] single = CodePointRanges.foldCase('K', true);
+		assertTrue("K should match the Kelvin sign.", CodePointRanges.contains(single, 0x212A));
+		assertArrayEquals("K should only match its ASCII cases without Unicode case.", new int[] { 'K', 'K', 'k', 'k' },
+						  CodePointRanges.foldCase('K', false));
+	}
+}
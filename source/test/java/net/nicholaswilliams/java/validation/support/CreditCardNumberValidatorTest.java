@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.math.BigInteger;
+import javax.validation.ConstraintValidator;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.CreditCardNumber;
+import net.nicholaswilliams.java.validation.CreditCardNumber.Network;
+
+import static org.junit.Assert.*;
+
+public class CreditCardNumberValidatorTest
+{
+	/*
+	 * Test numbers published by the networks, with the network each belongs to.
+	 */
+	private static final String[][] NUMBERS = {
+			{ "4111111111111111", "VISA" }, { "4012888888881881", "VISA" }, { "5555555555554444", "MASTERCARD" },
+			{ "2221000000000009", "MASTERCARD" }, { "378282246310005", "AMERICAN_EXPRESS" },
+			{ "6011111111111117", "DISCOVER" }, { "30569309025904", "DINERS_CLUB" }, { "3530111333300000", "JCB" },
+			{ "8171999927660000", "UNIONPAY" }, { "6759649826438453", "MAESTRO" }
+	};
+
+	@CreditCardNumber
+	private Object any;
+
+	@CreditCardNumber(acceptedNetworks = Network.VISA)
+	private Object visa;
+
+	@CreditCardNumber(acceptedNetworks = { Network.MASTERCARD, Network.AMERICAN_EXPRESS })
+	private Object masterCardOrAmericanExpress;
+
+	@CreditCardNumber(acceptedNetworks = Network.UNIONPAY)
+	private Object unionPay;
+
+	private static <V extends ConstraintValidator<CreditCardNumber, ?>> V validator(V validator, String field)
+	{
+		try
+		{
+			validator.initialize(
+					CreditCardNumberValidatorTest.class.getDeclaredField(field).getAnnotation(CreditCardNumber.class)
+			);
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return validator;
+	}
+
+	@Test
+	public void testNetworks()
+	{
+		CreditCardNumberValidator any = validator(new CreditCardNumberValidator(), "any");
+		CreditCardNumberValidator visa = validator(new CreditCardNumberValidator(), "visa");
+		CreditCardNumberValidator masterCardOrAmericanExpress =
+				validator(new CreditCardNumberValidator(), "masterCardOrAmericanExpress");
+		for(String[] number : NUMBERS)
+		{
+			String network = number[1];
+			assertTrue("Null should be valid.", visa.isValid(null, null));
+			assertTrue(number[0] + " should pass any network.", any.isValid(number[0], null));
+			assertEquals("Wrong result for " + number[0] + " on Visa.", network.equals("VISA"),
+						 visa.isValid(number[0], null));
+			assertEquals("Wrong result for " + number[0] + " on MasterCard or American Express.",
+						 network.equals("MASTERCARD") || network.equals("AMERICAN_EXPRESS"),
+						 masterCardOrAmericanExpress.isValid(number[0], null));
+		}
+		assertTrue("Separators should be ignored.", visa.isValid("4111 1111 1111 1111", null));
+		assertFalse("A value without digits should fail.", visa.isValid("card", null));
+	}
+
+	@Test
+	public void testAdaptersAgreeWithString()
+	{
+		for(String field : new String[] { "any", "visa", "masterCardOrAmericanExpress", "unionPay" })
+		{
+			CreditCardNumberValidator expected = validator(new CreditCardNumberValidator(), field);
+			CreditCardNumberCharArrayValidator charArray = validator(new CreditCardNumberCharArrayValidator(), field);
+			CreditCardNumberLongValidator longValue = validator(new CreditCardNumberLongValidator(), field);
+			CreditCardNumberBigIntegerValidator bigInteger =
+					validator(new CreditCardNumberBigIntegerValidator(), field);
+			assertTrue("Null should be valid.", charArray.isValid(null, null));
+			assertTrue("Null should be valid.", longValue.isValid(null, null));
+			assertTrue("Null should be valid.", bigInteger.isValid(null, null));
+			for(String[] number : NUMBERS)
+			{
+				boolean valid = expected.isValid(number[0], null);
+				String message = "Wrong result for " + number[0] + " on " + field + ".";
+				assertEquals(message, valid, charArray.isValid(number[0].toCharArray(), null));
+				assertEquals(message, valid, longValue.isValid(Long.parseLong(number[0]), null));
+				assertEquals(message, valid, bigInteger.isValid(new BigInteger(number[0]), null));
+			}
+		}
+	}
+
+	@Test
+	public void testNumericAdaptersRejectNegatives()
+	{
+		CreditCardNumberValidator visa = validator(new CreditCardNumberValidator(), "visa");
+		CreditCardNumberLongValidator visaLong = validator(new CreditCardNumberLongValidator(), "visa");
+		CreditCardNumberBigIntegerValidator visaBigInteger =
+				validator(new CreditCardNumberBigIntegerValidator(), "visa");
+		assertTrue("The sign should be ignored as a separator in a string.", visa.isValid("-4111111111111111", null));
+		assertFalse("A negative long should fail.", visaLong.isValid(-4111111111111111L, null));
+		assertFalse("A negative big integer should fail.",
+					visaBigInteger.isValid(new BigInteger("-4111111111111111"), null));
+
+		CreditCardNumberLongValidator anyLong = validator(new CreditCardNumberLongValidator(), "any");
+		CreditCardNumberBigIntegerValidator anyBigInteger = validator(new CreditCardNumberBigIntegerValidator(), "any");
+		assertTrue("Zero should pass any network.", anyLong.isValid(0L, null));
+		assertTrue("Long.MAX_VALUE should pass any network.", anyLong.isValid(Long.MAX_VALUE, null));
+		assertFalse("Long.MIN_VALUE should fail.", anyLong.isValid(Long.MIN_VALUE, null));
+		assertFalse("-1 should fail.", anyLong.isValid(-1L, null));
+		assertFalse("Long.MIN_VALUE should fail.", anyBigInteger.isValid(BigInteger.valueOf(Long.MIN_VALUE), null));
+	}
+
+	@Test
+	public void testBigIntegerWiderThanLong()
+	{
+		BigInteger wide = new BigInteger("62000000000000000000");
+		assertTrue("The value should be wider than a long.", wide.bitLength() >= Long.SIZE);
+		assertTrue(wide + " should pass UnionPay.",
+				   validator(new CreditCardNumberBigIntegerValidator(), "unionPay").isValid(wide, null));
+		assertFalse(wide + " should fail Visa.",
+					validator(new CreditCardNumberBigIntegerValidator(), "visa").isValid(wide, null));
+		assertFalse(wide.negate() + " should fail UnionPay.",
+					validator(new CreditCardNumberBigIntegerValidator(), "unionPay").isValid(wide.negate(), null));
+		assertTrue("A wide Visa value should pass Visa.", validator(new CreditCardNumberBigIntegerValidator(), "visa")
+				.isValid(new BigInteger("41111111111111111111"), null));
+	}
+}
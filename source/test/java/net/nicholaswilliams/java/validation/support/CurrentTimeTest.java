@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.lang.reflect.Field;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CurrentTimeTest
+{
+	/*
+	 * Zones with daylight saving time, half-hour and quarter-hour offsets and changes, and a skipped day (Apia went
+	 * from 2011-12-29 straight to 2011-12-31).
+	 */
+	private static final String[] ZONES = {
+			"UTC", "America/New_York", "Europe/London", "Australia/Lord_Howe", "Asia/Kathmandu", "Pacific/Apia",
+			"America/Sao_Paulo"
+	};
+
+	private static final long NOON_UTC = 1350648000000L;
+
+	private static final long CENTURIES_MILLIS = 200L * 365L * CurrentTime.MILLIS_PER_DAY;
+
+	private TimeZone original;
+
+	private final Random random = new Random(1968L);
+
+	@Before
+	public void saveZone()
+	{
+		this.original = TimeZone.getDefault();
+	}
+
+	@After
+	public void restoreZone()
+	{
+		TimeZone.setDefault(this.original);
+	}
+
+	private static Object period() throws Exception
+	{
+		Field field = CurrentTime.class.getDeclaredField("period");
+		field.setAccessible(true);
+		return field.get(null);
+	}
+
+	private static void assertFields(long epochMillis)
+	{
+		CurrentTime time = CurrentTime.of(epochMillis);
+		Calendar calendar = new GregorianCalendar(TimeZone.getDefault());
+		calendar.setTimeInMillis(epochMillis);
+		String message = " is wrong for " + epochMillis + " in " + TimeZone.getDefault().getID() + ".";
+		assertEquals("The instant" + message, epochMillis, time.getEpochMillis());
+		assertEquals("The offset" + message, TimeZone.getDefault().getOffset(epochMillis), time.getOffsetMillis());
+		assertEquals("The year" + message, calendar.get(Calendar.YEAR), time.getYear());
+		assertEquals("The month" + message, calendar.get(Calendar.MONTH) + 1, time.getMonth());
+		assertEquals("The day" + message, calendar.get(Calendar.DAY_OF_MONTH), time.getDayOfMonth());
+		assertEquals("The day of the week" + message, (calendar.get(Calendar.DAY_OF_WEEK) + 5) % 7 + 1,
+					 time.getDayOfWeek());
+		int millisOfDay = ((calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE)) * 60 +
+						   calendar.get(Calendar.SECOND)) * 1000 + calendar.get(Calendar.MILLISECOND);
+		assertEquals("The time" + message, millisOfDay, time.getMillisOfDay());
+	}
+
+	@Test
+	public void testFieldsAgreeWithCalendar()
+	{
+		for(String zone : ZONES)
+		{
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			// random instants, jumping between periods, then minutes in order across several years of transitions
+			for(int i = 0; i < 20000; i++)
+			{
+				CurrentTimeTest.assertFields(NOON_UTC + this.random.nextLong() % CENTURIES_MILLIS);
+			}
+			for(long instant = 1293840000000L; instant < 1356998400000L; instant += 60000L + this.random.nextInt(1000))
+			{
+				CurrentTimeTest.assertFields(instant);
+			}
+		}
+	}
+
+	@Test
+	public void testPeriodIsKeptUntilItsEnd() throws Exception
+	{
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		CurrentTime.of(NOON_UTC);
+		Object period = CurrentTimeTest.period();
+		for(long instant = NOON_UTC; instant < NOON_UTC + 11L * 3600000L; instant += 1500L)
+		{
+			CurrentTimeTest.assertFields(instant);
+			assertSame("The period should be kept while the zone is unchanged.", period, CurrentTimeTest.period());
+		}
+		CurrentTimeTest.assertFields(NOON_UTC + 12L * 3600000L);
+		assertNotSame("The period should end at midnight.", period, CurrentTimeTest.period());
+	}
+
+	@Test
+	public void testZoneChangeIsDetected() throws Exception
+	{
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		CurrentTimeTest.assertFields(NOON_UTC);
+		Object period = CurrentTimeTest.period();
+
+		TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kathmandu"));
+		CurrentTime stale = CurrentTime.of(NOON_UTC + 500L);
+		assertEquals("The zone should only be checked a second later.", 0, stale.getOffsetMillis());
+		assertSame("The period should be kept until the zone is checked.", period, CurrentTimeTest.period());
+
+		CurrentTimeTest.assertFields(NOON_UTC + 1000L);
+		assertNotSame("The period should be replaced after the zone changed.", period, CurrentTimeTest.period());
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DawgTest
+{
+	private static final List<String> WORDS = Arrays.asList(
+			"password", "Password1", "dragon", "letmein", "qwerty", "monkey", "ab", "abc", "abcd", "Straße", "ǆungla"
+	);
+
+	private static Dawg dawg;
+
+	@BeforeClass
+	public static void build() throws IOException
+	{
+		dawg = DawgTest.build(WORDS);
+	}
+
+	private static Dawg build(List<String> words) throws IOException
+	{
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		Dawg.write(words, stream);
+		return Dawg.read(new ByteArrayInputStream(stream.toByteArray()));
+	}
+
+	private static int constant(String name)
+	{
+		try
+		{
+			Field field = Dawg.class.getDeclaredField(name);
+			field.setAccessible(true);
+			return field.getInt(null);
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		catch(IllegalAccessException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	public void testExact()
+	{
+		for(String word : WORDS)
+		{
+			assertTrue("The word [" + word + "] should be found.", dawg.contains(word, false));
+			assertTrue("The word [" + word + "] should be found in a builder.",
+					   dawg.contains(new StringBuilder(word), false));
+		}
+		assertFalse("The case should matter.", dawg.contains("PASSWORD", false));
+		assertFalse("The case should matter.", dawg.contains("password1", false));
+		assertFalse("A prefix should not be found.", dawg.contains("passwor", false));
+		assertFalse("An extension should not be found.", dawg.contains("passwords", false));
+		assertFalse("A prefix of several words should not be found.", dawg.contains("a", false));
+		assertFalse("The empty word should not be found.", dawg.contains("", false));
+	}
+
+	@Test
+	public void testCaseInsensitive()
+	{
+		assertTrue("The word should be found.", dawg.contains("PASSWORD", true));
+		assertTrue("The word should be found.", dawg.contains("pAsSwOrD1", true));
+		assertTrue("The word should be found.", dawg.contains("DRAGON", true));
+		assertTrue("The word should be found.", dawg.contains("STRAßE", true));
+		assertTrue("The titlecase letter should match the lowercase letter.", dawg.contains("ǅungla", true));
+		assertTrue("The uppercase letter should match the lowercase letter.", dawg.contains("ǄUNGLA", true));
+		assertFalse("A prefix should not be found.", dawg.contains("PASSWOR", true));
+		assertFalse("An extension should not be found.", dawg.contains("DRAGONS", true));
+		assertFalse("The empty word should not be found.", dawg.contains("", true));
+	}
+
+	@Test
+	public void testEmbeddedWords()
+	{
+		assertTrue("The word should be found.", dawg.containsWord("xxdragonxx", 4, false));
+		assertFalse("The case should matter.", dawg.containsWord("xxDRAGONxx", 4, false));
+		assertTrue("The word should be found ignoring case.", dawg.containsWord("xxDRAGONxx", 4, true));
+		assertFalse("The word is shorter than the minimum.", dawg.containsWord("xxdragonxx", 7, true));
+		assertTrue("A long enough word should be found.", dawg.containsWord("12LetMeIn!", 7, true));
+		assertTrue("The word should be found at the end.", dawg.containsWord("1234qwerty", 6, false));
+		assertFalse("A word cut off by the end should not be found.", dawg.containsWord("1234qwert", 5, false));
+
+		assertTrue("The shortest long enough word should be found.", dawg.hasWordAt("zabcz", 1, 3, false));
+		assertTrue("A longer word should be found.", dawg.hasWordAt("zabcdz", 1, 4, false));
+		assertFalse("No word is long enough.", dawg.hasWordAt("zabcdz", 1, 5, false));
+		assertFalse("No word starts there.", dawg.hasWordAt("zabcdz", 2, 2, false));
+		assertFalse("The text is too short.", dawg.containsWord("ab", 3, false));
+	}
+
+	@Test
+	public void testWordsAreNumberedInSortedOrder()
+	{
+		TreeSet<String> sorted = new TreeSet<String>(WORDS);
+		assertEquals("The word count is wrong.", sorted.size(), dawg.getWordCount());
+
+		int index = 0;
+		for(String word : sorted)
+		{
+			long cursor = Dawg.START;
+			for(int i = 0; i < word.length(); i++)
+			{
+				assertEquals("The prefix of [" + word + "] should not be a word.", sorted.contains(word.substring(0, i)),
+							 i > 0 && dawg.wordIndex(cursor) >= 0);
+				cursor = dawg.next(cursor, word.charAt(i));
+				assertTrue("The word [" + word + "] should be found.", cursor >= 0);
+			}
+			assertEquals("The index of [" + word + "] is wrong.", index++, dawg.wordIndex(cursor));
+		}
+		assertEquals("A missing word should not be found.", -1L, dawg.next(dawg.next(Dawg.START, 'a'), 'x'));
+		assertEquals("Nothing should be read after a missing word.", -1, dawg.wordIndex(-1L));
+		assertEquals("The start should not be a word.", -1, dawg.wordIndex(Dawg.START));
+	}
+
+	@Test
+	public void testEmptyAutomaton() throws IOException
+	{
+		Dawg empty = DawgTest.build(Arrays.<String>asList());
+
+		assertEquals("The automaton should be empty.", 0, empty.getWordCount());
+		assertFalse("Nothing should be found.", empty.contains("a", false));
+		assertFalse("Nothing should be found.", empty.contains("a", true));
+		assertFalse("Nothing should be found.", empty.containsWord("abc", 1, true));
+	}
+
+	/*
+	 * An automaton accepting every word of 40 letters a in either case followed by c, built by hand since it has 2^40
+	 * words. Each state is reached by 2^i paths, so a lookup that does not merge them never finishes.
+	 */
+	@Test(timeout = 10000L)
+	public void testCaseInsensitiveLookupsAreLinear() throws IOException
+	{
+		int length = 40;
+		int header = 12;
+		int arc = 10;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(DawgTest.constant("MAGIC"));
+		output.writeInt(DawgTest.constant("VERSION"));
+		output.writeInt(header + arc + (length - 1) * 2 * arc);
+		output.writeChar('c');
+		output.writeInt(DawgTest.constant("ACCEPTING") | DawgTest.constant("LAST"));
+		output.writeInt(1);
+		for(int i = length - 1; i >= 0; i--)
+		{
+			int target = i == length - 1 ? header : header + arc + (length - 2 - i) * 2 * arc;
+			output.writeChar('A');
+			output.writeInt(target);
+			output.writeInt(0);
+			output.writeChar('a');
+			output.writeInt(target | DawgTest.constant("LAST"));
+			output.writeInt(0);
+		}
+		output.flush();
+		Dawg letters = Dawg.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+		char[] text = new char[length + 1];
+		Arrays.fill(text, 'a');
+		text[length] = 'C';
+		assertTrue("The word should be found.", letters.contains(new String(text), true));
+		text[length] = 'b';
+		assertFalse("The word should not be found.", letters.contains(new String(text), true));
+		assertFalse("No word should be found.", letters.containsWord(new String(text), 1, true));
+		assertFalse("The case should matter.", letters.contains(new String(text).toUpperCase(), false));
+	}
+
+	@Test
+	public void testMain() throws IOException
+	{
+		String list = "target/DawgTest-words.txt";
+		String output = "target/DawgTest.dawg";
+		OutputStream stream = new FileOutputStream(new File(list));
+		try
+		{
+			stream.write("dragon\n\nqwerty\nStraße\ndragon\n".getBytes("UTF-8"));
+		}
+		finally
+		{
+			stream.close();
+		}
+		Dawg.main(new String[] { output, list });
+
+		Dawg mapped = Dawg.get(output);
+		assertSame("The automaton should be shared.", mapped, Dawg.get(output));
+		assertEquals("The word count is wrong.", 3, mapped.getWordCount());
+		assertTrue("The word should be found.", mapped.contains("Straße", false));
+		assertTrue("The word should be found.", mapped.contains("QWERTY", true));
+		assertFalse("The word should not be found.", mapped.contains("monkey", true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyWord() throws IOException
+	{
+		DawgTest.build(Arrays.asList("a", ""));
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnsupportedVersion() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(DawgTest.constant("MAGIC"));
+		output.writeInt(1);
+		output.writeInt(0);
+		Dawg.read(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DecimalDigitsTest
+{
+	private static void assertDigits(long value)
+	{
+		String expected = Long.toString(value);
+		DecimalDigits actual = DecimalDigits.of(value);
+		assertEquals("Wrong length for " + value + ".", expected.length(), actual.length());
+		for(int i = 0; i < expected.length(); i++)
+		{
+			assertEquals("Wrong digit " + i + " of " + value + ".", expected.charAt(i), actual.charAt(i));
+		}
+		assertEquals("Wrong string for " + value + ".", expected, actual.toString());
+	}
+
+	@Test
+	public void testPowersOfTen()
+	{
+		DecimalDigitsTest.assertDigits(0L);
+		for(long power = 1L; power <= Long.MAX_VALUE / 10L; power *= 10L)
+		{
+			DecimalDigitsTest.assertDigits(power - 1L);
+			DecimalDigitsTest.assertDigits(power);
+			DecimalDigitsTest.assertDigits(power + 1L);
+		}
+		DecimalDigitsTest.assertDigits(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testViewIsReusedPerThread()
+	{
+		DecimalDigits first = DecimalDigits.of(12345L);
+		DecimalDigits second = DecimalDigits.of(9L);
+		assertSame("The thread's view should be reused.", first, second);
+		assertEquals("The view should hold the latest value.", "9", first.toString());
+		assertEquals("The length should be reset.", 1, first.length());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testCharAtOutOfRange()
+	{
+		DecimalDigits.of(123L).charAt(3);
+	}
+
+	@Test
+	public void testBigInteger()
+	{
+		BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+		assertTrue("A long-sized value should be viewed.", DecimalDigits.of(max) instanceof DecimalDigits);
+		BigInteger wide = max.add(BigInteger.ONE);
+		assertEquals("A wider value should be formatted.", "9223372036854775808", DecimalDigits.of(wide));
+		assertEquals("A much wider value should be formatted.", BigInteger.TEN.pow(30).toString(),
+					 DecimalDigits.of(BigInteger.TEN.pow(30)));
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EmailAddressesTest
+{
+	/*
+	 * The regular expressions @EmailSimple and @EmailExtended were declared with before they had validators, which
+	 * the scanners must agree with on every address whose domain is not internationalized.
+	 */
+	private static final Pattern SIMPLE = Pattern.compile(
+			"^[a-z0-9`!#$%^&*'{}?/+=|_~-]+(\\.[a-z0-9`!#$%^&*'{}?/+=|_~-]+)*@" +
+			"([a-z0-9]([a-z0-9-]*[a-z0-9])?)+(\\.[a-z0-9]([a-z0-9-]*[a-z0-9])?)*$",
+			Pattern.CASE_INSENSITIVE
+	);
+
+	private static final Pattern EXTENDED = Pattern.compile(
+			"^(?:[a-z0-9`!#$%^&*'{}?/+=|_~-]+(?:\\.[a-z0-9`!#$%^&*'{}?/+=|_~-]+)*|\"(?:[\\x01-\\x08\\x0b\\x0c" +
+			"\\x0e-\\x1f\\x21\\x23-\\x5b\\x5d-\\x7f]|\\\\[\\x01-\\x09\\x0b\\x0c\\x0e-\\x7f])*\")@" +
+			"(?:(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?\\.)+[a-z0-9](?:[a-z0-9-]*[a-z0-9])?|\\[(?:(?:25[0-5]|2[0-4][0-9]|" +
+			"[01]?[0-9][0-9]?)\\.){3}(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?|[a-z0-9-]*[a-z0-9]:(?:[\\x01-\\x08" +
+			"\\x0b\\x0c\\x0e-\\x1f\\x21-\\x5a\\x53-\\x7f]|\\\\[\\x01-\\x09\\x0b\\x0c\\x0e-\\x7f])+)\\])$",
+			Pattern.CASE_INSENSITIVE
+	);
+
+	/*
+	 * The pieces random addresses are made of: every kind of character either grammar treats specially, a few it
+	 * rejects, and non-ASCII letters for internationalized domains.
+	 */
+	private static final String[] FRAGMENTS = {
+			"a", "Z", "0", "9", "ab", "x1", "-", "--", ".", "..", "@", "@", "\"", "\\", "[", "]", ":", "!", "#", "`",
+			"~", "|", "{", "}", " ", "\t", "\r", "\n", "\u0000", "\u0001", "\u007F", "(", ",", ";", "<", "1.2.3.",
+			"25", "255", "256", "099", "ü", "é", "例", "\u3002", "xn--", "xn--bcher-kva", "tag:", "\\]", "_"
+	};
+
+	private static final String[] ADDRESSES = {
+			"john@example.com", "j.o.h.n@a-b.c-d.e", "a!#$%&'*+/=?^_`{|}~-@x", "\"john doe\"@example.com",
+			"\"a\\\"b\\\\c\"@example.com", "\"\"@a.b", "john@[1.2.3.4]", "john@[255.25.0.199]",
+			"john@[1.2.3.tag:text]", "john@[1.2.3.a-b:x]]]", "john@[1.2.3.t:\\]]", "john@bücher.example"
+	};
+
+	private static final int NON_LATIN_STRIDE = 7;
+
+	private final Random random = new Random(1968L);
+
+	private static void assertSimple(boolean expected, String... values)
+	{
+		for(String value : values)
+		{
+			assertEquals("[" + value + "] is wrong for the simple grammar.", expected, EmailAddresses.isSimple(value));
+		}
+	}
+
+	private static void assertExtended(boolean expected, String... values)
+	{
+		for(String value : values)
+		{
+			assertEquals("[" + value + "] is wrong for the extended grammar.", expected,
+						 EmailAddresses.isExtended(value));
+		}
+	}
+
+	/*
+	 * The oracle: the original pattern, applied to the address with an internationalized domain replaced by its
+	 * ASCII form, which must be a valid international host name at all.
+	 */
+	private static boolean expected(Pattern pattern, String value)
+	{
+		int at = value.lastIndexOf('@');
+		if(at >= 0 && at + 1 < value.length() && value.charAt(at + 1) != '[' &&
+		   InternationalHostNames.needsNormalization(value, at + 1, value.length()))
+		{
+			String ascii = InternationalHostNames.normalize(value, at + 1, value.length());
+			return ascii != null && pattern.matcher(value.substring(0, at + 1) + ascii).matches();
+		}
+		return pattern.matcher(value).matches();
+	}
+
+	private static void assertSameAsPatterns(String value)
+	{
+		assertEquals("[" + value + "] is wrong for the simple grammar.",
+					 EmailAddressesTest.expected(SIMPLE, value), EmailAddresses.isSimple(value));
+		assertEquals("[" + value + "] is wrong for the extended grammar.",
+					 EmailAddressesTest.expected(EXTENDED, value), EmailAddresses.isExtended(value));
+	}
+
+	@Test
+	public void testKnownAddressesAgreeWithPatterns()
+	{
+		for(String address : ADDRESSES)
+		{
+			EmailAddressesTest.assertSameAsPatterns(address);
+		}
+		assertSimple(true, "john@example.com", "john@x", "a!#$%&'*+/=?^_`{|}~-@x");
+		assertSimple(false, "\"john doe\"@example.com", "john@[1.2.3.4]", "john@-x", "john@x-", "john@x..y", ".a@x",
+					 "a.@x", "a..b@x", "@x", "a@", "a@@x", "a b@x", "a@x.", "a@.x", "");
+		assertExtended(true, "john@example.com", "\"john..doe\"@example.com", "\"\"@a.b", "john@[1.2.3.4]",
+					   "john@[255.25.0.199]", "john@[1.2.3.tag:text]", "john@[1.2.3.a-b:x]]]", "john@[1.2.3.t:\\]]",
+					   "john@[1.2.3.-t:x]");
+		assertExtended(false, "john@x", "\"john doe\"@example.com", "john@[1.2.3]", "john@[1.2.3.256]", "john@[1.2.3.4", "john@[1.2.3.4]x",
+					   "john@[1.2.3.t-:x]", "john@[1.2.3.t:]", "john@[1.2.3.t: x]", "\"a\"b\"@x.y",
+					   "\"a\\\"@x.y", "\"a\nb\"@x.y", "\"a\\\nb\"@x.y");
+	}
+
+	@Test
+	public void testRandomAddressesAgreeWithPatterns()
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < 200000; i++)
+		{
+			builder.setLength(0);
+			for(int fragments = 1 + this.random.nextInt(10); fragments > 0; fragments--)
+			{
+				builder.append(FRAGMENTS[this.random.nextInt(FRAGMENTS.length)]);
+			}
+			EmailAddressesTest.assertSameAsPatterns(builder.toString());
+		}
+	}
+
+	@Test
+	public void testMutatedAddressesAgreeWithPatterns()
+	{
+		for(int i = 0; i < 200000; i++)
+		{
+			StringBuilder builder = new StringBuilder(ADDRESSES[this.random.nextInt(ADDRESSES.length)]);
+			for(int mutations = 1 + this.random.nextInt(3); mutations > 0; mutations--)
+			{
+				int position = this.random.nextInt(builder.length() + 1);
+				String fragment = FRAGMENTS[this.random.nextInt(FRAGMENTS.length)];
+				int kind = this.random.nextInt(3);
+				if(kind == 0 && position < builder.length())
+				{
+					builder.deleteCharAt(position);
+				}
+				else if(kind == 1 && position < builder.length())
+				{
+					builder.replace(position, position + 1, fragment);
+				}
+				else
+				{
+					builder.insert(position, fragment);
+				}
+			}
+			EmailAddressesTest.assertSameAsPatterns(builder.toString());
+		}
+	}
+
+	@Test
+	public void testEveryCharacterInEveryPositionAgreesWithPatterns()
+	{
+		for(String address : ADDRESSES)
+		{
+			for(int position = 0; position < address.length(); position++)
+			{
+				// every ASCII and Latin character, then a sample of the rest, which needs slow IDN conversions
+				for(char c = 0; c < '\u3000'; c += c < '\u0250' ? 1 : NON_LATIN_STRIDE)
+				{
+					EmailAddressesTest.assertSameAsPatterns(
+							address.substring(0, position) + c + address.substring(position + 1)
+					);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLongAddresses()
+	{
+		StringBuilder label = new StringBuilder();
+		for(int i = 0; i < 100000; i++)
+		{
+			label.append(i % 3 == 2 ? '-' : 'a');
+		}
+		label.append('a');
+		assertSimple(true, "john@a" + label, "john@x." + label);
+		assertExtended(true, "john@x." + label);
+		assertSimple(false, "john@a" + label + "!", "john@a" + label + "-");
+		assertExtended(false, "john@a" + label, "john@x." + label + "!", "\"" + label + "@x.y");
+	}
+
+	@Test
+	public void testValidators()
+	{
+		assertTrue("null should be valid.", new EmailSimpleValidator().isValid(null, null));
+		assertTrue("null should be valid.", new EmailExtendedValidator().isValid(null, null));
+		assertTrue("The address should be valid.", new EmailSimpleValidator().isValid("john@bücher.example", null));
+		assertFalse("The address should be invalid.", new EmailExtendedValidator().isValid("john@bücher", null));
+	}
+
+	@Test
+	public void testInternationalDomains()
+	{
+		String[] valid = {
+				"john@bücher.example", "john@BÜCHER.example", "john@xn--bcher-kva.example", "john@XN--BCHER-KVA.example",
+				"john@例え.テスト", "john@xn--r8jz45g.xn--zckzah", "john@bücher。example", "a.b+c@mañana.example.com"
+		};
+		assertSimple(true, valid);
+		assertExtended(true, valid);
+		assertSimple(true, "john@bücher");
+		assertExtended(false, "john@bücher");
+
+		String[] invalid = {
+				"jöhn@example.com", "john@xn--zz.example", "john@xn--.example", "john@bücher..example",
+				"john@bücher.example.", "john@-bücher.example", "john@bü cher.example", "john@bü_cher.example",
+				"john@" + EmailAddressesTest.repeat("ü", 64) + ".example", "john@\u200B.example"
+		};
+		assertSimple(false, invalid);
+		assertExtended(false, invalid);
+		assertExtended(true, "\"john\"@example.com", "john@[1.2.3.4]");
+		assertExtended(false, "\"jöhn\"@example.com", "john@[1.2.3.ü]");
+	}
+
+	private static String repeat(String value, int count)
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < count; i++)
+		{
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.Iban;
+
+import static org.junit.Assert.*;
+
+public class IbanValidatorTest
+{
+	private static final String[] REGISTRY_EXAMPLES = {
+			"AD1200012030200359100100", "BE68539007547034", "BR1800360305000010009795493C1",
+			"CH9300762011623852957", "DE89370400440532013000", "ES9121000418450200051332",
+			"FR1420041010050500013M02606", "GB82WEST12345698765432", "IT60X0542811101000000123456",
+			"MT84MALT011000012345MTLCAST001S", "MU17BOMM0101101030300200000MUR", "NL91ABNA0417164300",
+			"NO9386011117947", "SA0380000000608010167519"
+	};
+
+	@Iban
+	private Object any;
+
+	@Iban(allowedCountries = { "DE", "NL" })
+	private Object germanOrDutch;
+
+	@Iban(allowedCountries = { "US" })
+	private Object unitedStates;
+
+	@Iban(allowedCountries = { "gb" })
+	private Object lowercaseCountry;
+
+	private static IbanValidator validator(String field)
+	{
+		IbanValidator validator = new IbanValidator();
+		try
+		{
+			validator.initialize(IbanValidatorTest.class.getDeclaredField(field).getAnnotation(Iban.class));
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return validator;
+	}
+
+	@Test
+	public void testNull()
+	{
+		assertTrue("Null should be valid.", validator("any").isValid(null, null));
+	}
+
+	@Test
+	public void testRegistryExamples()
+	{
+		IbanValidator validator = validator("any");
+		for(String iban : REGISTRY_EXAMPLES)
+		{
+			assertTrue("[" + iban + "] should be valid.", validator.isValid(iban, null));
+		}
+	}
+
+	@Test
+	public void testPaperFormat()
+	{
+		IbanValidator validator = validator("any");
+		assertTrue("Spaces should be ignored.", validator.isValid("GB82 WEST 1234 5698 7654 32", null));
+		assertTrue("Spaces should be ignored.", validator.isValid("FR14 2004 1010 0505 0001 3M02 606", null));
+		assertFalse("Lowercase should be invalid.", validator.isValid("gb82 west 1234 5698 7654 32", null));
+		assertFalse("Dashes should be invalid.", validator.isValid("GB82-WEST-1234-5698-7654-32", null));
+	}
+
+	@Test
+	public void testCheckDigits()
+	{
+		IbanValidator validator = validator("any");
+		assertFalse("A changed check digit should be invalid.", validator.isValid("GB81WEST12345698765432", null));
+		assertFalse("A changed BBAN digit should be invalid.", validator.isValid("GB82WEST12345698765433", null));
+		assertFalse("Swapped BBAN digits should be invalid.", validator.isValid("GB82WEST12345698765423", null));
+		assertFalse("A changed BBAN letter should be invalid.", validator.isValid("GB82WESU12345698765432", null));
+		assertFalse("Check digits 00 should be invalid.", validator.isValid("GB00WEST12345698765432", null));
+		assertFalse("Check digits 01 should be invalid.", validator.isValid("GB01WEST12345698765432", null));
+		assertFalse("Check digits 99 should be invalid.", validator.isValid("GB99WEST12345698765432", null));
+	}
+
+	@Test
+	public void testStructure()
+	{
+		IbanValidator validator = validator("any");
+		assertFalse("Digits in a letter position should be invalid even with a correct checksum.",
+					validator.isValid("GB25123412345698765432", null));
+		assertFalse("A short BBAN should be invalid even with a correct checksum.",
+					validator.isValid("DE5137040044053201300", null));
+		assertFalse("A country outside the registry should be invalid even with a correct checksum.",
+					validator.isValid("US5112345678", null));
+		assertFalse("A long BBAN should be invalid.", validator.isValid("GB82WEST123456987654320", null));
+		assertFalse("Letter check digits should be invalid.", validator.isValid("GBX2WEST12345698765432", null));
+		assertFalse("The country alone should be invalid.", validator.isValid("GB", null));
+		assertFalse("The empty string should be invalid.", validator.isValid("", null));
+		assertFalse("A single letter should be invalid.", validator.isValid("G", null));
+		assertFalse("A prefix alone should be invalid.", validator.isValid("GB82", null));
+	}
+
+	@Test
+	public void testAllowedCountries()
+	{
+		IbanValidator validator = validator("germanOrDutch");
+		assertTrue("DE should be allowed.", validator.isValid("DE89370400440532013000", null));
+		assertTrue("NL should be allowed.", validator.isValid("NL91ABNA0417164300", null));
+		assertFalse("GB should not be allowed.", validator.isValid("GB82WEST12345698765432", null));
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testCountryWithoutIbans()
+	{
+		validator("unitedStates");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testLowercaseCountry()
+	{
+		validator("lowercaseCountry");
+	}
+}
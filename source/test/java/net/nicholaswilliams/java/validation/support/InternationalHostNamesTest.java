@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InternationalHostNamesTest
+{
+	private static void assertNormalized(String expected, String... hosts)
+	{
+		for(String host : hosts)
+		{
+			assertEquals("[" + host + "] is normalized wrong.", expected, InternationalHostNames.normalize(host));
+		}
+	}
+
+	private static void assertRejected(String... hosts)
+	{
+		for(String host : hosts)
+		{
+			assertNull("[" + host + "] should be rejected.", InternationalHostNames.normalize(host));
+		}
+	}
+
+	@Test
+	public void testAsciiTakesTheFastPath()
+	{
+		assertFalse("Plain ASCII should not need normalization.",
+					InternationalHostNames.needsNormalization("www.example.com", 0, 15));
+		assertFalse("A label only containing xn-- should not need normalization.",
+					InternationalHostNames.needsNormalization("www.axn--b.com", 0, 14));
+		assertTrue("An xn-- label should need normalization.",
+				   InternationalHostNames.needsNormalization("www.XN--bcher-kva.com", 0, 21));
+		assertTrue("Unicode should need normalization.",
+				   InternationalHostNames.needsNormalization("bücher.example", 0, 14));
+		assertNormalized("Example.COM", "Example.COM");
+	}
+
+	@Test
+	public void testUnicode()
+	{
+		assertNormalized("xn--bcher-kva.example", "bücher.example", "BÜCHER.example", "Bücher.EXAMPLE");
+		assertNormalized("xn--bcher-kva.example.", "bücher.example.");
+		assertNormalized("xn--bcher-kva.example", "bücher。example", "bücher．example");
+		assertNormalized("xn--wgv71a119e.jp", "日本語.jp");
+		assertNormalized("xn--mller-kva.example", "müller.example");
+		assertRejected("bücher-.example", "-bücher.example", "bücher..example", "bü_cher.example",
+					   "bücher.exa mple");
+	}
+
+	@Test
+	public void testAceLabels()
+	{
+		assertNormalized("xn--bcher-kva.example", "xn--bcher-kva.example", "XN--BCHER-KVA.example",
+						 "Xn--Bcher-Kva.Example");
+		assertNormalized("xn--wgv71a119e.jp", "xn--wgv71a119e.jp");
+		assertRejected("xn--zz.example", "xn--.example", "xn--a.example", "xn--ab-.example", "xn--bcher-.example",
+					   "xn--abc.example", "xn--Bcher-kvaü.example");
+	}
+
+	@Test
+	public void testSharpSAndFinalSigmaAreKept()
+	{
+		assertNormalized("xn--fa-hia.de", "faß.de", "FAß.DE", "faẞ.de", "xn--fa-hia.de",
+						 "XN--FA-HIA.de");
+		assertNormalized("fass.de", "fass.de");
+		assertNormalized("xn--strae-oqa.de", "straße.de");
+		assertNormalized("xn--zca", "ß", "xn--zca", "xn--ZCA");
+		assertNormalized("xn--nxasmm1c.com", "βόλος.com", "xn--nxasmm1c.com");
+		assertNormalized("xn--nxasmq6b.com", "βόλοσ.com", "ΒΌΛΟΣ.com");
+		assertNormalized("xn--ff-hia.de", "ﬀß.de");
+		assertRejected("ß-.de", "-ß.de", "aß_b.de", "xn--FA-hia-.de",
+					   "xn--fA-hia.de".replace("A", "Ä"));
+		StringBuilder tooLong = new StringBuilder();
+		for(int i = 0; i < 62; i++)
+		{
+			tooLong.append('ß');
+		}
+		assertRejected(tooLong + ".de");
+	}
+
+	@Test
+	public void testJoinersAreRejected()
+	{
+		assertRejected("a‍b.example", "a‌b.example", "xn--ab-m1t.example", "xn--ab-j1t.example");
+		assertNormalized("ab.example", "ab.example");
+	}
+
+	@Test
+	public void testRegionsAreNormalized()
+	{
+		assertEquals("The region is normalized wrong.", "xn--fa-hia.de",
+					 InternationalHostNames.normalize("http://faß.de/", 7, 13));
+	}
+
+	@Test
+	public void testCacheIsBounded() throws Exception
+	{
+		Field field = InternationalHostNames.class.getDeclaredField("CACHE");
+		field.setAccessible(true);
+		BoundedCache<?, ?> cache = (BoundedCache<?, ?>) field.get(null);
+		for(int i = 0; i < 10000; i++)
+		{
+			assertNotNull("The host should be normalized.", InternationalHostNames.normalize("bücher" + i + ".de"));
+			assertTrue("The cache should not grow beyond its bound.", cache.size() <= 4096);
+		}
+		assertNormalized("xn--bcher-kva.example", "bücher.example");
+	}
+}
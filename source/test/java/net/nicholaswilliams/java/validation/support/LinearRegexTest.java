@@ -0,0 +1,380 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LinearRegexTest
+{
+	/*
+	 * The characters inputs are made of, chosen to exercise case folding (the Kelvin sign, long s, dotted and dotless
+	 * i), line terminators, and supplementary characters.
+	 */
+	private static final String[] ALPHABET = {
+			"a", "b", "A", "é", "K", "k", "s", "ſ", "1", "_", " ", "\n", "\r", "😀"
+	};
+
+	private static final String[] LITERALS = {
+			"a", "b", "A", "B", "é", "É", "k", "K", "K", "s", "S", "ſ", "ß", "1", "_", " ", "-", "😀",
+			"\\n", "\\r", "\\.", "\\x61", "\\u0041", "\\0141", "\\cJ", "\\t", "\\x{1F600}", "\\Qa.\\E", "\\Q\\E"
+	};
+
+	private static final String[] CLASSES = {
+			".", "\\d", "\\D", "\\w", "\\W", "\\s", "\\S", "\\h", "\\v", "[ab]", "[^ab]", "[a-c]", "[A-Z]", "[^\\n]",
+			"[a-z&&[^aeiou]]", "[\\w&&[^\\d]]", "[é-ë]", "[\\x{1F600}-\\x{1F64F}]", "[a[K]]", "[-a]", "[a-]",
+			"\\p{Lu}", "\\p{L}", "\\P{Ll}", "[\\p{L}&&[^a-z]]", "[\\Qa-b\\E]", "[\\n\\r]", "[ſ]", "[k-k]"
+	};
+
+	private static final String[] ANCHORS = { "^", "$", "\\A", "\\z", "\\Z" };
+
+	private static final String[] QUANTIFIERS = { "*", "+", "?", "{0}", "{1}", "{2}", "{1,3}", "{2,}", "{0,1}" };
+
+	/*
+	 * Pattern never starts an iteration where the previous one started, so a repetition whose minimum can only be
+	 * reached by matching the empty string at an assertion fails there, although the language contains the input.
+	 * Groups containing an anchor are therefore only repeated with a minimum of at most one.
+	 */
+	private static final String[] ANCHORED_QUANTIFIERS = { "*", "+", "?", "{0}", "{1}", "{1,3}", "{0,1}" };
+
+	private static final int[] FLAGS = {
+			Pattern.CASE_INSENSITIVE, Pattern.UNICODE_CASE, Pattern.MULTILINE, Pattern.DOTALL, Pattern.UNIX_LINES
+	};
+
+	private static final int MAX_INPUT_LENGTH = 3;
+
+	private static final List<String> INPUTS = new ArrayList<String>();
+
+	static
+	{
+		List<String> previous = new ArrayList<String>();
+		previous.add("");
+		INPUTS.add("");
+		for(int length = 1; length <= MAX_INPUT_LENGTH; length++)
+		{
+			List<String> next = new ArrayList<String>();
+			for(String prefix : previous)
+			{
+				for(String c : ALPHABET)
+				{
+					next.add(prefix + c);
+				}
+			}
+			INPUTS.addAll(next);
+			previous = next;
+		}
+	}
+
+	private final Random random = new Random(1968L);
+
+	private int groups;
+
+	private boolean anchored;
+
+	private String pick(String[] choices)
+	{
+		return choices[this.random.nextInt(choices.length)];
+	}
+
+	private String expression(int depth)
+	{
+		StringBuilder builder = new StringBuilder();
+		int alternatives = this.random.nextInt(4) == 0 ? 2 : 1;
+		for(int a = 0; a < alternatives; a++)
+		{
+			if(a > 0)
+			{
+				builder.append('|');
+			}
+			for(int items = 1 + this.random.nextInt(3); items > 0; items--)
+			{
+				builder.append(this.item(depth));
+			}
+		}
+		return builder.toString();
+	}
+
+	private String item(int depth)
+	{
+		int kind = this.random.nextInt(depth > 0 ? 10 : 8);
+		if(kind == 0)
+		{
+			this.anchored = true;
+			return this.pick(ANCHORS);
+		}
+
+		String atom;
+		String[] quantifiers = QUANTIFIERS;
+		if(kind < 4)
+		{
+			atom = this.pick(LITERALS);
+		}
+		else if(kind < 8)
+		{
+			atom = this.pick(CLASSES);
+		}
+		else
+		{
+			int group = this.random.nextInt(3);
+			boolean outer = this.anchored;
+			this.anchored = false;
+			atom = (group == 0 ? "(" : group == 1 ? "(?:" : "(?<g" + this.groups++ + ">") +
+				   this.expression(depth - 1) + ")";
+			if(this.anchored)
+			{
+				quantifiers = ANCHORED_QUANTIFIERS;
+			}
+			this.anchored |= outer;
+		}
+		// an empty quotation vanishes, so a quantifier after it would apply to whatever precedes it
+		if(!"\\Q\\E".equals(atom) && this.random.nextInt(3) == 0)
+		{
+			atom += this.pick(quantifiers) + (this.random.nextInt(4) == 0 ? "?" : "");
+		}
+		return atom;
+	}
+
+	private int flags()
+	{
+		int flags = 0;
+		for(int flag : FLAGS)
+		{
+			if(this.random.nextInt(3) == 0)
+			{
+				flags |= flag;
+			}
+		}
+		return flags;
+	}
+
+	private static void assertSameMatches(String regexp, int flags) throws IOException
+	{
+		Pattern pattern;
+		try
+		{
+			pattern = Pattern.compile(regexp, flags);
+		}
+		catch(PatternSyntaxException e)
+		{
+			try
+			{
+				LinearRegex.compile(regexp, flags);
+				fail("/" + regexp + "/ should be invalid, like it is for Pattern.");
+			}
+			catch(PatternSyntaxException expected)
+			{
+				return;
+			}
+			return;
+		}
+		LinearRegex linear = LinearRegex.compile(regexp, flags);
+		for(String input : INPUTS)
+		{
+			boolean expected = pattern.matcher(input).matches();
+			String message = "[" + input + "] against /" + regexp + "/ with flags " + flags + ".";
+			assertEquals("Wrong result for " + message, expected, linear.matches(input));
+			assertEquals("Wrong result from a reader for " + message, expected,
+						 linear.matches(new StringReader(input)));
+		}
+	}
+
+	private static void assertUnsupported(String regexp, int flags)
+	{
+		Pattern.compile(regexp, flags);
+		try
+		{
+			LinearRegex.compile(regexp, flags);
+			fail("/" + regexp + "/ with flags " + flags + " should be rejected.");
+		}
+		catch(IllegalArgumentException e)
+		{
+			assertFalse("/" + regexp + "/ is valid, so it should not be a syntax error.",
+						e instanceof PatternSyntaxException);
+		}
+	}
+
+	private static void assertSyntaxError(String regexp)
+	{
+		try
+		{
+			Pattern.compile(regexp);
+			fail("/" + regexp + "/ should be invalid for Pattern.");
+		}
+		catch(PatternSyntaxException e)
+		{
+			// expected
+		}
+		try
+		{
+			LinearRegex.compile(regexp, 0);
+			fail("/" + regexp + "/ should be invalid.");
+		}
+		catch(PatternSyntaxException e)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void testGeneratedExpressionsAgreeWithPattern() throws IOException
+	{
+		for(int i = 0; i < 600; i++)
+		{
+			this.groups = 0;
+			LinearRegexTest.assertSameMatches(this.expression(2), this.flags());
+		}
+	}
+
+	@Test
+	public void testLiteralFlag() throws IOException
+	{
+		for(int i = 0; i < 100; i++)
+		{
+			this.groups = 0;
+			LinearRegexTest.assertSameMatches(this.expression(1), this.flags() | Pattern.LITERAL);
+		}
+	}
+
+	@Test
+	public void testKnownExpressions() throws IOException
+	{
+		String[] expressions = {
+				"", "a*", "(a|b)*abb", "(?:a|😀)*$\\s*", "^$", "\\A\\z", "a$\\n", ".*\\Z", "(a*)*", "(a?){3}a{3}",
+				"[^a]+", "a{0,0}b", "(?<x>a)(?<y>b)?", "\\x{1F600}{2}", "[\\x{1F600}-\\x{1F64F}]\\uD83D\\uDE00",
+				"(^|a)+$", "\\Q(a|b)\\E", "\\Q", "[\\Q]\\E]", "a|", "|", "()", "(|a)+", "a\\Q\\E*",
+				"a\\Q\\E\\Q\\E{2}", "\\Qab\\E{2}", "{2,}", "a*{2}", "a{2}{3}", "a|{2}", "(?:){2}", "^*a",
+				"x{0,1}\\Q\\E?", "a{\\Q\\E2}", "[a\\Q\\E-c]", "(\\A|b)+", "(\\A|b){1,2}"
+		};
+		for(String expression : expressions)
+		{
+			for(int flags : new int[] { 0, Pattern.MULTILINE, Pattern.DOTALL | Pattern.UNIX_LINES,
+										Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE })
+			{
+				LinearRegexTest.assertSameMatches(expression, flags);
+			}
+		}
+	}
+
+	@Test
+	public void testLongInputs() throws IOException
+	{
+		String[] expressions = { "(?:ab|\\r\\n)*", "(a|b|\\s)*", "(?:(?:ab)*\\r\\n)*(?:ab)*", "(?:^(?:ab)*$|\\r\\n)*" };
+		for(String expression : expressions)
+		{
+			for(int flags : new int[] { 0, Pattern.MULTILINE })
+			{
+				// Pattern recurses once per repetition, so it can only check inputs of moderate length
+				String input = LinearRegexTest.lines(200);
+				LinearRegexTest.assertSameMatches(expression, flags, input);
+				LinearRegexTest.assertSameMatches(expression, flags, input + "c");
+			}
+		}
+
+		String input = LinearRegexTest.lines(100000);
+		boolean[] expected = { true, true, true, false };
+		for(int i = 0; i < expressions.length; i++)
+		{
+			LinearRegex linear = LinearRegex.compile(expressions[i], 0);
+			assertEquals("Wrong result for /" + expressions[i] + "/.", expected[i], linear.matches(input));
+			assertEquals("Wrong result from a reader for /" + expressions[i] + "/.", expected[i],
+						 linear.matches(new StringReader(input)));
+		}
+		assertTrue("The multiline expression should match.",
+				   LinearRegex.compile(expressions[3], Pattern.MULTILINE).matches(new StringReader(input)));
+	}
+
+	private static String lines(int count)
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < count; i++)
+		{
+			builder.append(i % 7 == 0 ? "\r\n" : "ab");
+		}
+		return builder.toString();
+	}
+
+	private static void assertSameMatches(String regexp, int flags, String input) throws IOException
+	{
+		boolean expected = Pattern.compile(regexp, flags).matcher(input).matches();
+		LinearRegex linear = LinearRegex.compile(regexp, flags);
+		assertEquals("Wrong result for /" + regexp + "/.", expected, linear.matches(input));
+		assertEquals("Wrong result from a reader for /" + regexp + "/.", expected,
+					 linear.matches(new StringReader(input)));
+	}
+
+	@Test
+	public void testRegularSemanticsOfEmptyIterations() throws IOException
+	{
+		assertFalse("Pattern should not match.", Pattern.compile("(\\A|b){2}").matcher("b").matches());
+		assertTrue("The expression should match.", LinearRegex.compile("(\\A|b){2}", 0).matches("b"));
+		assertTrue("The expression should match from a reader.",
+				   LinearRegex.compile("(\\A|b){2,}", 0).matches(new StringReader("b")));
+	}
+
+	@Test
+	public void testUnsupportedConstructs()
+	{
+		String[] expressions = {
+				"(a)\\1", "(?<x>a)\\k<x>", "a(?=b)", "a(?!b)", "(?<=a)b", "(?<!a)b", "(?>a)", "a*+", "a++", "a?+",
+				"a{1,2}+", "a+\\Q\\E+", "\\ba", "\\Ba", "\\Ga", "(?i)a", "(?i:a)", "(?-i)a", "(?s).", "(?u)a",
+				"[^[a]]", "[^a&&b]"
+		};
+		for(String expression : expressions)
+		{
+			LinearRegexTest.assertUnsupported(expression, 0);
+		}
+		LinearRegexTest.assertUnsupported("a", Pattern.COMMENTS);
+		LinearRegexTest.assertUnsupported("a", Pattern.CANON_EQ);
+	}
+
+	@Test
+	public void testSyntaxErrors()
+	{
+		String[] expressions = {
+				"(", ")", "(a", "[a", "[b-a]", "a{2,1}", "a{", "a{x}", "{", "*a", "+", "?", "\\", "\\Q\\E*", "a*\\Q\\E*",
+				"\\p{Nope}", "\\x{110000}", "\\xZ", "\\u00G0", "\\c", "\\0", "(?<1a>b)", "(?<é>b)", "(?<a_b>c)",
+				"(?<a>b)(?<a>c)", "\\y"
+		};
+		for(String expression : expressions)
+		{
+			LinearRegexTest.assertSyntaxError(expression);
+		}
+	}
+
+	@Test
+	public void testTooLarge()
+	{
+		try
+		{
+			LinearRegex.compile("(a{100}){200}", 0);
+			fail("The expression should be too large.");
+		}
+		catch(IllegalArgumentException e)
+		{
+			assertFalse("The expression is valid, so it should not be a syntax error.",
+						e instanceof PatternSyntaxException);
+		}
+	}
+}
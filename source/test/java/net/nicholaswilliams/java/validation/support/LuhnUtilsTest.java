@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LuhnUtilsTest
+{
+	private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+	private final Random random = new Random(1954L);
+
+	/*
+	 * The textbook digit-at-a-time Luhn check that the packed implementation must agree with.
+	 */
+	private static boolean scalarLuhn(String value)
+	{
+		if(value.length() == 0)
+		{
+			return false;
+		}
+		int sum = 0;
+		boolean doubled = false;
+		for(int i = value.length() - 1; i >= 0; i--)
+		{
+			char c = value.charAt(i);
+			if(c < '0' || c > '9')
+			{
+				return false;
+			}
+			int digit = c - '0';
+			if(doubled)
+			{
+				digit *= 2;
+				if(digit > 9)
+				{
+					digit -= 9;
+				}
+			}
+			sum += digit;
+			doubled = !doubled;
+		}
+		return sum % 10 == 0;
+	}
+
+	private static String repeat(char c, int count)
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < count; i++)
+		{
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+	private String randomDigits(int length)
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < length; i++)
+		{
+			builder.append((char) ('0' + this.random.nextInt(10)));
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * Replaces the last digit with the one that makes the value pass.
+	 */
+	private static String withCheckDigit(String value)
+	{
+		String prefix = value.substring(0, value.length() - 1);
+		for(char c = '0'; c <= '9'; c++)
+		{
+			if(LuhnUtilsTest.scalarLuhn(prefix + c))
+			{
+				return prefix + c;
+			}
+		}
+		throw new IllegalStateException("No check digit for " + value + ".");
+	}
+
+	private static void assertAgrees(String value)
+	{
+		boolean expected = LuhnUtilsTest.scalarLuhn(value);
+		assertEquals("Wrong result for the value [" + value + "].", expected, LuhnUtils.isValid(value));
+		assertEquals("Wrong result for the builder [" + value + "].", expected,
+					 LuhnUtils.isValid(new StringBuilder(value)));
+
+		char[] buffer = ("x" + value + "y").toCharArray();
+		assertEquals("Wrong result for the buffer [" + value + "].", expected,
+					 LuhnUtils.isValid(buffer, 1, value.length()));
+
+		if(value.length() > 0 && value.matches("[0-9]+") && new BigInteger(value).compareTo(MAX_LONG) <= 0)
+		{
+			assertEquals("Wrong result for the number " + value + ".", expected,
+						 LuhnUtils.isValid(Long.parseLong(value)));
+		}
+	}
+
+	@Test
+	public void testRandomCardNumbersAgreeWithScalarLuhn()
+	{
+		for(int i = 0; i < 20000; i++)
+		{
+			String value = this.randomDigits(12 + this.random.nextInt(8));
+			LuhnUtilsTest.assertAgrees(value);
+			LuhnUtilsTest.assertAgrees(LuhnUtilsTest.withCheckDigit(value));
+		}
+	}
+
+	@Test
+	public void testLaneBoundaries()
+	{
+		for(int length = 1; length <= 26; length++)
+		{
+			for(int i = 0; i < 200; i++)
+			{
+				String value = this.randomDigits(length);
+				LuhnUtilsTest.assertAgrees(value);
+				LuhnUtilsTest.assertAgrees(LuhnUtilsTest.withCheckDigit(value));
+			}
+		}
+	}
+
+	@Test
+	public void testAllNinesAndAllZeros()
+	{
+		for(int length = 1; length <= 26; length++)
+		{
+			LuhnUtilsTest.assertAgrees(LuhnUtilsTest.repeat('9', length));
+			LuhnUtilsTest.assertAgrees(LuhnUtilsTest.repeat('0', length));
+			assertTrue("All zeros should pass.", LuhnUtils.isValid(LuhnUtilsTest.repeat('0', length)));
+		}
+		assertTrue("Zero should pass.", LuhnUtils.isValid(0L));
+		LuhnUtilsTest.assertAgrees("999999999999999999");
+		LuhnUtilsTest.assertAgrees(Long.toString(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testNonDigits()
+	{
+		String[] values = { "", "4111 1111 1111 1111", "411111111111111/", "411111111111111:", "4111-1111",
+							"４１１１１１１１１１１１１１１１", "a", "0000000x" };
+		for(String value : values)
+		{
+			LuhnUtilsTest.assertAgrees(value);
+			assertFalse("The value [" + value + "] should fail.", LuhnUtils.isValid(value));
+		}
+		assertTrue("Null should pass.", LuhnUtils.isValid((CharSequence) null));
+		assertFalse("Negative numbers should fail.", LuhnUtils.isValid(-4111111111111111L));
+		assertFalse("The most negative number should fail.", LuhnUtils.isValid(Long.MIN_VALUE));
+	}
+
+	@Test
+	public void testBatches()
+	{
+		int count = 1000;
+		String[] values = new String[count];
+		long[] numbers = new long[count];
+		StringBuilder buffer = new StringBuilder();
+		int[] offsets = new int[count + 1];
+		BitSet expected = new BitSet(count);
+		for(int i = 0; i < count; i++)
+		{
+			String value = this.randomDigits(12 + this.random.nextInt(7));
+			values[i] = this.random.nextBoolean() ? LuhnUtilsTest.withCheckDigit(value) : value;
+			numbers[i] = Long.parseLong(values[i]);
+			offsets[i] = buffer.length();
+			buffer.append(values[i]);
+			expected.set(i, !LuhnUtilsTest.scalarLuhn(values[i]));
+		}
+		offsets[count] = buffer.length();
+
+		assertEquals("The values' failures are wrong.", expected, LuhnUtils.validate(values));
+		assertEquals("The numbers' failures are wrong.", expected, LuhnUtils.validate(numbers));
+		assertEquals("The buffer's failures are wrong.", expected,
+					 LuhnUtils.validate(buffer.toString().toCharArray(), offsets, count));
+	}
+}
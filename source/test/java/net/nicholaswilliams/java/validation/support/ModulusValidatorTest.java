@@ -0,0 +1,326 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.math.BigInteger;
+import java.util.Random;
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.Modulus;
+import net.nicholaswilliams.java.validation.Modulus.Modulo;
+
+import static org.junit.Assert.*;
+
+public class ModulusValidatorTest
+{
+	@Modulus(type = Modulo.MOD10, multiplier = 2)
+	private Object luhn;
+
+	@Modulus(type = Modulo.MOD10, multiplier = 2, ignoreNonDigits = false)
+	private Object luhnStrict;
+
+	@Modulus(type = Modulo.MOD10, multiplier = 2, startIndex = 1, endIndex = 11, checkDigitIndex = 0)
+	private Object luhnLeadingCheckDigit;
+
+	@Modulus(type = Modulo.MOD11, multiplier = 10)
+	private Object isbn10;
+
+	@Modulus(type = Modulo.MOD11, multiplier = 10, ignoreNonDigits = false)
+	private Object nhsNumber;
+
+	@Modulus(type = Modulo.VERHOEFF, multiplier = 0)
+	private Object verhoeff;
+
+	@Modulus(type = Modulo.DAMM, multiplier = 0)
+	private Object damm;
+
+	@Modulus(type = Modulo.ISO7064_MOD11_2, multiplier = 0)
+	private Object mod11Of2;
+
+	@Modulus(type = Modulo.ISO7064_MOD37_2, multiplier = 0)
+	private Object mod37Of2;
+
+	@Modulus(type = Modulo.ISO7064_MOD97_10, multiplier = 0)
+	private Object mod97Of10;
+
+	@Modulus(type = Modulo.ISO7064_MOD97_10, multiplier = 0, startIndex = 2, checkDigitIndex = 0)
+	private Object mod97Of10LeadingCheckDigits;
+
+	@Modulus(type = Modulo.MOD10, multiplier = 0)
+	private Object zeroMultiplier;
+
+	@Modulus(type = Modulo.MOD10, multiplier = 2, startIndex = 2, endIndex = 5, checkDigitIndex = 3)
+	private Object checkDigitInRange;
+
+	/*
+	 * The fixtures the adapters are checked against the string validator on.
+	 */
+	private static final String[] ADAPTED = {
+			"luhn", "luhnLeadingCheckDigit", "isbn10", "verhoeff", "damm", "mod11Of2", "mod97Of10"
+	};
+
+	private final Random random = new Random(1968L);
+
+	private static ModulusValidator validator(String field)
+	{
+		return validator(new ModulusValidator(), field);
+	}
+
+	private static <V extends ConstraintValidator<Modulus, ?>> V validator(V validator, String field)
+	{
+		try
+		{
+			validator.initialize(ModulusValidatorTest.class.getDeclaredField(field).getAnnotation(Modulus.class));
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return validator;
+	}
+
+	private static void assertValid(String field, String... values)
+	{
+		ModulusValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertTrue("[" + value + "] should pass " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	private static void assertInvalid(String field, String... values)
+	{
+		ModulusValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertFalse("[" + value + "] should fail " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	@Test
+	public void testNull()
+	{
+		assertTrue("Null should be valid.", validator("luhn").isValid(null, null));
+	}
+
+	@Test
+	public void testLuhn()
+	{
+		assertValid("luhn", "79927398713", "4111111111111111", "4111 1111 1111 1111", "0");
+		assertInvalid("luhn", "79927398710", "79927398731", "4111111111111112", "");
+		assertInvalid("luhnStrict", "4111 1111 1111 1111");
+		assertValid("luhnStrict", "4111111111111111");
+	}
+
+	@Test
+	public void testLuhnWithCheckDigitOutsideRange()
+	{
+		assertValid("luhnLeadingCheckDigit", "37992739871");
+		assertInvalid("luhnLeadingCheckDigit", "07992739871", "x7992739871");
+	}
+
+	@Test
+	public void testMod11()
+	{
+		assertValid("isbn10", "0306406152", "0-306-40615-2", "0470059028", "080442957X", "0-8044-2957-x",
+					"0198526636", "0000000000");
+		assertInvalid("isbn10", "0306406153", "3006406152", "0804429570", "0198526630", "019852663X", "08044X2957",
+					  "X");
+		assertValid("nhsNumber", "9434765919");
+		assertInvalid("nhsNumber", "9434765910", "943476591X", "943 476 5919", "0804429570");
+	}
+
+	@Test
+	public void testVerhoeff()
+	{
+		assertValid("verhoeff", "2363", "123451");
+		assertInvalid("verhoeff", "2364", "3263", "123415", "2");
+	}
+
+	@Test
+	public void testDamm()
+	{
+		assertValid("damm", "5724", "112946");
+		assertInvalid("damm", "5727", "7524", "4");
+	}
+
+	@Test
+	public void testIso7064Mod11Of2()
+	{
+		assertValid("mod11Of2", "0000-0002-1825-0097", "0000-0002-1694-233X", "0000-0002-1694-233x");
+		assertInvalid("mod11Of2", "0000-0002-1825-0098", "0000-0002-1694-2330", "0000-000X-1694-2330");
+	}
+
+	@Test
+	public void testIso7064Mod37Of2()
+	{
+		assertValid("mod37Of2", "G123498654321H", "g123498654321h", "A12425GABC12340025");
+		assertInvalid("mod37Of2", "G123498654321I", "G123498654312H");
+	}
+
+	@Test
+	public void testIso7064Mod97Of10()
+	{
+		assertValid("mod97Of10", "79444", "WEST12345698765432GB82");
+		assertInvalid("mod97Of10", "79445", "WEST12345698765423GB82");
+		assertValid("mod97Of10LeadingCheckDigits", "82WEST12345698765432GB");
+		assertInvalid("mod97Of10LeadingCheckDigits", "28WEST12345698765432GB");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testZeroMultiplier()
+	{
+		validator("zeroMultiplier");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testCheckDigitInsideRange()
+	{
+		validator("checkDigitInRange");
+	}
+
+	private static String luhnNumber(String payload)
+	{
+		ModulusValidator validator = validator("luhn");
+		for(char check = '0'; check <= '9'; check++)
+		{
+			if(validator.isValid(payload + check, null))
+			{
+				return payload + check;
+			}
+		}
+		throw new IllegalStateException("No check digit for [" + payload + "].");
+	}
+
+	private long[] longs()
+	{
+		long[] values = new long[1000];
+		int i = 0;
+		for(long power = 1L; i < 57; power *= 10L)
+		{
+			values[i++] = power - 1L;
+			values[i++] = power;
+			values[i++] = power + 1L;
+		}
+		values[i++] = 79927398713L;
+		values[i++] = 4111111111111111L;
+		values[i++] = Long.MAX_VALUE;
+		while(i < values.length)
+		{
+			values[i++] = this.random.nextLong() >>> 1 + this.random.nextInt(Long.SIZE - 1);
+		}
+		return values;
+	}
+
+	@Test
+	public void testCharArrayAdapterAgreesWithString()
+	{
+		String[] values = { "79927398713", "79927398710", "4111 1111 1111 1111", "4111-1111-1111-1112", "0", "",
+							"x", "0306406152", "030640615X", "2363", "5724", "079", "3214", "1234567890123456" };
+		for(String field : ADAPTED)
+		{
+			ModulusValidator expected = validator(field);
+			ModulusCharArrayValidator actual = validator(new ModulusCharArrayValidator(), field);
+			assertTrue("Null should be valid.", actual.isValid(null, null));
+			for(String value : values)
+			{
+				assertEquals("Wrong result for [" + value + "] on " + field + ".", expected.isValid(value, null),
+							 actual.isValid(value.toCharArray(), null));
+			}
+		}
+	}
+
+	@Test
+	public void testLongAdapterAgreesWithString()
+	{
+		long[] values = this.longs();
+		for(String field : ADAPTED)
+		{
+			ModulusValidator expected = validator(field);
+			ModulusLongValidator actual = validator(new ModulusLongValidator(), field);
+			assertTrue("Null should be valid.", actual.isValid(null, null));
+			for(long value : values)
+			{
+				assertEquals("Wrong result for " + value + " on " + field + ".",
+							 expected.isValid(Long.toString(value), null), actual.isValid(value, null));
+			}
+		}
+	}
+
+	@Test
+	public void testLongAdapterRejectsNegatives()
+	{
+		ModulusLongValidator validator = validator(new ModulusLongValidator(), "luhn");
+		assertTrue("79927398713 should be valid.", validator.isValid(79927398713L, null));
+		assertTrue("0 should be valid.", validator.isValid(0L, null));
+		assertFalse("-79927398713 should be invalid.", validator.isValid(-79927398713L, null));
+		assertFalse("-1 should be invalid.", validator.isValid(-1L, null));
+		assertFalse("Long.MIN_VALUE should be invalid.", validator.isValid(Long.MIN_VALUE, null));
+		for(String field : ADAPTED)
+		{
+			assertFalse("Long.MIN_VALUE should fail " + field + ".",
+						validator(new ModulusLongValidator(), field).isValid(Long.MIN_VALUE, null));
+		}
+	}
+
+	@Test
+	public void testBigIntegerAdapterAgreesWithString()
+	{
+		BigInteger[] values = new BigInteger[1000];
+		int i = 0;
+		for(BigInteger edge : new BigInteger[] {
+				BigInteger.valueOf(Long.MAX_VALUE), BigInteger.ONE.shiftLeft(Long.SIZE), BigInteger.TEN.pow(19),
+				BigInteger.TEN.pow(25), new BigInteger(luhnNumber("123456789012345678901234"))
+		})
+		{
+			values[i++] = edge.subtract(BigInteger.ONE);
+			values[i++] = edge;
+			values[i++] = edge.add(BigInteger.ONE);
+		}
+		while(i < values.length)
+		{
+			values[i++] = new BigInteger(1 + this.random.nextInt(100), this.random);
+		}
+
+		for(String field : ADAPTED)
+		{
+			ModulusValidator expected = validator(field);
+			ModulusBigIntegerValidator actual = validator(new ModulusBigIntegerValidator(), field);
+			assertTrue("Null should be valid.", actual.isValid(null, null));
+			for(BigInteger value : values)
+			{
+				assertEquals("Wrong result for " + value + " on " + field + ".",
+							 expected.isValid(value.toString(), null), actual.isValid(value, null));
+			}
+		}
+	}
+
+	@Test
+	public void testBigIntegerAdapterWiderThanLong()
+	{
+		ModulusBigIntegerValidator validator = validator(new ModulusBigIntegerValidator(), "luhn");
+		BigInteger wide = new BigInteger(luhnNumber("123456789012345678901234"));
+		assertTrue("The value should be wider than a long.", wide.bitLength() >= Long.SIZE);
+		assertTrue(wide + " should be valid.", validator.isValid(wide, null));
+		assertFalse(wide.add(BigInteger.ONE) + " should be invalid.", validator.isValid(wide.add(BigInteger.ONE), null));
+		assertFalse(wide.negate() + " should be invalid.", validator.isValid(wide.negate(), null));
+		assertFalse("-79927398713 should be invalid.", validator.isValid(BigInteger.valueOf(-79927398713L), null));
+		assertFalse("Long.MIN_VALUE should be invalid.", validator.isValid(BigInteger.valueOf(Long.MIN_VALUE), null));
+	}
+}
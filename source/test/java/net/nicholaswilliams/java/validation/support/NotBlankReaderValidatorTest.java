@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NotBlankReaderValidatorTest
+{
+	private final NotBlankReaderValidator validator = new NotBlankReaderValidator();
+
+	@Test
+	public void testNull()
+	{
+		assertTrue("Null should be valid.", this.validator.isValid(null, null));
+	}
+
+	@Test
+	public void testBlank()
+	{
+		assertFalse("Empty content should be invalid.", this.validator.isValid(new StringReader(""), null));
+		assertFalse("Blank content should be invalid.", this.validator.isValid(new StringReader(" \t\r\n "), null));
+		assertFalse("Long blank content should be invalid.",
+					this.validator.isValid(new StringReader(blanks(100000)), null));
+	}
+
+	@Test
+	public void testNotBlank()
+	{
+		assertTrue("Content should be valid.", this.validator.isValid(new StringReader("a"), null));
+		assertTrue("Content should be valid.", this.validator.isValid(new StringReader("  \n x  "), null));
+		assertTrue("Content after long blanks should be valid.",
+				   this.validator.isValid(new StringReader(blanks(100000) + "x"), null));
+	}
+
+	@Test
+	public void testMarkableReaderIsReset() throws IOException
+	{
+		Reader reader = new StringReader("   hello");
+
+		assertTrue("The first validation should pass.", this.validator.isValid(reader, null));
+		assertTrue("The second validation should pass.", this.validator.isValid(reader, null));
+		assertEquals("The reader should be at its start.", ' ', reader.read());
+	}
+
+	@Test
+	public void testBufferedReaderIsReset() throws IOException
+	{
+		Reader reader = new BufferedReader(new StringReader(blanks(20000) + "x"), 16);
+
+		assertTrue("The first validation should pass.", this.validator.isValid(reader, null));
+		assertTrue("The second validation should pass.", this.validator.isValid(reader, null));
+	}
+
+	@Test
+	public void testResetAfterPartialRead() throws IOException
+	{
+		Reader reader = new CharArrayReader("ab   ".toCharArray());
+		assertEquals("The first character is wrong.", 'a', reader.read());
+
+		assertTrue("The validation should pass.", this.validator.isValid(reader, null));
+		assertEquals("The reader should be where it was.", 'b', reader.read());
+	}
+
+	@Test
+	public void testNonMarkableReaderIsConsumed() throws IOException
+	{
+		Reader reader = new PushbackReader(new StringReader(" x"));
+		assertFalse("The reader should not support marks.", reader.markSupported());
+
+		assertTrue("The validation should pass.", this.validator.isValid(reader, null));
+		assertEquals("The reader should be consumed.", -1, reader.read());
+	}
+
+	static String blanks(int length)
+	{
+		char[] blanks = new char[length];
+		Arrays.fill(blanks, ' ');
+		return new String(blanks);
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.nio.CharBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NotBlankValidatorTest
+{
+	private final NotBlankValidator validator = new NotBlankValidator();
+
+	@Test
+	public void testNull()
+	{
+		assertTrue("Null should be valid.", this.validator.isValid(null, null));
+	}
+
+	@Test
+	public void testBlank()
+	{
+		assertFalse("An empty value should be invalid.", this.validator.isValid("", null));
+		assertFalse("A blank value should be invalid.", this.validator.isValid(" \t\r\n\u0000 ", null));
+		assertFalse("A blank builder should be invalid.",
+					this.validator.isValid(new StringBuilder(NotBlankReaderValidatorTest.blanks(100000)), null));
+		assertFalse("A blank buffer should be invalid.", this.validator.isValid(CharBuffer.wrap("   "), null));
+	}
+
+	@Test
+	public void testNotBlank()
+	{
+		assertTrue("A value should be valid.", this.validator.isValid("a", null));
+		assertTrue("A padded value should be valid.", this.validator.isValid("  \n x  ", null));
+		assertTrue("A builder should be valid.",
+				   this.validator.isValid(new StringBuilder(NotBlankReaderValidatorTest.blanks(100000)).append('x'),
+										  null));
+		assertTrue("A buffer should be valid.", this.validator.isValid(CharBuffer.wrap(" x "), null));
+	}
+
+	@Test
+	public void testBlankMatchesTrim()
+	{
+		assertTrue("A no-break space is not removed by trim, so the value should be valid.",
+				   this.validator.isValid(" ", null));
+		assertTrue("An ideographic space is not removed by trim, so the value should be valid.",
+				   this.validator.isValid("　", null));
+	}
+}
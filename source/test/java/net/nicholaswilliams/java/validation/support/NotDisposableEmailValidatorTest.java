@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.NotDisposableEmail;
+
+import static org.junit.Assert.*;
+
+public class NotDisposableEmailValidatorTest
+{
+	private static final String DOMAIN_FILE = "target/NotDisposableEmailValidatorTest-domains.txt";
+
+	@NotDisposableEmail(domainFile = DOMAIN_FILE)
+	private Object domains;
+
+	@NotDisposableEmail(domainFile = "target/NotDisposableEmailValidatorTest-missing.txt")
+	private Object missingDomainFile;
+
+	@BeforeClass
+	public static void writeDomainFile() throws IOException
+	{
+		OutputStream stream = new FileOutputStream(new File(DOMAIN_FILE));
+		try
+		{
+			stream.write("# disposable domains\n\nmailinator.com\nbücher.example\n".getBytes("UTF-8"));
+		}
+		finally
+		{
+			stream.close();
+		}
+	}
+
+	private static NotDisposableEmailValidator validator(String field)
+	{
+		NotDisposableEmailValidator validator = new NotDisposableEmailValidator();
+		try
+		{
+			validator.initialize(
+					NotDisposableEmailValidatorTest.class.getDeclaredField(field).getAnnotation(NotDisposableEmail.class)
+			);
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return validator;
+	}
+
+	private static void assertValid(String field, String... values)
+	{
+		NotDisposableEmailValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertTrue("[" + value + "] should pass " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	private static void assertInvalid(String field, String... values)
+	{
+		NotDisposableEmailValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertFalse("[" + value + "] should fail " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	@Test
+	public void testDomains()
+	{
+		assertValid("domains", null, "john@example.com", "john@mailinator.co", "john@notmailinator.com",
+					"john@mailinator.com.example", "john@xn--bcher-kva.example.org", "john@bücher.example.org");
+		assertInvalid("domains", "john@mailinator.com", "john@MAILINATOR.COM", "john@eu.mailinator.com",
+					  "a@b@mailinator.com", "mailinator.com", "john@bücher.example", "john@BÜCHER.example",
+					  "john@xn--bcher-kva.example", "john@www.bücher.example");
+	}
+
+	@Test
+	public void testMalformedInternationalDomainsAreRejected()
+	{
+		assertInvalid("domains", "a@xn--zz.mailinator.com", "a@xn--zz.example.com", "a@xn--.example.com",
+					  "a@bü cher.example.com", "a@xn--bcher-kva..example");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testMissingDomainFile()
+	{
+		validator("missingDomainFile");
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Random;
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.NotNullPattern;
+
+import static org.junit.Assert.*;
+
+public class NotNullPatternReaderValidatorTest
+{
+	private static final String[] EXPRESSIONS = {
+			"[a-c]*", "(ab|c)*d?", "a.*b", "\\A[^x]*\\z", "(?:a|\r\n)*$", "x*(\\Z)", "(^a|b$)*",
+			"(?:[ab]\n)*\\Z", "[😀a]+", "(a\\z|b)*", ".*(?:^b|c$).*"
+	};
+
+	private static final String ALPHABET = "abcdx\r\n\u0085 😀";
+
+	@NotNullPattern(regexp = "[a-z]+", engine = NotNullPattern.Engine.LINEAR)
+	private Object letters;
+
+	@NotNullPattern(regexp = "[a-z]+")
+	private Object backtracking;
+
+	private static NotNullPattern annotation(String field)
+	{
+		try
+		{
+			return NotNullPatternReaderValidatorTest.class.getDeclaredField(field).getAnnotation(NotNullPattern.class);
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	public void testMatches()
+	{
+		NotNullPatternReaderValidator validator = new NotNullPatternReaderValidator();
+		validator.initialize(annotation("letters"));
+
+		assertFalse("Null should be invalid.", validator.isValid(null, null));
+		assertTrue("The content should match.", validator.isValid(new StringReader("hello"), null));
+		assertFalse("The content should not match.", validator.isValid(new StringReader("hello world"), null));
+		assertFalse("Empty content should not match.", validator.isValid(new StringReader(""), null));
+	}
+
+	@Test
+	public void testReaderIsReset() throws IOException
+	{
+		NotNullPatternReaderValidator validator = new NotNullPatternReaderValidator();
+		validator.initialize(annotation("letters"));
+		Reader reader = new BufferedReader(new StringReader("hello"));
+
+		assertTrue("The first validation should pass.", validator.isValid(reader, null));
+		assertTrue("The second validation should pass.", validator.isValid(reader, null));
+		assertEquals("The reader should be at its start.", 'h', reader.read());
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testBacktrackingEngineRejected()
+	{
+		new NotNullPatternReaderValidator().initialize(annotation("backtracking"));
+	}
+
+	@Test
+	public void testStreamingAgreesWithInMemoryMatching() throws IOException
+	{
+		Random random = new Random(28L);
+		for(String expression : EXPRESSIONS)
+		{
+			for(int flags : new int[] {0, java.util.regex.Pattern.MULTILINE, java.util.regex.Pattern.UNIX_LINES})
+			{
+				LinearRegex regex = LinearRegex.compile(expression, flags);
+				for(int i = 0; i < 300; i++)
+				{
+					String input = randomInput(random, i < 200 ? random.nextInt(12) : random.nextInt(1500));
+					boolean expected = regex.matches(input);
+					assertEquals("Streaming disagrees for [" + expression + "] on [" + input + "].",
+								 expected, regex.matches(new StringReader(input)));
+					assertEquals("Trickled streaming disagrees for [" + expression + "] on [" + input + "].",
+								 expected, regex.matches(new TrickleReader(input, random.nextInt(3) + 1)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEndOfContentAtEveryBufferOffset() throws IOException
+	{
+		String[] endings = {"", "\n", "\r\n", "\r", "\n\n", "\r\n\n", "b\n"};
+		LinearRegex[] regexes = {
+				LinearRegex.compile("a*\\Z", 0), LinearRegex.compile("a*b?$\n?", 0),
+				LinearRegex.compile("(?:a|^b)*$\\s*", java.util.regex.Pattern.MULTILINE),
+				LinearRegex.compile("a*\\Z", java.util.regex.Pattern.UNIX_LINES),
+				LinearRegex.compile("(?:a|😀)*$\\s*", 0)
+		};
+		for(int length = ReaderUtils.BUFFER_SIZE - 8; length < ReaderUtils.BUFFER_SIZE * 3; length++)
+		{
+			StringBuilder builder = new StringBuilder(length);
+			for(int i = 0; i < length; i++)
+			{
+				// pairs shift the position by two characters at a time
+				builder.append(length % 2 == 0 ? "a" : "😀");
+			}
+			for(String ending : endings)
+			{
+				String input = builder + ending;
+				for(LinearRegex regex : regexes)
+				{
+					assertEquals("Streaming disagrees at length " + input.length() + ".", regex.matches(input),
+								 regex.matches(new StringReader(input)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSurrogatePairAcrossBufferBoundary() throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < ReaderUtils.BUFFER_SIZE - 1; i++)
+		{
+			builder.append('a');
+		}
+		builder.append("😀");
+		String input = builder.toString();
+
+		assertTrue("The DFA should pair the surrogates.",
+				   LinearRegex.compile("a*😀", 0).matches(new StringReader(input)));
+		assertTrue("The simulation should pair the surrogates.",
+				   LinearRegex.compile("a*^?😀$", 0).matches(new StringReader(input)));
+	}
+
+	private static String randomInput(Random random, int length)
+	{
+		StringBuilder builder = new StringBuilder(length);
+		for(int i = 0; i < length; i++)
+		{
+			int index = random.nextInt(ALPHABET.length() - 1);
+			builder.append(ALPHABET.charAt(index));
+			if(Character.isHighSurrogate(ALPHABET.charAt(index)) && random.nextInt(4) > 0)
+			{
+				builder.append(ALPHABET.charAt(index + 1));
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Returns at most a few characters from each read, to exercise every buffer boundary.
+	 */
+	private static final class TrickleReader extends FilterReader
+	{
+		private final int limit;
+
+		TrickleReader(String content, int limit)
+		{
+			super(new StringReader(content));
+			this.limit = limit;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException
+		{
+			return super.read(buffer, offset, Math.min(length, this.limit));
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.validation.Constraint;
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.NotNullSize;
+
+import static org.junit.Assert.*;
+
+public class NotNullSizeValidatorTest
+{
+	@NotNullSize(min = 2, max = 4)
+	private Object twoToFour;
+
+	@NotNullSize
+	private Object unbounded;
+
+	@NotNullSize(min = -1)
+	private Object negativeMin;
+
+	@NotNullSize(min = 5, max = 4)
+	private Object maxBelowMin;
+
+	private static <V extends ConstraintValidator<NotNullSize, ?>> V validator(Class<V> type, String field)
+	{
+		try
+		{
+			V validator = type.newInstance();
+			validator.initialize(NotNullSizeValidatorTest.class.getDeclaredField(field)
+																 .getAnnotation(NotNullSize.class));
+			return validator;
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		catch(InstantiationException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		catch(IllegalAccessException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	public void testNull()
+	{
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeCollectionValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeMapValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeObjectArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeBooleanArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeByteArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeCharArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeShortArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeIntArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeLongArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeFloatArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeDoubleArrayValidator.class, "unbounded").isValid(null, null));
+		assertFalse("Null should be invalid.",
+					validator(NotNullSizeReaderValidator.class, "unbounded").isValid(null, null));
+	}
+
+	@Test
+	public void testCharSequence()
+	{
+		NotNullSizeValidator validator = validator(NotNullSizeValidator.class, "twoToFour");
+
+		assertFalse("The value is too short.", validator.isValid("a", null));
+		assertTrue("The value should be valid.", validator.isValid("ab", null));
+		assertTrue("The value should be valid.", validator.isValid(new StringBuilder("abcd"), null));
+		assertFalse("The value is too long.", validator.isValid("abcde", null));
+	}
+
+	@Test
+	public void testCollection()
+	{
+		NotNullSizeCollectionValidator validator = validator(NotNullSizeCollectionValidator.class, "twoToFour");
+
+		assertFalse("The list is too short.", validator.isValid(Collections.emptyList(), null));
+		assertTrue("The list should be valid.", validator.isValid(Arrays.asList(1, 2, 3), null));
+		assertTrue("The set should be valid.", validator.isValid(new HashSet<String>(Arrays.asList("a", "b")), null));
+		assertFalse("The list is too long.", validator.isValid(Arrays.asList(1, 2, 3, 4, 5), null));
+	}
+
+	@Test
+	public void testMap()
+	{
+		NotNullSizeMapValidator validator = validator(NotNullSizeMapValidator.class, "twoToFour");
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("a", "b");
+
+		assertFalse("The map is too short.", validator.isValid(map, null));
+		map.put("c", "d");
+		assertTrue("The map should be valid.", validator.isValid(map, null));
+	}
+
+	@Test
+	public void testArrays()
+	{
+		assertTrue("The array should be valid.",
+				   validator(NotNullSizeObjectArrayValidator.class, "twoToFour").isValid(new String[2], null));
+		assertFalse("The array is too short.",
+					validator(NotNullSizeBooleanArrayValidator.class, "twoToFour").isValid(new boolean[1], null));
+		assertFalse("The array is too long.",
+					validator(NotNullSizeByteArrayValidator.class, "twoToFour").isValid(new byte[5], null));
+		assertTrue("The array should be valid.",
+				   validator(NotNullSizeCharArrayValidator.class, "twoToFour").isValid(new char[4], null));
+		assertTrue("The array should be valid.",
+				   validator(NotNullSizeShortArrayValidator.class, "twoToFour").isValid(new short[2], null));
+		assertTrue("The array should be valid.",
+				   validator(NotNullSizeIntArrayValidator.class, "twoToFour").isValid(new int[3], null));
+		assertFalse("The array is too short.",
+					validator(NotNullSizeLongArrayValidator.class, "twoToFour").isValid(new long[0], null));
+		assertTrue("The array should be valid.",
+				   validator(NotNullSizeFloatArrayValidator.class, "twoToFour").isValid(new float[4], null));
+		assertFalse("The array is too long.",
+					validator(NotNullSizeDoubleArrayValidator.class, "twoToFour").isValid(new double[6], null));
+	}
+
+	@Test
+	public void testReader()
+	{
+		NotNullSizeReaderValidator validator = validator(NotNullSizeReaderValidator.class, "twoToFour");
+
+		assertFalse("The content is too short.", validator.isValid(new StringReader("a"), null));
+		assertTrue("The content should be valid.", validator.isValid(new StringReader("abc"), null));
+		assertFalse("The content is too long.",
+					validator.isValid(new StringReader(NotBlankReaderValidatorTest.blanks(1000000)), null));
+		assertTrue("Long content should be valid.", validator(NotNullSizeReaderValidator.class, "unbounded").isValid(
+				new StringReader(NotBlankReaderValidatorTest.blanks(1000000)), null
+		));
+	}
+
+	@Test
+	public void testReaderIsReset() throws IOException
+	{
+		NotNullSizeReaderValidator validator = validator(NotNullSizeReaderValidator.class, "twoToFour");
+		Reader reader = new BufferedReader(new StringReader("abc"));
+
+		assertTrue("The first validation should pass.", validator.isValid(reader, null));
+		assertTrue("The second validation should pass.", validator.isValid(reader, null));
+		assertEquals("The reader should be at its start.", 'a', reader.read());
+	}
+
+	@Test
+	public void testNonMarkableReaderIsConsumed() throws IOException
+	{
+		Reader reader = new PushbackReader(new StringReader("abc"));
+
+		assertTrue("The validation should pass.",
+				   validator(NotNullSizeReaderValidator.class, "twoToFour").isValid(reader, null));
+		assertEquals("The reader should be consumed.", -1, reader.read());
+	}
+
+	@Test
+	public void testEveryValidatorIsRegistered()
+	{
+		List<Class<?>> expected = Arrays.<Class<?>>asList(
+				NotNullSizeValidator.class, NotNullSizeCollectionValidator.class, NotNullSizeMapValidator.class,
+				NotNullSizeObjectArrayValidator.class, NotNullSizeBooleanArrayValidator.class,
+				NotNullSizeByteArrayValidator.class, NotNullSizeCharArrayValidator.class,
+				NotNullSizeShortArrayValidator.class, NotNullSizeIntArrayValidator.class,
+				NotNullSizeLongArrayValidator.class, NotNullSizeFloatArrayValidator.class,
+				NotNullSizeDoubleArrayValidator.class, NotNullSizeReaderValidator.class
+		);
+		Set<Class<?>> registered = new HashSet<Class<?>>(
+				Arrays.asList(NotNullSize.class.getAnnotation(Constraint.class).validatedBy())
+		);
+
+		assertEquals("Every supported type should have one validator.", new HashSet<Class<?>>(expected), registered);
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testNegativeMin()
+	{
+		validator(NotNullSizeValidator.class, "negativeMin");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testMaxBelowMin()
+	{
+		validator(NotNullSizeCollectionValidator.class, "maxBelowMin");
+	}
+}
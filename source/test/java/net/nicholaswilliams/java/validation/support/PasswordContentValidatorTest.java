@@ -0,0 +1,262 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.PasswordContent;
+
+import static org.junit.Assert.*;
+
+public class PasswordContentValidatorTest
+{
+	/*
+	 * Supplementary code points, each two chars long: MATHEMATICAL BOLD CAPITAL A and B, MATHEMATICAL BOLD SMALL A
+	 * and B, MATHEMATICAL BOLD DIGIT ZERO and ONE, and GRINNING FACE.
+	 */
+	private static final String UPPER_A = new String(Character.toChars(0x1D400));
+
+	private static final String UPPER_B = new String(Character.toChars(0x1D401));
+
+	private static final String LOWER_A = new String(Character.toChars(0x1D41A));
+
+	private static final String LOWER_B = new String(Character.toChars(0x1D41B));
+
+	private static final String DIGIT_0 = new String(Character.toChars(0x1D7CE));
+
+	private static final String DIGIT_1 = new String(Character.toChars(0x1D7CF));
+
+	private static final String EMOJI = new String(Character.toChars(0x1F600));
+
+	@PasswordContent
+	private Object defaults;
+
+	@PasswordContent(minLength = 0)
+	private Object empty;
+
+	@PasswordContent(minLength = 0, minUppercase = 1)
+	private Object emptyWithMinimum;
+
+	@PasswordContent(minLength = 8)
+	private Object minLength;
+
+	@PasswordContent(minUppercase = 2)
+	private Object minUppercase;
+
+	@PasswordContent(minLowercase = 2)
+	private Object minLowercase;
+
+	@PasswordContent(minNumber = 2)
+	private Object minNumber;
+
+	@PasswordContent(minSpecial = 2)
+	private Object minSpecial;
+
+	@PasswordContent(maxSpecial = 1)
+	private Object maxSpecial;
+
+	@PasswordContent(minSpecial = 1, maxSpecial = 1)
+	private Object exactlyOneSpecial;
+
+	@PasswordContent(minWhitespace = 2, maxWhitespace = 3)
+	private Object whitespace;
+
+	@PasswordContent(minWhitespace = 1, maxWhitespace = 1, allowedWhitespace = { '_' })
+	private Object allowedWhitespace;
+
+	@PasswordContent(minUppercase = 1, minLowercase = 1, minNumber = 1, minSpecial = 1, maxSpecial = 2)
+	private Object everyClass;
+
+	@PasswordContent(minUppercase = -1)
+	private Object negativeMinimum;
+
+	@PasswordContent(minSpecial = 2, maxSpecial = 1)
+	private Object maximumBelowMinimum;
+
+	@PasswordContent(minWhitespace = 1)
+	private Object whitespaceMaximumBelowMinimum;
+
+	private static PasswordContentValidator validator(String field)
+	{
+		PasswordContentValidator validator = new PasswordContentValidator();
+		try
+		{
+			validator.initialize(
+					PasswordContentValidatorTest.class.getDeclaredField(field).getAnnotation(PasswordContent.class)
+			);
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return validator;
+	}
+
+	private static void assertValid(String field, String... values)
+	{
+		PasswordContentValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertTrue("[" + value + "] should pass " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	private static void assertInvalid(String field, String... values)
+	{
+		PasswordContentValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertFalse("[" + value + "] should fail " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	@Test
+	public void testNull()
+	{
+		assertTrue("Null should be valid.", validator("everyClass").isValid(null, null));
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		assertValid("empty", "");
+		assertInvalid("emptyWithMinimum", "");
+		assertInvalid("defaults", "");
+	}
+
+	@Test
+	public void testMinLength()
+	{
+		assertInvalid("defaults", "abcd");
+		assertValid("defaults", "abcde");
+		assertInvalid("minLength", "abcdefg", "abcdef!");
+		assertValid("minLength", "abcdefgh", "abcdefg!", "abcdefghijklmnop");
+	}
+
+	@Test
+	public void testMinLengthCountsCodePoints()
+	{
+		assertInvalid("defaults", UPPER_A + UPPER_B + LOWER_A + LOWER_B, EMOJI + EMOJI + EMOJI + EMOJI);
+		assertValid("defaults", UPPER_A + UPPER_B + LOWER_A + LOWER_B + "c", EMOJI + EMOJI + EMOJI + EMOJI + EMOJI);
+		assertInvalid("minLength", "abcd" + UPPER_A + UPPER_B + LOWER_A);
+		assertValid("minLength", "abcde" + UPPER_A + UPPER_B + LOWER_A);
+	}
+
+	@Test
+	public void testMinUppercase()
+	{
+		assertInvalid("minUppercase", "abcdef", "abcdeF", "Fabcde");
+		assertValid("minUppercase", "abcdEF", "AbcdeF", "ABCDEF");
+		assertInvalid("minUppercase", "abcd" + UPPER_A, "abcde" + LOWER_A + LOWER_B);
+		assertValid("minUppercase", "abcd" + UPPER_A + UPPER_B, "abcdE" + UPPER_A);
+	}
+
+	@Test
+	public void testMinLowercase()
+	{
+		assertInvalid("minLowercase", "ABCDEF", "ABCDEf", "aBCDEF");
+		assertValid("minLowercase", "ABCDef", "aBCDEf", "abcdef");
+		assertInvalid("minLowercase", "ABCD" + LOWER_A, "ABCDE" + UPPER_A + UPPER_B);
+		assertValid("minLowercase", "ABCD" + LOWER_A + LOWER_B, "ABCDe" + LOWER_A);
+	}
+
+	@Test
+	public void testMinNumber()
+	{
+		assertInvalid("minNumber", "abcdef", "abcde1", "1abcde");
+		assertValid("minNumber", "abcd12", "1abcd2", "123456");
+		assertInvalid("minNumber", "abcd" + DIGIT_0, "abcde" + UPPER_A + LOWER_A);
+		assertValid("minNumber", "abcd" + DIGIT_0 + DIGIT_1, "abcd1" + DIGIT_0);
+	}
+
+	@Test
+	public void testMinSpecial()
+	{
+		assertInvalid("minSpecial", "abcdef", "abcde!", "a b!cd");
+		assertValid("minSpecial", "abcd!?", "!abcd?", "!@#$%^");
+		assertInvalid("minSpecial", "abcd" + EMOJI);
+		assertValid("minSpecial", "abcd" + EMOJI + EMOJI, "abcd!" + EMOJI);
+	}
+
+	@Test
+	public void testMaxSpecial()
+	{
+		assertValid("maxSpecial", "abcdef", "abcde!", "!abcde");
+		assertInvalid("maxSpecial", "abcd!?", "!abcd?", "abcdefghijklmnop!?");
+		assertValid("maxSpecial", "abcde" + EMOJI);
+		assertInvalid("maxSpecial", "abcde" + EMOJI + EMOJI, "abcde!" + EMOJI);
+	}
+
+	@Test
+	public void testExactlyOneSpecial()
+	{
+		assertInvalid("exactlyOneSpecial", "abcdef", "a!bcde?", "!abcdefghijklmnop!");
+		assertValid("exactlyOneSpecial", "abcde!", "!abcdefghijklmnop", "abc" + EMOJI + "de");
+		assertInvalid("exactlyOneSpecial", EMOJI + "abcde" + EMOJI);
+	}
+
+	@Test
+	public void testWhitespace()
+	{
+		assertInvalid("defaults", "abc def", "abcde\t");
+		assertInvalid("whitespace", "abcdef", "abc def", "a\tbcdef");
+		assertValid("whitespace", "ab cd ef", "a\tb\ncdef", "a b c def", "  abcde ");
+		assertInvalid("whitespace", "a b c d e", "abcdef    ", "a b c d " + EMOJI);
+	}
+
+	@Test
+	public void testAllowedWhitespace()
+	{
+		assertInvalid("allowedWhitespace", "abcdef", "abc def", "abc\tdef");
+		assertValid("allowedWhitespace", "abc_def", "_abcdef", "abc_ def");
+		assertInvalid("allowedWhitespace", "ab_c_def", "abc_def_");
+	}
+
+	@Test
+	public void testEveryClass()
+	{
+		assertValid("everyClass", "Abcd1!", "1!bcdA", UPPER_A + LOWER_A + DIGIT_0 + EMOJI + "x");
+		assertInvalid("everyClass", "abcd1!", "ABCD1!", "Abcde!", "Abcd12", "Abc1!?*");
+		assertInvalid("everyClass", "Abcd1!" + EMOJI + EMOJI, LOWER_A + LOWER_B + DIGIT_0 + EMOJI + "x");
+	}
+
+	@Test
+	public void testUnpairedSurrogateIsSpecial()
+	{
+		assertInvalid("maxSpecial", "abcde!\uD835");
+		assertValid("exactlyOneSpecial", "abcde\uDC00");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testNegativeMinimum()
+	{
+		validator("negativeMinimum");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testMaximumBelowMinimum()
+	{
+		validator("maximumBelowMinimum");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testWhitespaceMaximumBelowMinimum()
+	{
+		validator("whitespaceMaximumBelowMinimum");
+	}
+}
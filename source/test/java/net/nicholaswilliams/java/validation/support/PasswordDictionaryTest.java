@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PasswordDictionaryTest
+{
+	@Test
+	public void testRanks() throws IOException
+	{
+		Map<String, Integer> ranks = new HashMap<String, Integer>();
+		ranks.put("password", 1);
+		ranks.put("dragon", 5);
+		ranks.put("Dragon", 3);
+		ranks.put("ab", 7);
+		ranks.put("abc", 2);
+		ranks.put("abcd", 4);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		PasswordDictionary.write(ranks, stream);
+		PasswordDictionary dictionary = PasswordDictionary.read(new ByteArrayInputStream(stream.toByteArray()));
+
+		assertEquals("The rank is wrong.", 1, dictionary.rank("PassWord"));
+		assertEquals("The best rank should be kept.", 3, dictionary.rank("dragon"));
+		assertEquals("The rank is wrong.", 7, dictionary.rank("ab"));
+		assertEquals("The rank is wrong.", 2, dictionary.rank("abc"));
+		assertEquals("The rank is wrong.", 4, dictionary.rank("ABCD"));
+		assertEquals("A prefix should have no rank.", 0, dictionary.rank("a"));
+		assertEquals("An extension should have no rank.", 0, dictionary.rank("abcde"));
+		assertEquals("The empty word should have no rank.", 0, dictionary.rank(""));
+	}
+
+	/*
+	 * The bundled dictionary is compiled from the lists in build/password-dictionaries, so every word in them should
+	 * have the best rank it has in any list.
+	 */
+	@Test
+	public void testDefaultDictionaryMatchesItsLists() throws IOException
+	{
+		Map<String, Integer> expected = new HashMap<String, Integer>();
+		File[] lists = new File("build/password-dictionaries").listFiles();
+		assertNotNull("The lists should exist.", lists);
+		for(File list : lists)
+		{
+			BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(list), "UTF-8"));
+			try
+			{
+				int rank = 1;
+				String line;
+				while((line = reader.readLine()) != null)
+				{
+					String word = line.trim().toLowerCase(Locale.ENGLISH);
+					if(word.length() == 0 || word.charAt(0) == '#')
+					{
+						continue;
+					}
+					Integer existing = expected.get(word);
+					if(existing == null || existing > rank)
+					{
+						expected.put(word, rank);
+					}
+					rank++;
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+
+		PasswordDictionary dictionary = PasswordDictionary.getDefault();
+		for(Map.Entry<String, Integer> entry : expected.entrySet())
+		{
+			assertEquals("The rank of [" + entry.getKey() + "] is wrong.", (int) entry.getValue(),
+						 dictionary.rank(entry.getKey()));
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Calendar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PasswordStrengthEstimatorTest
+{
+	/*
+	 * Matches covering the whole password are estimated as their guesses plus one, the (l! * guesses + 10000^(l - 1))
+	 * estimate of a sequence of one match.
+	 */
+	private static final double DELTA = 1e-9;
+
+	private static final int YEAR = Calendar.getInstance().get(Calendar.YEAR);
+
+	private static final String DIGITS = "31415926535897932384626433832795028841971693993751058209749445923078164062862" +
+										 "08998628034825342117067";
+
+	private static String repeat(String value, int length)
+	{
+		StringBuilder builder = new StringBuilder(length + value.length());
+		while(builder.length() < length)
+		{
+			builder.append(value);
+		}
+		return builder.substring(0, length);
+	}
+
+	private static int rank(String word)
+	{
+		int rank = PasswordDictionary.getDefault().rank(word);
+		assertTrue("[" + word + "] should be in the dictionary.", rank > 0);
+		return rank;
+	}
+
+	private static double yearSpace(int year)
+	{
+		return Math.max(Math.abs(YEAR - year), 20);
+	}
+
+	private static void assertGuesses(String password, double expected)
+	{
+		assertEquals("The guesses for [" + password + "] are wrong.", expected,
+					 PasswordStrengthEstimator.guesses(password), expected * DELTA);
+	}
+
+	@Test
+	public void testDictionary()
+	{
+		int rank = rank("password");
+		assertGuesses("password", rank + 1);
+		assertGuesses("Password", rank * 2 + 1);
+		assertGuesses("PASSWORD", rank * 2 + 1);
+		assertGuesses("pAssWord", rank * (8 + 28) + 1);
+		assertGuesses("drowssap", rank * 2 + 1);
+		assertEquals("A common password should score 0.", 0, PasswordStrengthEstimator.score("password"));
+	}
+
+	@Test
+	public void testL33t()
+	{
+		int rank = rank("password");
+		assertGuesses("p@ssw0rd", rank * 2 * 2 + 1);
+		assertGuesses("P@ssw0rd", rank * 2 * 2 * 2 + 1);
+		assertGuesses("p4ssword", rank * 2 + 1);
+	}
+
+	@Test
+	public void testSpatial()
+	{
+		KeyboardGraph qwerty = KeyboardGraph.QWERTY;
+		double walk = qwerty.getStartingPositions() * qwerty.getAverageDegree();
+		assertGuesses("zxcvbnm,./", 9 * walk + 1);
+		assertGuesses("ZXCVBNM<>?", 9 * walk * 2 + 1);
+		assertGuesses("zXcvbnm,./", 9 * walk * 10 + 1);
+	}
+
+	@Test
+	public void testRepeat()
+	{
+		double a = PasswordStrengthEstimator.guesses("a");
+		assertGuesses("aaaaaaaa", a * 8 + 1);
+		double abc = PasswordStrengthEstimator.guesses("abc");
+		assertGuesses("abcabcabc", abc * 3 + 1);
+	}
+
+	@Test
+	public void testSequence()
+	{
+		assertGuesses("abcdef", 4 * 6 + 1);
+		assertGuesses("XYZ", 26 * 3 + 1);
+		assertGuesses("4567", 10 * 4 + 1);
+		assertGuesses("7654", 10 * 4 * 2 + 1);
+		assertGuesses("ZYX", 4 * 3 * 2 + 1);
+		assertGuesses("cegikm", 26 * 6 + 1);
+	}
+
+	@Test
+	public void testYearsAndDates()
+	{
+		assertGuesses("1972", yearSpace(1972) + 1);
+		assertGuesses("2005", yearSpace(2005) + 1);
+		assertGuesses("19911225", yearSpace(1991) * 365 + 1);
+		assertGuesses("1/1/2010", yearSpace(2010) * 365 * 4 + 1);
+		assertGuesses("12/25/1991", yearSpace(1991) * 365 * 4 + 1);
+	}
+
+	@Test
+	public void testScores()
+	{
+		assertEquals("The score is wrong.", 0, PasswordStrengthEstimator.score(""));
+		assertEquals("The score is wrong.", 0, PasswordStrengthEstimator.score("qwerty"));
+		assertEquals("The score is wrong.", 4, PasswordStrengthEstimator.score("correcthorsebatterystaple"));
+		assertEquals("The score is wrong.", 4, PasswordStrengthEstimator.score("rWibMFACxAUGZmxhVncy"));
+	}
+
+	@Test
+	public void testPaddingPastTheAnalyzedLengthIsNotFree()
+	{
+		double q = PasswordStrengthEstimator.guesses("q");
+		assertGuesses(repeat("q", 100), q * 100 + 1);
+		assertGuesses(repeat("q", 110), q * 110);
+		assertGuesses(repeat("q", 5000), q * 5000);
+		assertEquals("A repeated character should score 1.", 1, PasswordStrengthEstimator.score(repeat("q", 100)));
+		assertEquals("A longer repeat should not score higher.", 1, PasswordStrengthEstimator.score(repeat("q", 110)));
+		assertEquals("A longer repeat should not score higher.", 1,
+					 PasswordStrengthEstimator.score(repeat("q", 5000) + "z"));
+
+		double password = PasswordStrengthEstimator.guesses("password");
+		assertGuesses(repeat("password", 10000), password * 10000 / 8);
+		assertGuesses(repeat("password", 105), password * 105 / 8);
+		assertEquals("A repeated word should score 0.", 0, PasswordStrengthEstimator.score(repeat("password", 96)));
+		assertEquals("A longer repeat should not score higher.", 0,
+					 PasswordStrengthEstimator.score(repeat("password", 105)));
+		assertEquals("A longer repeat should not score higher.", 1,
+					 PasswordStrengthEstimator.score(repeat("password", 10000)));
+	}
+
+	@Test
+	public void testTextPastTheAnalyzedLengthIsAnalyzed()
+	{
+		assertEquals("The digits should fill the analyzed length.", 100, DIGITS.length());
+		double prefix = PasswordStrengthEstimator.guesses(DIGITS);
+		assertGuesses(DIGITS + "password", prefix * PasswordStrengthEstimator.guesses("password"));
+		assertGuesses(DIGITS + "1972", prefix * PasswordStrengthEstimator.guesses("1972"));
+		assertGuesses(DIGITS + DIGITS, prefix * 2);
+		assertEquals("Random text should still score 4.", 4,
+					 PasswordStrengthEstimator.score(repeat("rWibMFACxAUGZmxhVncy", 20) + "Ba9ZyWABu99[BK#6MBgbH88T"));
+	}
+
+	@Test
+	public void testVeryLongPasswords()
+	{
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; builder.length() < 1000000; i++)
+		{
+			builder.append(Integer.toString(i, Character.MAX_RADIX));
+		}
+		assertEquals("A long varied password should be unguessable.", Double.POSITIVE_INFINITY,
+					 PasswordStrengthEstimator.guesses(builder), 0.0);
+	}
+}
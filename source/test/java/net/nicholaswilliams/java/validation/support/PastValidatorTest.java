@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import javax.validation.UnexpectedTypeException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static net.nicholaswilliams.java.validation.support.TemporalTestUtils.*;
+import static org.junit.Assert.*;
+
+public class PastValidatorTest
+{
+	private TimeZone original;
+
+	@Before
+	public void setZone()
+	{
+		this.original = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone(ZONE));
+	}
+
+	@After
+	public void restoreZone()
+	{
+		TimeSource.setDefault(null);
+		TimeZone.setDefault(this.original);
+	}
+
+	private static Calendar calendar(String zone, long epochMillis)
+	{
+		Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(zone));
+		calendar.setTimeInMillis(epochMillis);
+		return calendar;
+	}
+
+	@Test
+	public void testNull()
+	{
+		assertTrue("Null should be valid.", new PastValidator().isValid(null, null));
+		assertTrue("Null should be valid.", new FutureValidator().isValid(null, null));
+	}
+
+	@Test
+	public void testDate()
+	{
+		assertPast(NOW, new Date(NOW - 1L));
+		assertPresent(NOW, new Date(NOW));
+		assertFuture(NOW, new Date(NOW + 1L));
+		assertPast(NOW, new java.sql.Date(NOW - CurrentTime.MILLIS_PER_DAY));
+		assertFuture(NOW, new java.sql.Timestamp(NOW + 1L));
+	}
+
+	@Test
+	public void testCalendar()
+	{
+		for(String zone : new String[] { "UTC", "Asia/Tokyo", "Pacific/Kiritimati", "Pacific/Pago_Pago" })
+		{
+			assertPast(NOW, PastValidatorTest.calendar(zone, NOW - 1L));
+			assertPresent(NOW, PastValidatorTest.calendar(zone, NOW));
+			assertFuture(NOW, PastValidatorTest.calendar(zone, NOW + 1L));
+		}
+	}
+
+	@Test
+	public void testDefaultTimeSource()
+	{
+		TimeSource.setDefault(TimeSource.fixed(NOW));
+		PastValidator past = new PastValidator();
+		FutureValidator future = new FutureValidator();
+		assertTrue("The date should be in the past.", past.isValid(new Date(NOW - 1L), null));
+		assertFalse("The date should not be in the future.", future.isValid(new Date(NOW - 1L), null));
+
+		TimeSource.setDefault(TimeSource.fixed(NOW - 2L));
+		assertFalse("A replaced default should apply to existing validators.", past.isValid(new Date(NOW - 1L), null));
+		assertTrue("A replaced default should apply to existing validators.", future.isValid(new Date(NOW - 1L), null));
+
+		PastValidator own = new PastValidator(TimeSource.fixed(NOW));
+		assertTrue("A validator's own source should win over the default.", own.isValid(new Date(NOW - 1L), null));
+	}
+
+	@Test(expected = UnexpectedTypeException.class)
+	public void testUnsupportedTypeInPast()
+	{
+		new PastValidator(TimeSource.fixed(NOW)).isValid("2013-06-15", null);
+	}
+
+	@Test(expected = UnexpectedTypeException.class)
+	public void testUnsupportedTypeInFuture()
+	{
+		new FutureValidator(TimeSource.fixed(NOW)).isValid(2013L, null);
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PublicSuffixListTest
+{
+	/*
+	 * The rules of the published list that the list's own test vectors (tests/test_psl.txt) depend on.
+	 */
+	private static final String LIST =
+			"// ===BEGIN ICANN DOMAINS===\n" +
+			"\n" +
+			"ac\n" +
+			"biz\n" +
+			"com\n" +
+			"uk.com\n" +
+			"*.mm\n" +
+			"\n" +
+			"// jp\n" +
+			"jp\n" +
+			"ac.jp\n" +
+			"kyoto.jp\n" +
+			"ide.kyoto.jp\n" +
+			"*.kobe.jp\n" +
+			"!city.kobe.jp\n" +
+			"*.ck\n" +
+			"!www.ck\n" +
+			"us\n" +
+			"ak.us\n" +
+			"k12.ak.us\n" +
+			"cn\n" +
+			"com.cn\n" +
+			"公司.cn\n" +
+			"中国\n" +
+			"  example.org   everything after the first whitespace is ignored\n";
+
+	private static PublicSuffixList list;
+
+	@BeforeClass
+	public static void readList() throws IOException
+	{
+		list = PublicSuffixList.read(new ByteArrayInputStream(LIST.getBytes("UTF-8")));
+	}
+
+	private static void checkPublicSuffix(String domain, String registrableDomain)
+	{
+		int start = list.getRegistrableDomainStart(domain);
+		if(registrableDomain == null)
+		{
+			assertEquals("[" + domain + "] should have no registrable domain.", -1, start);
+		}
+		else
+		{
+			assertTrue("[" + domain + "] should have a registrable domain.", start >= 0);
+			assertEquals("The registrable domain of [" + domain + "] is not correct.", registrableDomain,
+						 domain.substring(start).toLowerCase(Locale.ENGLISH));
+		}
+	}
+
+	@Test
+	public void testRuleCount()
+	{
+		assertEquals("The rule count is not correct.", 21, list.getRuleCount());
+	}
+
+	@Test
+	public void testMixedCase()
+	{
+		checkPublicSuffix("COM", null);
+		checkPublicSuffix("example.COM", "example.com");
+		checkPublicSuffix("WwW.example.COM", "example.com");
+	}
+
+	@Test
+	public void testLeadingDot()
+	{
+		checkPublicSuffix(".com", null);
+		checkPublicSuffix(".example", null);
+		checkPublicSuffix(".example.com", null);
+		checkPublicSuffix(".example.example", null);
+		checkPublicSuffix("a..b.example.com", null);
+	}
+
+	@Test
+	public void testUnlistedTopLevelDomain()
+	{
+		checkPublicSuffix("example", null);
+		checkPublicSuffix("example.example", "example.example");
+		checkPublicSuffix("b.example.example", "example.example");
+		checkPublicSuffix("a.b.example.example", "example.example");
+	}
+
+	@Test
+	public void testTopLevelDomainWithOneRule()
+	{
+		checkPublicSuffix("biz", null);
+		checkPublicSuffix("domain.biz", "domain.biz");
+		checkPublicSuffix("b.domain.biz", "domain.biz");
+		checkPublicSuffix("a.b.domain.biz", "domain.biz");
+	}
+
+	@Test
+	public void testTopLevelDomainWithSecondLevelRules()
+	{
+		checkPublicSuffix("com", null);
+		checkPublicSuffix("example.com", "example.com");
+		checkPublicSuffix("b.example.com", "example.com");
+		checkPublicSuffix("a.b.example.com", "example.com");
+		checkPublicSuffix("uk.com", null);
+		checkPublicSuffix("example.uk.com", "example.uk.com");
+		checkPublicSuffix("b.example.uk.com", "example.uk.com");
+		checkPublicSuffix("a.b.example.uk.com", "example.uk.com");
+		checkPublicSuffix("test.ac", "test.ac");
+	}
+
+	@Test
+	public void testTopLevelDomainWithOnlyWildcardRule()
+	{
+		checkPublicSuffix("mm", null);
+		checkPublicSuffix("c.mm", null);
+		checkPublicSuffix("b.c.mm", "b.c.mm");
+		checkPublicSuffix("a.b.c.mm", "b.c.mm");
+	}
+
+	@Test
+	public void testComplexTopLevelDomain()
+	{
+		checkPublicSuffix("jp", null);
+		checkPublicSuffix("test.jp", "test.jp");
+		checkPublicSuffix("www.test.jp", "test.jp");
+		checkPublicSuffix("ac.jp", null);
+		checkPublicSuffix("test.ac.jp", "test.ac.jp");
+		checkPublicSuffix("www.test.ac.jp", "test.ac.jp");
+		checkPublicSuffix("kyoto.jp", null);
+		checkPublicSuffix("test.kyoto.jp", "test.kyoto.jp");
+		checkPublicSuffix("ide.kyoto.jp", null);
+		checkPublicSuffix("b.ide.kyoto.jp", "b.ide.kyoto.jp");
+		checkPublicSuffix("a.b.ide.kyoto.jp", "b.ide.kyoto.jp");
+		checkPublicSuffix("c.kobe.jp", null);
+		checkPublicSuffix("b.c.kobe.jp", "b.c.kobe.jp");
+		checkPublicSuffix("a.b.c.kobe.jp", "b.c.kobe.jp");
+		checkPublicSuffix("city.kobe.jp", "city.kobe.jp");
+		checkPublicSuffix("www.city.kobe.jp", "city.kobe.jp");
+	}
+
+	@Test
+	public void testWildcardRuleWithExceptions()
+	{
+		checkPublicSuffix("ck", null);
+		checkPublicSuffix("test.ck", null);
+		checkPublicSuffix("b.test.ck", "b.test.ck");
+		checkPublicSuffix("a.b.test.ck", "b.test.ck");
+		checkPublicSuffix("www.ck", "www.ck");
+		checkPublicSuffix("www.www.ck", "www.ck");
+	}
+
+	@Test
+	public void testUsK12()
+	{
+		checkPublicSuffix("us", null);
+		checkPublicSuffix("test.us", "test.us");
+		checkPublicSuffix("www.test.us", "test.us");
+		checkPublicSuffix("ak.us", null);
+		checkPublicSuffix("test.ak.us", "test.ak.us");
+		checkPublicSuffix("www.test.ak.us", "test.ak.us");
+		checkPublicSuffix("k12.ak.us", null);
+		checkPublicSuffix("test.k12.ak.us", "test.k12.ak.us");
+		checkPublicSuffix("www.test.k12.ak.us", "test.k12.ak.us");
+	}
+
+	@Test
+	public void testInternationalLabels()
+	{
+		checkPublicSuffix("食狮.com.cn", "食狮.com.cn");
+		checkPublicSuffix("食狮.公司.cn", "食狮.公司.cn");
+		checkPublicSuffix("www.食狮.公司.cn", "食狮.公司.cn");
+		checkPublicSuffix("shishi.公司.cn", "shishi.公司.cn");
+		checkPublicSuffix("公司.cn", null);
+		checkPublicSuffix("食狮.中国", "食狮.中国");
+		checkPublicSuffix("www.食狮.中国", "食狮.中国");
+		checkPublicSuffix("shishi.中国", "shishi.中国");
+		checkPublicSuffix("中国", null);
+	}
+
+	@Test
+	public void testPunycodeLabels()
+	{
+		checkPublicSuffix("xn--85x722f.com.cn", "xn--85x722f.com.cn");
+		checkPublicSuffix("xn--85x722f.xn--55qx5d.cn", "xn--85x722f.xn--55qx5d.cn");
+		checkPublicSuffix("www.xn--85x722f.xn--55qx5d.cn", "xn--85x722f.xn--55qx5d.cn");
+		checkPublicSuffix("shishi.xn--55qx5d.cn", "shishi.xn--55qx5d.cn");
+		checkPublicSuffix("xn--55qx5d.cn", null);
+		checkPublicSuffix("xn--85x722f.xn--fiqs8s", "xn--85x722f.xn--fiqs8s");
+		checkPublicSuffix("www.xn--85x722f.xn--fiqs8s", "xn--85x722f.xn--fiqs8s");
+		checkPublicSuffix("shishi.xn--fiqs8s", "shishi.xn--fiqs8s");
+		checkPublicSuffix("xn--fiqs8s", null);
+	}
+
+	@Test
+	public void testRuleEndsAtWhitespace()
+	{
+		checkPublicSuffix("example.org", null);
+		checkPublicSuffix("www.example.org", "www.example.org");
+	}
+
+	@Test
+	public void testPublicSuffixStart()
+	{
+		assertEquals("The public suffix is not correct.", 8, list.getPublicSuffixStart("example.uk.com"));
+		assertEquals("The public suffix is not correct.", 9, list.getPublicSuffixStart("www.city.kobe.jp"));
+		assertEquals("The public suffix is not correct.", 4, list.getPublicSuffixStart("a.b.c.kobe.jp"));
+		assertEquals("The public suffix is not correct.", -1, list.getPublicSuffixStart(""));
+		assertEquals("The public suffix is not correct.", -1, list.getPublicSuffixStart("example..com"));
+	}
+
+	@Test
+	public void testRegionAndTrailingDot()
+	{
+		String value = "mailto:john@www.example.com.";
+		assertEquals("The public suffix is not correct.", 24, list.getPublicSuffixStart(value, 12, value.length()));
+		assertEquals("The registrable domain is not correct.", 16,
+					 list.getRegistrableDomainStart(value, 12, value.length()));
+		assertEquals("The registrable domain is not correct.", 12,
+					 list.getRegistrableDomainStart(value, 12, value.length() - 5));
+		assertEquals("A lone dot has no public suffix.", -1, list.getPublicSuffixStart("."));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedRule() throws IOException
+	{
+		PublicSuffixList.read(new ByteArrayInputStream("com\nexample..com\n".getBytes("UTF-8")));
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testMissingFile()
+	{
+		PublicSuffixList.get("target/PublicSuffixListTest-missing.dat");
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import javax.validation.UnexpectedTypeException;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.MultiReleaseTestUtils;
+
+import static org.junit.Assert.*;
+
+public class TemporalComparatorCacheTest
+{
+	private static final CurrentTime NOW = new CurrentTime(1000000L, 0);
+
+	@Test
+	public void testVariant()
+	{
+		assertEquals("The wrong variant of TemporalComparatorCache was loaded.",
+					 MultiReleaseTestUtils.expectVersioned(TemporalComparatorCache.class),
+					 MultiReleaseTestUtils.isVersioned(TemporalComparatorCache.class));
+	}
+
+	@Test
+	public void testSameComparatorForSameClass()
+	{
+		assertSame("The comparator should be cached.", TemporalComparatorCache.get(Date.class),
+				   TemporalComparatorCache.get(Date.class));
+	}
+
+	@Test
+	public void testDate()
+	{
+		TemporalComparator comparator = TemporalComparatorCache.get(Date.class);
+
+		assertTrue("The date should be in the past.", comparator.compareToNow(new Date(999999L), NOW) < 0);
+		assertEquals("The date should be now.", 0, comparator.compareToNow(new Date(1000000L), NOW));
+		assertTrue("The date should be in the future.", comparator.compareToNow(new Date(1000001L), NOW) > 0);
+	}
+
+	@Test
+	public void testDateSubclass()
+	{
+		TemporalComparator comparator = TemporalComparatorCache.get(Timestamp.class);
+
+		assertTrue("The timestamp should be in the past.", comparator.compareToNow(new Timestamp(0L), NOW) < 0);
+		assertTrue("The timestamp should be in the future.",
+				   comparator.compareToNow(new Timestamp(2000000L), NOW) > 0);
+	}
+
+	@Test
+	public void testCalendar()
+	{
+		Calendar past = Calendar.getInstance(TimeZone.getTimeZone("Asia/Tokyo"));
+		past.setTimeInMillis(999999L);
+		Calendar future = Calendar.getInstance(TimeZone.getTimeZone("America/Chicago"));
+		future.setTimeInMillis(1000001L);
+
+		TemporalComparator comparator = TemporalComparatorCache.get(past.getClass());
+
+		assertTrue("The calendar should be in the past.", comparator.compareToNow(past, NOW) < 0);
+		assertTrue("The calendar should be in the future.", comparator.compareToNow(future, NOW) > 0);
+	}
+
+	@Test(expected = UnexpectedTypeException.class)
+	public void testUnsupportedType()
+	{
+		TemporalComparatorCache.get(String.class).compareToNow("2013-01-01", NOW);
+	}
+}
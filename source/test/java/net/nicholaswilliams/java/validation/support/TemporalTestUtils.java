@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Helpers for tests of {@link PastValidator} and {@link FutureValidator}, which validate each value with both validators
+ * against a fixed clock. Local types are compared in the system default time zone, which the tests set to
+ * {@link #ZONE} for their duration.
+ *
+ * @author Nicholas Williams
+ */
+public final class TemporalTestUtils
+{
+	/**
+	 * The default time zone during the tests, which observes daylight saving time.
+	 */
+	public static final String ZONE = "America/New_York";
+
+	/**
+	 * 2013-06-15T14:30Z, a Saturday, which is 10:30 in {@link #ZONE}.
+	 */
+	public static final long NOW = 1371306600000L;
+
+	private TemporalTestUtils()
+	{
+
+	}
+
+	/**
+	 * Asserts that a value is valid for {@code @Past} and invalid for {@code @Future}.
+	 *
+	 * @param now The current time, in milliseconds since the epoch
+	 * @param value The value
+	 */
+	public static void assertPast(long now, Object value)
+	{
+		TemporalTestUtils.assertResults(now, value, true, false, "in the past");
+	}
+
+	/**
+	 * Asserts that a value is invalid for both {@code @Past} and {@code @Future}.
+	 *
+	 * @param now The current time, in milliseconds since the epoch
+	 * @param value The value
+	 */
+	public static void assertPresent(long now, Object value)
+	{
+		TemporalTestUtils.assertResults(now, value, false, false, "the present");
+	}
+
+	/**
+	 * Asserts that a value is invalid for {@code @Past} and valid for {@code @Future}.
+	 *
+	 * @param now The current time, in milliseconds since the epoch
+	 * @param value The value
+	 */
+	public static void assertFuture(long now, Object value)
+	{
+		TemporalTestUtils.assertResults(now, value, false, true, "in the future");
+	}
+
+	private static void assertResults(long now, Object value, boolean past, boolean future, String expected)
+	{
+		TimeSource source = TimeSource.fixed(now);
+		String message = "[" + value + "] (" + value.getClass().getName() + ") should be " + expected + " at " + now +
+						 " in " + TimeZone.getDefault().getID() + ".";
+		assertEquals(message, past, new PastValidator(source).isValid(value, null));
+		assertEquals(message, future, new FutureValidator(source).isValid(value, null));
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeSourceTest
+{
+	private static final long WAIT_MILLIS = 5000L;
+
+	private static Thread ticker(long intervalMillis)
+	{
+		String name = "coarse-time-source-" + intervalMillis + "ms";
+		for(Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if(thread.getName().equals(name) && thread.isAlive())
+			{
+				return thread;
+			}
+		}
+		return null;
+	}
+
+	private static void assertLagging(TimeSource source) throws InterruptedException
+	{
+		long before = System.currentTimeMillis();
+		Thread.sleep(20L);
+		assertTrue("The coarse time should lag the system clock.", source.currentTimeMillis() < before + 20L);
+	}
+
+	private static void assertExact(TimeSource source) throws InterruptedException
+	{
+		Thread.sleep(20L);
+		long before = System.currentTimeMillis();
+		assertTrue("The time should be read from the system clock.", source.currentTimeMillis() >= before);
+		assertTrue("The current time should be read from the system clock.",
+				   source.currentTime().getEpochMillis() >= before);
+	}
+
+	@Test
+	public void testFixedAndSystem()
+	{
+		assertEquals("The fixed time is wrong.", 123456789L, TimeSource.fixed(123456789L).currentTimeMillis());
+		assertSame("The default should be the system clock.", TimeSource.system(), TimeSource.getDefault());
+		TimeSource.system().close();
+		assertTrue("Closing should not affect the system clock.",
+				   TimeSource.system().currentTimeMillis() >= System.currentTimeMillis() - 1000L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGranularityTooSmall()
+	{
+		TimeSource.coarse(999L, TimeUnit.MICROSECONDS);
+	}
+
+	@Test
+	public void testCoarseTicks() throws InterruptedException
+	{
+		TimeSource source = TimeSource.coarse(10L, TimeUnit.MILLISECONDS);
+		try
+		{
+			long first = source.currentTimeMillis();
+			long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+			while(source.currentTimeMillis() == first && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(5L);
+			}
+			assertTrue("The coarse time should advance.", source.currentTimeMillis() > first);
+			assertSame("The current time should be the published one.", source.currentTime(), source.currentTime());
+		}
+		finally
+		{
+			source.close();
+		}
+	}
+
+	@Test
+	public void testCoarseSourcesAreSharedPerGranularity()
+	{
+		TimeSource source = TimeSource.coarse(1L, TimeUnit.HOURS);
+		try
+		{
+			assertSame("The same granularity should share a source.", source,
+					   TimeSource.coarse(60L, TimeUnit.MINUTES));
+			assertNotSame("Another granularity should have its own source.", source,
+						  TimeSource.coarse(2L, TimeUnit.HOURS));
+		}
+		finally
+		{
+			source.close();
+			TimeSource.coarse(2L, TimeUnit.HOURS).close();
+		}
+	}
+
+	@Test
+	public void testClose() throws InterruptedException
+	{
+		long intervalMillis = TimeUnit.HOURS.toMillis(3L);
+		TimeSource source = TimeSource.coarse(3L, TimeUnit.HOURS);
+		TimeSourceTest.assertLagging(source);
+		Thread ticker = TimeSourceTest.ticker(intervalMillis);
+		assertNotNull("The ticker thread should be running.", ticker);
+		assertTrue("The ticker thread should be a daemon.", ticker.isDaemon());
+
+		source.close();
+		ticker.join(WAIT_MILLIS);
+		assertFalse("The ticker thread should have stopped.", ticker.isAlive());
+		TimeSourceTest.assertExact(source);
+
+		TimeSource restarted = TimeSource.coarse(3L, TimeUnit.HOURS);
+		assertNotSame("A closed source should be replaced.", source, restarted);
+		restarted.close();
+	}
+
+	@Test
+	public void testInterrupt() throws InterruptedException
+	{
+		long intervalMillis = TimeUnit.HOURS.toMillis(4L);
+		TimeSource source = TimeSource.coarse(4L, TimeUnit.HOURS);
+		TimeSourceTest.assertLagging(source);
+		Thread ticker = TimeSourceTest.ticker(intervalMillis);
+		assertNotNull("The ticker thread should be running.", ticker);
+
+		ticker.interrupt();
+		ticker.join(WAIT_MILLIS);
+		assertFalse("The ticker thread should have exited.", ticker.isAlive());
+		TimeSourceTest.assertExact(source);
+
+		TimeSource restarted = TimeSource.coarse(4L, TimeUnit.HOURS);
+		assertNotSame("A stopped source should be replaced.", source, restarted);
+		TimeSourceTest.assertLagging(restarted);
+		restarted.close();
+	}
+
+	@Test
+	public void testRepeatedCallsDoNotStartThreads()
+	{
+		for(int i = 0; i < 100; i++)
+		{
+			TimeSource.coarse(5L, TimeUnit.HOURS);
+		}
+		int count = 0;
+		for(Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if(thread.getName().equals("coarse-time-source-" + TimeUnit.HOURS.toMillis(5L) + "ms"))
+			{
+				count++;
+			}
+		}
+		assertEquals("Only one ticker thread should run per granularity.", 1, count);
+		TimeSource.coarse(5L, TimeUnit.HOURS).close();
+	}
+}
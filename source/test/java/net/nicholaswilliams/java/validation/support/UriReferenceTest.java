@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UriReferenceTest
+{
+	/*
+	 * The URI-reference rule of RFC 3986, appendix A, transcribed into a regular expression. The only additions are
+	 * the documented exceptions of the parser: non-ASCII characters are allowed in a registered name, and the port
+	 * must not exceed 65535.
+	 */
+	private static final Pattern ORACLE;
+
+	static
+	{
+		String unreserved = "[A-Za-z0-9._~-]";
+		String pctEncoded = "%[0-9A-Fa-f]{2}";
+		String subDelims = "[!$&'()*+,;=]";
+		String pchar = "(?:" + unreserved + "|" + pctEncoded + "|" + subDelims + "|[:@])";
+		String segment = pchar + "*";
+		String segmentNz = pchar + "+";
+		String segmentNzNc = "(?:" + unreserved + "|" + pctEncoded + "|" + subDelims + "|@)+";
+
+		String decOctet = "(?:25[0-5]|2[0-4][0-9]|1[0-9]{2}|[1-9][0-9]|[0-9])";
+		String ipv4 = decOctet + "(?:\\." + decOctet + "){3}";
+		String h16 = "[0-9A-Fa-f]{1,4}";
+		String ls32 = "(?:" + h16 + ":" + h16 + "|" + ipv4 + ")";
+		StringBuilder ipv6 = new StringBuilder("(?:(?:" + h16 + ":){6}" + ls32 + "|::(?:" + h16 + ":){5}" + ls32);
+		for(int before = 1; before <= 7; before++)
+		{
+			String prefix = "(?:(?:" + h16 + ":){0," + (before - 1) + "}" + h16 + ")?";
+			int after = 5 - before;
+			String suffix = after >= 0 ? "(?:" + h16 + ":){" + after + "}" + ls32 : before == 6 ? h16 : "";
+			ipv6.append("|").append(prefix).append("::").append(suffix);
+		}
+		ipv6.append(")");
+		String ipvFuture = "[vV][0-9A-Fa-f]+\\.(?:" + unreserved + "|" + subDelims + "|:)+";
+		String ipLiteral = "\\[(?:" + ipv6 + "|" + ipvFuture + ")\\]";
+		String regName = "(?:" + unreserved + "|" + pctEncoded + "|" + subDelims + "|[^\\x00-\\x7F])*";
+		String port = "(?:0*(?:[0-9]{1,4}|[1-5][0-9]{4}|6[0-4][0-9]{3}|65[0-4][0-9]{2}|655[0-2][0-9]|6553[0-5]))?";
+		String userInfo = "(?:" + unreserved + "|" + pctEncoded + "|" + subDelims + "|:)*";
+		String authority = "(?:" + userInfo + "@)?(?:" + ipLiteral + "|" + regName + ")(?::" + port + ")?";
+
+		String pathAbEmpty = "(?:/" + segment + ")*";
+		String pathAbsolute = "/(?:" + segmentNz + "(?:/" + segment + ")*)?";
+		String pathRootless = segmentNz + "(?:/" + segment + ")*";
+		String pathNoScheme = segmentNzNc + "(?:/" + segment + ")*";
+		String query = "(?:" + pchar + "|[/?])*";
+
+		String hierPart = "(?://" + authority + pathAbEmpty + "|" + pathAbsolute + "|" + pathRootless + "|)";
+		String relativePart = "(?://" + authority + pathAbEmpty + "|" + pathAbsolute + "|" + pathNoScheme + "|)";
+		String tail = "(?:\\?" + query + ")?(?:#" + query + ")?";
+		ORACLE = Pattern.compile(
+				"[A-Za-z][A-Za-z0-9+.-]*:" + hierPart + tail + "|" + relativePart + tail
+		);
+	}
+
+	private static final String[] SCHEMES = { "", "", "http:", "a+b-c.d:", "1a:", "-:", ":" };
+
+	private static final String[] USER_INFOS = { "", "", "u@", "u:p@", "%41@", "a@b@", "[x]@", "ü@", "@" };
+
+	private static final String[] HOSTS = {
+			"", "example.com", "1.2.3.4", "256.1.1.1", "bücher.example", "a%2Fb", "a%2", "ex ample",
+			"_~-.!$&'()*+,;=", "[::1]", "[::]", "[2001:db8::7]", "[1:2:3:4:5:6:7:8]", "[1:2:3:4:5:6:7:8:9]",
+			"[1:2:3:4:5:6:7::]", "[::1:2:3:4:5:6:7]", "[1::2::3]", "[:1:2:3:4:5:6:7]", "[1:2:3:4:5:6:7:]",
+			"[::1.2.3.4]", "[::ffff:1.2.3.4]", "[::ffff:01.2.3.4]", "[1:2:3:4:5:6:1.2.3.4]", "[1:2:3:4:5:6::1.2.3.4]",
+			"[1.2.3.4]", "[::1.2.3.256]", "[12345::]", "[v7.abc:]", "[V1F.x]", "[v.x]", "[v1.]", "[::1", "[::1]x", "host[1]"
+	};
+
+	private static final String[] PORTS = { "", "", ":", ":80", ":65535", ":65536", ":0080", ":8a", ":1:2", ":99999" };
+
+	private static final String[] PATHS = {
+			"", "", "/", "/a/b", "a/b", "a:b", "//x", "/a%20b", "/a%g0", "/@:", "/[", "/ü", "a", "./..", "g;x=1"
+	};
+
+	private static final String[] QUERIES = { "", "", "?", "?a=b&c", "?/?:@", "?%", "?a b" };
+
+	private static final String[] FRAGMENTS = { "", "", "#", "#f", "#f?/", "#a#b", "#%41", "#[" };
+
+	private static final String[] TOKENS = {
+			"a", "1", ":", "/", "//", "?", "#", "@", "[", "]", "::", ".", "%", "%2F", "%G", "v1.x", "1.2.3.4", "ffff",
+			"-", "+", "~", "!", " ", "\"", "80", "65536", "é", "\\", "{", "|"
+	};
+
+	private static void assertValid(String... values)
+	{
+		for(String value : values)
+		{
+			assertNotNull("[" + value + "] should be a valid reference.", UriReference.parse(value));
+		}
+	}
+
+	private static void assertInvalid(String... values)
+	{
+		for(String value : values)
+		{
+			assertNull("[" + value + "] should not be a valid reference.", UriReference.parse(value));
+		}
+	}
+
+	private static String pick(Random random, String[] choices)
+	{
+		return choices[random.nextInt(choices.length)];
+	}
+
+	private static void assertAgreesWithOracle(String value)
+	{
+		assertEquals("The parser and RFC 3986 disagree on [" + value + "].", ORACLE.matcher(value).matches(),
+					 UriReference.parse(value) != null);
+	}
+
+	@Test
+	public void testRfc3986Examples()
+	{
+		assertValid(
+				"ftp://ftp.is.co.za/rfc/rfc1808.txt", "http://www.ietf.org/rfc/rfc2396.txt",
+				"ldap://[2001:db8::7]/c=GB?objectClass?one", "mailto:John.Doe@example.com",
+				"news:comp.infosystems.www.servers.unix", "tel:+1-816-555-1212", "telnet://192.0.2.16:80/",
+				"urn:oasis:names:specification:docbook:dtd:xml:4.1.2", "foo://example.com:8042/over/there?name=ferret#nose"
+		);
+	}
+
+	@Test
+	public void testRfc3986ReferenceResolutionExamples()
+	{
+		assertValid(
+				"g:h", "g", "./g", "g/", "/g", "//g", "?y", "g?y", "#s", "g#s", "g?y#s", ";x", "g;x", "g;x?y#s", "", ".",
+				"./", "..", "../", "../g", "../..", "../../", "../../g", "../../../g", "/./g", "g.", ".g", "g..", "..g",
+				"./../g", "./g/.", "g/./h", "g;x=1/./y", "g?y/./x", "g#s/../x", "http:g"
+		);
+	}
+
+	@Test
+	public void testInvalidReferences()
+	{
+		assertInvalid(
+				"http://exa mple.com", "http://[::1", "http://[::1]x/", "http://a@b@c", "http://host:80:90",
+				"http://host:65536", "http://host:8a", "1a:b", "%zz", "a%2", "http://[1:2:3:4:5:6:7:8:9]",
+				"http://[::1::2]", "http://[1.2.3.4]", "http://[::1.2.3.256]", "http://[v1.]", "http://[vz.a]", "#a#b", "a b", "http://h/é",
+				"http://é@h", "<>", "\\", "http://h?a{b}", "//[::1]@h"
+		);
+	}
+
+	@Test
+	public void testComponents()
+	{
+		String value = "http://user:pw@Example.com:8080/a/b?q=1#f";
+		UriReference reference = UriReference.parse(value);
+		assertNotNull("The reference should be valid.", reference);
+		assertTrue("The scheme is not correct.", reference.hasScheme());
+		assertEquals("The scheme is not correct.", "http", value.substring(0, reference.getSchemeEnd()));
+		assertTrue("The authority is not correct.", reference.hasAuthority());
+		assertTrue("The user info is not correct.", reference.hasUserInfo());
+		assertEquals("The host is not correct.", "Example.com",
+					 value.substring(reference.getHostStart(), reference.getHostEnd()));
+		assertEquals("The port is not correct.", 8080, reference.getPort());
+		assertTrue("The path is not correct.", reference.hasPath());
+		assertTrue("The query is not correct.", reference.hasQuery());
+		assertTrue("The fragment is not correct.", reference.hasFragment());
+		assertEquals("The scheme-specific part is not correct.", "//user:pw@Example.com:8080/a/b?q=1",
+					 value.substring(reference.getSchemeSpecificPartStart(), reference.getSchemeSpecificPartEnd()));
+	}
+
+	@Test
+	public void testComponentsOfRelativeReference()
+	{
+		String value = "../a?";
+		UriReference reference = UriReference.parse(value);
+		assertNotNull("The reference should be valid.", reference);
+		assertFalse("There should be no scheme.", reference.hasScheme());
+		assertFalse("There should be no authority.", reference.hasAuthority());
+		assertFalse("There should be no user info.", reference.hasUserInfo());
+		assertEquals("There should be no port.", -1, reference.getPort());
+		assertTrue("The path is not correct.", reference.hasPath());
+		assertTrue("An empty query is still a query.", reference.hasQuery());
+		assertFalse("There should be no fragment.", reference.hasFragment());
+		assertEquals("The scheme-specific part is not correct.", "../a?",
+					 value.substring(reference.getSchemeSpecificPartStart(), reference.getSchemeSpecificPartEnd()));
+	}
+
+	@Test
+	public void testComponentsOfIpLiteralAndEmptyPort()
+	{
+		String value = "ldap://[2001:db8::7]:/c=GB";
+		UriReference reference = UriReference.parse(value);
+		assertNotNull("The reference should be valid.", reference);
+		assertEquals("The host is not correct.", "[2001:db8::7]",
+					 value.substring(reference.getHostStart(), reference.getHostEnd()));
+		assertEquals("An empty port should be no port.", -1, reference.getPort());
+		assertFalse("There should be no user info.", reference.hasUserInfo());
+	}
+
+	@Test
+	public void testInternationalHost()
+	{
+		String value = "http://bücher.example/";
+		UriReference reference = UriReference.parse(value);
+		assertNotNull("The reference should be valid.", reference);
+		assertEquals("The host is not correct.", "bücher.example",
+					 value.substring(reference.getHostStart(), reference.getHostEnd()));
+	}
+
+	@Test
+	public void testGeneratedComponentsAgreeWithRfc3986()
+	{
+		Random random = new Random(3986L);
+		for(int i = 0; i < 50000; i++)
+		{
+			String authority = random.nextInt(3) == 0 ? "" :
+							   "//" + pick(random, USER_INFOS) + pick(random, HOSTS) + pick(random, PORTS);
+			UriReferenceTest.assertAgreesWithOracle(
+					pick(random, SCHEMES) + authority + pick(random, PATHS) + pick(random, QUERIES) +
+					pick(random, FRAGMENTS)
+			);
+		}
+	}
+
+	@Test
+	public void testGeneratedTokensAgreeWithRfc3986()
+	{
+		Random random = new Random(1738L);
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < 50000; i++)
+		{
+			builder.setLength(0);
+			for(int tokens = random.nextInt(9); tokens > 0; tokens--)
+			{
+				builder.append(pick(random, TOKENS));
+			}
+			UriReferenceTest.assertAgreesWithOracle(builder.toString());
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.Uri;
+
+import static org.junit.Assert.*;
+
+public class UriValidatorTest
+{
+	@Uri
+	private Object any;
+
+	@Uri(schemes = { "http", "HTTPS" })
+	private Object web;
+
+	@Uri(schemes = { "mailto", "" })
+	private Object mailOrRelative;
+
+	@Uri(ssp = { "//example.com/", "john@example.com" })
+	private Object fixedSchemeSpecificPart;
+
+	@Uri(port = { 80, 443 })
+	private Object webPorts;
+
+	@Uri(port = { 8080, -1 })
+	private Object optionalPort;
+
+	@Uri(requiresPath = true, requiresQuery = true, requiresFragment = true, requiresUserInfo = true)
+	private Object everything;
+
+	@Uri(port = 65536)
+	private Object invalidPort;
+
+	private static UriValidator validator(String field)
+	{
+		UriValidator validator = new UriValidator();
+		try
+		{
+			validator.initialize(UriValidatorTest.class.getDeclaredField(field).getAnnotation(Uri.class));
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return validator;
+	}
+
+	private static void assertValid(String field, String... values)
+	{
+		UriValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertTrue("[" + value + "] should pass " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	private static void assertInvalid(String field, String... values)
+	{
+		UriValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertFalse("[" + value + "] should fail " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	@Test
+	public void testAny()
+	{
+		assertValid("any", null, "", "http://example.com", "../a", "urn:isbn:0451450523", "http://bücher.example/",
+					"http://a..b/");
+		assertInvalid("any", "http://exa mple.com", "http://[::1", "http://xn--zz.example/");
+	}
+
+	@Test
+	public void testSchemes()
+	{
+		assertValid("web", "http://example.com", "HTTP://example.com", "https://example.com");
+		assertInvalid("web", "ftp://example.com", "//example.com", "mailto:john@example.com");
+		assertValid("mailOrRelative", "mailto:john@example.com", "MailTo:john@example.com", "../a", "");
+		assertInvalid("mailOrRelative", "http://example.com");
+	}
+
+	@Test
+	public void testSchemeSpecificPart()
+	{
+		assertValid("fixedSchemeSpecificPart", "http://example.com/", "https://example.com/#top",
+					"mailto:john@example.com", "//example.com/");
+		assertInvalid("fixedSchemeSpecificPart", "http://example.com", "http://example.com/?q",
+					  "mailto:jane@example.com");
+	}
+
+	@Test
+	public void testPorts()
+	{
+		assertValid("webPorts", "http://example.com:80/", "https://example.com:443/", "http://example.com:0080/");
+		assertInvalid("webPorts", "http://example.com/", "http://example.com:8080/", "http://example.com:/");
+		assertValid("optionalPort", "http://example.com/", "http://example.com:8080/", "../a");
+		assertInvalid("optionalPort", "http://example.com:80/");
+	}
+
+	@Test
+	public void testRequiredComponents()
+	{
+		assertValid("everything", "http://user@example.com/a?q#f", "//u:p@h/?#");
+		assertInvalid("everything", "http://example.com/a?q#f", "http://user@example.com?q#f",
+					  "http://user@example.com/a#f", "http://user@example.com/a?q");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testInvalidPort()
+	{
+		validator("invalidPort");
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.validation.ConstraintDeclarationException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.Url;
+
+import static org.junit.Assert.*;
+
+public class UrlValidatorTest
+{
+	private static final String HOST_FILE = "target/UrlValidatorTest-hosts.txt";
+
+	@Url
+	private Object any;
+
+	@Url(protocols = { "http", "HTTPS" })
+	private Object web;
+
+	@Url(host = { "example.com", "*.example.org", ".example.net", "[::1]", "bücher.example" })
+	private Object hosts;
+
+	@Url(hostFile = HOST_FILE)
+	private Object hostFile;
+
+	@Url(host = "*.partner.example")
+	private Object wildcard;
+
+	@Url(host = "*")
+	private Object anyHost;
+
+	@Url(port = { 80, 443 })
+	private Object webPorts;
+
+	@Url(host = "www.*.example.com")
+	private Object invalidHost;
+
+	@Url(hostFile = "target/UrlValidatorTest-missing.txt")
+	private Object missingHostFile;
+
+	@Url(port = -1)
+	private Object invalidPort;
+
+	@BeforeClass
+	public static void writeHostFile() throws IOException
+	{
+		OutputStream stream = new FileOutputStream(new File(HOST_FILE));
+		try
+		{
+			stream.write("# allowed hosts\n\nexample.com\n  .example.net  \n".getBytes("UTF-8"));
+		}
+		finally
+		{
+			stream.close();
+		}
+	}
+
+	private static UrlValidator validator(String field)
+	{
+		UrlValidator validator = new UrlValidator();
+		try
+		{
+			validator.initialize(UrlValidatorTest.class.getDeclaredField(field).getAnnotation(Url.class));
+		}
+		catch(NoSuchFieldException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return validator;
+	}
+
+	private static void assertValid(String field, String... values)
+	{
+		UrlValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertTrue("[" + value + "] should pass " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	private static void assertInvalid(String field, String... values)
+	{
+		UrlValidator validator = validator(field);
+		for(String value : values)
+		{
+			assertFalse("[" + value + "] should fail " + field + ".", validator.isValid(value, null));
+		}
+	}
+
+	@Test
+	public void testAny()
+	{
+		assertValid("any", null, "http://example.com", "ftp://ftp.is.co.za/rfc/rfc1808.txt",
+					"ldap://[2001:db8::7]/c=GB?objectClass?one", "http://bücher.example/", "file:///etc/hosts",
+					"FILE:///etc/hosts", "file://localhost/etc/hosts");
+		assertInvalid("any", "", "example.com", "//example.com", "mailto:john@example.com", "../a",
+					  "http://exa mple.com", "http://xn--zz.example/");
+	}
+
+	@Test
+	public void testEmptyHost()
+	{
+		assertInvalid("any", "http://", "http:///p", "https://:443/", "http://user@/", "ftp:///file.txt",
+					  "files:///etc/hosts", "fil:///etc/hosts");
+		assertInvalid("web", "http://", "http:///p");
+		assertInvalid("webPorts", "http://:80/");
+	}
+
+	@Test
+	public void testProtocols()
+	{
+		assertValid("web", "http://example.com", "HTTP://example.com", "https://example.com");
+		assertInvalid("web", "ftp://example.com", "httpx://example.com");
+	}
+
+	@Test
+	public void testHosts()
+	{
+		assertValid("hosts", "http://example.com/", "http://EXAMPLE.com./", "http://www.example.org/",
+					"http://a.b.example.org/", "http://example.net/", "http://www.example.net/", "http://[::1]:8080/",
+					"http://xn--bcher-kva.example/", "http://BÜCHER.example/");
+		assertInvalid("hosts", "http://www.example.com/", "http://example.org/", "http://example.com.evil/",
+					  "http://[::2]/", "http://buecher.example/", "http://notexample.net/");
+	}
+
+	@Test
+	public void testWildcardsMatchWholeLabels()
+	{
+		assertValid("wildcard", "https://a.partner.example/", "https://a.b.partner.example/",
+					"https://a.partner.example./");
+		assertInvalid("wildcard", "https://partner.example/", "https://.partner.example/",
+					  "https://..partner.example/", "https://a..partner.example/", "https://.a.partner.example/",
+					  "https://a..b.partner.example/", "https://apartner.example/");
+		assertInvalid("hosts", "http://.example.org/", "http://..example.net/", "http://a..example.net/");
+		assertValid("anyHost", "http://example.com/", "http://a.b/");
+		assertInvalid("anyHost", "http://.example.com/", "http://example..com/");
+	}
+
+	@Test
+	public void testHostFile()
+	{
+		assertValid("hostFile", "http://example.com/", "http://example.net/", "http://www.example.net/");
+		assertInvalid("hostFile", "http://www.example.com/", "http://example.org/");
+	}
+
+	@Test
+	public void testPorts()
+	{
+		assertValid("webPorts", "http://example.com/", "http://example.com:80/", "https://example.com:443/");
+		assertInvalid("webPorts", "http://example.com:8080/", "http://example.com:65536/");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testInvalidHost()
+	{
+		validator("invalidHost");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testMissingHostFile()
+	{
+		validator("missingHostFile");
+	}
+
+	@Test(expected = ConstraintDeclarationException.class)
+	public void testInvalidPort()
+	{
+		validator("invalidPort");
+	}
+}
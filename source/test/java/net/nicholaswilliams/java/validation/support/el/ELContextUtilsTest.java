@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support.el;
+
+import javax.el.ELContext;
+import javax.el.ELResolver;
+import javax.el.FunctionMapper;
+import javax.el.VariableMapper;
+
+import org.junit.Test;
+
+import net.nicholaswilliams.java.validation.MultiReleaseTestUtils;
+
+import static org.junit.Assert.*;
+
+public class ELContextUtilsTest
+{
+	@Test
+	public void testVariant()
+	{
+		assertEquals("The wrong variant of ELContextUtils was loaded.",
+					 MultiReleaseTestUtils.expectVersioned(ELContextUtils.class),
+					 MultiReleaseTestUtils.isVersioned(ELContextUtils.class));
+	}
+
+	@Test
+	public void testSetPropertyResolved()
+	{
+		ELContext context = new TestELContext();
+		assertFalse("The property should not be resolved yet.", context.isPropertyResolved());
+
+		ELContextUtils.setPropertyResolved(context, new Object(), "property");
+
+		assertTrue("The property should be resolved.", context.isPropertyResolved());
+	}
+
+	@Test
+	public void testSetPropertyResolvedNullBase()
+	{
+		ELContext context = new TestELContext();
+
+		ELContextUtils.setPropertyResolved(context, null, "bean");
+
+		assertTrue("The property should be resolved.", context.isPropertyResolved());
+	}
+
+	private static final class TestELContext extends ELContext
+	{
+		@Override
+		public ELResolver getELResolver()
+		{
+			return null;
+		}
+
+		@Override
+		public FunctionMapper getFunctionMapper()
+		{
+			return null;
+		}
+
+		@Override
+		public VariableMapper getVariableMapper()
+		{
+			return null;
+		}
+	}
+}
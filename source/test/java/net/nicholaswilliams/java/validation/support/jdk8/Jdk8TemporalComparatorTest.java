@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support.jdk8;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static net.nicholaswilliams.java.validation.support.TemporalTestUtils.*;
+
+public class Jdk8TemporalComparatorTest
+{
+	/*
+	 * 2013-03-10T07:30Z, 03:30 EDT, half an hour after 02:00 EST jumped to 03:00 EDT.
+	 */
+	private static final long AFTER_SPRING_FORWARD = 1362900600000L;
+
+	/*
+	 * 2013-11-03T05:30Z, 01:30 EDT, the first time 01:30 occurred that day.
+	 */
+	private static final long BEFORE_FALL_BACK = 1383456600000L;
+
+	/*
+	 * 2013-11-03T06:30Z, 01:30 EST, the second time 01:30 occurred that day.
+	 */
+	private static final long AFTER_FALL_BACK = 1383460200000L;
+
+	private static final Instant NOW_INSTANT = Instant.ofEpochMilli(NOW);
+
+	private TimeZone original;
+
+	@Before
+	public void setZone()
+	{
+		this.original = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone(ZONE));
+	}
+
+	@After
+	public void restoreZone()
+	{
+		TimeZone.setDefault(this.original);
+	}
+
+	@Test
+	public void testInstant()
+	{
+		assertPast(NOW, NOW_INSTANT.minusNanos(1L));
+		assertPresent(NOW, NOW_INSTANT);
+		assertFuture(NOW, NOW_INSTANT.plusNanos(1L));
+		assertFuture(NOW, NOW_INSTANT.plusNanos(999999L));
+		assertPast(NOW, Instant.ofEpochSecond(-1L, 999999999L));
+		assertFuture(-1L, Instant.ofEpochSecond(-1L, 999000001L));
+	}
+
+	@Test
+	public void testClock()
+	{
+		assertPast(NOW, Clock.fixed(NOW_INSTANT.minusMillis(1L), ZoneOffset.UTC));
+		assertPresent(NOW, Clock.fixed(NOW_INSTANT, ZoneId.of("Asia/Tokyo")));
+		assertFuture(NOW, Clock.fixed(NOW_INSTANT.plusMillis(1L), ZoneOffset.UTC));
+	}
+
+	@Test
+	public void testOffsetDateTime()
+	{
+		for(ZoneOffset offset : new ZoneOffset[] { ZoneOffset.UTC, ZoneOffset.ofHours(9), ZoneOffset.MIN })
+		{
+			OffsetDateTime now = OffsetDateTime.ofInstant(NOW_INSTANT, offset);
+			assertPast(NOW, now.minusNanos(1L));
+			assertPresent(NOW, now);
+			assertFuture(NOW, now.plusNanos(1L));
+		}
+	}
+
+	@Test
+	public void testZonedDateTime()
+	{
+		for(String zone : new String[] { "UTC", "Europe/Paris", "Pacific/Kiritimati", ZONE })
+		{
+			ZonedDateTime now = ZonedDateTime.ofInstant(NOW_INSTANT, ZoneId.of(zone));
+			assertPast(NOW, now.minusNanos(1L));
+			assertPresent(NOW, now);
+			assertFuture(NOW, now.plusNanos(1L));
+		}
+	}
+
+	@Test
+	public void testLocalDateTime()
+	{
+		LocalDateTime now = LocalDateTime.of(2013, 6, 15, 10, 30);
+		assertPast(NOW, now.minusNanos(1L));
+		assertPresent(NOW, now);
+		assertFuture(NOW, now.plusNanos(1L));
+		assertPast(NOW, LocalDateTime.of(2013, 6, 14, 23, 59));
+		assertFuture(NOW, LocalDateTime.of(2013, 6, 16, 0, 0));
+		// 14:30 is the current time in UTC, but local types are compared in the default zone
+		assertFuture(NOW, LocalDateTime.of(2013, 6, 15, 14, 30));
+	}
+
+	@Test
+	public void testLocalDateTimeAfterSpringForward()
+	{
+		LocalDateTime now = LocalDateTime.of(2013, 3, 10, 3, 30);
+		assertPast(AFTER_SPRING_FORWARD, now.minusNanos(1L));
+		assertPresent(AFTER_SPRING_FORWARD, now);
+		assertFuture(AFTER_SPRING_FORWARD, now.plusNanos(1L));
+		// 02:30 never occurred that day, but it still precedes 03:30 on the local clock
+		assertPast(AFTER_SPRING_FORWARD, LocalDateTime.of(2013, 3, 10, 2, 30));
+		assertPast(AFTER_SPRING_FORWARD, LocalDateTime.of(2013, 3, 10, 1, 59));
+		assertFuture(AFTER_SPRING_FORWARD, LocalDateTime.of(2013, 3, 10, 4, 0));
+		assertPast(AFTER_SPRING_FORWARD - 3600000L, LocalDateTime.of(2013, 3, 10, 1, 29));
+		assertFuture(AFTER_SPRING_FORWARD - 3600000L, LocalDateTime.of(2013, 3, 10, 2, 30));
+	}
+
+	@Test
+	public void testLocalDateTimeAroundFallBack()
+	{
+		// 01:30 occurs twice; both times, the local clock reads 01:30
+		for(long now : new long[] { BEFORE_FALL_BACK, AFTER_FALL_BACK })
+		{
+			LocalDateTime local = LocalDateTime.of(2013, 11, 3, 1, 30);
+			assertPast(now, local.minusNanos(1L));
+			assertPresent(now, local);
+			assertFuture(now, local.plusNanos(1L));
+			assertPast(now, LocalDateTime.of(2013, 11, 3, 1, 15));
+			assertFuture(now, LocalDateTime.of(2013, 11, 3, 1, 45));
+			assertFuture(now, LocalDateTime.of(2013, 11, 3, 2, 0));
+		}
+	}
+
+	@Test
+	public void testLocalDate()
+	{
+		assertPast(NOW, LocalDate.of(2013, 6, 14));
+		assertPresent(NOW, LocalDate.of(2013, 6, 15));
+		assertFuture(NOW, LocalDate.of(2013, 6, 16));
+		assertPresent(AFTER_FALL_BACK, LocalDate.of(2013, 11, 3));
+		assertPast(AFTER_FALL_BACK, LocalDate.of(2013, 11, 2));
+	}
+
+	@Test
+	public void testLocalTime()
+	{
+		LocalTime now = LocalTime.of(10, 30);
+		assertPast(NOW, now.minusNanos(1L));
+		assertPresent(NOW, now);
+		assertFuture(NOW, now.plusNanos(1L));
+		assertPast(NOW, LocalTime.MIDNIGHT);
+		assertFuture(NOW, LocalTime.MAX);
+		assertPresent(AFTER_SPRING_FORWARD, LocalTime.of(3, 30));
+		assertPast(AFTER_SPRING_FORWARD, LocalTime.of(2, 30));
+		assertPresent(AFTER_FALL_BACK, LocalTime.of(1, 30));
+	}
+
+	@Test
+	public void testOffsetTime()
+	{
+		OffsetTime now = OffsetTime.of(14, 30, 0, 0, ZoneOffset.UTC);
+		assertPast(NOW, now.minusNanos(1L));
+		assertPresent(NOW, now);
+		assertFuture(NOW, now.plusNanos(1L));
+		assertPresent(NOW, OffsetTime.of(10, 30, 0, 0, ZoneOffset.ofHours(-4)));
+		assertPresent(NOW, OffsetTime.of(23, 30, 0, 0, ZoneOffset.ofHours(9)));
+		// the offset time is adjusted to the offset in effect now, which changes when the clocks fall back
+		assertPresent(AFTER_FALL_BACK, OffsetTime.of(6, 30, 0, 0, ZoneOffset.UTC));
+		assertPresent(BEFORE_FALL_BACK, OffsetTime.of(5, 30, 0, 0, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void testOffsetTimeWrapsAroundMidnight()
+	{
+		// 04:30+14:00 is 10:30 in New York on the previous day, so the adjustment wraps below zero
+		OffsetTime below = OffsetTime.of(4, 30, 0, 0, ZoneOffset.ofHours(14));
+		assertPast(NOW, below.minusNanos(1L));
+		assertPresent(NOW, below);
+		assertFuture(NOW, below.plusNanos(1L));
+		// 20:30-18:00 is 10:30 in New York on the next day, so the adjustment wraps past a day
+		OffsetTime above = OffsetTime.of(20, 30, 0, 0, ZoneOffset.ofHours(-18));
+		assertPast(NOW, above.minusNanos(1L));
+		assertPresent(NOW, above);
+		assertFuture(NOW, above.plusNanos(1L));
+		// 02:00+05:00 is 17:00 and 22:00-10:00 is 04:00 in New York once wrapped
+		assertFuture(NOW, OffsetTime.of(2, 0, 0, 0, ZoneOffset.ofHours(5)));
+		assertPast(NOW, OffsetTime.of(22, 0, 0, 0, ZoneOffset.ofHours(-10)));
+		assertPast(NOW, OffsetTime.of(0, 0, 0, 0, ZoneOffset.ofHours(-4)));
+		assertFuture(NOW, OffsetTime.of(23, 59, 59, 999999999, ZoneOffset.ofHours(-4)));
+	}
+
+	@Test
+	public void testYearMonth()
+	{
+		assertPast(NOW, YearMonth.of(2013, 5));
+		assertPresent(NOW, YearMonth.of(2013, 6));
+		assertFuture(NOW, YearMonth.of(2013, 7));
+		assertPast(NOW, YearMonth.of(2012, 12));
+		assertFuture(NOW, YearMonth.of(2014, 1));
+	}
+
+	@Test
+	public void testMonth()
+	{
+		assertPast(NOW, Month.MAY);
+		assertPresent(NOW, Month.JUNE);
+		assertFuture(NOW, Month.JULY);
+	}
+
+	@Test
+	public void testYear()
+	{
+		assertPast(NOW, Year.of(2012));
+		assertPresent(NOW, Year.of(2013));
+		assertFuture(NOW, Year.of(2014));
+	}
+
+	@Test
+	public void testDayOfWeek()
+	{
+		assertPast(NOW, DayOfWeek.FRIDAY);
+		assertPresent(NOW, DayOfWeek.SATURDAY);
+		assertFuture(NOW, DayOfWeek.SUNDAY);
+		assertPast(NOW, DayOfWeek.MONDAY);
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.nicholaswilliams.java.validation.support.joda;
+
+import java.util.TimeZone;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Days;
+import org.joda.time.Instant;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.joda.time.Months;
+import org.joda.time.MutableDateTime;
+import org.joda.time.YearMonth;
+import org.joda.time.Years;
+import org.joda.time.chrono.BuddhistChronology;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static net.nicholaswilliams.java.validation.support.TemporalTestUtils.*;
+
+public class JodaTemporalComparatorTest
+{
+	/*
+	 * 2013-03-10T07:30Z, 03:30 EDT, half an hour after 02:00 EST jumped to 03:00 EDT.
+	 */
+	private static final long AFTER_SPRING_FORWARD = 1362900600000L;
+
+	/*
+	 * 2013-11-03T06:30Z, 01:30 EST, the second time 01:30 occurred that day.
+	 */
+	private static final long AFTER_FALL_BACK = 1383460200000L;
+
+	/*
+	 * At NOW it is already 2013-06-16 in Kiritimati (UTC+14) while it is still 2013-06-15 in New York, and it is
+	 * 2013-06-15 in Pago Pago (UTC-11) only since 03:30 local time.
+	 */
+	private static final DateTimeZone KIRITIMATI = DateTimeZone.forID("Pacific/Kiritimati");
+
+	private static final DateTimeZone PAGO_PAGO = DateTimeZone.forID("Pacific/Pago_Pago");
+
+	private TimeZone original;
+
+	private DateTimeZone originalJoda;
+
+	@Before
+	public void setZone()
+	{
+		this.original = TimeZone.getDefault();
+		this.originalJoda = DateTimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone(ZONE));
+		DateTimeZone.setDefault(DateTimeZone.forID(ZONE));
+	}
+
+	@After
+	public void restoreZone()
+	{
+		TimeZone.setDefault(this.original);
+		DateTimeZone.setDefault(this.originalJoda);
+	}
+
+	@Test
+	public void testInstants()
+	{
+		for(DateTimeZone zone : new DateTimeZone[] { DateTimeZone.UTC, KIRITIMATI, PAGO_PAGO })
+		{
+			assertPast(NOW, new DateTime(NOW - 1L, zone));
+			assertPresent(NOW, new DateTime(NOW, zone));
+			assertFuture(NOW, new DateTime(NOW + 1L, zone));
+			assertPast(NOW, new MutableDateTime(NOW - 1L, zone));
+			assertPresent(NOW, new MutableDateTime(NOW, zone));
+			assertFuture(NOW, new MutableDateTime(NOW + 1L, zone));
+		}
+		assertPast(NOW, new Instant(NOW - 1L));
+		assertPresent(NOW, new Instant(NOW));
+		assertFuture(NOW, new Instant(NOW + 1L));
+	}
+
+	@Test
+	public void testDateMidnight()
+	{
+		assertPast(NOW, new DateMidnight(2013, 6, 14));
+		assertPresent(NOW, new DateMidnight(2013, 6, 15));
+		assertFuture(NOW, new DateMidnight(2013, 6, 16));
+	}
+
+	@Test
+	public void testDateMidnightInAnotherZone()
+	{
+		// the date is compared with the current date in the value's zone, not in the default zone
+		assertPast(NOW, new DateMidnight(2013, 6, 15, KIRITIMATI));
+		assertPresent(NOW, new DateMidnight(2013, 6, 16, KIRITIMATI));
+		assertFuture(NOW, new DateMidnight(2013, 6, 17, KIRITIMATI));
+		assertPast(NOW, new DateMidnight(2013, 6, 14, PAGO_PAGO));
+		assertPresent(NOW, new DateMidnight(2013, 6, 15, PAGO_PAGO));
+		assertFuture(NOW, new DateMidnight(2013, 6, 16, PAGO_PAGO));
+		// four hours earlier it was still 2013-06-14 in Pago Pago
+		long earlier = NOW - 4L * 3600000L - 1L;
+		assertPresent(earlier, new DateMidnight(2013, 6, 14, PAGO_PAGO));
+		assertFuture(earlier, new DateMidnight(2013, 6, 15, PAGO_PAGO));
+		assertPresent(earlier, new DateMidnight(2013, 6, 15));
+	}
+
+	@Test
+	public void testLocalDateTime()
+	{
+		LocalDateTime now = new LocalDateTime(2013, 6, 15, 10, 30);
+		assertPast(NOW, now.minusMillis(1));
+		assertPresent(NOW, now);
+		assertFuture(NOW, now.plusMillis(1));
+		// 14:30 is the current time in UTC, but local types are compared in the default zone
+		assertFuture(NOW, new LocalDateTime(2013, 6, 15, 14, 30));
+		assertPresent(NOW, new LocalDateTime(2556, 6, 15, 10, 30, 0, 0, BuddhistChronology.getInstanceUTC()));
+	}
+
+	@Test
+	public void testLocalDateTimeAroundTransitions()
+	{
+		LocalDateTime spring = new LocalDateTime(2013, 3, 10, 3, 30);
+		assertPast(AFTER_SPRING_FORWARD, spring.minusMillis(1));
+		assertPresent(AFTER_SPRING_FORWARD, spring);
+		assertFuture(AFTER_SPRING_FORWARD, spring.plusMillis(1));
+		assertPast(AFTER_SPRING_FORWARD, new LocalDateTime(2013, 3, 10, 2, 30));
+
+		LocalDateTime fall = new LocalDateTime(2013, 11, 3, 1, 30);
+		assertPast(AFTER_FALL_BACK, fall.minusMillis(1));
+		assertPresent(AFTER_FALL_BACK, fall);
+		assertFuture(AFTER_FALL_BACK, fall.plusMillis(1));
+		assertFuture(AFTER_FALL_BACK, new LocalDateTime(2013, 11, 3, 1, 45));
+	}
+
+	@Test
+	public void testLocalDate()
+	{
+		assertPast(NOW, new LocalDate(2013, 6, 14));
+		assertPresent(NOW, new LocalDate(2013, 6, 15));
+		assertFuture(NOW, new LocalDate(2013, 6, 16));
+		assertPresent(NOW, new LocalDate(2556, 6, 15, BuddhistChronology.getInstanceUTC()));
+	}
+
+	@Test
+	public void testLocalTime()
+	{
+		LocalTime now = new LocalTime(10, 30);
+		assertPast(NOW, now.minusMillis(1));
+		assertPresent(NOW, now);
+		assertFuture(NOW, now.plusMillis(1));
+		assertPast(NOW, LocalTime.MIDNIGHT);
+		assertPresent(AFTER_FALL_BACK, new LocalTime(1, 30));
+	}
+
+	@Test
+	public void testYearMonth()
+	{
+		assertPast(NOW, new YearMonth(2013, 5));
+		assertPresent(NOW, new YearMonth(2013, 6));
+		assertFuture(NOW, new YearMonth(2013, 7));
+		assertPast(NOW, new YearMonth(2012, 12));
+		assertFuture(NOW, new YearMonth(2014, 1));
+	}
+
+	@Test
+	public void testMonths()
+	{
+		assertPast(NOW, Months.FIVE);
+		assertPresent(NOW, Months.SIX);
+		assertFuture(NOW, Months.SEVEN);
+	}
+
+	@Test
+	public void testYears()
+	{
+		assertPast(NOW, Years.years(2012));
+		assertPresent(NOW, Years.years(2013));
+		assertFuture(NOW, Years.years(2014));
+	}
+
+	@Test
+	public void testDays()
+	{
+		assertPast(NOW, Days.FIVE);
+		assertPresent(NOW, Days.SIX);
+		assertFuture(NOW, Days.SEVEN);
+		assertPast(NOW, Days.ONE);
+	}
+}